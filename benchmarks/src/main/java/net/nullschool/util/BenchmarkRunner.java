@@ -0,0 +1,51 @@
+package net.nullschool.util;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Runs the benchmarks at 1, 2, 4, ... threads, up to twice the number of cores, writing the results for each
+ * thread count to "jmh-N-threads.json". Arguments are passed to JMH, so a run can be narrowed, e.g.:
+ * <pre>
+ *     java -cp target/benchmarks.jar net.nullschool.util.BenchmarkRunner nextLong -p engine=rdrand,chacha
+ * </pre>
+ * To run at a single thread count, use JMH directly: {@code java -jar target/benchmarks.jar -t 4}.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        throw new AssertionError();
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (!Generators.HARDWARE) {
+            System.out.println("The processor's DRNG is unavailable. Measuring engines against MockRdRandEngine.");
+        }
+        int maxThreads = 2 * Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(2 * threads, maxThreads)) {
+            Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .threads(threads)
+                .result("jmh-" + threads + "-threads.json")
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+            new Runner(options).run();
+            if (threads == maxThreads) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package net.nullschool.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * JMH benchmarks of every public method of {@link DigitalRandom}, for each engine. Each benchmark runs with one
+ * generator shared by all threads, and with one generator per thread. Every result is returned to JMH so that
+ * no work is eliminated as dead code. See {@link BenchmarkRunner} for running at several thread counts.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DigitalRandomBenchmark {
+
+    private static final int INT_BOUND = 1000000;  // not a power of two, so some samples are rejected
+    private static final long LONG_BOUND = 1000000000000000L;
+    private static final int STREAM_SIZE = 1024;
+    private static final int SEED_SIZE = 32;
+    private static final long SAMPLE_RANGE = 10000000000L;
+    private static final int SAMPLE_SIZE = 1024;
+
+    /**
+     * The engine under test, and the generator shared by all threads.
+     */
+    @State(Scope.Benchmark)
+    public static class Engine {
+        @Param({"rdrand", "buffered", "prefetch", "chacha", "ctrdrbg", "urandom"})
+        public String engine;
+        DigitalRandom shared;
+
+        @Setup public void setup() {
+            shared = Generators.newDigitalRandom(engine);
+        }
+    }
+
+    /**
+     * The generator used by one thread: either the shared generator or one of its own.
+     */
+    @State(Scope.Thread)
+    public static class Generator {
+        @Param({"shared", "perThread"})
+        public String instances;
+        DigitalRandom random;
+
+        @Setup public void setup(Engine engine) {
+            random = instances.equals("shared") ? engine.shared : Generators.newDigitalRandom(engine.engine);
+        }
+    }
+
+    /**
+     * Per-thread arrays to fill, each {@code size} bytes long.
+     */
+    @State(Scope.Thread)
+    public static class Buffers {
+        @Param({"16", "256", "4096", "65536", "2097152"})
+        public int size;
+        byte[] bytes;
+        ByteBuffer buffer;
+        int[] ints;
+        long[] longs;
+        float[] floats;
+        double[] doubles;
+
+        @Setup public void setup() {
+            bytes = new byte[size];
+            buffer = ByteBuffer.allocateDirect(size);
+            ints = new int[size / 4];
+            longs = new long[size / 8];
+            floats = new float[size / 4];
+            doubles = new double[size / 8];
+        }
+    }
+
+    @Benchmark public boolean nextBoolean(Generator g) {
+        return g.random.nextBoolean();
+    }
+
+    @Benchmark public long nextBits(Generator g) {
+        return g.random.nextBits(7);
+    }
+
+    @Benchmark public int nextInt(Generator g) {
+        return g.random.nextInt();
+    }
+
+    @Benchmark public int nextIntBounded(Generator g) {
+        return g.random.nextInt(INT_BOUND);
+    }
+
+    @Benchmark public int nextIntRange(Generator g) {
+        return g.random.nextInt(-INT_BOUND, INT_BOUND);
+    }
+
+    @Benchmark public long nextLong(Generator g) {
+        return g.random.nextLong();
+    }
+
+    @Benchmark public long nextLongBounded(Generator g) {
+        return g.random.nextLong(LONG_BOUND);
+    }
+
+    @Benchmark public long nextLongRange(Generator g) {
+        return g.random.nextLong(-LONG_BOUND, LONG_BOUND);
+    }
+
+    @Benchmark public float nextFloat(Generator g) {
+        return g.random.nextFloat();
+    }
+
+    @Benchmark public double nextDouble(Generator g) {
+        return g.random.nextDouble();
+    }
+
+    @Benchmark public double nextDoubleRange(Generator g) {
+        return g.random.nextDouble(-1.0, 1.0);
+    }
+
+    @Benchmark public double nextGaussian(Generator g) {
+        return g.random.nextGaussian();
+    }
+
+    @Benchmark public UUID nextUUID(Generator g) {
+        return g.random.nextUUID();
+    }
+
+    @Benchmark public long[] nextUUIDs(Generator g, Buffers b) {
+        g.random.nextUUIDs(b.longs);
+        return b.longs;
+    }
+
+    @Benchmark public ByteBuffer nextUUIDsDirect(Generator g, Buffers b) {
+        b.buffer.clear();
+        g.random.nextUUIDs(b.buffer);
+        return b.buffer;
+    }
+
+    @Benchmark public byte[] generateSeed(Generator g) {
+        return g.random.generateSeed(SEED_SIZE);
+    }
+
+    @Benchmark public byte[] nextBytes(Generator g, Buffers b) {
+        g.random.nextBytes(b.bytes);
+        return b.bytes;
+    }
+
+    @Benchmark public ByteBuffer nextBytesDirect(Generator g, Buffers b) {
+        b.buffer.clear();
+        g.random.nextBytes(b.buffer);
+        return b.buffer;
+    }
+
+    @Benchmark public int[] nextInts(Generator g, Buffers b) {
+        g.random.nextInts(b.ints);
+        return b.ints;
+    }
+
+    @Benchmark public int[] nextIntsBounded(Generator g, Buffers b) {
+        g.random.nextInts(b.ints, INT_BOUND);
+        return b.ints;
+    }
+
+    @Benchmark public long[] nextLongs(Generator g, Buffers b) {
+        g.random.nextLongs(b.longs);
+        return b.longs;
+    }
+
+    @Benchmark public long[] nextLongsBounded(Generator g, Buffers b) {
+        g.random.nextLongs(b.longs, LONG_BOUND);
+        return b.longs;
+    }
+
+    @Benchmark public float[] nextFloats(Generator g, Buffers b) {
+        g.random.nextFloats(b.floats);
+        return b.floats;
+    }
+
+    @Benchmark public double[] nextDoubles(Generator g, Buffers b) {
+        g.random.nextDoubles(b.doubles);
+        return b.doubles;
+    }
+
+    @Benchmark public long[] sampleDistinct(Generator g) {
+        return g.random.sampleDistinct(SAMPLE_RANGE, SAMPLE_SIZE);
+    }
+
+    @Benchmark public double[] nextGaussians(Generator g, Buffers b) {
+        g.random.nextGaussians(b.doubles);
+        return b.doubles;
+    }
+
+    @Benchmark public float[] nextGaussiansFloat(Generator g, Buffers b) {
+        g.random.nextGaussians(b.floats);
+        return b.floats;
+    }
+
+    @Benchmark public long ints(Generator g) {
+        return g.random.ints(STREAM_SIZE, 0, INT_BOUND).asLongStream().sum();
+    }
+
+    @Benchmark public long longs(Generator g) {
+        return g.random.longs(STREAM_SIZE, 0, LONG_BOUND).sum();
+    }
+
+    @Benchmark public double doubles(Generator g) {
+        return g.random.doubles(STREAM_SIZE).sum();
+    }
+}
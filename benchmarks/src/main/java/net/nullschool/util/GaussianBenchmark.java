@@ -0,0 +1,92 @@
+package net.nullschool.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * JMH benchmarks of Gaussian sampling, comparing DigitalRandom's Ziggurat sampler on several engines with the
+ * JRE's synchronized polar method in {@link Random} and {@link SecureRandom}. Every thread shares one generator,
+ * so running at several thread counts shows how each scales under contention:
+ * <pre>
+ *     java -cp target/benchmarks.jar net.nullschool.util.BenchmarkRunner GaussianBenchmark
+ * </pre>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GaussianBenchmark {
+
+    private static final int BULK_SIZE = 4096;
+
+    /**
+     * The generator shared by all threads: a DigitalRandom engine, or "random" or "secureRandom" for the JRE.
+     */
+    @State(Scope.Benchmark)
+    public static class Generator {
+        @Param({"rdrand", "buffered", "chacha", "random", "secureRandom"})
+        public String generator;
+        Random random;
+
+        @Setup public void setup() {
+            switch (generator) {
+                case "random":
+                    random = new Random();
+                    break;
+                case "secureRandom":
+                    random = new SecureRandom();
+                    break;
+                default:
+                    random = Generators.newDigitalRandom(generator);
+            }
+        }
+    }
+
+    /**
+     * Per-thread arrays to fill.
+     */
+    @State(Scope.Thread)
+    public static class Buffers {
+        final double[] doubles = new double[BULK_SIZE];
+        final float[] floats = new float[BULK_SIZE];
+    }
+
+    @Benchmark public double nextGaussian(Generator g) {
+        return g.random.nextGaussian();
+    }
+
+    @Benchmark public double[] nextGaussians(Generator g, Buffers b) {
+        if (g.random instanceof DigitalRandom) {
+            ((DigitalRandom)g.random).nextGaussians(b.doubles);
+        }
+        else {
+            for (int i = 0; i < b.doubles.length; i++) {
+                b.doubles[i] = g.random.nextGaussian();
+            }
+        }
+        return b.doubles;
+    }
+
+    @Benchmark public float[] nextGaussiansFloat(Generator g, Buffers b) {
+        if (g.random instanceof DigitalRandom) {
+            ((DigitalRandom)g.random).nextGaussians(b.floats);
+        }
+        else {
+            for (int i = 0; i < b.floats.length; i++) {
+                b.floats[i] = (float)g.random.nextGaussian();
+            }
+        }
+        return b.floats;
+    }
+}
@@ -0,0 +1,90 @@
+package net.nullschool.util;
+
+import java.lang.reflect.Constructor;
+import java.util.Random;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Creates the DigitalRandom instances measured by the benchmarks. When the processor's DRNG is unavailable, the
+ * engines that draw from it draw from a {@link MockRdRandEngine} instead, so that the Java side of each engine
+ * can still be measured on any machine.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class Generators {
+
+    static final boolean HARDWARE = isHardwareAvailable();
+    private static final int MOCK_VALUES = 4096;
+
+
+    private Generators() {
+        throw new AssertionError();
+    }
+
+    private static boolean isHardwareAvailable() {
+        try {
+            return RdRandEngine.linkAndCheckRdRandSupported();
+        }
+        catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private static DigitalRandom wrap(DigitalRandomSpi spi) {
+        try {
+            Constructor<DigitalRandom> constructor = DigitalRandom.class.getDeclaredConstructor(DigitalRandomSpi.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(spi);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the processor's DRNG, or a mock that cycles through a few thousand pseudorandom values.
+     */
+    static DigitalRandomSpi newSource() {
+        if (HARDWARE) {
+            return EngineTools.newRdRandEngine();
+        }
+        long[] values = new long[MOCK_VALUES];
+        Random random = new Random(1);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong();
+        }
+        return new MockRdRandEngine(values);
+    }
+
+    /**
+     * Creates a generator backed by the named engine: "rdrand", "buffered", "prefetch", "chacha", "ctrdrbg",
+     * or "urandom".
+     *
+     * @throws UnsupportedOperationException if the engine needs the processor's DRNG but it is unavailable.
+     */
+    static DigitalRandom newDigitalRandom(String engine) {
+        switch (engine) {
+            case "rdrand":
+                return wrap(newSource());
+            case "buffered":
+                if (!HARDWARE) {
+                    throw new UnsupportedOperationException("The buffered engine requires the processor's DRNG.");
+                }
+                return DigitalRandom.newBufferedInstance();
+            case "prefetch":
+                return wrap(new PrefetchEngine(newSource()));
+            case "chacha":
+                return wrap(new ChaChaEngine(newSource()));
+            case "ctrdrbg":
+                return wrap(new CtrDrbgEngine(newSource(), false));
+            case "urandom":
+                return DigitalRandom.newSoftwareInstance();
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+    }
+}
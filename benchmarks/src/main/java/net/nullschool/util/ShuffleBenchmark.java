@@ -0,0 +1,80 @@
+package net.nullschool.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * JMH benchmarks of DigitalRandom's batched shuffles, compared with {@link Collections#shuffle(List,
+ * java.util.Random)}, which draws each swap index with a separate call to nextInt. Each thread shuffles its own
+ * arrays, and the parallel shuffle uses the common pool, so run at a single thread count:
+ * <pre>
+ *     java -jar target/benchmarks.jar ShuffleBenchmark -t 1
+ * </pre>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShuffleBenchmark {
+
+    @State(Scope.Thread)
+    public static class Data {
+        @Param({"rdrand", "buffered", "chacha"})
+        public String engine;
+        @Param({"1000", "1000000", "16000000"})
+        public int size;
+        DigitalRandom random;
+        int[] ints;
+        Integer[] objects;
+        List<Integer> list;
+
+        @Setup public void setup() {
+            random = Generators.newDigitalRandom(engine);
+            ints = new int[size];
+            objects = new Integer[size];
+            list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ints[i] = i;
+                objects[i] = i;
+                list.add(i);
+            }
+        }
+    }
+
+    @Benchmark public List<Integer> collectionsShuffle(Data d) {
+        Collections.shuffle(d.list, d.random);
+        return d.list;
+    }
+
+    @Benchmark public List<Integer> shuffleList(Data d) {
+        d.random.shuffle(d.list);
+        return d.list;
+    }
+
+    @Benchmark public Integer[] shuffleObjects(Data d) {
+        d.random.shuffle(d.objects);
+        return d.objects;
+    }
+
+    @Benchmark public int[] shuffleInts(Data d) {
+        d.random.shuffle(d.ints);
+        return d.ints;
+    }
+
+    @Benchmark public int[] parallelShuffleInts(Data d) {
+        d.random.parallelShuffle(d.ints);
+        return d.ints;
+    }
+}
@@ -0,0 +1,72 @@
+package net.nullschool.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * JMH benchmarks of UUID generation and formatting: {@link UUIDv7Generator} one at a time and in bulk, and
+ * {@link UUIDFormat} against {@link UUID#toString()}. One v7 generator is shared by all threads, so runs with
+ * several threads also measure contention for its lock.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UUIDBenchmark {
+
+    private static final int BULK_SIZE = 256;
+
+    @State(Scope.Benchmark)
+    public static class Generator {
+        @Param({"rdrand", "buffered", "chacha"})
+        public String engine;
+        DigitalRandom random;
+        UUIDv7Generator v7;
+
+        @Setup public void setup() {
+            random = Generators.newDigitalRandom(engine);
+            v7 = new UUIDv7Generator(random);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Buffers {
+        final long[] pairs = new long[BULK_SIZE * 2];
+        final char[] chars = new char[UUIDFormat.LENGTH];
+        final byte[] bytes = new byte[UUIDFormat.LENGTH];
+        final UUID uuid = UUID.randomUUID();
+    }
+
+    @Benchmark public UUID v7(Generator g) {
+        return g.v7.next();
+    }
+
+    @Benchmark public long[] v7Bulk(Generator g, Buffers b) {
+        g.v7.next(b.pairs);
+        return b.pairs;
+    }
+
+    @Benchmark public String uuidToString(Buffers b) {
+        return b.uuid.toString();
+    }
+
+    @Benchmark public char[] formatChars(Buffers b) {
+        UUIDFormat.format(b.uuid, b.chars, 0);
+        return b.chars;
+    }
+
+    @Benchmark public byte[] formatBytes(Buffers b) {
+        UUIDFormat.format(b.uuid.getMostSignificantBits(), b.uuid.getLeastSignificantBits(), b.bytes, 0);
+        return b.bytes;
+    }
+}
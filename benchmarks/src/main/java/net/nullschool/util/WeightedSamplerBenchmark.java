@@ -0,0 +1,77 @@
+package net.nullschool.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * JMH benchmarks of weighted selection: {@link WeightedSampler}'s alias table against a binary search of
+ * cumulative weights driven by {@link DigitalRandom#nextDouble()}, the usual alternative. One sampler is shared by
+ * all threads, as a request router would share it.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeightedSamplerBenchmark {
+
+    private static final int BULK_SIZE = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Weights {
+        @Param({"rdrand", "buffered", "chacha"})
+        public String engine;
+        @Param({"8", "1000"})
+        public int count;
+        DigitalRandom random;
+        WeightedSampler sampler;
+        double[] cumulative;
+
+        @Setup public void setup() {
+            random = Generators.newDigitalRandom(engine);
+            double[] weights = new double[count];
+            cumulative = new double[count];
+            double sum = 0;
+            for (int i = 0; i < count; i++) {
+                weights[i] = 1 + i % 7;
+                cumulative[i] = sum += weights[i];
+            }
+            for (int i = 0; i < count; i++) {
+                cumulative[i] /= sum;
+            }
+            sampler = IntSampler.weighted(random, weights);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Buffers {
+        final int[] ints = new int[BULK_SIZE];
+    }
+
+    @Benchmark public int aliasNext(Weights w) {
+        return w.sampler.next();
+    }
+
+    @Benchmark public int[] aliasFill(Weights w, Buffers b) {
+        w.sampler.fill(b.ints);
+        return b.ints;
+    }
+
+    @Benchmark public int binarySearch(Weights w) {
+        int i = Arrays.binarySearch(w.cumulative, w.random.nextDouble());
+        return Math.min(i < 0 ? -i - 1 : i + 1, w.count - 1);
+    }
+
+    @Benchmark public WeightedSampler rebuild(Weights w) {
+        return w.sampler.reweight(w.cumulative);
+    }
+}
@@ -12,9 +12,13 @@
 #include "RdRandEngine.h"
 
 #include <stdint.h>
+#include <string.h>
 #if defined(_MSC_VER)
     #include <intrin.h>
     #include <immintrin.h>
+    #include <windows.h>
+#else
+    #include <sched.h>
 #endif
 
 // Standardize terminology between different compilers.
@@ -26,8 +30,52 @@
 
 static const char* ILLEGAL_STATE_EXCEPTION = "java/lang/IllegalStateException";
 static const char* ILLEGAL_ARGUMENT_EXCEPTION = "java/lang/IllegalArgumentException";
+static const char* ARRAY_INDEX_OUT_OF_BOUNDS_EXCEPTION = "java/lang/ArrayIndexOutOfBoundsException";
 static const char* VALUE_NOT_AVAILABLE = "Random value unavailable.";
-static const int MAX_ATTEMPTS = 10;
+static const int MAX_SEED_ATTEMPTS = 100;  // rdseed fails more readily than rdrand, so try harder
+
+// Marks the functions that Java 22 and later call directly through the Foreign Function & Memory API.
+#if defined(_MSC_VER)
+    #define DRNGLIB_EXPORT __declspec(dllexport)
+#else
+    #define DRNGLIB_EXPORT __attribute__((visibility("default")))
+#endif
+
+// Indices of the failure counters reported by engineNativeCounters.
+#define RDRAND_RETRIES 0     // rdrand steps that failed and were tried again
+#define RDRAND_UNDERFLOWS 1  // rdrand operations that gave up when the retry policy ran out
+#define RDSEED_RETRIES 2     // rdseed steps that failed and were tried again
+#define RDSEED_UNDERFLOWS 3  // rdseed operations that gave up after MAX_SEED_ATTEMPTS
+#define COUNTER_COUNT 4
+
+static volatile int64_t counters[COUNTER_COUNT];
+
+// The rdrand retry policy, set by engineSetRetryPolicy. After a failed attempt, rdrand is retried at most
+// retrySpins times immediately, then at most retryPauses times after a spin-wait that doubles with each
+// retry, then at most retryYields times after yielding the processor to other threads. The defaults try
+// ten times immediately, as the DRNG guide recommends, then back off briefly before giving up.
+static volatile int retrySpins = 9;
+static volatile int retryPauses = 10;
+static volatile int retryYields = 0;
+#define MAX_PAUSE_SHIFT 10  // at most 1024 pause instructions between retries
+
+// Declares a variable with one instance per thread.
+#if defined(_MSC_VER)
+    #define THREAD_LOCAL __declspec(thread)
+#else
+    #define THREAD_LOCAL __thread
+#endif
+
+// The rdrand retries made by the current thread, reported by engineThreadRetries. Only failures touch it.
+static THREAD_LOCAL int64_t threadRetries;
+
+// Set while the current thread runs where the garbage collector cannot proceed: filling a Java array inside a
+// critical region, or called through a critical FFM downcall. Pausing or yielding there would hold off the
+// collector, so backoff gives up after the spin stage instead, and the caller finishes outside.
+static THREAD_LOCAL int threadSpinOnly;
+
+#define CRITICAL_CHUNK_SIZE (64 * 1024)  // bytes of a Java array to fill per critical section
+#define STAGING_SIZE 4096                // bytes of native staging buffer when critical access copies
 
 #if defined(__GNUC__)
     /**
@@ -39,6 +87,23 @@ static const int MAX_ATTEMPTS = 10;
             "=a"(result[0]), "=b"(result[1]), "=c"(result[2]), "=d"(result[3]) :
             "a"(function));
     }
+
+    /**
+     * Same as __cpuid, but for functions that take a subfunction in ECX.
+     */
+    void __cpuidex(int* result, int function, int subfunction) {
+        __asm volatile(
+            "cpuid" :
+            "=a"(result[0]), "=b"(result[1]), "=c"(result[2]), "=d"(result[3]) :
+            "a"(function), "c"(subfunction));
+    }
+
+    /**
+     * Hint to the processor that we are spinning.
+     */
+    void _mm_pause() {
+        __asm volatile("pause");
+    }
 #endif
 
 /**
@@ -57,6 +122,22 @@ int checkSupported() {
     return 0;
 }
 
+/**
+ * Returns non-zero value if the processor supports the rdseed instruction.
+ */
+int checkRdSeedSupported() {
+    int info[4];
+    __cpuid(info, 0);  // get vendor id and highest function
+    if (info[1] == *(int*)"Genu" &&  // EBX
+        info[3] == *(int*)"ineI" &&  // EDX
+        info[2] == *(int*)"ntel" &&  // ECX
+        info[0] >= 7) {              // EAX
+        __cpuidex(info, 7, 0);  // get extended feature bits
+        return (info[1] & 0x00040000) != 0;  // test EBX for rdseed support flag
+    }
+    return 0;
+}
+
 #if defined(__GNUC__)
     /**
      * Generate 32 bits of random data with rdrand. Returns 0 if the operation failed.
@@ -74,15 +155,79 @@ int checkSupported() {
 #endif
 
 /**
- * Generate 32 bits of random data. Upon failure, retry the operation several times
- * before giving up.
+ * Atomically increment the specified failure counter. Only failure paths count, so the common path
+ * pays nothing.
  */
-int rdrand32(uint32_t* result) {
-    int success;
-    int attempts = MAX_ATTEMPTS;
-    while (!(success = _rdrand32_step(result)) && --attempts != 0) {
+void countFailure(int counter) {
+    #if defined(_MSC_VER)
+        int64_t old;
+        do {
+            old = counters[counter];
+        } while (_InterlockedCompareExchange64(&counters[counter], old + 1, old) != old);
+    #else
+        __sync_fetch_and_add(&counters[counter], 1);
+    #endif
+}
+
+/**
+ * Yield the processor to another thread, if one is ready to run.
+ */
+void yieldProcessor() {
+    #if defined(_MSC_VER)
+        SwitchToThread();
+    #else
+        sched_yield();
+    #endif
+}
+
+/**
+ * Called after rdrand failed on the specified attempt (counting from 1). Waits as the retry policy
+ * prescribes and returns non-zero if the operation should be retried, or returns 0 if the policy is
+ * exhausted.
+ */
+int backoff(int attempt) {
+    int retry = attempt;  // the number of the retry about to be made
+    int spins = retrySpins;
+    int pauses = retryPauses;
+    int yields = retryYields;
+    if (retry <= spins) {
+        countFailure(RDRAND_RETRIES);
     }
-    return success;
+    else if (threadSpinOnly) {
+        return 0;  // leave the critical region before waiting; see rdrandFillArray and rdrand32Spin
+    }
+    else if (retry <= spins + pauses) {
+        int shift = retry - spins - 1;
+        int i;
+        for (i = 1 << (shift < MAX_PAUSE_SHIFT ? shift : MAX_PAUSE_SHIFT); i > 0; i--) {
+            _mm_pause();
+        }
+        countFailure(RDRAND_RETRIES);
+    }
+    else if (retry <= spins + pauses + yields) {
+        yieldProcessor();
+        countFailure(RDRAND_RETRIES);
+    }
+    else {
+        countFailure(RDRAND_UNDERFLOWS);
+        return 0;
+    }
+    threadRetries++;
+    return 1;
+}
+
+/**
+ * Generate 32 bits of random data. Upon failure, retry the operation as the retry policy allows.
+ * Returns the number of attempts made, or 0 if the operation failed.
+ */
+DRNGLIB_EXPORT int rdrand32(uint32_t* result) {
+    int attempts = 1;
+    while (!_rdrand32_step(result)) {
+        if (!backoff(attempts++)) {
+            return 0;
+        }
+    }
+    return attempts;
 }
 
 #if defined(_X86)
@@ -117,15 +262,76 @@ int rdrand32(uint32_t* result) {
 #endif
 
 /**
- * Generate 64 bits of random data. Upon failure, retry the operation several times
- * before giving up.
+ * Generate 64 bits of random data. Upon failure, retry the operation as the retry policy allows.
+ * Returns the number of attempts made, or 0 if the operation failed.
  */
-int rdrand64(uint64_t* result) {
-    int success;
-    int attempts = MAX_ATTEMPTS;
-    while (!(success = _rdrand64_step(result)) && --attempts != 0) {
+DRNGLIB_EXPORT int rdrand64(uint64_t* result) {
+    int attempts = 1;
+    while (!_rdrand64_step(result)) {
+        if (!backoff(attempts++)) {
+            return 0;
+        }
     }
-    return success;
+    return attempts;
+}
+
+#if defined(__GNUC__)
+    /**
+     * Generate 32 bits of seed data with rdseed. Returns 0 if no seed data was available.
+     *
+     * As with rdrand, manually specify the instruction in case GCC is too old to understand it.
+     */
+    int _rdseed32_step(uint32_t* result) {
+        unsigned char success;
+        __asm volatile(
+            ".byte 0x0f; .byte 0xc7; .byte 0xf8; setc %1" :
+            "=a"(*result), "=qm"(success));
+        return success;
+    }
+#endif
+
+#if defined(_X86)
+    /**
+     * Generate 64 bits of seed data with rdseed by invoking 32-bit rdseed twice. Returns 0 if no seed data
+     * was available.
+     */
+    int _rdseed64_step(uint64_t* result) {
+        uint32_t* halves = (uint32_t*)result;
+        int success = _rdseed32_step(&halves[0]) && _rdseed32_step(&halves[1]);
+        if (!success) {
+            halves[0] = halves[1] = 0;
+        }
+        return success;
+    }
+#elif defined(__GNUC__)
+    /**
+     * Generate 64 bits of seed data with rdseed. Returns 0 if no seed data was available.
+     */
+    int _rdseed64_step(uint64_t* result) {
+        unsigned char success;
+        __asm volatile(
+            ".byte 0x48; .byte 0x0f; .byte 0xc7; .byte 0xf8; setc %1" :
+            "=a"(*result), "=qm"(success));
+        return success;
+    }
+#endif
+
+/**
+ * Generate 64 bits of seed data. Unlike rdrand, rdseed fails whenever the entropy source has not yet
+ * produced enough fresh entropy, which is expected under load. So upon failure, pause briefly to let
+ * the entropy source catch up and retry many times before giving up.
+ */
+int rdseed64(uint64_t* result) {
+    int attempts = MAX_SEED_ATTEMPTS;
+    while (!_rdseed64_step(result)) {
+        if (--attempts == 0) {
+            countFailure(RDSEED_UNDERFLOWS);
+            return 0;
+        }
+        countFailure(RDSEED_RETRIES);
+        _mm_pause();
+    }
+    return 1;
 }
 
 /**
@@ -193,7 +399,7 @@ int rdrand64_fill(uint8_t* cursor, uint8_t* end) {
  * Aligned blocks "A" and "B" are filled eight bytes at a time. Residual bytes not belonging
  * to an aligned block, marked "x", are filled byte-by-byte.
  */
-int rdrandFill(uint8_t* buffer, int length) {
+DRNGLIB_EXPORT int rdrandFill(uint8_t* buffer, int length) {
     #if defined(_X86)
         #define ALIGNMENT 4  // fill buffer four bytes at a time
         uint8_t* start = buffer;
@@ -243,6 +449,187 @@ int rdrandFill(uint8_t* buffer, int length) {
     #endif
 }
 
+/**
+ * Variants of rdrand32, rdrand64, and rdrandFill for callers that hold off the garbage collector while they
+ * run, such as critical FFM downcalls. Only the spin stage of the retry policy is followed: if it runs out,
+ * 0 is returned without counting an underflow, and the caller is expected to retry with the full policy
+ * through rdrand32, rdrand64, or rdrandFill after leaving the critical state.
+ */
+DRNGLIB_EXPORT int rdrand32Spin(uint32_t* result) {
+    int attempts;
+    threadSpinOnly = 1;
+    attempts = rdrand32(result);
+    threadSpinOnly = 0;
+    return attempts;
+}
+
+DRNGLIB_EXPORT int rdrand64Spin(uint64_t* result) {
+    int attempts;
+    threadSpinOnly = 1;
+    attempts = rdrand64(result);
+    threadSpinOnly = 0;
+    return attempts;
+}
+
+DRNGLIB_EXPORT int rdrandFillSpin(uint8_t* buffer, int length) {
+    int success;
+    threadSpinOnly = 1;
+    success = rdrandFill(buffer, length);
+    threadSpinOnly = 0;
+    return success;
+}
+
+/**
+ * Fill "count" 32-bit floats uniformly distributed in [0.0, 1.0), in units of 2^-24, converting each
+ * rdrand sample as it is generated.
+ */
+int rdrandFillFloats(void* elements, jint count) {
+    float* cursor = (float*)elements;
+    float* end = cursor + count;
+    uint32_t value;
+    for (; cursor < end; cursor++) {
+        if (!rdrand32(&value)) {
+            return 0;
+        }
+        *cursor = (float)(value & 0x00ffffff) * (1.0f / 16777216.0f);  // 24 bits, scale 2^-24
+    }
+    return 1;
+}
+
+/**
+ * Fill "count" 64-bit doubles uniformly distributed in [0.0, 1.0), in units of 2^-53, converting each
+ * rdrand sample as it is generated.
+ */
+int rdrandFillDoubles(void* elements, jint count) {
+    double* cursor = (double*)elements;
+    double* end = cursor + count;
+    uint64_t value;
+    for (; cursor < end; cursor++) {
+        if (!rdrand64(&value)) {
+            return 0;
+        }
+        *cursor = (double)(value & 0x001fffffffffffffULL) * (1.0 / 9007199254740992.0);  // 53 bits, scale 2^-53
+    }
+    return 1;
+}
+
+/**
+ * Fill "count" bytes, ints, or longs with random data. The bits are used as-is, so fill them as raw bytes.
+ */
+int rdrandFillBytes(void* elements, jint count) {
+    return rdrandFill((uint8_t*)elements, count);
+}
+
+int rdrandFillInts(void* elements, jint count) {
+    return rdrandFill((uint8_t*)elements, count * 4);
+}
+
+int rdrandFillLongs(void* elements, jint count) {
+    return rdrandFill((uint8_t*)elements, count * 8);
+}
+
+/**
+ * Copy "count" elements into the Java array, starting at element "start".
+ */
+void setBytes(JNIEnv* env, jarray array, jint start, jint count, void* elements) {
+    (*env)->SetByteArrayRegion(env, (jbyteArray)array, start, count, (jbyte*)elements);
+}
+
+void setInts(JNIEnv* env, jarray array, jint start, jint count, void* elements) {
+    (*env)->SetIntArrayRegion(env, (jintArray)array, start, count, (jint*)elements);
+}
+
+void setLongs(JNIEnv* env, jarray array, jint start, jint count, void* elements) {
+    (*env)->SetLongArrayRegion(env, (jlongArray)array, start, count, (jlong*)elements);
+}
+
+void setFloats(JNIEnv* env, jarray array, jint start, jint count, void* elements) {
+    (*env)->SetFloatArrayRegion(env, (jfloatArray)array, start, count, (jfloat*)elements);
+}
+
+void setDoubles(JNIEnv* env, jarray array, jint start, jint count, void* elements) {
+    (*env)->SetDoubleArrayRegion(env, (jdoubleArray)array, start, count, (jdouble*)elements);
+}
+
+/**
+ * Describes how to fill one kind of Java primitive array: the size of each element in bytes, how to fill
+ * elements with random values, and how to copy elements into the Java array.
+ */
+typedef struct {
+    jint size;
+    int (*fill)(void* elements, jint count);
+    void (*setRegion)(JNIEnv* env, jarray array, jint start, jint count, void* elements);
+    const char* nullMessage;
+} ElementType;
+
+static const ElementType BYTES = {1, rdrandFillBytes, setBytes, "null byte array."};
+static const ElementType INTS = {4, rdrandFillInts, setInts, "null int array."};
+static const ElementType LONGS = {8, rdrandFillLongs, setLongs, "null long array."};
+static const ElementType FLOATS = {4, rdrandFillFloats, setFloats, "null float array."};
+static const ElementType DOUBLES = {8, rdrandFillDoubles, setDoubles, "null double array."};
+
+/**
+ * Fill "length" elements of the Java array, starting at element "offset", by first filling a small native
+ * staging buffer and then copying it into the array. Returns 0 if rdrand failed.
+ */
+int rdrandFillArrayStaged(JNIEnv* env, jarray array, const ElementType* type, jint offset, jint length) {
+    uint64_t staging[STAGING_SIZE / 8];  // declared as uint64_t to align for any element type
+    jint capacity = STAGING_SIZE / type->size;
+    int success = 1;
+    while (length > 0 && success) {
+        jint count = length < capacity ? length : capacity;
+        if ((success = type->fill(staging, count))) {
+            type->setRegion(env, array, offset, count, staging);
+        }
+        offset += count;
+        length -= count;
+    }
+    memset(staging, 0, sizeof(staging));  // don't leave random data behind on the stack
+    return success;
+}
+
+/**
+ * Fill "length" elements of the Java array, starting at element "offset", with random values. The array is
+ * written in place: the region is filled one chunk at a time, each inside its own critical section, so the
+ * garbage collector is never held off for longer than it takes to fill one chunk. Get<Type>ArrayElements, in
+ * contrast, copies the entire array out and back in again, doubling memory traffic and temporarily requiring
+ * native memory equal to the size of the array.
+ *
+ * A JVM is permitted to hand out a copy even for critical access. Filling chunk by chunk would then copy the
+ * whole array once per chunk, so in that case fall back to filling through a small staging buffer instead.
+ * Retries inside the critical region are limited to the spin stage of the retry policy. If those run out,
+ * the region is released and the rest of the array is filled through the staging buffer, where the policy's
+ * pauses and yields no longer stall the garbage collector.
+ * Returns 1 on success, 0 if rdrand failed, or -1 if the JVM failed to provide the array and has already
+ * raised an exception.
+ */
+int rdrandFillArray(JNIEnv* env, jarray array, const ElementType* type, jint offset, jint length) {
+    jint chunk = CRITICAL_CHUNK_SIZE / type->size;
+    while (length > 0) {
+        jint count = length < chunk ? length : chunk;
+        jboolean isCopy = JNI_FALSE;
+        int success;
+        uint8_t* base = (uint8_t*)(*env)->GetPrimitiveArrayCritical(env, array, &isCopy);
+        if (base == NULL) {
+            return -1;
+        }
+        if (isCopy) {
+            (*env)->ReleasePrimitiveArrayCritical(env, array, base, JNI_ABORT);
+            return rdrandFillArrayStaged(env, array, type, offset, length);
+        }
+        threadSpinOnly = 1;
+        success = type->fill(base + (size_t)offset * type->size, count);
+        threadSpinOnly = 0;
+        (*env)->ReleasePrimitiveArrayCritical(env, array, base, 0);
+        if (!success) {
+            return rdrandFillArrayStaged(env, array, type, offset, length);
+        }
+        offset += count;
+        length -= count;
+    }
+    return 1;
+}
+
 jint throwNew(JNIEnv* env, const char* className, const char* message) {
     return (*env)->ThrowNew(env, (*env)->FindClass(env, className), message);
 }
@@ -257,6 +644,87 @@ Java_net_nullschool_util_RdRandEngine_isRdRandSupported(JNIEnv* env, jclass claz
     return checkSupported();
 }
 
+JNIEXPORT jboolean JNICALL
+Java_net_nullschool_util_RdRandEngine_isRdSeedSupported(JNIEnv* env, jclass clazz) {
+    return checkRdSeedSupported();
+}
+
+JNIEXPORT void JNICALL
+Java_net_nullschool_util_RdRandEngine_engineNativeCounters(JNIEnv* env, jclass clazz, jlongArray result) {
+    jlong snapshot[COUNTER_COUNT];
+    jint length;
+    int i;
+
+    if (result == NULL) {
+        throwNew(env, ILLEGAL_ARGUMENT_EXCEPTION, "null array.");
+        return;
+    }
+    for (i = 0; i < COUNTER_COUNT; i++) {
+        snapshot[i] = counters[i];
+    }
+    length = (*env)->GetArrayLength(env, result);
+    (*env)->SetLongArrayRegion(env, result, 0, length < COUNTER_COUNT ? length : COUNTER_COUNT, snapshot);
+}
+
+JNIEXPORT void JNICALL
+Java_net_nullschool_util_RdRandEngine_engineSetRetryPolicy(
+    JNIEnv* env, jclass clazz, jint spins, jint pauses, jint yields) {
+    if (spins < 0 || pauses < 0 || yields < 0) {
+        throwNew(env, ILLEGAL_ARGUMENT_EXCEPTION, "negative retry count.");
+        return;
+    }
+    retrySpins = spins;
+    retryPauses = pauses;
+    retryYields = yields;
+}
+
+JNIEXPORT jlong JNICALL
+Java_net_nullschool_util_RdRandEngine_engineThreadRetries(JNIEnv* env, jclass clazz) {
+    return threadRetries;
+}
+
+JNIEXPORT jint JNICALL
+Java_net_nullschool_util_RdRandEngine_engineNextSeedBytes(
+    JNIEnv* env,
+    jclass clazz,
+    jbyteArray bytes,
+    jint offset,
+    jint length) {
+
+    uint64_t staging[32];
+    jint filled = 0;
+
+    if (bytes == NULL) {
+        throwNew(env, ILLEGAL_ARGUMENT_EXCEPTION, BYTES.nullMessage);
+        return 0;
+    }
+    if (offset < 0 || length < 0 || offset > (*env)->GetArrayLength(env, bytes) - length) {
+        throwNew(env, ARRAY_INDEX_OUT_OF_BOUNDS_EXCEPTION, NULL);
+        return 0;
+    }
+
+    // Seeds are small, so stage them on the stack and copy them into the array. Stop at the first word
+    // rdseed cannot provide, but keep everything generated so far.
+    while (filled < length) {
+        jint count = length - filled < (jint)sizeof(staging) ? length - filled : (jint)sizeof(staging);
+        jint words = (count + 7) / 8;
+        jint generated = 0;
+        while (generated < words && rdseed64(&staging[generated])) {
+            generated++;
+        }
+        if (generated * 8 < count) {
+            count = generated * 8;
+        }
+        (*env)->SetByteArrayRegion(env, bytes, offset + filled, count, (jbyte*)staging);
+        filled += count;
+        if (generated < words) {
+            break;
+        }
+    }
+    memset(staging, 0, sizeof(staging));  // don't leave seed data behind on the stack
+    return filled;
+}
+
 JNIEXPORT jint JNICALL
 Java_net_nullschool_util_RdRandEngine_engineNextInt(JNIEnv* env, jobject obj) {
     uint32_t result;
@@ -275,29 +743,84 @@ Java_net_nullschool_util_RdRandEngine_engineNextLong(JNIEnv* env, jobject obj) {
     return result;
 }
 
+/**
+ * Validate the arguments, then fill the specified region of the Java array. Any failure is raised as a Java
+ * exception.
+ */
+void fillArrayRegion(JNIEnv* env, jarray array, const ElementType* type, jint offset, jint length) {
+    if (array == NULL) {
+        throwNew(env, ILLEGAL_ARGUMENT_EXCEPTION, type->nullMessage);
+        return;
+    }
+    if (offset < 0 || length < 0 || offset > (*env)->GetArrayLength(env, array) - length) {
+        throwNew(env, ARRAY_INDEX_OUT_OF_BOUNDS_EXCEPTION, "Range exceeds array length.");
+        return;
+    }
+
+    if (rdrandFillArray(env, array, type, offset, length) == 0) {
+        throwNew(env, ILLEGAL_STATE_EXCEPTION, VALUE_NOT_AVAILABLE);
+    }
+}
+
 JNIEXPORT void JNICALL
 Java_net_nullschool_util_RdRandEngine_engineNextBytes(JNIEnv* env, jobject obj, jbyteArray bytes) {
-    jbyte* buffer;
-    jsize length;
+    fillArrayRegion(env, bytes, &BYTES, 0, bytes == NULL ? 0 : (*env)->GetArrayLength(env, bytes));
+}
 
-    if (bytes == NULL) {
-        throwNew(env, ILLEGAL_ARGUMENT_EXCEPTION, "null byte array.");
+JNIEXPORT void JNICALL
+Java_net_nullschool_util_RdRandEngine_engineNextBytesRange(
+    JNIEnv* env, jobject obj, jbyteArray bytes, jint offset, jint length) {
+    fillArrayRegion(env, bytes, &BYTES, offset, length);
+}
+
+JNIEXPORT void JNICALL
+Java_net_nullschool_util_RdRandEngine_engineFillInts(
+    JNIEnv* env, jobject obj, jintArray ints, jint offset, jint length) {
+    fillArrayRegion(env, ints, &INTS, offset, length);
+}
+
+JNIEXPORT void JNICALL
+Java_net_nullschool_util_RdRandEngine_engineFillLongs(
+    JNIEnv* env, jobject obj, jlongArray longs, jint offset, jint length) {
+    fillArrayRegion(env, longs, &LONGS, offset, length);
+}
+
+JNIEXPORT void JNICALL
+Java_net_nullschool_util_RdRandEngine_engineFillFloats(
+    JNIEnv* env, jobject obj, jfloatArray floats, jint offset, jint length) {
+    fillArrayRegion(env, floats, &FLOATS, offset, length);
+}
+
+JNIEXPORT void JNICALL
+Java_net_nullschool_util_RdRandEngine_engineFillDoubles(
+    JNIEnv* env, jobject obj, jdoubleArray doubles, jint offset, jint length) {
+    fillArrayRegion(env, doubles, &DOUBLES, offset, length);
+}
+
+JNIEXPORT void JNICALL
+Java_net_nullschool_util_RdRandEngine_engineNextBytesDirect(
+    JNIEnv* env, jobject obj, jobject byteBuffer, jint offset, jint length) {
+    uint8_t* address;
+    jlong capacity;
+
+    if (byteBuffer == NULL) {
+        throwNew(env, ILLEGAL_ARGUMENT_EXCEPTION, "null byte buffer.");
         return;
     }
 
-    // CONSIDER: GetByteArrayElements seems to always copy. Maybe that's okay even if input array is 100MB.
-    //           But perhaps it would be better to fill the java array in chunks using SetByteArrayRegion, to
-    //           avoid a huge array copy.
-    length = (*env)->GetArrayLength(env, bytes);
-    buffer = (*env)->GetByteArrayElements(env, bytes, NULL);
-    if (buffer == NULL) {
-        throwNew(env, ILLEGAL_ARGUMENT_EXCEPTION, "Failed to get byte array.");
+    address = (uint8_t*)(*env)->GetDirectBufferAddress(env, byteBuffer);
+    capacity = (*env)->GetDirectBufferCapacity(env, byteBuffer);
+    if (address == NULL || capacity < 0) {
+        throwNew(env, ILLEGAL_ARGUMENT_EXCEPTION, "Byte buffer is not direct.");
+        return;
+    }
+    if (offset < 0 || length < 0 || offset > capacity - length) {
+        throwNew(env, ILLEGAL_ARGUMENT_EXCEPTION, "Range exceeds byte buffer capacity.");
         return;
     }
 
-    if (!rdrandFill((uint8_t*)buffer, length)) {
+    // The buffer's memory lives outside the Java heap, so rdrand can write to it in place.
+    if (!rdrandFill(address + offset, length)) {
         throwNew(env, ILLEGAL_STATE_EXCEPTION, VALUE_NOT_AVAILABLE);
     }
-
-    (*env)->ReleaseByteArrayElements(env, bytes, buffer, 0);
 }
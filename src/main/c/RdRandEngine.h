@@ -9,8 +9,14 @@ extern "C" {
 #endif
 #undef net_nullschool_util_RdRandEngine_serialVersionUID
 #define net_nullschool_util_RdRandEngine_serialVersionUID -2991854161009191830LL
+#undef net_nullschool_util_RdRandEngine_KEEP_24_BITS
+#define net_nullschool_util_RdRandEngine_KEEP_24_BITS 16777215L
+#undef net_nullschool_util_RdRandEngine_KEEP_53_BITS
+#define net_nullschool_util_RdRandEngine_KEEP_53_BITS 9007199254740991LL
 #undef net_nullschool_util_RdRandEngine_serialVersionUID
 #define net_nullschool_util_RdRandEngine_serialVersionUID 1LL
+#undef net_nullschool_util_RdRandEngine_SEED_RETRIES
+#define net_nullschool_util_RdRandEngine_SEED_RETRIES 10L
 #undef net_nullschool_util_RdRandEngine_serialVersionUID
 #define net_nullschool_util_RdRandEngine_serialVersionUID 1LL
 /*
@@ -21,6 +27,46 @@ extern "C" {
 JNIEXPORT jboolean JNICALL Java_net_nullschool_util_RdRandEngine_isRdRandSupported
   (JNIEnv *, jclass);
 
+/*
+ * Class:     net_nullschool_util_RdRandEngine
+ * Method:    isRdSeedSupported
+ * Signature: ()Z
+ */
+JNIEXPORT jboolean JNICALL Java_net_nullschool_util_RdRandEngine_isRdSeedSupported
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     net_nullschool_util_RdRandEngine
+ * Method:    engineNativeCounters
+ * Signature: ([J)V
+ */
+JNIEXPORT void JNICALL Java_net_nullschool_util_RdRandEngine_engineNativeCounters
+  (JNIEnv *, jclass, jlongArray);
+
+/*
+ * Class:     net_nullschool_util_RdRandEngine
+ * Method:    engineSetRetryPolicy
+ * Signature: (III)V
+ */
+JNIEXPORT void JNICALL Java_net_nullschool_util_RdRandEngine_engineSetRetryPolicy
+  (JNIEnv *, jclass, jint, jint, jint);
+
+/*
+ * Class:     net_nullschool_util_RdRandEngine
+ * Method:    engineThreadRetries
+ * Signature: ()J
+ */
+JNIEXPORT jlong JNICALL Java_net_nullschool_util_RdRandEngine_engineThreadRetries
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     net_nullschool_util_RdRandEngine
+ * Method:    engineNextSeedBytes
+ * Signature: ([BII)I
+ */
+JNIEXPORT jint JNICALL Java_net_nullschool_util_RdRandEngine_engineNextSeedBytes
+  (JNIEnv *, jclass, jbyteArray, jint, jint);
+
 /*
  * Class:     net_nullschool_util_RdRandEngine
  * Method:    engineNextInt
@@ -45,6 +91,54 @@ JNIEXPORT jlong JNICALL Java_net_nullschool_util_RdRandEngine_engineNextLong
 JNIEXPORT void JNICALL Java_net_nullschool_util_RdRandEngine_engineNextBytes
   (JNIEnv *, jobject, jbyteArray);
 
+/*
+ * Class:     net_nullschool_util_RdRandEngine
+ * Method:    engineFillInts
+ * Signature: ([III)V
+ */
+JNIEXPORT void JNICALL Java_net_nullschool_util_RdRandEngine_engineFillInts
+  (JNIEnv *, jobject, jintArray, jint, jint);
+
+/*
+ * Class:     net_nullschool_util_RdRandEngine
+ * Method:    engineFillLongs
+ * Signature: ([JII)V
+ */
+JNIEXPORT void JNICALL Java_net_nullschool_util_RdRandEngine_engineFillLongs
+  (JNIEnv *, jobject, jlongArray, jint, jint);
+
+/*
+ * Class:     net_nullschool_util_RdRandEngine
+ * Method:    engineFillDoubles
+ * Signature: ([DII)V
+ */
+JNIEXPORT void JNICALL Java_net_nullschool_util_RdRandEngine_engineFillDoubles
+  (JNIEnv *, jobject, jdoubleArray, jint, jint);
+
+/*
+ * Class:     net_nullschool_util_RdRandEngine
+ * Method:    engineFillFloats
+ * Signature: ([FII)V
+ */
+JNIEXPORT void JNICALL Java_net_nullschool_util_RdRandEngine_engineFillFloats
+  (JNIEnv *, jobject, jfloatArray, jint, jint);
+
+/*
+ * Class:     net_nullschool_util_RdRandEngine
+ * Method:    engineNextBytesRange
+ * Signature: ([BII)V
+ */
+JNIEXPORT void JNICALL Java_net_nullschool_util_RdRandEngine_engineNextBytesRange
+  (JNIEnv *, jobject, jbyteArray, jint, jint);
+
+/*
+ * Class:     net_nullschool_util_RdRandEngine
+ * Method:    engineNextBytesDirect
+ * Signature: (Ljava/nio/ByteBuffer;II)V
+ */
+JNIEXPORT void JNICALL Java_net_nullschool_util_RdRandEngine_engineNextBytesDirect
+  (JNIEnv *, jobject, jobject, jint, jint);
+
 #ifdef __cplusplus
 }
 #endif
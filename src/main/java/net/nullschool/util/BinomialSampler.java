@@ -0,0 +1,99 @@
+package net.nullschool.util;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Samples the binomial distribution. The sampler works with p' = min(p, 1 - p), counting failures instead of
+ * successes when p > 0.5. When fewer than 10 successes are expected, a single uniform is walked down the
+ * cumulative distribution. Otherwise it uses the BTRS transformed rejection method of Hormann ("The Generation
+ * of Binomial Random Variates", 1993), which needs two uniforms per attempt and accepts most attempts without
+ * evaluating a logarithm.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class BinomialSampler extends IntSampler {
+
+    static final double INVERSION_THRESHOLD = 10;  // expected successes below which inversion is used
+
+    private final int n;
+    private final double p;  // min(probability, 1 - probability)
+    private final boolean flipped;  // true if the sample counts failures
+    private final boolean inversion;
+    private final double s, r0;  // inversion constants: p / q and q^n
+    private final double a, b, c, vr, alpha, lpq, m, h;  // BTRS constants
+
+    BinomialSampler(DigitalRandom random, int trials, double probability) {
+        super(random);
+        if (trials < 0) {
+            throw new IllegalArgumentException("trials must not be negative: " + trials);
+        }
+        if (!(probability >= 0 && probability <= 1)) {
+            throw new IllegalArgumentException("probability must be within [0, 1]: " + probability);
+        }
+        this.n = trials;
+        this.flipped = probability > 0.5;
+        this.p = flipped ? 1 - probability : probability;
+        double q = 1 - p;
+        this.inversion = n * p < INVERSION_THRESHOLD;
+        this.s = p / q;
+        this.r0 = Math.pow(q, n);
+
+        double spq = Math.sqrt(n * p * q);
+        this.b = 1.15 + 2.53 * spq;
+        this.a = -0.0873 + 0.0248 * b + 0.01 * p;
+        this.c = n * p + 0.5;
+        this.vr = 0.92 - 4.2 / b;
+        this.alpha = (2.83 + 5.1 / b) * spq;
+        this.lpq = Math.log(p / q);
+        this.m = Math.floor((n + 1) * p);
+        this.h = logFactorial((int)m) + logFactorial(n - (int)m);
+    }
+
+    private int inversion(RandomWords words) {
+        restart:
+        while (true) {
+            double u = words.nextDouble();
+            double r = r0;
+            int k = 0;
+            while (u >= r) {
+                if (++k > n) {
+                    continue restart;  // rounding error left u beyond the total probability
+                }
+                u -= r;
+                r *= (n + 1 - k) * s / k;
+            }
+            return k;
+        }
+    }
+
+    private int btrs(RandomWords words) {
+        while (true) {
+            double u = words.nextDouble() - 0.5;
+            double v = words.nextDouble();
+            double us = 0.5 - Math.abs(u);
+            double k = Math.floor((2 * a / us + b) * u + c);
+            if (k < 0 || k > n) {
+                continue;
+            }
+            if (us >= 0.07 && v <= vr) {
+                return (int)k;  // the squeeze: accepted without the full test
+            }
+            v = Math.log(v * alpha / (a / (us * us) + b));
+            if (v <= h - logFactorial((int)k) - logFactorial(n - (int)k) + (k - m) * lpq) {
+                return (int)k;
+            }
+        }
+    }
+
+    @Override int sample(RandomWords words) {
+        int k = inversion ? inversion(words) : btrs(words);
+        return flipped ? n - k : k;
+    }
+
+    @Override double wordsPerSample() {
+        return inversion ? 1 : 2.3;
+    }
+}
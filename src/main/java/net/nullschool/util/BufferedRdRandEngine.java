@@ -0,0 +1,177 @@
+package net.nullschool.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * An implementation of DigitalRandomSpi that amortizes the cost of crossing into native code. Rather than
+ * invoking {@code rdrand} once per requested value, each thread draws a block of random data from an
+ * {@link RdRandEngine} with one native call, then serves ints and longs from that block in pure Java. The
+ * block is allocated off-heap and is confined to the thread that uses it, so no synchronization is required.
+ * Each value is wiped from the block as it is consumed, so random data handed out to callers does not linger
+ * in memory.<p/>
+ *
+ * Requests for arrays, byte buffers, and seeds bypass the block and go straight to the underlying engine, which
+ * already fills them with one native call.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class BufferedRdRandEngine extends DigitalRandomSpi {
+
+    static final int BLOCK_SIZE = 4096;  // bytes drawn from rdrand per native call
+
+    /**
+     * A thread-confined block of random data. The region [position, BLOCK_SIZE) holds unconsumed random
+     * bytes, and the region [0, position) has been wiped.
+     */
+    static final class Block {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK_SIZE).order(ByteOrder.nativeOrder());
+        int position = BLOCK_SIZE;  // start empty so the first request triggers a fill
+    }
+
+    // All instances draw from the same hardware, so one block per thread suffices.
+    static final ThreadLocal<Block> blocks = new ThreadLocal<Block>() {
+        @Override protected Block initialValue() {
+            return new Block();
+        }
+    };
+
+    private final RdRandEngine engine;
+
+    BufferedRdRandEngine() throws UnsupportedOperationException {
+        this(new RdRandEngine());
+    }
+
+    BufferedRdRandEngine(RdRandEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Returns the current thread's block, refilled from rdrand if fewer than {@code size} bytes remain.
+     */
+    private Block take(int size) {
+        Block block = blocks.get();
+        if (block.position > BLOCK_SIZE - size) {
+            engine.fillDirect(block.buffer, 0, BLOCK_SIZE);
+            block.position = 0;
+        }
+        return block;
+    }
+
+    /**
+     * Intel's DRNG implementation does not support setting a seed.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override protected void engineSetSeed(byte[] seed) {
+        engine.engineSetSeed(seed);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value generated by rdrand, served from the current thread's block
+     */
+    @Override protected int engineNextInt() {
+        Block block = take(4);
+        int p = block.position;
+        int result = block.buffer.getInt(p);
+        block.buffer.putInt(p, 0);  // wipe
+        block.position = p + 4;
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value generated by rdrand, served from the current thread's block
+     */
+    @Override protected long engineNextLong() {
+        Block block = take(8);
+        int p = block.position;
+        long result = block.buffer.getLong(p);
+        block.buffer.putLong(p, 0);  // wipe
+        block.position = p + 8;
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param ints the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextInts(int[] ints, int offset, int length) {
+        engine.engineNextInts(ints, offset, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param longs the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextLongs(long[] longs, int offset, int length) {
+        engine.engineNextLongs(longs, offset, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param doubles the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextDoubles(double[] doubles, int offset, int length) {
+        engine.engineNextDoubles(doubles, offset, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param floats the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextFloats(float[] floats, int offset, int length) {
+        engine.engineNextFloats(floats, offset, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param bytes the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextBytes(byte[] bytes) {
+        engine.engineNextBytes(bytes);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param bytes the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextBytes(byte[] bytes, int offset, int length) {
+        engine.engineNextBytes(bytes, offset, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param buffer the buffer to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextBytes(ByteBuffer buffer) {
+        engine.engineNextBytes(buffer);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see RdRandEngine#engineGenerateSeed(int)
+     */
+    @Override protected byte[] engineGenerateSeed(int length) {
+        return engine.engineGenerateSeed(length);
+    }
+
+
+    private static final long serialVersionUID = 1;
+}
@@ -0,0 +1,376 @@
+package net.nullschool.util;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * An implementation of DigitalRandomSpi that runs a ChaCha20 keystream generator in each thread, seeded from
+ * a hardware source of seed data such as {@link RdRandEngine#engineGenerateSeed(int)}. Because every thread
+ * generates its own keystream in pure Java, throughput is limited only by the number of cores rather than by
+ * the shared DRNG hardware.<p/>
+ *
+ * Each thread generates keystream sixteen blocks at a time. The first 32 bytes of each batch immediately
+ * replace the key and are never handed out ("fast key erasure"), so a compromise of the thread's state does
+ * not reveal data that was generated earlier. The remaining bytes are served to callers and wiped as they
+ * are consumed. A thread draws a fresh key and nonce from the seed source after generating a configurable
+ * number of bytes or after a configurable amount of time has elapsed, whichever comes first. Both are checked
+ * only when a new batch is generated.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class ChaChaEngine extends DigitalRandomSpi {
+
+    static final long DEFAULT_RESEED_BYTES = 1L << 20;
+    static final long DEFAULT_RESEED_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    static final int BLOCK_INTS = 16;  // one ChaCha20 block is 64 bytes
+    static final int BATCH_INTS = 16 * BLOCK_INTS;  // keystream generated per refill
+    static final int KEY_INTS = 8;
+    static final int SEED_SIZE = 40;  // 256-bit key and 64-bit nonce
+
+    // The constant "expand 32-byte k" in little-endian words.
+    private static final int SIGMA_0 = 0x61707865;
+    private static final int SIGMA_1 = 0x3320646e;
+    private static final int SIGMA_2 = 0x79622d32;
+    private static final int SIGMA_3 = 0x6b206574;
+
+    /**
+     * A thread-confined ChaCha20 generator. The input words are laid out as in Bernstein's original design:
+     * four constant words, eight key words, a 64-bit block counter, and a 64-bit nonce. The region
+     * [position, BATCH_INTS) of {@code batch} holds unconsumed keystream, and the region [0, position) has
+     * been wiped.
+     */
+    static final class Generator {
+        final int[] state = new int[BLOCK_INTS];
+        final int[] batch = new int[BATCH_INTS];
+        int position = BATCH_INTS;  // start empty so the first request triggers a refill
+        long bytesSinceReseed;
+        long reseedTime;
+        boolean seeded;
+    }
+
+    private final DigitalRandomSpi seeder;
+    private final long reseedBytes;
+    private final long reseedNanos;
+    final transient ThreadLocal<Generator> generators = new ThreadLocal<Generator>() {
+        @Override protected Generator initialValue() {
+            return new Generator();
+        }
+    };
+
+    ChaChaEngine(DigitalRandomSpi seeder) {
+        this(seeder, DEFAULT_RESEED_BYTES, DEFAULT_RESEED_NANOS);
+    }
+
+    /**
+     * @param seeder the source of seed data for each thread's key and nonce.
+     * @param reseedBytes the number of bytes a thread may generate before it reseeds.
+     * @param reseedNanos the number of nanoseconds a thread may use one seed before it reseeds.
+     * @throws IllegalArgumentException if {@code seeder} is null, or either interval is not positive.
+     */
+    ChaChaEngine(DigitalRandomSpi seeder, long reseedBytes, long reseedNanos) {
+        if (seeder == null) {
+            throw new IllegalArgumentException("null seeder.");
+        }
+        if (reseedBytes <= 0 || reseedNanos <= 0) {
+            throw new IllegalArgumentException("reseed intervals must be positive.");
+        }
+        this.seeder = seeder;
+        this.reseedBytes = reseedBytes;
+        this.reseedNanos = reseedNanos;
+    }
+
+    /**
+     * Replaces a deserialized instance with a new one, so that the transient per-thread generators are
+     * recreated and freshly seeded.
+     */
+    private Object readResolve() {
+        return new ChaChaEngine(seeder, reseedBytes, reseedNanos);
+    }
+
+    /**
+     * Computes one ChaCha20 block: twenty rounds over the input words, with the input added to the result.
+     *
+     * @param in the sixteen input words.
+     * @param out the array to receive the sixteen output words.
+     * @param offset the index in {@code out} of the first output word.
+     */
+    static void block(int[] in, int[] out, int offset) {
+        int x0 = in[0], x1 = in[1], x2 = in[2], x3 = in[3];
+        int x4 = in[4], x5 = in[5], x6 = in[6], x7 = in[7];
+        int x8 = in[8], x9 = in[9], x10 = in[10], x11 = in[11];
+        int x12 = in[12], x13 = in[13], x14 = in[14], x15 = in[15];
+
+        for (int i = 0; i < 10; i++) {
+            // Column round.
+            x0 += x4; x12 = Integer.rotateLeft(x12 ^ x0, 16);
+            x8 += x12; x4 = Integer.rotateLeft(x4 ^ x8, 12);
+            x0 += x4; x12 = Integer.rotateLeft(x12 ^ x0, 8);
+            x8 += x12; x4 = Integer.rotateLeft(x4 ^ x8, 7);
+            x1 += x5; x13 = Integer.rotateLeft(x13 ^ x1, 16);
+            x9 += x13; x5 = Integer.rotateLeft(x5 ^ x9, 12);
+            x1 += x5; x13 = Integer.rotateLeft(x13 ^ x1, 8);
+            x9 += x13; x5 = Integer.rotateLeft(x5 ^ x9, 7);
+            x2 += x6; x14 = Integer.rotateLeft(x14 ^ x2, 16);
+            x10 += x14; x6 = Integer.rotateLeft(x6 ^ x10, 12);
+            x2 += x6; x14 = Integer.rotateLeft(x14 ^ x2, 8);
+            x10 += x14; x6 = Integer.rotateLeft(x6 ^ x10, 7);
+            x3 += x7; x15 = Integer.rotateLeft(x15 ^ x3, 16);
+            x11 += x15; x7 = Integer.rotateLeft(x7 ^ x11, 12);
+            x3 += x7; x15 = Integer.rotateLeft(x15 ^ x3, 8);
+            x11 += x15; x7 = Integer.rotateLeft(x7 ^ x11, 7);
+            // Diagonal round.
+            x0 += x5; x15 = Integer.rotateLeft(x15 ^ x0, 16);
+            x10 += x15; x5 = Integer.rotateLeft(x5 ^ x10, 12);
+            x0 += x5; x15 = Integer.rotateLeft(x15 ^ x0, 8);
+            x10 += x15; x5 = Integer.rotateLeft(x5 ^ x10, 7);
+            x1 += x6; x12 = Integer.rotateLeft(x12 ^ x1, 16);
+            x11 += x12; x6 = Integer.rotateLeft(x6 ^ x11, 12);
+            x1 += x6; x12 = Integer.rotateLeft(x12 ^ x1, 8);
+            x11 += x12; x6 = Integer.rotateLeft(x6 ^ x11, 7);
+            x2 += x7; x13 = Integer.rotateLeft(x13 ^ x2, 16);
+            x8 += x13; x7 = Integer.rotateLeft(x7 ^ x8, 12);
+            x2 += x7; x13 = Integer.rotateLeft(x13 ^ x2, 8);
+            x8 += x13; x7 = Integer.rotateLeft(x7 ^ x8, 7);
+            x3 += x4; x14 = Integer.rotateLeft(x14 ^ x3, 16);
+            x9 += x14; x4 = Integer.rotateLeft(x4 ^ x9, 12);
+            x3 += x4; x14 = Integer.rotateLeft(x14 ^ x3, 8);
+            x9 += x14; x4 = Integer.rotateLeft(x4 ^ x9, 7);
+        }
+
+        out[offset] = x0 + in[0];
+        out[offset + 1] = x1 + in[1];
+        out[offset + 2] = x2 + in[2];
+        out[offset + 3] = x3 + in[3];
+        out[offset + 4] = x4 + in[4];
+        out[offset + 5] = x5 + in[5];
+        out[offset + 6] = x6 + in[6];
+        out[offset + 7] = x7 + in[7];
+        out[offset + 8] = x8 + in[8];
+        out[offset + 9] = x9 + in[9];
+        out[offset + 10] = x10 + in[10];
+        out[offset + 11] = x11 + in[11];
+        out[offset + 12] = x12 + in[12];
+        out[offset + 13] = x13 + in[13];
+        out[offset + 14] = x14 + in[14];
+        out[offset + 15] = x15 + in[15];
+    }
+
+    /**
+     * Draws a new key and nonce for the generator from the seed source, and resets its block counter.
+     */
+    private void reseed(Generator g) {
+        byte[] seed = seeder.engineGenerateSeed(SEED_SIZE);
+        try {
+            int[] state = g.state;
+            state[0] = SIGMA_0;
+            state[1] = SIGMA_1;
+            state[2] = SIGMA_2;
+            state[3] = SIGMA_3;
+            for (int i = 0; i < KEY_INTS; i++) {
+                state[4 + i] = littleEndianInt(seed, i * 4);
+            }
+            state[12] = 0;  // block counter
+            state[13] = 0;
+            state[14] = littleEndianInt(seed, 32);  // nonce
+            state[15] = littleEndianInt(seed, 36);
+        }
+        finally {
+            Arrays.fill(seed, (byte)0);
+        }
+        g.bytesSinceReseed = 0;
+        g.reseedTime = System.nanoTime();
+        g.seeded = true;
+    }
+
+    private static int littleEndianInt(byte[] bytes, int i) {
+        return (bytes[i] & 0xff) | (bytes[i + 1] & 0xff) << 8 | (bytes[i + 2] & 0xff) << 16 | bytes[i + 3] << 24;
+    }
+
+    /**
+     * Fills the generator's batch with fresh keystream, reseeding first if required. The first words of the
+     * batch become the next key and are wiped, so serving starts just past them.
+     */
+    private void refill(Generator g) {
+        if (!g.seeded ||
+                g.bytesSinceReseed >= reseedBytes ||
+                System.nanoTime() - g.reseedTime >= reseedNanos) {
+            reseed(g);
+        }
+        int[] state = g.state;
+        int[] batch = g.batch;
+        for (int offset = 0; offset < BATCH_INTS; offset += BLOCK_INTS) {
+            block(state, batch, offset);
+            if (++state[12] == 0) {
+                state[13]++;
+            }
+        }
+        System.arraycopy(batch, 0, state, 4, KEY_INTS);  // fast key erasure
+        Arrays.fill(batch, 0, KEY_INTS, 0);
+        g.position = KEY_INTS;
+        g.bytesSinceReseed += (BATCH_INTS - KEY_INTS) * 4;
+    }
+
+    private int nextInt(Generator g) {
+        if (g.position == BATCH_INTS) {
+            refill(g);
+        }
+        int p = g.position;
+        int result = g.batch[p];
+        g.batch[p] = 0;  // wipe
+        g.position = p + 1;
+        return result;
+    }
+
+    private long nextLong(Generator g) {
+        if (g.position > BATCH_INTS - 2) {
+            refill(g);
+        }
+        int p = g.position;
+        int[] batch = g.batch;
+        long result = (long)batch[p] << 32 | batch[p + 1] & 0xffffffffL;
+        batch[p] = batch[p + 1] = 0;  // wipe
+        g.position = p + 2;
+        return result;
+    }
+
+    /**
+     * This engine derives all keys from its seed source, so setting a seed is not supported.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override protected void engineSetSeed(byte[] seed) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value generated by the current thread's ChaCha20 keystream
+     */
+    @Override protected int engineNextInt() {
+        return nextInt(generators.get());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value generated by the current thread's ChaCha20 keystream
+     */
+    @Override protected long engineNextLong() {
+        return nextLong(generators.get());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param ints the array to fill with random data generated by the current thread's ChaCha20 keystream
+     */
+    @Override protected void engineNextInts(int[] ints, int offset, int length) {
+        checkRange(ints, ints == null ? 0 : ints.length, offset, length);
+        Generator g = generators.get();
+        while (length > 0) {
+            if (g.position == BATCH_INTS) {
+                refill(g);
+            }
+            int p = g.position;
+            int count = Math.min(length, BATCH_INTS - p);
+            System.arraycopy(g.batch, p, ints, offset, count);
+            Arrays.fill(g.batch, p, p + count, 0);  // wipe
+            g.position = p + count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param longs the array to fill with random data generated by the current thread's ChaCha20 keystream
+     */
+    @Override protected void engineNextLongs(long[] longs, int offset, int length) {
+        checkRange(longs, longs == null ? 0 : longs.length, offset, length);
+        Generator g = generators.get();
+        for (int i = offset, end = offset + length; i < end; i++) {
+            longs[i] = nextLong(g);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param doubles the array to fill with random data generated by the current thread's ChaCha20 keystream
+     */
+    @Override protected void engineNextDoubles(double[] doubles, int offset, int length) {
+        checkRange(doubles, doubles == null ? 0 : doubles.length, offset, length);
+        Generator g = generators.get();
+        for (int i = offset, end = offset + length; i < end; i++) {
+            doubles[i] = toDouble(nextLong(g));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param floats the array to fill with random data generated by the current thread's ChaCha20 keystream
+     */
+    @Override protected void engineNextFloats(float[] floats, int offset, int length) {
+        checkRange(floats, floats == null ? 0 : floats.length, offset, length);
+        Generator g = generators.get();
+        for (int i = offset, end = offset + length; i < end; i++) {
+            floats[i] = toFloat(nextInt(g));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param bytes the array to fill with random data generated by the current thread's ChaCha20 keystream
+     */
+    @Override protected void engineNextBytes(byte[] bytes) {
+        engineNextBytes(bytes, 0, bytes == null ? 0 : bytes.length);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Keystream words are written in little-endian order, as ChaCha20 specifies.
+     *
+     * @param bytes the array to fill with random data generated by the current thread's ChaCha20 keystream
+     */
+    @Override protected void engineNextBytes(byte[] bytes, int offset, int length) {
+        checkRange(bytes, bytes == null ? 0 : bytes.length, offset, length);
+        Generator g = generators.get();
+        int end = offset + length;
+        int i = offset;
+        for (; i <= end - 4; i += 4) {
+            int word = nextInt(g);
+            bytes[i] = (byte)word;
+            bytes[i + 1] = (byte)(word >>> 8);
+            bytes[i + 2] = (byte)(word >>> 16);
+            bytes[i + 3] = (byte)(word >>> 24);
+        }
+        if (i < end) {
+            for (int word = nextInt(g); i < end; i++, word >>>= 8) {
+                bytes[i] = (byte)word;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return seed data drawn directly from the seed source
+     */
+    @Override protected byte[] engineGenerateSeed(int length) {
+        return seeder.engineGenerateSeed(length);
+    }
+
+
+    private static final long serialVersionUID = 1;
+}
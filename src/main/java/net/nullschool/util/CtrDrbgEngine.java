@@ -0,0 +1,352 @@
+package net.nullschool.util;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+import static net.nullschool.util.EngineTools.*;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * An implementation of DigitalRandomSpi that runs an AES-256 CTR_DRBG, as specified by NIST SP 800-90A
+ * (section 10.2.1), in each thread. The DRBG is instantiated and reseeded with entropy input drawn from a
+ * hardware source such as {@link RdRandEngine#engineGenerateSeed(int)}. Because that input has full entropy,
+ * the DRBG runs without a derivation function, and because each thread has its own instantiation, no
+ * synchronization is required.<p/>
+ *
+ * Keystream is produced by the JRE's {@code AES/CTR/NoPadding} cipher in batches of 4KiB, one generate
+ * request per batch, so the JIT's AES intrinsics apply. The internal state is updated after each request
+ * as the specification requires. Random data is served to callers from the batch and wiped as it is
+ * consumed.<p/>
+ *
+ * When prediction resistance is requested, every call to this engine is its own generate request: the DRBG
+ * reseeds from the entropy source first, and only as much keystream as the call needs is generated. Any
+ * unconsumed keystream left over from an earlier call is wiped rather than served.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class CtrDrbgEngine extends DigitalRandomSpi {
+
+    static final int KEY_SIZE = 32;  // AES-256
+    static final int OUT_SIZE = 16;  // the AES block size
+    static final int SEED_SIZE = KEY_SIZE + OUT_SIZE;
+    static final int BATCH_SIZE = 4096;  // bytes per generate request, well under the 2^19-bit limit
+    static final long RESEED_INTERVAL = 1L << 16;  // generate requests between reseeds, at most 2^48
+
+    private static final byte[] ZEROS = new byte[BATCH_SIZE];
+
+    /**
+     * A thread-confined DRBG instantiation. The working state is {@code key}, {@code v}, and
+     * {@code reseedCounter}. The region [position, BATCH_SIZE) of {@code batch} holds unconsumed random bytes,
+     * and the region [0, position) has been wiped.
+     */
+    static final class Drbg {
+        final Cipher cipher = newAesCtr();
+        final byte[] key = new byte[KEY_SIZE];
+        final byte[] v = new byte[OUT_SIZE];
+        final byte[] temp = new byte[SEED_SIZE];
+        long reseedCounter;  // zero until instantiated
+        final byte[] batch = new byte[BATCH_SIZE];
+        final ByteBuffer view = ByteBuffer.wrap(batch).order(ByteOrder.nativeOrder());
+        int position = BATCH_SIZE;  // start empty so the first request triggers a generate
+    }
+
+    private final DigitalRandomSpi entropySource;
+    private final boolean predictionResistance;
+    final transient ThreadLocal<Drbg> drbgs = new ThreadLocal<Drbg>() {
+        @Override protected Drbg initialValue() {
+            return new Drbg();
+        }
+    };
+
+    /**
+     * @param entropySource the source of full-entropy input for instantiation and reseeding.
+     * @param predictionResistance true if every call should reseed from the entropy source first.
+     * @throws IllegalArgumentException if {@code entropySource} is null.
+     * @throws UnsupportedOperationException if the JRE does not support AES-256 in CTR mode.
+     */
+    CtrDrbgEngine(DigitalRandomSpi entropySource, boolean predictionResistance) {
+        if (entropySource == null) {
+            throw new IllegalArgumentException("null entropy source.");
+        }
+        int maxKeyLength;
+        try {
+            maxKeyLength = Cipher.getMaxAllowedKeyLength("AES");
+            newAesCtr();
+        }
+        catch (GeneralSecurityException | RuntimeException e) {
+            throw new UnsupportedOperationException("AES/CTR/NoPadding is not supported by this JRE.", e);
+        }
+        if (maxKeyLength < KEY_SIZE * 8) {
+            throw new UnsupportedOperationException("AES-256 is not permitted by this JRE's policy.");
+        }
+        this.entropySource = entropySource;
+        this.predictionResistance = predictionResistance;
+    }
+
+    /**
+     * Replaces a deserialized instance with a new one, so that the transient per-thread instantiations are
+     * recreated from fresh entropy.
+     */
+    private Object readResolve() {
+        return new CtrDrbgEngine(entropySource, predictionResistance);
+    }
+
+    /**
+     * Generates keystream from the current key and V into the region [offset, offset + length) of
+     * {@code out}: the encryptions of V+1, V+2, and so on. V is advanced past the blocks used.
+     *
+     * @param length a multiple of the AES block size.
+     */
+    private static void keystream(Drbg g, byte[] out, int offset, int length) {
+        byte[] v = g.v;
+        increment(v, 1);
+        try {
+            g.cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(g.key, "AES"), new IvParameterSpec(v));
+            g.cipher.doFinal(ZEROS, 0, length, out, offset);
+        }
+        catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+        increment(v, length / OUT_SIZE - 1);
+    }
+
+    /**
+     * Adds a non-negative amount to the 128-bit big-endian counter.
+     */
+    static void increment(byte[] v, long amount) {
+        for (int i = v.length - 1; i >= 0 && amount != 0; i--) {
+            long sum = (v[i] & 0xff) + (amount & 0xff);
+            v[i] = (byte)sum;
+            amount = (amount >>> 8) + (sum >>> 8);
+        }
+    }
+
+    /**
+     * The CTR_DRBG_Update function: derives a new key and V from the current ones, mixed with the provided
+     * data, which is SEED_SIZE bytes or null for all zeros.
+     */
+    private static void update(Drbg g, byte[] providedData) {
+        byte[] temp = g.temp;
+        keystream(g, temp, 0, SEED_SIZE);
+        if (providedData != null) {
+            for (int i = 0; i < SEED_SIZE; i++) {
+                temp[i] ^= providedData[i];
+            }
+        }
+        System.arraycopy(temp, 0, g.key, 0, KEY_SIZE);
+        System.arraycopy(temp, KEY_SIZE, g.v, 0, OUT_SIZE);
+        Arrays.fill(temp, (byte)0);
+    }
+
+    /**
+     * Reseeds the DRBG with fresh entropy input. Without a derivation function, this is the update function
+     * applied to the entropy input. Instantiation is the same, but starts from an all-zero key and V.
+     */
+    private void reseed(Drbg g) {
+        byte[] entropyInput = entropySource.engineGenerateSeed(SEED_SIZE);
+        try {
+            update(g, entropyInput);
+        }
+        finally {
+            Arrays.fill(entropyInput, (byte)0);
+        }
+        g.reseedCounter = 1;
+    }
+
+    /**
+     * Performs one generate request that replaces the batch, reseeding first when required. Any unconsumed
+     * bytes in the batch are wiped.
+     *
+     * @param wanted the number of bytes the caller wants. Without prediction resistance, a full batch is
+     *               always generated.
+     */
+    private void generate(Drbg g, long wanted) {
+        int size = BATCH_SIZE;
+        if (predictionResistance) {
+            size = (int)Math.min(BATCH_SIZE, (wanted + OUT_SIZE - 1) / OUT_SIZE * OUT_SIZE);
+        }
+        if (g.reseedCounter == 0) {
+            reseed(g);  // instantiate, which also serves as this request's prediction resistance reseed
+        }
+        else if (predictionResistance || g.reseedCounter > RESEED_INTERVAL) {
+            reseed(g);
+        }
+        Arrays.fill(g.batch, g.position, BATCH_SIZE, (byte)0);
+        int start = BATCH_SIZE - size;
+        keystream(g, g.batch, start, size);
+        update(g, null);
+        g.reseedCounter++;
+        g.position = start;
+    }
+
+    /**
+     * Returns the current thread's DRBG, first discarding any keystream from earlier calls when prediction
+     * resistance is requested.
+     */
+    private Drbg begin() {
+        Drbg g = drbgs.get();
+        if (predictionResistance && g.position != BATCH_SIZE) {
+            Arrays.fill(g.batch, g.position, BATCH_SIZE, (byte)0);
+            g.position = BATCH_SIZE;
+        }
+        return g;
+    }
+
+    /**
+     * Ensures at least {@code size} unconsumed bytes are in the batch, generating more if necessary.
+     *
+     * @param wanted the total number of bytes still wanted by the current call.
+     */
+    private void ensure(Drbg g, int size, long wanted) {
+        if (g.position > BATCH_SIZE - size) {
+            generate(g, wanted);
+        }
+    }
+
+    private int nextInt(Drbg g, long wanted) {
+        ensure(g, 4, wanted);
+        int p = g.position;
+        int result = g.view.getInt(p);
+        g.view.putInt(p, 0);  // wipe
+        g.position = p + 4;
+        return result;
+    }
+
+    private long nextLong(Drbg g, long wanted) {
+        ensure(g, 8, wanted);
+        int p = g.position;
+        long result = g.view.getLong(p);
+        g.view.putLong(p, 0);  // wipe
+        g.position = p + 8;
+        return result;
+    }
+
+    /**
+     * Setting a seed is not supported. All entropy input comes from the entropy source.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override protected void engineSetSeed(byte[] seed) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value generated by the current thread's CTR_DRBG
+     */
+    @Override protected int engineNextInt() {
+        return nextInt(begin(), 4);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value generated by the current thread's CTR_DRBG
+     */
+    @Override protected long engineNextLong() {
+        return nextLong(begin(), 8);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param ints the array to fill with random data generated by the current thread's CTR_DRBG
+     */
+    @Override protected void engineNextInts(int[] ints, int offset, int length) {
+        checkRange(ints, ints == null ? 0 : ints.length, offset, length);
+        Drbg g = begin();
+        for (int i = offset, end = offset + length; i < end; i++) {
+            ints[i] = nextInt(g, (end - i) * 4L);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param longs the array to fill with random data generated by the current thread's CTR_DRBG
+     */
+    @Override protected void engineNextLongs(long[] longs, int offset, int length) {
+        checkRange(longs, longs == null ? 0 : longs.length, offset, length);
+        Drbg g = begin();
+        for (int i = offset, end = offset + length; i < end; i++) {
+            longs[i] = nextLong(g, (end - i) * 8L);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param doubles the array to fill with random data generated by the current thread's CTR_DRBG
+     */
+    @Override protected void engineNextDoubles(double[] doubles, int offset, int length) {
+        checkRange(doubles, doubles == null ? 0 : doubles.length, offset, length);
+        Drbg g = begin();
+        for (int i = offset, end = offset + length; i < end; i++) {
+            doubles[i] = toDouble(nextLong(g, (end - i) * 8L));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param floats the array to fill with random data generated by the current thread's CTR_DRBG
+     */
+    @Override protected void engineNextFloats(float[] floats, int offset, int length) {
+        checkRange(floats, floats == null ? 0 : floats.length, offset, length);
+        Drbg g = begin();
+        for (int i = offset, end = offset + length; i < end; i++) {
+            floats[i] = toFloat(nextInt(g, (end - i) * 4L));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param bytes the array to fill with random data generated by the current thread's CTR_DRBG
+     */
+    @Override protected void engineNextBytes(byte[] bytes) {
+        engineNextBytes(bytes, 0, bytes == null ? 0 : bytes.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param bytes the array to fill with random data generated by the current thread's CTR_DRBG
+     */
+    @Override protected void engineNextBytes(byte[] bytes, int offset, int length) {
+        checkRange(bytes, bytes == null ? 0 : bytes.length, offset, length);
+        Drbg g = begin();
+        while (length > 0) {
+            ensure(g, 1, length);
+            int p = g.position;
+            int count = Math.min(length, BATCH_SIZE - p);
+            System.arraycopy(g.batch, p, bytes, offset, count);
+            Arrays.fill(g.batch, p, p + count, (byte)0);  // wipe
+            g.position = p + count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return seed data drawn directly from the entropy source
+     */
+    @Override protected byte[] engineGenerateSeed(int length) {
+        return entropySource.engineGenerateSeed(length);
+    }
+
+
+    private static final long serialVersionUID = 1;
+}
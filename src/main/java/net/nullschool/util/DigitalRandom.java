@@ -1,7 +1,16 @@
 package net.nullschool.util;
 
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.security.Provider;
 import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 /**
  * 2012-12-05<p/>
@@ -13,17 +22,31 @@ import java.util.UUID;
  *     DigitalRandom random = new DigitalRandom();
  * </pre>
  *
- * The default implementation uses a native library to access the processor's DRNG. Due to system constraints,
- * the native library resource is first copied to the temp directory specified by the system property
- * {@code java.io.tmpdir} and then loaded. If the copy or load fails, or if the processor does not contain
- * a DRNG, then instantiation of this class will throw an {@link UnsupportedOperationException}.<p/>
+ * The default implementation uses a native library to access the processor's DRNG. A copy of the library
+ * installed on {@code java.library.path} is loaded if present. Otherwise, due to system constraints, the native
+ * library resource is first extracted to the temp directory specified by the system property
+ * {@code java.io.tmpdir}, where it is cached for other JVMs on the same host, and then loaded. If the extraction
+ * or load fails, or if the processor does not contain a DRNG, then instantiation of this class will throw an
+ * {@link UnsupportedOperationException}. To fall back to the operating system's CSPRNG on such hosts, use
+ * {@link #newInstance()}.<p/>
  *
  * In extreme cases, this generator may be unable to generate random data of sufficient quality, in which
  * case it will throw an {@link IllegalStateException}. Such cases usually represent a hardware failure of
  * the DRNG and are expected to be very rare.<p/>
  *
- * This class is thread safe and can be used by multiple threads for maximum performance. Except for
- * {@link #nextGaussian()}, this class performs no synchronization.<p/>
+ * This class is thread safe and can be used by multiple threads for maximum performance. It performs no
+ * synchronization, not even in {@link #nextGaussian()}, which {@link java.util.Random} synchronizes.<p/>
+ *
+ * On Java 8 and later, the streams returned by {@link #ints()}, {@link #longs()}, {@link #doubles()}, and their
+ * variants split evenly and generate values in batches, so they perform well as parallel streams.<p/>
+ *
+ * Setting the system property {@code net.nullschool.util.metrics} to {@code true} counts the random data each
+ * engine serves, its failures, and the latency of its fills, published by the platform MBean server as
+ * {@code net.nullschool.util:type=DigitalRandom}. See {@link DigitalRandomMXBean}.<p/>
+ *
+ * On Java 22 and later, {@code DigitalRandomSegments} fills {@code MemorySegment}s with random data. When native
+ * access is also enabled (e.g., with {@code --enable-native-access=ALL-UNNAMED}), the default constructor calls
+ * the native library through the Foreign Function &amp; Memory API rather than JNI.<p/>
  *
  * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
  *
@@ -31,19 +54,42 @@ import java.util.UUID;
  */
 public final class DigitalRandom extends SecureRandom {
 
-    private static final int KEEP_24_BITS  = 0b0000000000000000000000000000000000000000111111111111111111111111;
-    private static final int KEEP_31_BITS  = 0b0000000000000000000000000000000001111111111111111111111111111111;
-    private static final long KEEP_53_BITS = 0b0000000000011111111111111111111111111111111111111111111111111111L;
-    private static final long KEEP_63_BITS = 0b0111111111111111111111111111111111111111111111111111111111111111L;
+    private static final long KEEP_32_BITS = 0b0000000000000000000000000000000011111111111111111111111111111111L;
+
 
+    /**
+     * A thread-confined reservoir of random bits left over from the last 64-bit word drawn by
+     * {@link #nextBits(int)}. The low {@code count} bits of {@code bits} are unconsumed, and all higher bits
+     * are zero, so consumed bits do not linger in memory.
+     */
+    private static final class BitReservoir {
+        long bits;
+        int count;
+    }
 
     private final DigitalRandomSpi spi;
+    private final transient ThreadLocal<BitReservoir> reservoirs = new ThreadLocal<BitReservoir>() {
+        @Override protected BitReservoir initialValue() {
+            return new BitReservoir();
+        }
+    };
 
     private DigitalRandom(DigitalRandomSpi spi) {
-        super(spi, null);
+        this(Metrics.ENABLED ? new MeteredEngine(spi) : spi, null);
+    }
+
+    private DigitalRandom(DigitalRandomSpi spi, Provider provider) {
+        super(spi, provider);
         this.spi = spi;
     }
 
+    /**
+     * Replaces a deserialized instance with a new one, so that the transient bit reservoirs are recreated.
+     */
+    private Object readResolve() {
+        return new DigitalRandom(spi);
+    }
+
     /**
      * Constructs a digital random number generator using the default hardware DRNG. If the
      * hardware is not available or cannot be accessed (for example, due to native library load
@@ -53,7 +99,209 @@ public final class DigitalRandom extends SecureRandom {
      * @throws UnsupportedOperationException if the hardware DRNG does not exist or cannot be accessed.
      */
     public DigitalRandom() throws UnsupportedOperationException {
-        this(new RdRandEngine());
+        this(EngineTools.newRdRandEngine());
+    }
+
+    /**
+     * Constructs a digital random number generator using the default hardware DRNG, where each thread draws
+     * random data in blocks and serves ints, longs, and the values derived from them without crossing into
+     * native code on every call. This greatly improves the rate of generating small values, such as with
+     * {@link #nextInt()} and {@link #nextLong()}, at the cost of a few KiB of off-heap memory per thread. Random
+     * data is wiped from a thread's block as it is consumed.
+     *
+     * @return a new buffered generator.
+     * @throws UnsupportedOperationException if the hardware DRNG does not exist or cannot be accessed.
+     */
+    public static DigitalRandom newBufferedInstance() throws UnsupportedOperationException {
+        return new DigitalRandom(new BufferedRdRandEngine());
+    }
+
+    /**
+     * Constructs a digital random number generator using the default hardware DRNG, where a background daemon
+     * thread generates random data ahead of time into a ring of 64 blocks of 4KiB. Calling threads take blocks
+     * from the ring without locks or native calls, so they do not pay the DRNG's latency inline. If the ring is
+     * ever empty, the calling thread draws from the DRNG directly rather than waiting. Equivalent to
+     * {@code newPrefetchingInstance(64, 16, 1)}.
+     *
+     * @return a new prefetching generator.
+     * @throws UnsupportedOperationException if the hardware DRNG does not exist or cannot be accessed.
+     */
+    public static DigitalRandom newPrefetchingInstance() throws UnsupportedOperationException {
+        return new DigitalRandom(new PrefetchEngine(new RdRandEngine()));
+    }
+
+    /**
+     * Constructs a digital random number generator using the default hardware DRNG, where background daemon
+     * threads generate random data ahead of time into a ring of 4KiB blocks, as with
+     * {@link #newPrefetchingInstance()}. Once the ring is full, the producer threads rest until calling threads
+     * have drained it to the low-water mark.
+     *
+     * @param ringSize the number of blocks in the ring, at least 2, rounded up to a power of two.
+     * @param lowWaterMark the number of full blocks at or below which the producers resume.
+     * @param producers the number of producer threads.
+     * @return a new prefetching generator.
+     * @throws IllegalArgumentException if {@code ringSize} is not between 2 and 2^30, {@code lowWaterMark} is
+     *                                  negative or not less than {@code ringSize}, or {@code producers} is not
+     *                                  positive.
+     * @throws UnsupportedOperationException if the hardware DRNG does not exist or cannot be accessed.
+     */
+    public static DigitalRandom newPrefetchingInstance(int ringSize, int lowWaterMark, int producers)
+            throws UnsupportedOperationException {
+        return new DigitalRandom(new PrefetchEngine(new RdRandEngine(), ringSize, lowWaterMark, producers));
+    }
+
+    /**
+     * Constructs a random number generator where each thread runs its own ChaCha20 keystream generator,
+     * seeded from the hardware DRNG. Because threads do not share the DRNG for every value, aggregate
+     * throughput scales with the number of cores. Each thread reseeds after generating 1 MiB or after one
+     * second, whichever comes first.
+     *
+     * @return a new ChaCha20 generator.
+     * @throws UnsupportedOperationException if the hardware DRNG does not exist or cannot be accessed.
+     */
+    public static DigitalRandom newChaChaInstance() throws UnsupportedOperationException {
+        return new DigitalRandom(new ChaChaEngine(new RdRandEngine()));
+    }
+
+    /**
+     * Constructs a random number generator where each thread runs its own ChaCha20 keystream generator,
+     * seeded from the hardware DRNG, as with {@link #newChaChaInstance()}. Each thread reseeds after
+     * generating the specified number of bytes or after the specified time has elapsed, whichever comes first.
+     *
+     * @param reseedBytes the number of bytes a thread may generate before it reseeds.
+     * @param reseedInterval the amount of time a thread may use one seed before it reseeds.
+     * @param unit the unit of {@code reseedInterval}.
+     * @return a new ChaCha20 generator.
+     * @throws IllegalArgumentException if {@code reseedBytes} or {@code reseedInterval} is not positive, or
+     *                                  {@code unit} is null.
+     * @throws UnsupportedOperationException if the hardware DRNG does not exist or cannot be accessed.
+     */
+    public static DigitalRandom newChaChaInstance(long reseedBytes, long reseedInterval, TimeUnit unit)
+            throws UnsupportedOperationException {
+        if (unit == null) {
+            throw new IllegalArgumentException("null unit.");
+        }
+        return new DigitalRandom(new ChaChaEngine(new RdRandEngine(), reseedBytes, unit.toNanos(reseedInterval)));
+    }
+
+    /**
+     * Constructs a random number generator where each thread runs its own NIST SP 800-90A AES-256 CTR_DRBG,
+     * instantiated and reseeded with entropy input from the hardware DRNG. Equivalent to
+     * {@code newCtrDrbgInstance(false)}.
+     *
+     * @return a new CTR_DRBG generator.
+     * @throws UnsupportedOperationException if the hardware DRNG does not exist or cannot be accessed, or the
+     *                                       JRE does not support AES-256.
+     */
+    public static DigitalRandom newCtrDrbgInstance() throws UnsupportedOperationException {
+        return newCtrDrbgInstance(false);
+    }
+
+    /**
+     * Constructs a random number generator where each thread runs its own NIST SP 800-90A AES-256 CTR_DRBG,
+     * instantiated and reseeded with entropy input from the hardware DRNG. When prediction resistance is
+     * requested, the DRBG reseeds from the hardware before every call, which is much slower.
+     *
+     * @param predictionResistance true if every call should reseed from the hardware DRNG first.
+     * @return a new CTR_DRBG generator.
+     * @throws UnsupportedOperationException if the hardware DRNG does not exist or cannot be accessed, or the
+     *                                       JRE does not support AES-256.
+     */
+    public static DigitalRandom newCtrDrbgInstance(boolean predictionResistance)
+            throws UnsupportedOperationException {
+        return new DigitalRandom(new CtrDrbgEngine(new RdRandEngine(), predictionResistance));
+    }
+
+    /**
+     * Constructs a random number generator using the default hardware DRNG, as with {@link #DigitalRandom()},
+     * whose output is checked by the continuous health tests of NIST SP 800-90B. The tests sample the first
+     * bytes of each request, so they add little cost to large requests. If the DRNG appears stuck or heavily
+     * biased, the request that detected it throws {@link IllegalStateException}.
+     *
+     * @return a new health-tested generator.
+     * @throws UnsupportedOperationException if the hardware DRNG does not exist or cannot be accessed.
+     */
+    public static DigitalRandom newHealthTestedInstance() throws UnsupportedOperationException {
+        return new DigitalRandom(new HealthTestedEngine(EngineTools.newRdRandEngine()));
+    }
+
+    /**
+     * Constructs a random number generator using the default hardware DRNG, as with {@link #DigitalRandom()},
+     * that serves any request the DRNG cannot from a per-thread AES-256 CTR_DRBG instead, as with
+     * {@link #newCtrDrbgInstance()}. The DRBGs are instantiated and reseeded from {@code /dev/urandom}, or
+     * from the JRE's default SecureRandom where that is unavailable, rather than from the DRNG, so a DRNG that
+     * is exhausted by heavy load does not fail requests.
+     *
+     * @return a new failover generator.
+     * @throws UnsupportedOperationException if the hardware DRNG does not exist or cannot be accessed, or the
+     *                                       JRE does not support AES-256.
+     */
+    public static DigitalRandom newFailoverInstance() throws UnsupportedOperationException {
+        DigitalRandomSpi secondary = new CtrDrbgEngine(EngineTools.newIndependentSeedSource(), false);
+        return new DigitalRandom(new FailoverEngine(EngineTools.newRdRandEngine(), secondary));
+    }
+
+    /**
+     * Sets the policy the hardware DRNG engines follow when the DRNG fails to produce a value, as it may when
+     * many cores draw on it at once. A failed attempt is retried at most {@code spins} times immediately, then
+     * at most {@code pauses} times after a spin-wait that doubles with each retry, then at most {@code yields}
+     * times after yielding the processor to other threads. Only when every retry fails does a request throw
+     * {@link IllegalStateException}. The policy applies to all generators in the process. The default policy
+     * is 9 spins, 10 pauses, and no yields. Only the immediate retries run while an array is pinned or a
+     * critical native call is in progress; pauses and yields happen after the request leaves that state, so
+     * they do not hold off garbage collection.
+     *
+     * @param spins the number of immediate retries.
+     * @param pauses the number of retries after spin-waiting.
+     * @param yields the number of retries after yielding the processor.
+     * @throws IllegalArgumentException if any count is negative.
+     * @throws UnsupportedOperationException if the hardware DRNG does not exist or cannot be accessed.
+     */
+    public static void setRetryPolicy(int spins, int pauses, int yields) throws UnsupportedOperationException {
+        RdRandEngine.setRetryPolicy(spins, pauses, yields);
+    }
+
+    /**
+     * Constructs a random number generator that draws random data from the operating system's CSPRNG,
+     * {@code /dev/urandom}, rather than from a hardware DRNG. Each thread reads random data in large blocks
+     * and serves values from its block, so this generator remains fast on hosts without a hardware DRNG.
+     *
+     * @return a new software generator.
+     * @throws UnsupportedOperationException if {@code /dev/urandom} cannot be opened, such as on Windows.
+     */
+    public static DigitalRandom newSoftwareInstance() throws UnsupportedOperationException {
+        return new DigitalRandom(new UrandomEngine());
+    }
+
+    /**
+     * Constructs a random number generator using the default hardware DRNG if it is available, as with
+     * {@link #DigitalRandom()}, or otherwise using the operating system's CSPRNG, as with
+     * {@link #newSoftwareInstance()}.
+     *
+     * @return a new generator.
+     * @throws UnsupportedOperationException if neither the hardware DRNG nor the operating system's CSPRNG
+     *                                       can be accessed.
+     */
+    public static DigitalRandom newInstance() throws UnsupportedOperationException {
+        try {
+            return new DigitalRandom();
+        }
+        catch (UnsupportedOperationException hardwareFailure) {
+            try {
+                return newSoftwareInstance();
+            }
+            catch (UnsupportedOperationException softwareFailure) {
+                softwareFailure.addSuppressed(hardwareFailure);
+                throw softwareFailure;
+            }
+        }
+    }
+
+    /**
+     * Returns the engine behind this generator, for the samplers in this package that draw from it directly.
+     */
+    DigitalRandomSpi engine() {
+        return spi;
     }
 
     @Override public String getAlgorithm() {
@@ -66,7 +314,44 @@ public final class DigitalRandom extends SecureRandom {
      * @return a random value chosen uniformly from the set {@code {true, false}}
      */
     @Override public boolean nextBoolean() {
-        return spi.engineNextInt() < 0;
+        return nextBits(1) != 0;
+    }
+
+    /**
+     * Returns the next {@code n} uniformly distributed random bits from this generator, in the low
+     * {@code n} bits of the result. All higher bits are zero.<p/>
+     *
+     * Each thread keeps a reservoir of bits left over from the last 64-bit word it drew, and draws a new
+     * word only when the reservoir holds fewer than {@code n} bits. Generating many small values this way,
+     * such as single bits for coin flips, requires up to 64 times fewer draws from the hardware DRNG than
+     * generating each from its own int or long.
+     *
+     * @param n the number of random bits to generate, from 1 to 64
+     * @return a random value chosen uniformly from the range {@code [0, 2^n)}, or any long if n is 64
+     * @throws IllegalArgumentException if n is not between 1 and 64
+     */
+    public long nextBits(int n) {
+        if (n < 1 || n > 64) {
+            throw new IllegalArgumentException("n must be between 1 and 64.");
+        }
+        BitReservoir reservoir = reservoirs.get();
+        long bits = reservoir.bits;
+        int count = reservoir.count;
+
+        if (n <= count) {
+            // The reservoir has enough bits. Take the lowest n and shift them out.
+            reservoir.bits = n == 64 ? 0 : bits >>> n;  // shifting a long by 64 is a no-op in Java
+            reservoir.count = count - n;
+            return bits & (-1L >>> (64 - n));
+        }
+
+        // Not enough. Take whatever bits remain, then fill the rest from a new word. Keep the unused
+        // portion of the new word for later.
+        long word = spi.engineNextLong();
+        int need = n - count;
+        reservoir.bits = need == 64 ? 0 : word >>> need;
+        reservoir.count = 64 - need;
+        return bits | (word & (-1L >>> (64 - need))) << count;
     }
 
     /**
@@ -92,30 +377,43 @@ public final class DigitalRandom extends SecureRandom {
             throw new IllegalArgumentException("bound must be positive.");
         }
 
-        // Mod a random sample by the bound. That's the result. However... the range of
-        // random values may not be evenly divisible by the bound, introducing a non-uniformity
-        // in the possible results. To see why, say random value v is four bits, having the
-        // range 0-15, and the bound is six:
+        return boundedInt(spi.engineNextInt(), bound);
+    }
+
+    /**
+     * Maps the random sample onto the range {@code [0, bound)}, drawing replacement samples if necessary.
+     */
+    int boundedInt(int sample, int bound) {
+
+        // Multiply the 32-bit sample by the bound, and take the high 32 bits of the 64-bit product as the
+        // result. This scales the sample down to [0, bound) without a division. However... 2^32 may not be
+        // evenly divisible by the bound, so some results would be reachable from one more sample than others.
+        // To see why, say the sample is four bits, having the range 0-15, and the bound is six:
         //
-        //     v one of { 0   1   2   3   4   5   6   7   8   9  10  11  12  13  14  15 }
-        //  v % bound:6 | 0   1   2   3   4   5 | 0   1   2   3   4   5 | 0   1   2   3
+        //            sample one of { 0   1   2   3   4   5   6   7   8   9  10  11  12  13  14  15 }
+        //  high 4 bits of sample * 6   | 0   0   0   1   1   1   2   2   3   3   3   4   4   4   5   5
+        //   low 4 bits of sample * 6   | 0   6  12   2   8  14   4  10   0   6  12   2   8  14   4  10
         //
-        // The last "bucket" is incomplete, giving 0, 1, 2, and 3 higher chance of selection.
-        // To establish uniformity, reject any values selected from the top-most incomplete bucket:
+        // Results 0, 1, 3, and 4 are each reachable from three samples, while 2 and 5 are reachable from only
+        // two. The low bits of the product tell us where the sample lands within its result's interval, and
+        // rejecting any sample whose low bits are less than (2^4 mod bound):4 establishes uniformity:
         //
-        //              | 0   1   2   3   4   5 | 0   1   2   3   4   5 | X   X   X   X
+        //                              | X   0   0   X   1   1   2   2   X   3   3   X   4   4   5   5
         //
-        // where X means to try again with another random sample. It is possible, though
-        // unlikely, for the loop to never terminate if the underlying generator misbehaves
-        // or falls into a black hole.
+        // where X means to try again with another random sample. Because (2^32 mod bound) is less than the
+        // bound, the remainder, with its costly division, need only be computed when the low bits are less than
+        // the bound, which is rare. See Lemire, "Fast Random Integer Generation in an Interval", 2019. It is
+        // possible, though unlikely, for the loop to never terminate if the underlying generator misbehaves or
+        // falls into a black hole.
 
-        while (true) {
-            int sample = spi.engineNextInt() & KEEP_31_BITS;  // clear sign bit to make positive
-            int result = sample % bound;
-            if (sample - result + bound - 1 > 0) {  // confirm sample is from a complete bucket
-                return result;
+        long product = (sample & KEEP_32_BITS) * bound;
+        if ((product & KEEP_32_BITS) < bound) {
+            long threshold = (-bound & KEEP_32_BITS) % bound;  // 2^32 mod bound
+            while ((product & KEEP_32_BITS) < threshold) {
+                product = (spi.engineNextInt() & KEEP_32_BITS) * bound;
             }
         }
+        return (int)(product >>> 32);
     }
 
     /**
@@ -135,6 +433,26 @@ public final class DigitalRandom extends SecureRandom {
         return nextInt(bound - least) + least;
     }
 
+    /**
+     * Returns a value chosen uniformly from the range {@code [origin, bound)}, where origin is less than bound.
+     * Unlike {@link #nextInt(int, int)}, the range may be wider than {@code Integer.MAX_VALUE}, as required
+     * by the contract of {@link #ints(int, int)}.
+     */
+    int internalNextInt(int origin, int bound) {
+        int n = bound - origin;
+        if (n > 0) {
+            return nextInt(n) + origin;
+        }
+        // The range does not fit in a positive int, so it covers more than half of all ints. Reject samples
+        // that fall outside of it.
+        while (true) {
+            int sample = spi.engineNextInt();
+            if (origin <= sample && sample < bound) {
+                return sample;
+            }
+        }
+    }
+
     /**
      * Returns the next uniformly distributed long value from this generator.
      *
@@ -158,15 +476,50 @@ public final class DigitalRandom extends SecureRandom {
             throw new IllegalArgumentException("bound must be positive.");
         }
 
-        // See comments in nextInt(int bound).
+        return boundedLong(spi.engineNextLong(), bound);
+    }
 
-        while (true) {
-            long sample = spi.engineNextLong() & KEEP_63_BITS;  // clear sign bit to make positive
-            long result = sample % bound;
-            if (sample - result + bound - 1 > 0) {  // confirm sample is from a complete bucket
-                return result;
+    /**
+     * Maps the random sample onto the range {@code [0, bound)}, drawing replacement samples if necessary.
+     */
+    long boundedLong(long sample, long bound) {
+
+        // See comments in boundedInt. The 128-bit product is split into its high and low 64 bits, and
+        // comparisons treat the low bits as unsigned.
+
+        long low = sample * bound;
+        if (lessThanUnsigned(low, bound)) {
+            long threshold = remainderOfTwoTo64(bound);
+            while (lessThanUnsigned(low, threshold)) {
+                sample = spi.engineNextLong();
+                low = sample * bound;
             }
         }
+        return multiplyHighUnsigned(sample, bound);
+    }
+
+    private static boolean lessThanUnsigned(long a, long b) {
+        return a + Long.MIN_VALUE < b + Long.MIN_VALUE;
+    }
+
+    /**
+     * Returns 2^64 mod n, where n is positive.
+     */
+    private static long remainderOfTwoTo64(long n) {
+        // 2^64 - n is too large for a signed long, so halve it, take the remainder, then double it back.
+        long r = (((-n >>> 1) % n) << 1) + (-n & 1);  // in [0, 2n), unsigned
+        return r < 0 || r >= n ? r - n : r;
+    }
+
+    /**
+     * Returns the high 64 bits of the unsigned 128-bit product of x and y.
+     */
+    private static long multiplyHighUnsigned(long x, long y) {
+        long x0 = x & KEEP_32_BITS, x1 = x >>> 32;
+        long y0 = y & KEEP_32_BITS, y1 = y >>> 32;
+        long t = x1 * y0 + ((x0 * y0) >>> 32);
+        long u = x0 * y1 + (t & KEEP_32_BITS);
+        return x1 * y1 + (t >>> 32) + (u >>> 32);
     }
 
     /**
@@ -186,6 +539,25 @@ public final class DigitalRandom extends SecureRandom {
         return nextLong(bound - least) + least;
     }
 
+    /**
+     * Returns a value chosen uniformly from the range {@code [origin, bound)}, where origin is less than bound.
+     * Unlike {@link #nextLong(long, long)}, the range may be wider than {@code Long.MAX_VALUE}, as required
+     * by the contract of {@link #longs(long, long)}.
+     */
+    long internalNextLong(long origin, long bound) {
+        long n = bound - origin;
+        if (n > 0) {
+            return nextLong(n) + origin;
+        }
+        // See comments in internalNextInt.
+        while (true) {
+            long sample = spi.engineNextLong();
+            if (origin <= sample && sample < bound) {
+                return sample;
+            }
+        }
+    }
+
     /**
      * Returns the next uniformly distributed float value from this generator between
      * {@code 0.0} (inclusive) and {@code 1.0} (exclusive) in units of {@code 2^-24}.
@@ -193,7 +565,7 @@ public final class DigitalRandom extends SecureRandom {
      * @return a random value chosen uniformly from the range {@code [0.0, 1.0)}
      */
     @Override public float nextFloat() {
-        return (spi.engineNextInt() & KEEP_24_BITS) / (float)(1 << 24);
+        return DigitalRandomSpi.toFloat(spi.engineNextInt());
     }
 
     /**
@@ -203,7 +575,7 @@ public final class DigitalRandom extends SecureRandom {
      * @return a random value chosen uniformly from the range {@code [0.0, 1.0)}
      */
     @Override public double nextDouble() {
-        return (spi.engineNextLong() & KEEP_53_BITS) / (double)(1L << 53);
+        return DigitalRandomSpi.toDouble(spi.engineNextLong());
     }
 
     /**
@@ -220,7 +592,475 @@ public final class DigitalRandom extends SecureRandom {
         if (least >= bound) {
             throw new IllegalArgumentException("bound must be greater than least.");
         }
-        return nextDouble() * (bound - least) + least;
+        return internalNextDouble(least, bound);
+    }
+
+    /**
+     * Returns a value chosen uniformly from the range {@code [origin, bound)}, where origin is less than bound.
+     */
+    double internalNextDouble(double origin, double bound) {
+        return scale(nextDouble(), origin, bound);
+    }
+
+    /**
+     * Maps a value from {@code [0.0, 1.0)} onto {@code [origin, bound)}. Rounding can land the result on
+     * bound itself, in which case the largest double less than bound is returned instead.
+     */
+    private static double scale(double r, double origin, double bound) {
+        r = r * (bound - origin) + origin;
+        return r < bound ? r : Math.nextAfter(bound, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Returns the next normally distributed double value from this generator, with mean {@code 0.0} and
+     * standard deviation {@code 1.0}. Unlike {@link java.util.Random#nextGaussian()}, this method is not
+     * synchronized and keeps no state between calls: each sample is drawn with the Ziggurat method, usually
+     * from a single random long, so threads sharing this generator do not contend.
+     *
+     * @return a random value from the standard normal distribution
+     */
+    @Override public double nextGaussian() {
+        return Ziggurat.sample(spi.engineNextLong(), spi);
+    }
+
+    /**
+     * Fills the specified array with the next uniformly distributed int values from this generator.
+     * Each element is chosen exactly as by {@link #nextInt()}, but the whole array is generated at
+     * once, which is much faster than generating each element separately.
+     *
+     * @param ints the array to fill.
+     * @throws IllegalArgumentException if {@code ints} is null
+     */
+    public void nextInts(int[] ints) {
+        if (ints == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        spi.engineNextInts(ints, 0, ints.length);
+    }
+
+    /**
+     * Fills {@code length} elements of the specified array, starting at {@code offset}, with the next
+     * uniformly distributed int values from this generator.
+     *
+     * @param ints the array to fill.
+     * @param offset the index of the first element to fill.
+     * @param length the number of elements to fill.
+     * @throws IllegalArgumentException if {@code ints} is null
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is negative, or if
+     *                                   {@code offset + length} exceeds the length of the array
+     * @see #nextInts(int[])
+     */
+    public void nextInts(int[] ints, int offset, int length) {
+        spi.engineNextInts(ints, offset, length);
+    }
+
+    /**
+     * Fills the specified array with the next uniformly distributed int values from this generator between
+     * {@code 0} (inclusive) and {@code bound} (exclusive). Each element is chosen exactly as by
+     * {@link #nextInt(int)}, but the raw random data for the whole array is generated at once, which is much
+     * faster than generating each element separately.
+     *
+     * @param ints the array to fill.
+     * @param bound the upper bound (exclusive)
+     * @throws IllegalArgumentException if {@code ints} is null or bound is not positive
+     */
+    public void nextInts(int[] ints, int bound) {
+        if (ints == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive.");
+        }
+        nextInts(ints, 0, ints.length, 0, bound);
+    }
+
+    /**
+     * Fills the specified array with the next uniformly distributed long values from this generator.
+     * Each element is chosen exactly as by {@link #nextLong()}, but the whole array is generated at
+     * once, which is much faster than generating each element separately.
+     *
+     * @param longs the array to fill.
+     * @throws IllegalArgumentException if {@code longs} is null
+     */
+    public void nextLongs(long[] longs) {
+        if (longs == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        spi.engineNextLongs(longs, 0, longs.length);
+    }
+
+    /**
+     * Fills {@code length} elements of the specified array, starting at {@code offset}, with the next
+     * uniformly distributed long values from this generator.
+     *
+     * @param longs the array to fill.
+     * @param offset the index of the first element to fill.
+     * @param length the number of elements to fill.
+     * @throws IllegalArgumentException if {@code longs} is null
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is negative, or if
+     *                                   {@code offset + length} exceeds the length of the array
+     * @see #nextLongs(long[])
+     */
+    public void nextLongs(long[] longs, int offset, int length) {
+        spi.engineNextLongs(longs, offset, length);
+    }
+
+    /**
+     * Fills the specified array with the next uniformly distributed long values from this generator between
+     * {@code 0} (inclusive) and {@code bound} (exclusive). Each element is chosen exactly as by
+     * {@link #nextLong(long)}, but the raw random data for the whole array is generated at once, which is much
+     * faster than generating each element separately.
+     *
+     * @param longs the array to fill.
+     * @param bound the upper bound (exclusive)
+     * @throws IllegalArgumentException if {@code longs} is null or bound is not positive
+     */
+    public void nextLongs(long[] longs, long bound) {
+        if (longs == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive.");
+        }
+        nextLongs(longs, 0, longs.length, 0, bound);
+    }
+
+    /**
+     * Fills the specified array with the next uniformly distributed float values between {@code 0.0}
+     * (inclusive) and {@code 1.0} (exclusive) from this generator. Each element is chosen exactly as by
+     * {@link #nextFloat()}, but the whole array is generated at once, which is much faster than
+     * generating each element separately.
+     *
+     * @param floats the array to fill.
+     * @throws IllegalArgumentException if {@code floats} is null
+     */
+    public void nextFloats(float[] floats) {
+        if (floats == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        spi.engineNextFloats(floats, 0, floats.length);
+    }
+
+    /**
+     * Fills {@code length} elements of the specified array, starting at {@code offset}, with the next
+     * uniformly distributed float values between {@code 0.0} (inclusive) and {@code 1.0} (exclusive)
+     * from this generator.
+     *
+     * @param floats the array to fill.
+     * @param offset the index of the first element to fill.
+     * @param length the number of elements to fill.
+     * @throws IllegalArgumentException if {@code floats} is null
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is negative, or if
+     *                                   {@code offset + length} exceeds the length of the array
+     * @see #nextFloats(float[])
+     */
+    public void nextFloats(float[] floats, int offset, int length) {
+        spi.engineNextFloats(floats, offset, length);
+    }
+
+    /**
+     * Fills the specified array with the next uniformly distributed double values between {@code 0.0}
+     * (inclusive) and {@code 1.0} (exclusive) from this generator. Each element is chosen exactly as by
+     * {@link #nextDouble()}, but the whole array is generated at once, which is much faster than
+     * generating each element separately.
+     *
+     * @param doubles the array to fill.
+     * @throws IllegalArgumentException if {@code doubles} is null
+     */
+    public void nextDoubles(double[] doubles) {
+        if (doubles == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        spi.engineNextDoubles(doubles, 0, doubles.length);
+    }
+
+    /**
+     * Fills {@code length} elements of the specified array, starting at {@code offset}, with the next
+     * uniformly distributed double values between {@code 0.0} (inclusive) and {@code 1.0} (exclusive)
+     * from this generator.
+     *
+     * @param doubles the array to fill.
+     * @param offset the index of the first element to fill.
+     * @param length the number of elements to fill.
+     * @throws IllegalArgumentException if {@code doubles} is null
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is negative, or if
+     *                                   {@code offset + length} exceeds the length of the array
+     * @see #nextDoubles(double[])
+     */
+    public void nextDoubles(double[] doubles, int offset, int length) {
+        spi.engineNextDoubles(doubles, offset, length);
+    }
+
+    /**
+     * Fills the specified array with the next normally distributed double values from this generator, with
+     * mean {@code 0.0} and standard deviation {@code 1.0}. Each element is chosen exactly as by
+     * {@link #nextGaussian()}, but random data is drawn from the engine in batches, which is much faster than
+     * generating each element separately.
+     *
+     * @param doubles the array to fill.
+     * @throws IllegalArgumentException if {@code doubles} is null
+     */
+    public void nextGaussians(double[] doubles) {
+        if (doubles == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        Ziggurat.fill(spi, doubles, 0, doubles.length);
+    }
+
+    /**
+     * Fills {@code length} elements of the specified array, starting at {@code offset}, with the next
+     * normally distributed double values from this generator, with mean {@code 0.0} and standard deviation
+     * {@code 1.0}.
+     *
+     * @param doubles the array to fill.
+     * @param offset the index of the first element to fill.
+     * @param length the number of elements to fill.
+     * @throws IllegalArgumentException if {@code doubles} is null
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is negative, or if
+     *                                   {@code offset + length} exceeds the length of the array
+     * @see #nextGaussians(double[])
+     */
+    public void nextGaussians(double[] doubles, int offset, int length) {
+        Ziggurat.fill(spi, doubles, offset, length);
+    }
+
+    /**
+     * Fills the specified array with the next normally distributed float values from this generator, with
+     * mean {@code 0.0} and standard deviation {@code 1.0}. Each element is a sample chosen as by
+     * {@link #nextGaussian()}, rounded to float.
+     *
+     * @param floats the array to fill.
+     * @throws IllegalArgumentException if {@code floats} is null
+     */
+    public void nextGaussians(float[] floats) {
+        if (floats == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        Ziggurat.fill(spi, floats, 0, floats.length);
+    }
+
+    /**
+     * Fills {@code length} elements of the specified array, starting at {@code offset}, with the next
+     * normally distributed float values from this generator, with mean {@code 0.0} and standard deviation
+     * {@code 1.0}.
+     *
+     * @param floats the array to fill.
+     * @param offset the index of the first element to fill.
+     * @param length the number of elements to fill.
+     * @throws IllegalArgumentException if {@code floats} is null
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is negative, or if
+     *                                   {@code offset + length} exceeds the length of the array
+     * @see #nextGaussians(float[])
+     */
+    public void nextGaussians(float[] floats, int offset, int length) {
+        Ziggurat.fill(spi, floats, offset, length);
+    }
+
+    /**
+     * Randomly permutes the specified array using the Fisher-Yates shuffle, so that every permutation is equally
+     * likely. Unlike {@code Collections.shuffle(list, random)}, which draws each swap index with a separate call
+     * to {@link #nextInt(int)}, the swap indices are drawn from this generator in batches.
+     *
+     * @param ints the array to shuffle.
+     * @throws IllegalArgumentException if {@code ints} is null
+     */
+    public void shuffle(int[] ints) {
+        if (ints == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        Shuffler.shuffle(this, ints, 0, ints.length);
+    }
+
+    /**
+     * Randomly permutes the specified array, so that every permutation is equally likely.
+     *
+     * @param longs the array to shuffle.
+     * @throws IllegalArgumentException if {@code longs} is null
+     * @see #shuffle(int[])
+     */
+    public void shuffle(long[] longs) {
+        if (longs == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        Shuffler.shuffle(this, longs, 0, longs.length);
+    }
+
+    /**
+     * Randomly permutes the specified array, so that every permutation is equally likely.
+     *
+     * @param objects the array to shuffle.
+     * @throws IllegalArgumentException if {@code objects} is null
+     * @see #shuffle(int[])
+     */
+    public void shuffle(Object[] objects) {
+        if (objects == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        Shuffler.shuffle(this, objects, 0, objects.length);
+    }
+
+    /**
+     * Randomly permutes the specified list, so that every permutation is equally likely. As with
+     * {@code Collections.shuffle}, a large list that does not implement {@link java.util.RandomAccess} is copied
+     * to an array, shuffled, and copied back, rather than shuffled in place.
+     *
+     * @param list the list to shuffle.
+     * @throws IllegalArgumentException if {@code list} is null
+     * @throws UnsupportedOperationException if the list does not support the {@code set} operation
+     * @see #shuffle(int[])
+     */
+    public void shuffle(List<?> list) {
+        if (list == null) {
+            throw new IllegalArgumentException("null list.");
+        }
+        Shuffler.shuffle(this, list);
+    }
+
+    /**
+     * Randomly permutes the specified array, so that every permutation is equally likely, splitting the work
+     * across the common fork-join pool. Each element is assigned to a bucket uniformly at random, the elements
+     * are gathered by bucket, and the buckets are shuffled concurrently. This needs a temporary copy of the
+     * array and an int per element, so it uses working memory about twice the size of the array. Arrays shorter
+     * than 2^18 elements are shuffled sequentially, as by {@link #shuffle(int[])}. Requires Java 8.
+     *
+     * @param ints the array to shuffle.
+     * @throws IllegalArgumentException if {@code ints} is null
+     */
+    public void parallelShuffle(int[] ints) {
+        if (ints == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        Shuffler.parallelShuffle(this, ints);
+    }
+
+    /**
+     * Randomly permutes the specified array, so that every permutation is equally likely, splitting the work
+     * across the common fork-join pool.
+     *
+     * @param longs the array to shuffle.
+     * @throws IllegalArgumentException if {@code longs} is null
+     * @see #parallelShuffle(int[])
+     */
+    public void parallelShuffle(long[] longs) {
+        if (longs == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        Shuffler.parallelShuffle(this, longs);
+    }
+
+    /**
+     * Randomly permutes the specified array, so that every permutation is equally likely, splitting the work
+     * across the common fork-join pool.
+     *
+     * @param objects the array to shuffle.
+     * @throws IllegalArgumentException if {@code objects} is null
+     * @see #parallelShuffle(int[])
+     */
+    public void parallelShuffle(Object[] objects) {
+        if (objects == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        Shuffler.parallelShuffle(this, objects);
+    }
+
+    /**
+     * Returns {@code k} distinct values chosen uniformly at random from {@code [0, n)}, in ascending order. Every
+     * subset of size {@code k} is equally likely. When {@code k} is small relative to {@code n}, this takes
+     * {@code k} bounded draws using Floyd's algorithm, with a primitive hash set to detect repeats. When the
+     * sample is dense, at least a quarter of the range, it instead walks the range with selection sampling and
+     * needs no set. In both cases random data is drawn from this generator in batches.
+     *
+     * @param n the size of the range to sample from.
+     * @param k the number of values to choose.
+     * @return a new array of {@code k} distinct values in ascending order.
+     * @throws IllegalArgumentException if {@code n} or {@code k} is negative, {@code k} exceeds {@code n}, or
+     *                                  {@code k} exceeds 2^28 while {@code n} exceeds {@code 4k}
+     */
+    public long[] sampleDistinct(long n, int k) {
+        if (n < 0 || k < 0 || k > n) {
+            throw new IllegalArgumentException(String.format("invalid sample: n: %s, k: %s", n, k));
+        }
+        return DistinctSampling.sample(this, n, k);
+    }
+
+    /**
+     * Returns {@code k} distinct values chosen uniformly at random from {@code [0, n)}, in ascending order.
+     *
+     * @param n the size of the range to sample from.
+     * @param k the number of values to choose.
+     * @return a new array of {@code k} distinct values in ascending order.
+     * @throws IllegalArgumentException if {@code n} or {@code k} is negative, {@code k} exceeds {@code n}, or
+     *                                  {@code k} exceeds 2^28 while {@code n} exceeds {@code 4k}
+     * @see #sampleDistinct(long, int)
+     */
+    public int[] sampleDistinct(int n, int k) {
+        long[] sample = sampleDistinct((long)n, k);
+        int[] result = new int[k];
+        for (int i = 0; i < k; i++) {
+            result[i] = (int)sample[i];
+        }
+        Arrays.fill(sample, 0);
+        return result;
+    }
+
+    /**
+     * Fills the specified region of the array with values chosen uniformly from {@code [origin, bound)}, where
+     * origin is less than bound. The region is first filled in bulk, then each sample is mapped into range
+     * exactly as by {@link #nextInt(int)}. The occasional sample that must be rejected is redrawn individually.
+     */
+    void nextInts(int[] ints, int offset, int length, int origin, int bound) {
+        spi.engineNextInts(ints, offset, length);
+        int n = bound - origin;
+        int end = offset + length;
+        if (n > 0) {
+            for (int i = offset; i < end; i++) {
+                ints[i] = boundedInt(ints[i], n) + origin;
+            }
+        }
+        else {
+            for (int i = offset; i < end; i++) {
+                int sample = ints[i];
+                if (sample < origin || bound <= sample) {
+                    ints[i] = internalNextInt(origin, bound);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills the specified region of the array with values chosen uniformly from {@code [origin, bound)}, where
+     * origin is less than bound.
+     *
+     * @see #nextInts(int[], int, int, int, int)
+     */
+    void nextLongs(long[] longs, int offset, int length, long origin, long bound) {
+        spi.engineNextLongs(longs, offset, length);
+        long n = bound - origin;
+        int end = offset + length;
+        if (n > 0) {
+            for (int i = offset; i < end; i++) {
+                longs[i] = boundedLong(longs[i], n) + origin;
+            }
+        }
+        else {
+            for (int i = offset; i < end; i++) {
+                long sample = longs[i];
+                if (sample < origin || bound <= sample) {
+                    longs[i] = internalNextLong(origin, bound);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills the specified region of the array with values chosen uniformly from {@code [origin, bound)}, where
+     * origin is less than bound.
+     */
+    void nextDoubles(double[] doubles, int offset, int length, double origin, double bound) {
+        spi.engineNextDoubles(doubles, offset, length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            doubles[i] = scale(doubles[i], origin, bound);
+        }
     }
 
     /**
@@ -234,6 +1074,57 @@ public final class DigitalRandom extends SecureRandom {
             spi.engineNextLong() & 0x3fffffffffffffffL | 0x8000000000000000L);  // set reserved bits per RFC4122
     }
 
+    /**
+     * Fills the specified array with type 4 (random) UUIDs, each stored as a pair of longs: the most significant
+     * bits followed by the least significant bits, as given to {@link UUID#UUID(long, long)}. The random data for
+     * the whole array is generated at once, and no UUID objects are allocated. Use {@link UUIDFormat} to encode
+     * the pairs as text.
+     *
+     * @param msbLsbPairs the array to fill, of even length.
+     * @throws IllegalArgumentException if {@code msbLsbPairs} is null or its length is odd
+     */
+    public void nextUUIDs(long[] msbLsbPairs) {
+        if (msbLsbPairs == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        if ((msbLsbPairs.length & 1) != 0) {
+            throw new IllegalArgumentException("array length must be even: " + msbLsbPairs.length);
+        }
+        spi.engineNextLongs(msbLsbPairs, 0, msbLsbPairs.length);
+        for (int i = 0; i < msbLsbPairs.length; i += 2) {
+            msbLsbPairs[i] = msbLsbPairs[i] & 0xffffffffffff0fffL | 0x0000000000004000L;
+            msbLsbPairs[i + 1] = msbLsbPairs[i + 1] & 0x3fffffffffffffffL | 0x8000000000000000L;
+        }
+    }
+
+    /**
+     * Fills the specified buffer with type 4 (random) UUIDs in their 16-byte binary form, most significant byte
+     * first, as many as fit between its position and limit. Upon return, the buffer's position is advanced past
+     * the last UUID, so any remainder of fewer than 16 bytes is left untouched. The random data is generated in a
+     * single fill, in place for direct buffers, as by {@link #nextBytes(ByteBuffer)}.
+     *
+     * @param buffer the buffer to fill.
+     * @return the number of UUIDs written.
+     * @throws IllegalArgumentException if {@code buffer} is null
+     * @throws ReadOnlyBufferException if {@code buffer} is read-only
+     */
+    public int nextUUIDs(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("null byte buffer.");
+        }
+        int start = buffer.position();
+        int count = buffer.remaining() / 16;
+        ByteBuffer region = buffer.duplicate();
+        region.limit(start + count * 16);
+        spi.engineNextBytes(region);
+        for (int i = start, end = start + count * 16; i < end; i += 16) {
+            buffer.put(i + 6, (byte)(buffer.get(i + 6) & 0x0f | 0x40));  // set version to 4
+            buffer.put(i + 8, (byte)(buffer.get(i + 8) & 0x3f | 0x80));  // set reserved bits per RFC4122
+        }
+        buffer.position(start + count * 16);
+        return count;
+    }
+
     /**
      * Generates random bytes and places them into the specified array. The number
      * of random bytes generated is equal to the length of the array.
@@ -245,6 +1136,201 @@ public final class DigitalRandom extends SecureRandom {
         spi.engineNextBytes(bytes);
     }
 
+    /**
+     * Generates random bytes and places them into the specified region of the array.
+     *
+     * @param bytes the array to fill with random bytes.
+     * @param offset the index of the first byte to fill.
+     * @param length the number of bytes to fill.
+     * @throws IllegalArgumentException if {@code bytes} is null
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is negative, or if
+     *                                   {@code offset + length} exceeds the length of the array
+     */
+    public void nextBytes(byte[] bytes, int offset, int length) {
+        spi.engineNextBytes(bytes, offset, length);
+    }
+
+    /**
+     * Generates random bytes and places them into the specified buffer, from its position up to its
+     * limit. Upon return, the buffer's position is equal to its limit. Direct buffers are filled in
+     * place by the hardware DRNG, and buffers backed by an array are filled directly in that array,
+     * so no intermediate copy is made.
+     *
+     * @param buffer the buffer to fill with random bytes.
+     * @throws IllegalArgumentException if {@code buffer} is null
+     * @throws ReadOnlyBufferException if {@code buffer} is read-only
+     */
+    public void nextBytes(ByteBuffer buffer) {
+        spi.engineNextBytes(buffer);
+    }
+
+    private static void checkSize(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must be non-negative.");
+        }
+    }
+
+    /**
+     * Returns an effectively unlimited stream of uniformly distributed int values from this generator.
+     * The stream generates values in batches and splits evenly when run in parallel.
+     *
+     * @return a stream of random values chosen as by {@link #nextInt()}
+     */
+    @Override public IntStream ints() {
+        return DigitalRandomStreams.ints(this, Long.MAX_VALUE, 0, 0);
+    }
+
+    /**
+     * Returns a stream of {@code size} uniformly distributed int values from this generator.
+     *
+     * @param size the number of values to generate
+     * @return a stream of random values chosen as by {@link #nextInt()}
+     * @throws IllegalArgumentException if size is negative
+     */
+    @Override public IntStream ints(long size) {
+        checkSize(size);
+        return DigitalRandomStreams.ints(this, size, 0, 0);
+    }
+
+    /**
+     * Returns an effectively unlimited stream of int values from this generator, each chosen uniformly
+     * from {@code [origin, bound)}.
+     *
+     * @param origin the lower bound (inclusive)
+     * @param bound the upper bound (exclusive)
+     * @return a stream of random values chosen as by {@link #nextInt(int, int)}
+     * @throws IllegalArgumentException if origin is not less than bound
+     */
+    @Override public IntStream ints(int origin, int bound) {
+        return ints(Long.MAX_VALUE, origin, bound);
+    }
+
+    /**
+     * Returns a stream of {@code size} int values from this generator, each chosen uniformly from
+     * {@code [origin, bound)}.
+     *
+     * @param size the number of values to generate
+     * @param origin the lower bound (inclusive)
+     * @param bound the upper bound (exclusive)
+     * @return a stream of random values chosen as by {@link #nextInt(int, int)}
+     * @throws IllegalArgumentException if size is negative, or origin is not less than bound
+     */
+    @Override public IntStream ints(long size, int origin, int bound) {
+        checkSize(size);
+        if (origin >= bound) {
+            throw new IllegalArgumentException("bound must be greater than origin.");
+        }
+        return DigitalRandomStreams.ints(this, size, origin, bound);
+    }
+
+    /**
+     * Returns an effectively unlimited stream of uniformly distributed long values from this generator.
+     * The stream generates values in batches and splits evenly when run in parallel.
+     *
+     * @return a stream of random values chosen as by {@link #nextLong()}
+     */
+    @Override public LongStream longs() {
+        return DigitalRandomStreams.longs(this, Long.MAX_VALUE, 0, 0);
+    }
+
+    /**
+     * Returns a stream of {@code size} uniformly distributed long values from this generator.
+     *
+     * @param size the number of values to generate
+     * @return a stream of random values chosen as by {@link #nextLong()}
+     * @throws IllegalArgumentException if size is negative
+     */
+    @Override public LongStream longs(long size) {
+        checkSize(size);
+        return DigitalRandomStreams.longs(this, size, 0, 0);
+    }
+
+    /**
+     * Returns an effectively unlimited stream of long values from this generator, each chosen uniformly
+     * from {@code [origin, bound)}.
+     *
+     * @param origin the lower bound (inclusive)
+     * @param bound the upper bound (exclusive)
+     * @return a stream of random values chosen as by {@link #nextLong(long, long)}
+     * @throws IllegalArgumentException if origin is not less than bound
+     */
+    @Override public LongStream longs(long origin, long bound) {
+        return longs(Long.MAX_VALUE, origin, bound);
+    }
+
+    /**
+     * Returns a stream of {@code size} long values from this generator, each chosen uniformly from
+     * {@code [origin, bound)}.
+     *
+     * @param size the number of values to generate
+     * @param origin the lower bound (inclusive)
+     * @param bound the upper bound (exclusive)
+     * @return a stream of random values chosen as by {@link #nextLong(long, long)}
+     * @throws IllegalArgumentException if size is negative, or origin is not less than bound
+     */
+    @Override public LongStream longs(long size, long origin, long bound) {
+        checkSize(size);
+        if (origin >= bound) {
+            throw new IllegalArgumentException("bound must be greater than origin.");
+        }
+        return DigitalRandomStreams.longs(this, size, origin, bound);
+    }
+
+    /**
+     * Returns an effectively unlimited stream of uniformly distributed double values between {@code 0.0}
+     * (inclusive) and {@code 1.0} (exclusive) from this generator. The stream generates values in batches
+     * and splits evenly when run in parallel.
+     *
+     * @return a stream of random values chosen as by {@link #nextDouble()}
+     */
+    @Override public DoubleStream doubles() {
+        return DigitalRandomStreams.doubles(this, Long.MAX_VALUE, 0, 0);
+    }
+
+    /**
+     * Returns a stream of {@code size} uniformly distributed double values between {@code 0.0} (inclusive)
+     * and {@code 1.0} (exclusive) from this generator.
+     *
+     * @param size the number of values to generate
+     * @return a stream of random values chosen as by {@link #nextDouble()}
+     * @throws IllegalArgumentException if size is negative
+     */
+    @Override public DoubleStream doubles(long size) {
+        checkSize(size);
+        return DigitalRandomStreams.doubles(this, size, 0, 0);
+    }
+
+    /**
+     * Returns an effectively unlimited stream of double values from this generator, each chosen uniformly
+     * from {@code [origin, bound)}.
+     *
+     * @param origin the lower bound (inclusive)
+     * @param bound the upper bound (exclusive)
+     * @return a stream of random values chosen as by {@link #nextDouble(double, double)}
+     * @throws IllegalArgumentException if origin is not less than bound
+     */
+    @Override public DoubleStream doubles(double origin, double bound) {
+        return doubles(Long.MAX_VALUE, origin, bound);
+    }
+
+    /**
+     * Returns a stream of {@code size} double values from this generator, each chosen uniformly from
+     * {@code [origin, bound)}.
+     *
+     * @param size the number of values to generate
+     * @param origin the lower bound (inclusive)
+     * @param bound the upper bound (exclusive)
+     * @return a stream of random values chosen as by {@link #nextDouble(double, double)}
+     * @throws IllegalArgumentException if size is negative, or origin is not less than bound
+     */
+    @Override public DoubleStream doubles(long size, double origin, double bound) {
+        checkSize(size);
+        if (!(origin < bound)) {  // also rejects NaN
+            throw new IllegalArgumentException("bound must be greater than origin.");
+        }
+        return DigitalRandomStreams.doubles(this, size, origin, bound);
+    }
+
 
     private static final long serialVersionUID = 1;
 }
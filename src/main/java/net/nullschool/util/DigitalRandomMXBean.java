@@ -0,0 +1,71 @@
+package net.nullschool.util;
+
+import java.util.Map;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * The management interface of DigitalRandom's metrics, registered with the platform MBean server as
+ * {@code net.nullschool.util:type=DigitalRandom} when the system property {@code net.nullschool.util.metrics} is
+ * {@code true}. Each generator created while metrics are enabled counts into the totals of its engine.<p/>
+ *
+ * Counts are keyed by engine and method, e.g. {@code "RdRandEngine.nextLongs"}, where the method is one of
+ * {@code nextInt}, {@code nextLong}, {@code nextBytes}, {@code nextInts}, {@code nextLongs}, {@code nextFloats},
+ * {@code nextDoubles}, or {@code generateSeed}. Public methods of DigitalRandom map onto these: for example,
+ * {@code nextDouble()} and {@code nextUUID()} draw from {@code nextLong}.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public interface DigitalRandomMXBean {
+
+    /**
+     * Returns the number of values each engine method has served: ints, longs, floats, or doubles for methods
+     * that produce them, and bytes for {@code nextBytes} and {@code generateSeed}.
+     */
+    Map<String, Long> getValues();
+
+    /**
+     * Returns the number of bytes of random data each engine method has served.
+     */
+    Map<String, Long> getBytes();
+
+    /**
+     * Returns, for each engine, the number of requests that failed because the engine could not produce random
+     * data of sufficient quality.
+     */
+    Map<String, Long> getFailures();
+
+    /**
+     * Returns a latency histogram of the fills made by each engine method that fills an array or buffer. Element
+     * {@code i} is the number of fills that took at least {@code 2^i} and less than {@code 2^(i+1)} nanoseconds,
+     * except that element 0 also counts fills measured as taking no time.
+     */
+    Map<String, long[]> getFillLatencies();
+
+    /**
+     * Returns the number of {@code rdrand} steps that failed and were tried again, or -1 if the native library
+     * is not loaded or does not count them.
+     */
+    long getRdRandRetries();
+
+    /**
+     * Returns the number of {@code rdrand} operations that gave up after repeated failures, or -1 if the native
+     * library is not loaded or does not count them.
+     */
+    long getRdRandUnderflows();
+
+    /**
+     * Returns the number of {@code rdseed} steps that failed and were tried again, or -1 if the native library
+     * is not loaded or does not count them.
+     */
+    long getRdSeedRetries();
+
+    /**
+     * Returns the number of {@code rdseed} operations that gave up after repeated failures, or -1 if the native
+     * library is not loaded or does not count them.
+     */
+    long getRdSeedUnderflows();
+}
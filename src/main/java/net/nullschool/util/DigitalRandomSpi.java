@@ -1,6 +1,9 @@
 package net.nullschool.util;
 
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.security.SecureRandomSpi;
+import java.util.Arrays;
 
 
 /**
@@ -15,6 +18,17 @@ import java.security.SecureRandomSpi;
  */
 abstract class DigitalRandomSpi extends SecureRandomSpi {
 
+    private static final int KEEP_24_BITS  = 0b0000000000000000000000000000000000000000111111111111111111111111;
+    private static final long KEEP_53_BITS = 0b0000000000011111111111111111111111111111111111111111111111111111L;
+
+
+    /**
+     * Reseeds this random object with the specified seed, if supported.
+     *
+     * @param seed the seed.
+     */
+    @Override protected abstract void engineSetSeed(byte[] seed);
+
     /**
      * Generates a random int.
      *
@@ -36,6 +50,123 @@ abstract class DigitalRandomSpi extends SecureRandomSpi {
      */
     @Override protected abstract void engineNextBytes(byte[] bytes);
 
+    /**
+     * Fills the specified region of the array with random ints. This implementation invokes
+     * {@link #engineNextInt()} once per element. Subclasses should override this method if they can do better.
+     *
+     * @param ints the array to fill with random data.
+     * @param offset the index of the first element to fill.
+     * @param length the number of elements to fill.
+     * @throws IllegalArgumentException if {@code ints} is null.
+     * @throws IndexOutOfBoundsException if the region does not lie within the array.
+     */
+    protected void engineNextInts(int[] ints, int offset, int length) {
+        checkRange(ints, ints == null ? 0 : ints.length, offset, length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            ints[i] = engineNextInt();
+        }
+    }
+
+    /**
+     * Fills the specified region of the array with random longs. This implementation invokes
+     * {@link #engineNextLong()} once per element. Subclasses should override this method if they can do better.
+     *
+     * @param longs the array to fill with random data.
+     * @param offset the index of the first element to fill.
+     * @param length the number of elements to fill.
+     * @throws IllegalArgumentException if {@code longs} is null.
+     * @throws IndexOutOfBoundsException if the region does not lie within the array.
+     */
+    protected void engineNextLongs(long[] longs, int offset, int length) {
+        checkRange(longs, longs == null ? 0 : longs.length, offset, length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            longs[i] = engineNextLong();
+        }
+    }
+
+    /**
+     * Fills the specified region of the array with random doubles uniformly distributed in {@code [0.0, 1.0)},
+     * each derived from one random long as described by {@link #toDouble(long)}. This implementation invokes
+     * {@link #engineNextLong()} once per element. Subclasses should override this method if they can do better.
+     *
+     * @param doubles the array to fill with random data.
+     * @param offset the index of the first element to fill.
+     * @param length the number of elements to fill.
+     * @throws IllegalArgumentException if {@code doubles} is null.
+     * @throws IndexOutOfBoundsException if the region does not lie within the array.
+     */
+    protected void engineNextDoubles(double[] doubles, int offset, int length) {
+        checkRange(doubles, doubles == null ? 0 : doubles.length, offset, length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            doubles[i] = toDouble(engineNextLong());
+        }
+    }
+
+    /**
+     * Fills the specified region of the array with random floats uniformly distributed in {@code [0.0, 1.0)},
+     * each derived from one random int as described by {@link #toFloat(int)}. This implementation invokes
+     * {@link #engineNextInt()} once per element. Subclasses should override this method if they can do better.
+     *
+     * @param floats the array to fill with random data.
+     * @param offset the index of the first element to fill.
+     * @param length the number of elements to fill.
+     * @throws IllegalArgumentException if {@code floats} is null.
+     * @throws IndexOutOfBoundsException if the region does not lie within the array.
+     */
+    protected void engineNextFloats(float[] floats, int offset, int length) {
+        checkRange(floats, floats == null ? 0 : floats.length, offset, length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            floats[i] = toFloat(engineNextInt());
+        }
+    }
+
+    /**
+     * Fills the specified region of the array with random bytes. This implementation fills a temporary
+     * array and copies it into place. Subclasses should override this method if they can do better.
+     *
+     * @param bytes the array to fill with random data.
+     * @param offset the index of the first byte to fill.
+     * @param length the number of bytes to fill.
+     * @throws IllegalArgumentException if {@code bytes} is null.
+     * @throws IndexOutOfBoundsException if the region does not lie within the array.
+     */
+    protected void engineNextBytes(byte[] bytes, int offset, int length) {
+        checkRange(bytes, bytes == null ? 0 : bytes.length, offset, length);
+        byte[] temp = new byte[length];
+        engineNextBytes(temp);
+        System.arraycopy(temp, 0, bytes, offset, length);
+        Arrays.fill(temp, (byte)0);
+    }
+
+    /**
+     * Fills the buffer with random bytes from its position up to its limit, then advances its position to
+     * its limit. Buffers backed by an accessible array are filled in place using
+     * {@link #engineNextBytes(byte[], int, int)}. Otherwise, this implementation fills a temporary array and
+     * copies it into the buffer.
+     *
+     * @param buffer the buffer to fill with random data.
+     * @throws IllegalArgumentException if {@code buffer} is null.
+     * @throws ReadOnlyBufferException if {@code buffer} is read-only.
+     */
+    protected void engineNextBytes(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("null byte buffer.");
+        }
+        if (buffer.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (buffer.hasArray()) {
+            engineNextBytes(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+        }
+        else {
+            byte[] temp = new byte[buffer.remaining()];
+            engineNextBytes(temp);
+            buffer.put(temp);
+            Arrays.fill(temp, (byte)0);
+        }
+    }
+
     /**
      * Returns a byte array of the specified length filled with seed-quality
      * random data.
@@ -45,6 +176,48 @@ abstract class DigitalRandomSpi extends SecureRandomSpi {
      */
     @Override protected abstract byte[] engineGenerateSeed(int length);
 
+    /**
+     * Converts a random int to a float uniformly distributed in {@code [0.0, 1.0)} in units of {@code 2^-24}
+     * by keeping the low 24 bits. Engines that convert natively must produce identical results.
+     *
+     * @param bits a random int.
+     * @return the corresponding float.
+     */
+    static float toFloat(int bits) {
+        return (bits & KEEP_24_BITS) / (float)(1 << 24);
+    }
+
+    /**
+     * Converts a random long to a double uniformly distributed in {@code [0.0, 1.0)} in units of {@code 2^-53}
+     * by keeping the low 53 bits. Engines that convert natively must produce identical results.
+     *
+     * @param bits a random long.
+     * @return the corresponding double.
+     */
+    static double toDouble(long bits) {
+        return (bits & KEEP_53_BITS) / (double)(1L << 53);
+    }
+
+    /**
+     * Throws if the array is null or the region [offset, offset + length) does not lie within it.
+     *
+     * @param array the array to check.
+     * @param arrayLength the length of the array.
+     * @param offset the index of the first element of the region.
+     * @param length the number of elements in the region.
+     * @throws IllegalArgumentException if {@code array} is null.
+     * @throws IndexOutOfBoundsException if the region does not lie within the array.
+     */
+    static void checkRange(Object array, int arrayLength, int offset, int length) {
+        if (array == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException(
+                String.format("offset: %s, length: %s, array length: %s", offset, length, arrayLength));
+        }
+    }
+
 
     private static final long serialVersionUID = 1;
 }
@@ -0,0 +1,333 @@
+package net.nullschool.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Stream sources for {@link DigitalRandom}. The spliterators defined here split their range evenly in half, so
+ * parallel streams spread work uniformly across the fork-join pool, and they generate values in batches using
+ * the bulk methods of DigitalRandom rather than one value per call. Because DigitalRandom is stateless and
+ * thread safe, every split draws from the same generator without coordination.<p/>
+ *
+ * These methods require Java 8. They are kept apart from DigitalRandom so that DigitalRandom itself continues
+ * to load on Java 7. For the same reason, this file is compiled at the Java 7 source level, which does not
+ * recognize default methods, so the spliterators implement every interface method explicitly.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class DigitalRandomStreams {
+
+    static final int BATCH_SIZE = 256;  // values generated per bulk call when traversing
+    private static final int CHARACTERISTICS =
+        Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
+
+    private DigitalRandomStreams() {
+        throw new AssertionError();
+    }
+
+    static IntStream ints(DigitalRandom random, long size, int origin, int bound) {
+        return StreamSupport.intStream(new IntsSpliterator(random, 0, size, origin, bound), false);
+    }
+
+    static LongStream longs(DigitalRandom random, long size, long origin, long bound) {
+        return StreamSupport.longStream(new LongsSpliterator(random, 0, size, origin, bound), false);
+    }
+
+    static DoubleStream doubles(DigitalRandom random, long size, double origin, double bound) {
+        return StreamSupport.doubleStream(new DoublesSpliterator(random, 0, size, origin, bound), false);
+    }
+
+    /**
+     * Base class for the spliterators below. Covers the index range [index, fence). A range where
+     * {@code origin >= bound} means values are unbounded.
+     */
+    private static abstract class RandomSpliterator {
+
+        final DigitalRandom random;
+        long index;
+        final long fence;
+
+        RandomSpliterator(DigitalRandom random, long index, long fence) {
+            this.random = random;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        /**
+         * Returns the midpoint of the remaining range, or -1 if the range is too small to split.
+         */
+        long splitPoint() {
+            long i = index, m = (i + fence) >>> 1;
+            return m <= i ? -1 : m;
+        }
+
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+
+        public long getExactSizeIfKnown() {
+            return estimateSize();
+        }
+
+        public boolean hasCharacteristics(int characteristics) {
+            return (CHARACTERISTICS & characteristics) == characteristics;
+        }
+
+        public Comparator<Object> getComparator() {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static final class IntsSpliterator extends RandomSpliterator implements Spliterator.OfInt {
+
+        private final int origin;
+        private final int bound;
+
+        IntsSpliterator(DigitalRandom random, long index, long fence, int origin, int bound) {
+            super(random, index, fence);
+            this.origin = origin;
+            this.bound = bound;
+        }
+
+        private int next() {
+            return origin < bound ? random.internalNextInt(origin, bound) : random.nextInt();
+        }
+
+        @Override public IntsSpliterator trySplit() {
+            long m = splitPoint();
+            return m < 0 ? null : new IntsSpliterator(random, index, index = m, origin, bound);
+        }
+
+        @Override public boolean tryAdvance(IntConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            if (index < fence) {
+                consumer.accept(next());
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override public boolean tryAdvance(Consumer<? super Integer> consumer) {
+            if (consumer instanceof IntConsumer) {
+                return tryAdvance((IntConsumer)consumer);
+            }
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            if (index < fence) {
+                consumer.accept(next());
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override public void forEachRemaining(Consumer<? super Integer> consumer) {
+            if (consumer instanceof IntConsumer) {
+                forEachRemaining((IntConsumer)consumer);
+                return;
+            }
+            while (tryAdvance(consumer)) {
+            }
+        }
+
+        @Override public void forEachRemaining(IntConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            int[] batch = new int[(int)Math.min(BATCH_SIZE, fence - index)];
+            while (index < fence) {
+                int n = (int)Math.min(batch.length, fence - index);
+                if (origin < bound) {
+                    random.nextInts(batch, 0, n, origin, bound);
+                }
+                else {
+                    random.nextInts(batch, 0, n);
+                }
+                index += n;
+                for (int i = 0; i < n; i++) {
+                    consumer.accept(batch[i]);
+                }
+            }
+            Arrays.fill(batch, 0);
+        }
+    }
+
+    private static final class LongsSpliterator extends RandomSpliterator implements Spliterator.OfLong {
+
+        private final long origin;
+        private final long bound;
+
+        LongsSpliterator(DigitalRandom random, long index, long fence, long origin, long bound) {
+            super(random, index, fence);
+            this.origin = origin;
+            this.bound = bound;
+        }
+
+        private long next() {
+            return origin < bound ? random.internalNextLong(origin, bound) : random.nextLong();
+        }
+
+        @Override public LongsSpliterator trySplit() {
+            long m = splitPoint();
+            return m < 0 ? null : new LongsSpliterator(random, index, index = m, origin, bound);
+        }
+
+        @Override public boolean tryAdvance(LongConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            if (index < fence) {
+                consumer.accept(next());
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override public boolean tryAdvance(Consumer<? super Long> consumer) {
+            if (consumer instanceof LongConsumer) {
+                return tryAdvance((LongConsumer)consumer);
+            }
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            if (index < fence) {
+                consumer.accept(next());
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override public void forEachRemaining(Consumer<? super Long> consumer) {
+            if (consumer instanceof LongConsumer) {
+                forEachRemaining((LongConsumer)consumer);
+                return;
+            }
+            while (tryAdvance(consumer)) {
+            }
+        }
+
+        @Override public void forEachRemaining(LongConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            long[] batch = new long[(int)Math.min(BATCH_SIZE, fence - index)];
+            while (index < fence) {
+                int n = (int)Math.min(batch.length, fence - index);
+                if (origin < bound) {
+                    random.nextLongs(batch, 0, n, origin, bound);
+                }
+                else {
+                    random.nextLongs(batch, 0, n);
+                }
+                index += n;
+                for (int i = 0; i < n; i++) {
+                    consumer.accept(batch[i]);
+                }
+            }
+            Arrays.fill(batch, 0);
+        }
+    }
+
+    private static final class DoublesSpliterator extends RandomSpliterator implements Spliterator.OfDouble {
+
+        private final double origin;
+        private final double bound;
+
+        DoublesSpliterator(DigitalRandom random, long index, long fence, double origin, double bound) {
+            super(random, index, fence);
+            this.origin = origin;
+            this.bound = bound;
+        }
+
+        private double next() {
+            return origin < bound ? random.internalNextDouble(origin, bound) : random.nextDouble();
+        }
+
+        @Override public DoublesSpliterator trySplit() {
+            long m = splitPoint();
+            return m < 0 ? null : new DoublesSpliterator(random, index, index = m, origin, bound);
+        }
+
+        @Override public boolean tryAdvance(DoubleConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            if (index < fence) {
+                consumer.accept(next());
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override public boolean tryAdvance(Consumer<? super Double> consumer) {
+            if (consumer instanceof DoubleConsumer) {
+                return tryAdvance((DoubleConsumer)consumer);
+            }
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            if (index < fence) {
+                consumer.accept(next());
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override public void forEachRemaining(Consumer<? super Double> consumer) {
+            if (consumer instanceof DoubleConsumer) {
+                forEachRemaining((DoubleConsumer)consumer);
+                return;
+            }
+            while (tryAdvance(consumer)) {
+            }
+        }
+
+        @Override public void forEachRemaining(DoubleConsumer consumer) {
+            if (consumer == null) {
+                throw new NullPointerException();
+            }
+            double[] batch = new double[(int)Math.min(BATCH_SIZE, fence - index)];
+            while (index < fence) {
+                int n = (int)Math.min(batch.length, fence - index);
+                if (origin < bound) {
+                    random.nextDoubles(batch, 0, n, origin, bound);
+                }
+                else {
+                    random.nextDoubles(batch, 0, n);
+                }
+                index += n;
+                for (int i = 0; i < n; i++) {
+                    consumer.accept(batch[i]);
+                }
+            }
+            Arrays.fill(batch, 0);
+        }
+    }
+}
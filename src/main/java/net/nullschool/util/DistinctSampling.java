@@ -0,0 +1,106 @@
+package net.nullschool.util;
+
+import java.util.Arrays;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Chooses k distinct values from [0, n) uniformly at random, for {@link DigitalRandom#sampleDistinct}. Two
+ * methods are used, depending on the density k / n:
+ * <ul>
+ *     <li>Sparse samples use Floyd's algorithm (Bentley and Floyd, "A Sample of Brilliance", 1987), which makes
+ *     exactly k draws. For each j from n - k to n - 1 it chooses t uniformly from [0, j], and adds t to the
+ *     sample, or j if t is already present. Membership is tracked by an open-addressing hash set of primitive
+ *     longs, so nothing is boxed.</li>
+ *     <li>Dense samples use selection sampling (Knuth's Algorithm S), which walks the range in order, selecting
+ *     each value with probability (k - selected) / (n - i). It makes up to n draws but needs no set, and yields
+ *     the sample already sorted.</li>
+ * </ul>
+ * Either way, the bounded draws are mapped from raw random longs drawn from the engine in batches, and the
+ * sample is returned in ascending order.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class DistinctSampling {
+
+    static final int BATCH_SIZE = 512;  // raw longs drawn per bulk call
+    static final int DENSE_RATIO = 4;  // selection sampling is used when n <= DENSE_RATIO * k
+    static final int MAX_SPARSE_K = 1 << 28;  // keeps the hash set's table within the limits of an array
+    private static final long EMPTY = -1;  // marks an empty slot; sample values are never negative
+
+
+    private DistinctSampling() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Returns k distinct values chosen uniformly from [0, n), in ascending order, where 0 <= k <= n.
+     */
+    static long[] sample(DigitalRandom random, long n, int k) {
+        if (n <= (long)DENSE_RATIO * k) {
+            return selection(random, n, k);
+        }
+        if (k > MAX_SPARSE_K) {
+            throw new IllegalArgumentException("k must not exceed 2^28 unless n <= 4k: " + k);
+        }
+        return floyd(random, n, k);
+    }
+
+    static long[] floyd(DigitalRandom random, long n, int k) {
+        long[] result = new long[k];
+        // A power of two at least twice k keeps the load factor at or below one half.
+        long[] table = new long[Integer.highestOneBit(Math.max(1, k)) << 2];
+        Arrays.fill(table, EMPTY);
+        int mask = table.length - 1;
+        long[] batch = new long[Math.min(k, BATCH_SIZE)];
+        int count = 0;
+        for (long j = n - k; j < n; ) {
+            int draws = (int)Math.min(n - j, batch.length);
+            random.engine().engineNextLongs(batch, 0, draws);
+            for (int d = 0; d < draws; d++, j++) {
+                long t = random.boundedLong(batch[d], j + 1);
+                if (!add(table, mask, t)) {
+                    add(table, mask, t = j);  // j cannot already be present: every earlier draw was below j
+                }
+                result[count++] = t;
+            }
+        }
+        Arrays.fill(batch, 0);  // wipe
+        Arrays.fill(table, 0);
+        Arrays.sort(result);
+        return result;
+    }
+
+    static long[] selection(DigitalRandom random, long n, int k) {
+        long[] result = new long[k];
+        long[] batch = new long[(int)Math.min(n, BATCH_SIZE)];
+        int selected = 0;
+        for (long i = 0; selected < k; ) {
+            random.engine().engineNextLongs(batch, 0, batch.length);
+            for (int d = 0; d < batch.length && selected < k; d++, i++) {
+                if (random.boundedLong(batch[d], n - i) < k - selected) {
+                    result[selected++] = i;
+                }
+            }
+        }
+        Arrays.fill(batch, 0);  // wipe
+        return result;
+    }
+
+    /**
+     * Adds the value to the set, returning false if it was already present.
+     */
+    private static boolean add(long[] table, int mask, long value) {
+        int slot = (int)(value * 0x9e3779b97f4a7c15L >>> 32) & mask;  // Fibonacci hashing
+        for (long existing; (existing = table[slot]) != EMPTY; slot = (slot + 1) & mask) {
+            if (existing == value) {
+                return false;
+            }
+        }
+        table[slot] = value;
+        return true;
+    }
+}
@@ -0,0 +1,119 @@
+package net.nullschool.util;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Draws double values from a continuous probability distribution, using a {@link DigitalRandom} as its source of
+ * randomness. Samplers are created with the static factory methods of this class, which precompute whatever
+ * tables and constants the distribution's parameters require, so create a sampler once and reuse it.<p/>
+ *
+ * {@link #fill(double[])} draws random data from the generator in batches, which is much faster than calling
+ * {@link #next()} for each element. Like DigitalRandom, samplers keep no mutable state and are safe for use by
+ * multiple threads without synchronization.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public abstract class DoubleSampler {
+
+    private final RandomWords.Direct direct;
+
+    DoubleSampler(DigitalRandom random) {
+        if (random == null) {
+            throw new IllegalArgumentException("null random.");
+        }
+        this.direct = new RandomWords.Direct(random.engine());
+    }
+
+    /**
+     * Returns a sampler of the exponential distribution with the specified mean, using the Ziggurat method.
+     * Most samples take a single random long.
+     *
+     * @param random the generator to draw from.
+     * @param mean the mean of the distribution, 1 / lambda.
+     * @return the sampler.
+     * @throws IllegalArgumentException if {@code random} is null, or {@code mean} is not positive and finite.
+     */
+    public static DoubleSampler exponential(DigitalRandom random, double mean) {
+        return new ExponentialSampler(random, mean);
+    }
+
+    /**
+     * Returns a sampler of the gamma distribution with the specified shape and scale, using the method of
+     * Marsaglia and Tsang. Each sample takes about three random longs.
+     *
+     * @param random the generator to draw from.
+     * @param shape the shape parameter, k.
+     * @param scale the scale parameter, theta.
+     * @return the sampler.
+     * @throws IllegalArgumentException if {@code random} is null, or {@code shape} or {@code scale} is not
+     *                                  positive and finite.
+     */
+    public static DoubleSampler gamma(DigitalRandom random, double shape, double scale) {
+        return new GammaSampler(random, shape, scale);
+    }
+
+    /**
+     * Returns a sample, drawing as many random words as it needs from the specified source.
+     */
+    abstract double sample(RandomWords words);
+
+    /**
+     * Returns the expected number of random words per sample, for sizing batches.
+     */
+    abstract double wordsPerSample();
+
+    /**
+     * Returns the next value from the distribution.
+     *
+     * @return a random value.
+     */
+    public double next() {
+        return sample(direct);
+    }
+
+    /**
+     * Fills the specified array with values from the distribution.
+     *
+     * @param doubles the array to fill.
+     * @throws IllegalArgumentException if {@code doubles} is null
+     */
+    public void fill(double[] doubles) {
+        if (doubles == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        fill(doubles, 0, doubles.length);
+    }
+
+    /**
+     * Fills {@code length} elements of the specified array, starting at {@code offset}, with values from the
+     * distribution.
+     *
+     * @param doubles the array to fill.
+     * @param offset the index of the first element to fill.
+     * @param length the number of elements to fill.
+     * @throws IllegalArgumentException if {@code doubles} is null
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is negative, or if
+     *                                   {@code offset + length} exceeds the length of the array
+     */
+    public void fill(double[] doubles, int offset, int length) {
+        DigitalRandomSpi.checkRange(doubles, doubles == null ? 0 : doubles.length, offset, length);
+        RandomWords.Batched words = new RandomWords.Batched(direct.spi, (int)Math.ceil(length * wordsPerSample()));
+        try {
+            for (int end = offset + length; offset < end; offset++) {
+                doubles[offset] = sample(words);
+            }
+        }
+        finally {
+            words.wipe();
+        }
+    }
+
+    static void checkPositive(double value, String name) {
+        if (!(value > 0 && value < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException(name + " must be positive and finite: " + value);
+        }
+    }
+}
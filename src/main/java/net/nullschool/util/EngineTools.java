@@ -1,15 +1,17 @@
 package net.nullschool.util;
 
+import javax.crypto.Cipher;
 import javax.crypto.Mac;
+import javax.crypto.NoSuchPaddingException;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Constructor;
 import java.nio.file.*;
-import java.security.InvalidKeyException;
-import java.security.Key;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 
 
 /**
@@ -21,10 +23,9 @@ import java.util.Random;
  */
 final class EngineTools {
 
-    private static final int MAX_UNPACK_RETRIES = 10;
+    private static final int HASH_PREFIX_SIZE = 8;  // bytes of SHA-256 hash in the names of extracted files
     private static final List<String> X86 = Arrays.asList("x86", "i386");
     private static final List<String> X64 = Arrays.asList("x86_64", "amd64");
-    private static final Random rand = new Random();
     private static final Path tmpdir =
         Paths.get(System.getProperty("java.io.tmpdir")).resolve("1bd31d66-eda2-4395-a2a7-510bd581e3ab");
     private static final String osname = System.getProperty("os.name", "unknown");
@@ -35,43 +36,94 @@ final class EngineTools {
         throw new AssertionError();
     }
 
-    private static String packageOf(Class<?> clazz) {
-        return clazz.getName().substring(0, clazz.getName().lastIndexOf('.') + 1);
+    /**
+     * Reads the entire resource into a byte array.
+     *
+     * @return the resource's contents, or null if the resource does not exist.
+     */
+    static byte[] readResource(Class<?> clazz, String name) throws IOException {
+        try (InputStream in = clazz.getResourceAsStream(name)) {
+            if (in == null) {
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) != -1;) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
     }
 
-    private static void deleteIfExists(Path dir, String glob) {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
-            for (Path p : stream) {
-                Files.deleteIfExists(p);
-            }
+    /**
+     * Derives a file name for the resource's contents by inserting a prefix of their SHA-256 hash before the
+     * extension. For example, "linux/drnglib-x64.so" becomes "drnglib-x64-0123456789abcdef.so".
+     */
+    static String contentAddressedName(String name, byte[] contents) {
+        String fileName = name.substring(name.lastIndexOf('/') + 1);
+        int dot = fileName.lastIndexOf('.');
+        String base = dot < 0 ? fileName : fileName.substring(0, dot);
+        String extension = dot < 0 ? "" : fileName.substring(dot);
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(contents);
         }
-        catch (IOException ignore) {
-            // Deletion is best-effort, so silently continue.
+        catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        StringBuilder sb = new StringBuilder(base).append('-');
+        for (int i = 0; i < HASH_PREFIX_SIZE; i++) {
+            sb.append(Character.forDigit(hash[i] >>> 4 & 0xf, 16)).append(Character.forDigit(hash[i] & 0xf, 16));
         }
+        return sb.append(extension).toString();
     }
 
-    static Path unpackResource(Class<?> clazz, String name, Path target) throws IOException {
-        try (InputStream in = clazz.getResourceAsStream(name)) {
-            if (in != null) {
-                Files.createDirectories(target.getParent());
-                Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
-                return target;
-            }
-            else {
-                return null;
-            }
+    private static boolean hasContents(Path file, byte[] contents) {
+        try {
+            return Files.size(file) == contents.length && Arrays.equals(Files.readAllBytes(file), contents);
+        }
+        catch (IOException e) {
+            return false;  // missing or unreadable
         }
     }
 
-    static Path unpackTemporaryResource(Class<?> clazz, String name) throws IOException {
-        String prefix = (name.startsWith("/") ? name.substring(1) : packageOf(clazz) + name).replace('/', '.') + '_';
-        deleteIfExists(tmpdir, prefix + "*");
-        Path target = tmpdir.resolve(prefix + Math.abs(rand.nextLong()));
-        Path result = unpackResource(clazz, name, target);
-        if (result != null) {
-            result.toFile().deleteOnExit();
+    /**
+     * Extracts a resource into the specified directory under a name derived from its contents. If a file with
+     * that name and identical contents already exists, for example because another JVM on this host extracted
+     * it earlier, the existing file is reused. Otherwise the contents are written to a temporary file in the
+     * same directory and then atomically renamed into place, so no process ever observes a partially written
+     * file and nothing is ever deleted out from under another process.
+     *
+     * @return the path of the extracted file, or null if the resource does not exist.
+     * @throws IOException if the file could not be written.
+     */
+    static Path extractResource(Class<?> clazz, String name, Path dir) throws IOException {
+        byte[] contents = readResource(clazz, name);
+        if (contents == null) {
+            return null;
+        }
+        Path target = dir.resolve(contentAddressedName(name, contents));
+        if (hasContents(target, contents)) {
+            return target;
+        }
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, contents);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (IOException e) {
+                // Fine if another process won the race to create the file, otherwise fail.
+                if (!hasContents(target, contents)) {
+                    throw e;
+                }
+            }
+        }
+        finally {
+            Files.deleteIfExists(temp);
         }
-        return result;
+        return target;
     }
 
     static String deriveRdRandLibraryName() {
@@ -97,39 +149,101 @@ final class EngineTools {
         return path + "drnglib" + arch + extension;
     }
 
+    /**
+     * Loads the native library for this platform. A copy installed on {@code java.library.path}, named as
+     * {@link System#mapLibraryName(String)} maps e.g. "drnglib-x64", is preferred. Otherwise the library
+     * embedded as a resource is extracted as described by {@link #extractResource} and loaded from there.
+     *
+     * @throws IOException if extraction fails.
+     * @throws IllegalArgumentException if no library exists for this platform.
+     * @throws UnsatisfiedLinkError if the library cannot be loaded.
+     */
     static void loadRdRandNativeLibrary() throws IOException {
         String library = deriveRdRandLibraryName();
+        String fileName = library.substring(library.lastIndexOf('/') + 1);
 
-        if (RdRandEngine.class.getResource(library) == null) {
+        try {
+            System.loadLibrary(fileName.substring(0, fileName.lastIndexOf('.')));
+            return;
+        }
+        catch (UnsatisfiedLinkError ignore) {
+            // Not installed, so use the embedded library.
+        }
+
+        Path p = extractResource(RdRandEngine.class, library, tmpdir);
+        if (p == null) {
             throw new IllegalArgumentException(
                 String.format("Cannot find resource '%s' for %s %s architecture.", library, osname, osarch));
         }
+        System.load(p.toString());
+    }
+
+    /**
+     * The constructor of the engine that calls the native library through the Foreign Function &amp; Memory API,
+     * or null if the engine does not exist. The engine requires Java 22, so it is only found in the multi-release
+     * section of the jar when running on Java 22 or later.
+     */
+    private static final class ForeignEngine {
+        static final Constructor<?> constructor = find();
 
-        for (int i = 0; i < MAX_UNPACK_RETRIES; i++) {
-            Path p = unpackTemporaryResource(RdRandEngine.class, library);
-            if (p == null || !Files.exists(p)) {
-                break;
+        private static Constructor<?> find() {
+            try {
+                return Class.forName("net.nullschool.util.ForeignRdRandEngine").getDeclaredConstructor();
             }
+            catch (ReflectiveOperationException | LinkageError e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Constructs the fastest available engine for the processor's DRNG: on Java 22 and later, the engine that calls
+     * the native library through the Foreign Function &amp; Memory API if it can be bound, otherwise an
+     * {@link RdRandEngine}.
+     *
+     * @throws UnsupportedOperationException if the DRNG does not exist or cannot be accessed.
+     */
+    static DigitalRandomSpi newRdRandEngine() {
+        Constructor<?> constructor = ForeignEngine.constructor;
+        if (constructor != null) {
             try {
-                System.load(p.toString());
-                return;
+                return (DigitalRandomSpi)constructor.newInstance();
             }
-            catch (UnsatisfiedLinkError e) {
-                if (Files.exists(p)) {
-                    throw e;
-                }
+            catch (ReflectiveOperationException | RuntimeException ignore) {
+                // Fall back to JNI, which reports the failure if the DRNG itself is the problem.
             }
         }
-        throw new UnsatisfiedLinkError("Failed to load " + osname);
+        return new RdRandEngine();
+    }
+
+    /**
+     * Constructs a source of seed material that does not depend on the processor's DRNG, for engines that must
+     * keep working while the DRNG is exhausted: an {@link UrandomEngine} if {@code /dev/urandom} can be read,
+     * otherwise an engine backed by the JRE's default SecureRandom.
+     */
+    static DigitalRandomSpi newIndependentSeedSource() {
+        try {
+            return new UrandomEngine();
+        }
+        catch (UnsupportedOperationException e) {
+            return new SecureRandomEngine();
+        }
+    }
+
+    static Mac newHmacSHA256() {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
     }
 
-    static byte[] hashSHA256(Key key, byte[] data) {
+    static Cipher newAesCtr() {
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(key);
-            return mac.doFinal(data);
+            return Cipher.getInstance("AES/CTR/NoPadding");
         }
-        catch (NoSuchAlgorithmException | InvalidKeyException e) {
+        catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
             throw new RuntimeException(e);
         }
     }
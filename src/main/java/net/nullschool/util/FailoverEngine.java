@@ -0,0 +1,254 @@
+package net.nullschool.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * An implementation of DigitalRandomSpi that serves each request from the first engine of a chain, and when
+ * that engine cannot produce random data, as when {@code rdrand} underflows with many cores drawing on the
+ * DRNG at once, serves the request from the next engine instead. Only when every engine in the chain fails
+ * does a request throw {@link IllegalStateException}. Other exceptions, such as for bad arguments, are thrown
+ * immediately.<p/>
+ *
+ * A request that fails over is served entirely by the next engine: any region the failed engine partly
+ * filled is filled again from the start.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class FailoverEngine extends DigitalRandomSpi {
+
+    private final DigitalRandomSpi[] engines;
+    private final AtomicLong failovers = new AtomicLong();
+
+    /**
+     * @param engines the chain of engines, in the order they are tried.
+     * @throws IllegalArgumentException if {@code engines} is null or empty, or contains null.
+     */
+    FailoverEngine(DigitalRandomSpi... engines) {
+        if (engines == null || engines.length == 0) {
+            throw new IllegalArgumentException("no engines.");
+        }
+        for (DigitalRandomSpi engine : engines) {
+            if (engine == null) {
+                throw new IllegalArgumentException("null engine.");
+            }
+        }
+        this.engines = Arrays.copyOf(engines, engines.length);
+    }
+
+    /**
+     * Returns the number of requests that have failed over from one engine to the next.
+     */
+    long failovers() {
+        return failovers.get();
+    }
+
+    /**
+     * Called when engine {@code i} failed to serve a request. Counts the failover to the next engine, or
+     * rethrows the failure if no engine follows.
+     */
+    private void failedOver(int i, IllegalStateException e) {
+        if (i == engines.length - 1) {
+            throw e;
+        }
+        failovers.incrementAndGet();
+    }
+
+    /**
+     * Seeds the first engine.
+     */
+    @Override protected void engineSetSeed(byte[] seed) {
+        engines[0].engineSetSeed(seed);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value generated by the first engine in the chain that can produce it
+     */
+    @Override protected int engineNextInt() {
+        for (int i = 0; ; i++) {
+            try {
+                return engines[i].engineNextInt();
+            }
+            catch (IllegalStateException e) {
+                failedOver(i, e);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value generated by the first engine in the chain that can produce it
+     */
+    @Override protected long engineNextLong() {
+        for (int i = 0; ; i++) {
+            try {
+                return engines[i].engineNextLong();
+            }
+            catch (IllegalStateException e) {
+                failedOver(i, e);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param bytes the array to fill with random data generated by the first engine in the chain that can
+     *              fill it
+     */
+    @Override protected void engineNextBytes(byte[] bytes) {
+        for (int i = 0; ; i++) {
+            try {
+                engines[i].engineNextBytes(bytes);
+                return;
+            }
+            catch (IllegalStateException e) {
+                failedOver(i, e);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * If an engine fails partway, the whole region is filled again by the next engine. If the last engine
+     * fails, the region may be left partly filled.
+     *
+     * @param bytes the array to fill with random data generated by the first engine in the chain that can
+     *              fill it
+     */
+    @Override protected void engineNextBytes(byte[] bytes, int offset, int length) {
+        for (int i = 0; ; i++) {
+            try {
+                engines[i].engineNextBytes(bytes, offset, length);
+                return;
+            }
+            catch (IllegalStateException e) {
+                failedOver(i, e);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Before failing over, the buffer's position is reset to where it was when the request began, so the next
+     * engine fills the whole region from the start. If the last engine fails, the region may be left partly
+     * filled, with the buffer's position wherever that engine left it.
+     *
+     * @param buffer the buffer to fill with random data generated by the first engine in the chain that can
+     *               fill it
+     */
+    @Override protected void engineNextBytes(ByteBuffer buffer) {
+        int start = buffer == null ? 0 : buffer.position();
+        for (int i = 0; ; i++) {
+            try {
+                engines[i].engineNextBytes(buffer);
+                return;
+            }
+            catch (IllegalStateException e) {
+                failedOver(i, e);
+                buffer.position(start);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param ints the array to fill with random data generated by the first engine in the chain that can fill it
+     */
+    @Override protected void engineNextInts(int[] ints, int offset, int length) {
+        for (int i = 0; ; i++) {
+            try {
+                engines[i].engineNextInts(ints, offset, length);
+                return;
+            }
+            catch (IllegalStateException e) {
+                failedOver(i, e);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param longs the array to fill with random data generated by the first engine in the chain that can
+     *              fill it
+     */
+    @Override protected void engineNextLongs(long[] longs, int offset, int length) {
+        for (int i = 0; ; i++) {
+            try {
+                engines[i].engineNextLongs(longs, offset, length);
+                return;
+            }
+            catch (IllegalStateException e) {
+                failedOver(i, e);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param floats the array to fill with random data generated by the first engine in the chain that can
+     *               fill it
+     */
+    @Override protected void engineNextFloats(float[] floats, int offset, int length) {
+        for (int i = 0; ; i++) {
+            try {
+                engines[i].engineNextFloats(floats, offset, length);
+                return;
+            }
+            catch (IllegalStateException e) {
+                failedOver(i, e);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param doubles the array to fill with random data generated by the first engine in the chain that can
+     *                fill it
+     */
+    @Override protected void engineNextDoubles(double[] doubles, int offset, int length) {
+        for (int i = 0; ; i++) {
+            try {
+                engines[i].engineNextDoubles(doubles, offset, length);
+                return;
+            }
+            catch (IllegalStateException e) {
+                failedOver(i, e);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return seed data drawn from the first engine in the chain that can produce it
+     */
+    @Override protected byte[] engineGenerateSeed(int length) {
+        for (int i = 0; ; i++) {
+            try {
+                return engines[i].engineGenerateSeed(length);
+            }
+            catch (IllegalStateException e) {
+                failedOver(i, e);
+            }
+        }
+    }
+
+
+    private static final long serialVersionUID = 1;
+}
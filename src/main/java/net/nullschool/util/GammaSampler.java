@@ -0,0 +1,58 @@
+package net.nullschool.util;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Samples the gamma distribution with the method of Marsaglia and Tsang ("A Simple Method for Generating Gamma
+ * Variables", 2000). For shape k >= 1, a normal sample x, drawn with the {@link Ziggurat}, is transformed to
+ * d(1 + cx)^3 and accepted by a squeeze test that usually avoids the logarithm; the acceptance rate exceeds 95%
+ * for every shape. For k < 1, a sample for shape k + 1 is scaled by U^(1/k).<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class GammaSampler extends DoubleSampler {
+
+    private final double d;
+    private final double c;
+    private final double inverseShape;  // 1 / k when k < 1, otherwise 0
+    private final double scale;
+
+    GammaSampler(DigitalRandom random, double shape, double scale) {
+        super(random);
+        checkPositive(shape, "shape");
+        checkPositive(scale, "scale");
+        this.d = (shape < 1 ? shape + 1 : shape) - 1.0 / 3;
+        this.c = 1 / Math.sqrt(9 * d);
+        this.inverseShape = shape < 1 ? 1 / shape : 0;
+        this.scale = scale;
+    }
+
+    @Override double sample(RandomWords words) {
+        double result;
+        while (true) {
+            double x = Ziggurat.sample(words.nextLong(), words.spi);
+            double v = 1 + c * x;
+            if (v <= 0) {
+                continue;
+            }
+            v = v * v * v;
+            double u = words.nextOpenDouble();
+            double xx = x * x;
+            if (u < 1 - 0.0331 * xx * xx || Math.log(u) < 0.5 * xx + d * (1 - v + Math.log(v))) {
+                result = d * v;
+                break;
+            }
+        }
+        if (inverseShape != 0) {
+            result *= Math.pow(words.nextOpenDouble(), inverseShape);
+        }
+        return result * scale;
+    }
+
+    @Override double wordsPerSample() {
+        return inverseShape != 0 ? 3.2 : 2.1;
+    }
+}
@@ -0,0 +1,339 @@
+package net.nullschool.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * An implementation of DigitalRandomSpi that runs the continuous health tests of NIST SP 800-90B, section 4.4,
+ * over the output of another engine: the repetition count test, which detects a source stuck on one value, and
+ * the adaptive proportion test, which detects a source that produces one value far too often. Some processors
+ * have shipped with firmware that makes {@code rdrand} return a constant while still reporting success, and
+ * these tests catch such failures.<p/>
+ *
+ * Samples are bytes, assessed at full entropy of 8 bits per byte, and the tests use a false positive
+ * probability of 2^-40 per sample, the most conservative value the standard suggests. This gives a repetition
+ * count cutoff of 6 identical consecutive bytes, and an adaptive proportion cutoff of 19 occurrences of the
+ * first byte of each 512-byte window. Each thread tests the output it receives as its own sequence.<p/>
+ *
+ * To keep the tests cheap at full throughput, they sample output per request rather than per value: the first
+ * {@link #SAMPLE_SIZE} bytes of each fill, and the bytes of every {@link #SCALAR_INTERVAL}th int or long.
+ * Floats and doubles are tested on the random bits they were made from. A source stuck on any pattern with a
+ * period shorter than about 30 bytes fails within a few requests.<p/>
+ *
+ * When a test fails, the request throws {@link IllegalStateException} and any region it filled is wiped. The
+ * thread's tests then start over, so a source that stays faulty keeps failing.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class HealthTestedEngine extends DigitalRandomSpi {
+
+    static final int REPETITION_CUTOFF = 6;  // 1 + ceil(40 / 8)
+    static final int PROPORTION_WINDOW = 512;
+    static final int PROPORTION_CUTOFF = 19;  // 1 + CRITBINOM(512, 2^-8, 1 - 2^-40)
+    static final int SAMPLE_SIZE = 64;  // bytes tested from each fill
+    static final int SCALAR_INTERVAL = 16;  // one int or long tested out of this many, a power of two
+
+    /**
+     * The state of both tests for one thread's sequence of samples.
+     */
+    static final class HealthTests {
+        private int last = -1;  // repetition count test: the previous sample and its run length
+        private int run;
+        private int target;  // adaptive proportion test: the window's first sample and its occurrences
+        private int occurrences;
+        private int position = PROPORTION_WINDOW;  // start a new window with the first sample
+        private int scalars;
+
+        private void reset() {
+            last = -1;
+            run = 0;
+            position = PROPORTION_WINDOW;
+        }
+
+        /**
+         * Feeds one byte to both tests.
+         *
+         * @throws IllegalStateException if either test fails.
+         */
+        void sample(int b) {
+            if (b == last) {
+                if (++run >= REPETITION_CUTOFF) {
+                    reset();
+                    throw new IllegalStateException(String.format(
+                        "Health test failed: byte 0x%02x repeated %s times in a row.", b, REPETITION_CUTOFF));
+                }
+            }
+            else {
+                last = b;
+                run = 1;
+            }
+            if (position == PROPORTION_WINDOW) {
+                target = b;
+                occurrences = 1;
+                position = 1;
+            }
+            else {
+                position++;
+                if (b == target && ++occurrences >= PROPORTION_CUTOFF) {
+                    reset();
+                    throw new IllegalStateException(String.format(
+                        "Health test failed: byte 0x%02x occurred %s times in a window of %s.",
+                        b, PROPORTION_CUTOFF, PROPORTION_WINDOW));
+                }
+            }
+        }
+
+        /**
+         * Feeds the low {@code count} bytes of {@code bits} to both tests, least significant first.
+         */
+        void sample(long bits, int count) {
+            for (int i = 0; i < count; i++, bits >>>= 8) {
+                sample((int)bits & 0xff);
+            }
+        }
+
+        /**
+         * Returns true if the next int or long should be tested.
+         */
+        boolean scalarDue() {
+            return (++scalars & (SCALAR_INTERVAL - 1)) == 0;
+        }
+    }
+
+    private final DigitalRandomSpi engine;
+    final transient ThreadLocal<HealthTests> tests = new ThreadLocal<HealthTests>() {
+        @Override protected HealthTests initialValue() {
+            return new HealthTests();
+        }
+    };
+
+    /**
+     * @param engine the engine whose output is tested.
+     * @throws IllegalArgumentException if {@code engine} is null.
+     */
+    HealthTestedEngine(DigitalRandomSpi engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("null engine.");
+        }
+        this.engine = engine;
+    }
+
+    /**
+     * Replaces a deserialized instance with a new one, so that the transient per-thread tests are recreated.
+     */
+    private Object readResolve() {
+        return new HealthTestedEngine(engine);
+    }
+
+    /**
+     * Tests the first bytes of the region of the array.
+     */
+    private void test(byte[] bytes, int offset, int length) {
+        HealthTests t = tests.get();
+        try {
+            for (int i = offset, end = offset + Math.min(length, SAMPLE_SIZE); i < end; i++) {
+                t.sample(bytes[i] & 0xff);
+            }
+        }
+        catch (IllegalStateException e) {
+            Arrays.fill(bytes, offset, offset + length, (byte)0);  // wipe
+            throw e;
+        }
+    }
+
+    /**
+     * Seeds the tested engine.
+     *
+     * @param seed the seed passed on to the tested engine
+     */
+    @Override protected void engineSetSeed(byte[] seed) {
+        engine.engineSetSeed(seed);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Only every {@link #SCALAR_INTERVAL}th int or long drawn by the current thread is tested, on all four of
+     * its bytes. A failing test throws without returning the value.
+     *
+     * @return random value generated by the tested engine
+     */
+    @Override protected int engineNextInt() {
+        int result = engine.engineNextInt();
+        HealthTests t = tests.get();
+        if (t.scalarDue()) {
+            t.sample(result, 4);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Only every {@link #SCALAR_INTERVAL}th int or long drawn by the current thread is tested, on all eight of
+     * its bytes. A failing test throws without returning the value.
+     *
+     * @return random value generated by the tested engine
+     */
+    @Override protected long engineNextLong() {
+        long result = engine.engineNextLong();
+        HealthTests t = tests.get();
+        if (t.scalarDue()) {
+            t.sample(result, 8);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The first {@link #SAMPLE_SIZE} bytes are tested. If a test fails, the array is wiped.
+     *
+     * @param bytes the array to fill with random data generated by the tested engine
+     */
+    @Override protected void engineNextBytes(byte[] bytes) {
+        engine.engineNextBytes(bytes);
+        test(bytes, 0, bytes.length);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The first {@link #SAMPLE_SIZE} bytes of the region are tested. If a test fails, the region is wiped.
+     *
+     * @param bytes the array to fill with random data generated by the tested engine
+     */
+    @Override protected void engineNextBytes(byte[] bytes, int offset, int length) {
+        engine.engineNextBytes(bytes, offset, length);
+        test(bytes, offset, length);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The first {@link #SAMPLE_SIZE} bytes the tested engine wrote are tested. If a test fails, every byte it
+     * wrote is wiped, and the buffer's position is left at the end of the region.
+     *
+     * @param buffer the buffer to fill with random data generated by the tested engine
+     */
+    @Override protected void engineNextBytes(ByteBuffer buffer) {
+        int start = buffer == null ? 0 : buffer.position();
+        engine.engineNextBytes(buffer);
+        HealthTests t = tests.get();
+        try {
+            for (int i = start, end = start + Math.min(buffer.position() - start, SAMPLE_SIZE); i < end; i++) {
+                t.sample(buffer.get(i) & 0xff);
+            }
+        }
+        catch (IllegalStateException e) {
+            for (int i = start; i < buffer.position(); i++) {
+                buffer.put(i, (byte)0);  // wipe
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The ints making up the first {@link #SAMPLE_SIZE} bytes of the region are tested. If a test fails, the
+     * region is wiped.
+     *
+     * @param ints the array to fill with random data generated by the tested engine
+     */
+    @Override protected void engineNextInts(int[] ints, int offset, int length) {
+        engine.engineNextInts(ints, offset, length);
+        HealthTests t = tests.get();
+        try {
+            for (int i = offset, end = offset + Math.min(length, SAMPLE_SIZE / 4); i < end; i++) {
+                t.sample(ints[i], 4);
+            }
+        }
+        catch (IllegalStateException e) {
+            Arrays.fill(ints, offset, offset + length, 0);  // wipe
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The longs making up the first {@link #SAMPLE_SIZE} bytes of the region are tested. If a test fails, the
+     * region is wiped.
+     *
+     * @param longs the array to fill with random data generated by the tested engine
+     */
+    @Override protected void engineNextLongs(long[] longs, int offset, int length) {
+        engine.engineNextLongs(longs, offset, length);
+        HealthTests t = tests.get();
+        try {
+            for (int i = offset, end = offset + Math.min(length, SAMPLE_SIZE / 8); i < end; i++) {
+                t.sample(longs[i], 8);
+            }
+        }
+        catch (IllegalStateException e) {
+            Arrays.fill(longs, offset, offset + length, 0);  // wipe
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Each float is tested on the three bytes of the 24 random bits it was made from.
+     */
+    @Override protected void engineNextFloats(float[] floats, int offset, int length) {
+        engine.engineNextFloats(floats, offset, length);
+        HealthTests t = tests.get();
+        try {
+            for (int i = offset, end = offset + Math.min(length, SAMPLE_SIZE / 3); i < end; i++) {
+                t.sample((int)(floats[i] * (1 << 24)), 3);
+            }
+        }
+        catch (IllegalStateException e) {
+            Arrays.fill(floats, offset, offset + length, 0);  // wipe
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Each double is tested on the low six bytes of the 53 random bits it was made from.
+     */
+    @Override protected void engineNextDoubles(double[] doubles, int offset, int length) {
+        engine.engineNextDoubles(doubles, offset, length);
+        HealthTests t = tests.get();
+        try {
+            for (int i = offset, end = offset + Math.min(length, SAMPLE_SIZE / 6); i < end; i++) {
+                t.sample((long)(doubles[i] * (1L << 53)), 6);
+            }
+        }
+        catch (IllegalStateException e) {
+            Arrays.fill(doubles, offset, offset + length, 0);  // wipe
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The first {@link #SAMPLE_SIZE} bytes of the seed are tested. If a test fails, the seed is wiped and not
+     * returned.
+     *
+     * @return seed data generated by the tested engine
+     */
+    @Override protected byte[] engineGenerateSeed(int length) {
+        byte[] seed = engine.engineGenerateSeed(length);
+        test(seed, 0, seed.length);
+        return seed;
+    }
+
+
+    private static final long serialVersionUID = 1;
+}
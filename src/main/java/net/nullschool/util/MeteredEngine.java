@@ -0,0 +1,254 @@
+package net.nullschool.util;
+
+import java.nio.ByteBuffer;
+
+import static net.nullschool.util.Metrics.Method.*;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * An implementation of DigitalRandomSpi that counts the values served by another engine into that engine's
+ * {@link Metrics}, and times each fill of an array or buffer. Requests that fail with
+ * {@link IllegalStateException} are counted as failures. Requests with bad arguments are not counted.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class MeteredEngine extends DigitalRandomSpi {
+
+    private final DigitalRandomSpi engine;
+    private final transient Metrics.EngineMetrics metrics;
+
+    /**
+     * @param engine the engine whose output is counted.
+     */
+    MeteredEngine(DigitalRandomSpi engine) {
+        this.engine = engine;
+        this.metrics = Metrics.forEngine(engine.getClass().getSimpleName());
+    }
+
+    /**
+     * Serializes as the unmetered engine. The deserialized generator is metered again if metrics are enabled
+     * in the JVM that reads it.
+     */
+    private Object writeReplace() {
+        return engine;
+    }
+
+    /**
+     * Seeds the metered engine. Seeding is not counted.
+     *
+     * @param seed the seed passed on to the metered engine
+     */
+    @Override protected void engineSetSeed(byte[] seed) {
+        engine.engineSetSeed(seed);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Counted into {@link Metrics.Method#NEXT_INT} as one value, but not timed, since timing would cost more
+     * than the draw. A failure is counted as such.
+     *
+     * @return random value generated by the metered engine
+     */
+    @Override protected int engineNextInt() {
+        try {
+            int result = engine.engineNextInt();
+            metrics.served(NEXT_INT, 1);
+            return result;
+        }
+        catch (IllegalStateException e) {
+            metrics.failed();
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Counted into {@link Metrics.Method#NEXT_LONG} as one value, but not timed, since timing would cost more
+     * than the draw. A failure is counted as such.
+     *
+     * @return random value generated by the metered engine
+     */
+    @Override protected long engineNextLong() {
+        try {
+            long result = engine.engineNextLong();
+            metrics.served(NEXT_LONG, 1);
+            return result;
+        }
+        catch (IllegalStateException e) {
+            metrics.failed();
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Counted into {@link Metrics.Method#NEXT_BYTES} as one value per byte, and the fill is timed. A failure is counted
+     * as such.
+     *
+     * @param bytes the array to fill with random data generated by the metered engine
+     */
+    @Override protected void engineNextBytes(byte[] bytes) {
+        long start = System.nanoTime();
+        try {
+            engine.engineNextBytes(bytes);
+        }
+        catch (IllegalStateException e) {
+            metrics.failed();
+            throw e;
+        }
+        metrics.filled(NEXT_BYTES, bytes.length, System.nanoTime() - start);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Counted into {@link Metrics.Method#NEXT_BYTES} as one value per byte, and the fill is timed. A failure is counted
+     * as such.
+     *
+     * @param bytes the array to fill with random data generated by the metered engine
+     */
+    @Override protected void engineNextBytes(byte[] bytes, int offset, int length) {
+        long start = System.nanoTime();
+        try {
+            engine.engineNextBytes(bytes, offset, length);
+        }
+        catch (IllegalStateException e) {
+            metrics.failed();
+            throw e;
+        }
+        metrics.filled(NEXT_BYTES, length, System.nanoTime() - start);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Counted into {@link Metrics.Method#NEXT_BYTES} as one value per byte remaining, and the fill is timed. A failure
+     * is counted as such.
+     *
+     * @param buffer the buffer to fill with random data generated by the metered engine
+     */
+    @Override protected void engineNextBytes(ByteBuffer buffer) {
+        int length = buffer == null ? 0 : buffer.remaining();
+        long start = System.nanoTime();
+        try {
+            engine.engineNextBytes(buffer);
+        }
+        catch (IllegalStateException e) {
+            metrics.failed();
+            throw e;
+        }
+        metrics.filled(NEXT_BYTES, length, System.nanoTime() - start);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Counted into {@link Metrics.Method#NEXT_INTS} as one value per element, and the fill is timed. A failure is
+     * counted as such.
+     *
+     * @param ints the array to fill with random data generated by the metered engine
+     */
+    @Override protected void engineNextInts(int[] ints, int offset, int length) {
+        long start = System.nanoTime();
+        try {
+            engine.engineNextInts(ints, offset, length);
+        }
+        catch (IllegalStateException e) {
+            metrics.failed();
+            throw e;
+        }
+        metrics.filled(NEXT_INTS, length, System.nanoTime() - start);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Counted into {@link Metrics.Method#NEXT_LONGS} as one value per element, and the fill is timed. A failure is
+     * counted as such.
+     *
+     * @param longs the array to fill with random data generated by the metered engine
+     */
+    @Override protected void engineNextLongs(long[] longs, int offset, int length) {
+        long start = System.nanoTime();
+        try {
+            engine.engineNextLongs(longs, offset, length);
+        }
+        catch (IllegalStateException e) {
+            metrics.failed();
+            throw e;
+        }
+        metrics.filled(NEXT_LONGS, length, System.nanoTime() - start);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Counted into {@link Metrics.Method#NEXT_FLOATS} as one value per element, and the fill is timed. A failure is
+     * counted as such.
+     *
+     * @param floats the array to fill with random data generated by the metered engine
+     */
+    @Override protected void engineNextFloats(float[] floats, int offset, int length) {
+        long start = System.nanoTime();
+        try {
+            engine.engineNextFloats(floats, offset, length);
+        }
+        catch (IllegalStateException e) {
+            metrics.failed();
+            throw e;
+        }
+        metrics.filled(NEXT_FLOATS, length, System.nanoTime() - start);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Counted into {@link Metrics.Method#NEXT_DOUBLES} as one value per element, and the fill is timed. A failure is
+     * counted as such.
+     *
+     * @param doubles the array to fill with random data generated by the metered engine
+     */
+    @Override protected void engineNextDoubles(double[] doubles, int offset, int length) {
+        long start = System.nanoTime();
+        try {
+            engine.engineNextDoubles(doubles, offset, length);
+        }
+        catch (IllegalStateException e) {
+            metrics.failed();
+            throw e;
+        }
+        metrics.filled(NEXT_DOUBLES, length, System.nanoTime() - start);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Counted into {@link Metrics.Method#GENERATE_SEED} as one value per byte, and the fill is timed. A failure is
+     * counted as such.
+     *
+     * @return seed data generated by the metered engine
+     */
+    @Override protected byte[] engineGenerateSeed(int length) {
+        long start = System.nanoTime();
+        byte[] seed;
+        try {
+            seed = engine.engineGenerateSeed(length);
+        }
+        catch (IllegalStateException e) {
+            metrics.failed();
+            throw e;
+        }
+        metrics.filled(GENERATE_SEED, seed.length, System.nanoTime() - start);
+        return seed;
+    }
+
+
+    private static final long serialVersionUID = 1;
+}
@@ -0,0 +1,290 @@
+package net.nullschool.util;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Counts the random data served by each engine, for {@link DigitalRandomMXBean}. Metrics are off unless the
+ * system property {@code net.nullschool.util.metrics} is {@code true} when this class is initialized, in which
+ * case each new DigitalRandom wraps its engine in a {@link MeteredEngine} and the MXBean is registered with the
+ * platform MBean server. Otherwise generators are not wrapped and pay nothing.<p/>
+ *
+ * Many threads may draw from one generator, so counts are striped: each counter is a set of cells, each on its
+ * own pair of cache lines, and a thread adds to the cell chosen by its id. Threads rarely contend for a cell,
+ * and reading a count sums the cells.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class Metrics {
+
+    static final boolean ENABLED = Boolean.getBoolean("net.nullschool.util.metrics");
+    static final String OBJECT_NAME = "net.nullschool.util:type=DigitalRandom";
+
+    private static final int STRIPES = stripeCount(Runtime.getRuntime().availableProcessors());
+    private static final int PADDING = 16;  // longs between cells: two cache lines, defeating adjacent-line prefetch
+    static final int BUCKETS = 64;  // one per power of two of nanoseconds
+
+    static {
+        if (ENABLED) {
+            register();
+        }
+    }
+
+
+    private Metrics() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Returns the smallest power of two at least twice the number of processors, at most 64.
+     */
+    static int stripeCount(int processors) {
+        return Math.min(64, Integer.highestOneBit(Math.max(1, 2 * processors - 1)) << 1);
+    }
+
+    /**
+     * Returns the current thread's stripe.
+     */
+    private static int stripe() {
+        long id = Thread.currentThread().getId();
+        return (int)((id * 0x9e3779b97f4a7c15L) >>> 32) & (STRIPES - 1);  // scatter sequential ids
+    }
+
+    /**
+     * Returns the histogram bucket of a duration: the position of its highest set bit.
+     */
+    static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * The engine methods that are counted, each with the size of the values it serves.
+     */
+    enum Method {
+        NEXT_INT("nextInt", 4),
+        NEXT_LONG("nextLong", 8),
+        NEXT_BYTES("nextBytes", 1),
+        NEXT_INTS("nextInts", 4),
+        NEXT_LONGS("nextLongs", 8),
+        NEXT_FLOATS("nextFloats", 4),
+        NEXT_DOUBLES("nextDoubles", 8),
+        GENERATE_SEED("generateSeed", 1);
+
+        final String label;
+        final int size;
+
+        Method(String label, int size) {
+            this.label = label;
+            this.size = size;
+        }
+    }
+
+    /**
+     * A counter striped across padded cells.
+     */
+    static final class StripedCounter {
+        private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+        void add(long amount) {
+            cells.getAndAdd(stripe() * PADDING, amount);
+        }
+
+        long sum() {
+            long sum = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                sum += cells.get(i * PADDING);
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * A histogram of durations in power-of-two buckets, with one row of buckets per stripe.
+     */
+    static final class Histogram {
+        private final AtomicLongArray rows = new AtomicLongArray(STRIPES * BUCKETS);
+
+        void record(long nanos) {
+            rows.getAndIncrement(stripe() * BUCKETS + bucket(nanos));
+        }
+
+        long[] snapshot() {
+            long[] buckets = new long[BUCKETS];
+            for (int i = 0; i < rows.length(); i++) {
+                buckets[i % BUCKETS] += rows.get(i);
+            }
+            return buckets;
+        }
+    }
+
+    /**
+     * The counts of one engine, shared by every generator that uses it.
+     */
+    static final class EngineMetrics {
+        private final StripedCounter[] values = new StripedCounter[Method.values().length];
+        private final Histogram[] latencies = new Histogram[Method.values().length];
+        private final StripedCounter failures = new StripedCounter();
+
+        EngineMetrics() {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = new StripedCounter();
+                latencies[i] = new Histogram();
+            }
+        }
+
+        /**
+         * Records that the method served the specified number of values.
+         */
+        void served(Method method, long count) {
+            values[method.ordinal()].add(count);
+        }
+
+        /**
+         * Records that the method filled the specified number of values in the specified time.
+         */
+        void filled(Method method, long count, long nanos) {
+            values[method.ordinal()].add(count);
+            latencies[method.ordinal()].record(nanos);
+        }
+
+        /**
+         * Records that a request failed.
+         */
+        void failed() {
+            failures.add(1);
+        }
+
+        long values(Method method) {
+            return values[method.ordinal()].sum();
+        }
+
+        long[] latencies(Method method) {
+            return latencies[method.ordinal()].snapshot();
+        }
+
+        long failures() {
+            return failures.sum();
+        }
+    }
+
+    private static final ConcurrentMap<String, EngineMetrics> engines = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the metrics of the named engine, creating them if necessary.
+     */
+    static EngineMetrics forEngine(String name) {
+        EngineMetrics metrics = engines.get(name);
+        if (metrics == null) {
+            EngineMetrics created = new EngineMetrics();
+            metrics = engines.putIfAbsent(name, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * The MXBean, reading the current counts on each call.
+     */
+    static final class Bean implements DigitalRandomMXBean {
+
+        private interface Reader {
+            Long read(EngineMetrics metrics, Method method);
+        }
+
+        private static Map<String, Long> collect(Reader reader) {
+            Map<String, Long> result = new TreeMap<>();
+            for (Map.Entry<String, EngineMetrics> entry : engines.entrySet()) {
+                for (Method method : Method.values()) {
+                    Long value = reader.read(entry.getValue(), method);
+                    if (value != null) {
+                        result.put(entry.getKey() + "." + method.label, value);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static long nativeCounter(int index) {
+            long[] counters = RdRandEngine.nativeCounters();
+            return counters == null ? -1 : counters[index];
+        }
+
+        @Override public Map<String, Long> getValues() {
+            return collect(new Reader() {
+                @Override public Long read(EngineMetrics metrics, Method method) {
+                    return metrics.values(method);
+                }
+            });
+        }
+
+        @Override public Map<String, Long> getBytes() {
+            return collect(new Reader() {
+                @Override public Long read(EngineMetrics metrics, Method method) {
+                    return metrics.values(method) * method.size;
+                }
+            });
+        }
+
+        @Override public Map<String, Long> getFailures() {
+            Map<String, Long> result = new TreeMap<>();
+            for (Map.Entry<String, EngineMetrics> entry : engines.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().failures());
+            }
+            return result;
+        }
+
+        @Override public Map<String, long[]> getFillLatencies() {
+            Map<String, long[]> result = new TreeMap<>();
+            for (Map.Entry<String, EngineMetrics> entry : engines.entrySet()) {
+                for (Method method : Method.values()) {
+                    if (method != Method.NEXT_INT && method != Method.NEXT_LONG) {
+                        result.put(entry.getKey() + "." + method.label, entry.getValue().latencies(method));
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Override public long getRdRandRetries() {
+            return nativeCounter(0);
+        }
+
+        @Override public long getRdRandUnderflows() {
+            return nativeCounter(1);
+        }
+
+        @Override public long getRdSeedRetries() {
+            return nativeCounter(2);
+        }
+
+        @Override public long getRdSeedUnderflows() {
+            return nativeCounter(3);
+        }
+    }
+
+    /**
+     * Registers the MXBean with the platform MBean server. Failures are ignored: metrics are a diagnostic aid,
+     * and another copy of this library may already have registered the name.
+     */
+    static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        }
+        catch (JMException | SecurityException ignore) {
+            // Generators still count, but nothing publishes the counts.
+        }
+    }
+}
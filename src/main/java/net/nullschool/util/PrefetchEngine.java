@@ -0,0 +1,402 @@
+package net.nullschool.util;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * An implementation of DigitalRandomSpi that moves the cost of generating random data off the calling
+ * threads. Daemon producer threads fill blocks of random data from an underlying engine, such as an
+ * {@link RdRandEngine}, and place them in a bounded ring. Each consumer thread serves ints, longs, and bytes
+ * from its own block in pure Java, like {@link BufferedRdRandEngine}. When its block runs out, the thread
+ * exchanges it for a full block from the ring without crossing into native code or taking a lock. If the ring
+ * is empty, the thread refills its block directly from the underlying engine instead of waiting.<p/>
+ *
+ * The ring is a bounded multi-producer, multi-consumer array queue in the style of Dmitry Vyukov's design:
+ * each slot carries a sequence number that tells producers and consumers whether the slot is free or full,
+ * so claiming a slot takes a single compare-and-set. A consumer hands its spent block back to the ring in
+ * place of the full one it takes. Because each value is wiped from a block as it is consumed, every block
+ * returned to the ring is all zeros.<p/>
+ *
+ * Producers fill the ring until it is full, then park until consumers have drained it to the low-water mark.
+ * Producers hold only a weak reference to their engine, and stop once it has been garbage collected. When the
+ * underlying engine throws {@link IllegalStateException}, as the DRNG does when it is temporarily exhausted, a
+ * producer retries after a short pause. Any other failure stops the producer, after which consumers fill their
+ * blocks directly from the underlying engine.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class PrefetchEngine extends DigitalRandomSpi {
+
+    static final int BLOCK_SIZE = 4096;  // bytes per block in the ring
+    static final int DEFAULT_RING_SIZE = 64;  // blocks
+    static final int DEFAULT_LOW_WATER_MARK = 16;  // blocks
+    static final int DEFAULT_PRODUCERS = 1;
+
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final byte[] ZEROS = new byte[BLOCK_SIZE];
+    private static final AtomicInteger producerNumber = new AtomicInteger();
+
+    /**
+     * A bounded ring of blocks. Slot {@code i} is free for the producer at position {@code p} when its
+     * sequence is {@code p}, and full for the consumer at position {@code p} when its sequence is {@code p + 1}.
+     * Writes to {@code blocks} are published by the subsequent write to the slot's sequence.
+     */
+    static final class Ring {
+        final int mask;
+        final ByteBuffer[] blocks;
+        final AtomicLongArray sequences;
+        final AtomicLong tail = new AtomicLong();  // next position to fill
+        final AtomicLong head = new AtomicLong();  // next position to take
+        final AtomicInteger idle = new AtomicInteger();  // number of producers waiting for the ring to drain
+
+        Ring(int capacity) {
+            mask = capacity - 1;
+            blocks = new ByteBuffer[capacity];
+            sequences = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                blocks[i] = newBlock();
+                sequences.set(i, i);
+            }
+        }
+
+        /**
+         * Claims a free slot for filling.
+         *
+         * @return the claimed position, or -1 if the ring is full.
+         */
+        long claim() {
+            while (true) {
+                long pos = tail.get();
+                long difference = sequences.get((int)pos & mask) - pos;
+                if (difference == 0) {
+                    if (tail.compareAndSet(pos, pos + 1)) {
+                        return pos;
+                    }
+                }
+                else if (difference < 0) {
+                    return -1;
+                }
+            }
+        }
+
+        /**
+         * Marks the block at the claimed position as full, making it available to consumers.
+         */
+        void publish(long pos) {
+            sequences.set((int)pos & mask, pos + 1);
+        }
+
+        /**
+         * Takes a full block from the ring, leaving the spent block in its place.
+         *
+         * @param spent a block that has been wiped.
+         * @return a full block, or null if the ring is empty.
+         */
+        ByteBuffer exchange(ByteBuffer spent) {
+            while (true) {
+                long pos = head.get();
+                int i = (int)pos & mask;
+                long difference = sequences.get(i) - (pos + 1);
+                if (difference == 0) {
+                    if (head.compareAndSet(pos, pos + 1)) {
+                        ByteBuffer full = blocks[i];
+                        blocks[i] = spent;
+                        sequences.set(i, pos + mask + 1);  // free for the producer one lap ahead
+                        return full;
+                    }
+                }
+                else if (difference < 0) {
+                    return null;
+                }
+            }
+        }
+
+        /**
+         * Returns the approximate number of full blocks, including those still being filled.
+         */
+        int size() {
+            return (int)Math.max(0, tail.get() - head.get());
+        }
+    }
+
+    /**
+     * Fills the ring from the underlying engine until the owning engine is garbage collected.
+     */
+    static final class Producer implements Runnable {
+        private final WeakReference<PrefetchEngine> owner;
+        private final Ring ring;
+        private final DigitalRandomSpi source;
+        private final int lowWaterMark;
+
+        Producer(PrefetchEngine owner) {
+            this.owner = new WeakReference<>(owner);
+            this.ring = owner.ring;
+            this.source = owner.source;
+            this.lowWaterMark = owner.lowWaterMark;
+        }
+
+        @Override public void run() {
+            while (owner.get() != null) {
+                long pos = ring.claim();
+                if (pos < 0) {
+                    // Full. Wait for consumers to drain the ring to the low-water mark.
+                    ring.idle.incrementAndGet();
+                    while (ring.size() > lowWaterMark && owner.get() != null) {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                    }
+                    ring.idle.decrementAndGet();
+                    continue;
+                }
+                if (!fill(ring.blocks[(int)pos & ring.mask])) {
+                    return;
+                }
+                ring.publish(pos);
+            }
+        }
+
+        /**
+         * Fills the block from the underlying engine, retrying while it is temporarily exhausted.
+         *
+         * @return true if the block was filled, or false if the owning engine was garbage collected first.
+         */
+        private boolean fill(ByteBuffer block) {
+            while (true) {
+                try {
+                    block.clear();
+                    source.engineNextBytes(block);
+                    return true;
+                }
+                catch (IllegalStateException e) {
+                    wipe(block);
+                    if (owner.get() == null) {
+                        return false;
+                    }
+                    // The slot must be filled before it can be published, so try again shortly.
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+                catch (RuntimeException e) {
+                    wipe(block);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * A thread-confined block of random data. The region [position, BLOCK_SIZE) holds unconsumed random
+     * bytes, and the region [0, position) has been wiped.
+     */
+    static final class Block {
+        ByteBuffer buffer = newBlock();
+        int position = BLOCK_SIZE;  // start empty so the first request triggers an exchange
+    }
+
+    private final DigitalRandomSpi source;
+    private final int ringSize;
+    private final int lowWaterMark;
+    private final int producerCount;
+    final transient Ring ring;
+    private final transient Thread[] producers;
+    final transient ThreadLocal<Block> blocks = new ThreadLocal<Block>() {
+        @Override protected Block initialValue() {
+            return new Block();
+        }
+    };
+
+    PrefetchEngine(DigitalRandomSpi source) {
+        this(source, DEFAULT_RING_SIZE, DEFAULT_LOW_WATER_MARK, DEFAULT_PRODUCERS);
+    }
+
+    /**
+     * @param source the engine that producers draw random data from, and that consumers fall back to.
+     * @param ringSize the number of blocks in the ring, at least 2, rounded up to a power of two.
+     * @param lowWaterMark the number of full blocks at or below which idle producers resume filling.
+     * @param producerCount the number of producer threads.
+     * @throws IllegalArgumentException if {@code source} is null, {@code ringSize} is not between 2 and 2^30,
+     *                                  {@code lowWaterMark} is negative or not less than {@code ringSize}, or
+     *                                  {@code producerCount} is not positive.
+     */
+    PrefetchEngine(DigitalRandomSpi source, int ringSize, int lowWaterMark, int producerCount) {
+        if (source == null) {
+            throw new IllegalArgumentException("null source.");
+        }
+        if (ringSize < 2 || ringSize > 1 << 30) {
+            // Each slot's sequence must distinguish a full slot from one free for the next lap, which takes two.
+            throw new IllegalArgumentException("ringSize must be between 2 and 2^30.");
+        }
+        if (lowWaterMark < 0 || lowWaterMark >= ringSize) {
+            throw new IllegalArgumentException("lowWaterMark must be non-negative and less than ringSize.");
+        }
+        if (producerCount < 1) {
+            throw new IllegalArgumentException("producerCount must be positive.");
+        }
+        this.source = source;
+        this.ringSize = ringSize;
+        this.lowWaterMark = lowWaterMark;
+        this.producerCount = producerCount;
+        this.ring = new Ring(Integer.highestOneBit(ringSize - 1) << 1);
+        this.producers = new Thread[producerCount];
+        for (int i = 0; i < producerCount; i++) {
+            Thread producer = new Thread(new Producer(this), "drnglib-prefetch-" + producerNumber.incrementAndGet());
+            producer.setDaemon(true);
+            producers[i] = producer;
+            producer.start();
+        }
+    }
+
+    /**
+     * Replaces a deserialized instance with a new one, so that the transient ring and producers are recreated.
+     */
+    private Object readResolve() {
+        return new PrefetchEngine(source, ringSize, lowWaterMark, producerCount);
+    }
+
+    private static ByteBuffer newBlock() {
+        return ByteBuffer.allocateDirect(BLOCK_SIZE).order(ByteOrder.nativeOrder());
+    }
+
+    private static void wipe(ByteBuffer block) {
+        block.clear();
+        block.put(ZEROS);
+        block.clear();
+    }
+
+    private void wakeProducers() {
+        for (Thread producer : producers) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    /**
+     * Returns the current thread's block, replaced with a full one if fewer than {@code size} bytes remain.
+     */
+    private Block take(int size) {
+        Block block = blocks.get();
+        if (block.position > BLOCK_SIZE - size) {
+            refill(block);
+        }
+        return block;
+    }
+
+    private void refill(Block block) {
+        ByteBuffer spent = block.buffer;
+        int p = block.position;
+        if (p < BLOCK_SIZE) {
+            ByteBuffer leftovers = spent.duplicate();
+            leftovers.position(p);
+            leftovers.put(ZEROS, 0, BLOCK_SIZE - p);  // wipe
+        }
+        block.position = BLOCK_SIZE;  // the block is all zeros now, so stay empty unless the refill succeeds
+        ByteBuffer full = ring.exchange(spent);
+        if (full != null) {
+            block.buffer = full;
+            if (ring.idle.get() > 0 && ring.size() <= lowWaterMark) {
+                wakeProducers();
+            }
+        }
+        else {
+            // Empty. Don't wait for the producers; fill the block directly.
+            wakeProducers();
+            try {
+                spent.clear();
+                source.engineNextBytes(spent);
+            }
+            catch (RuntimeException e) {
+                wipe(spent);  // don't leave a partial fill behind
+                throw e;
+            }
+        }
+        block.position = 0;
+    }
+
+    /**
+     * Passes the seed to the underlying engine.
+     *
+     * @see DigitalRandomSpi#engineSetSeed(byte[])
+     */
+    @Override protected void engineSetSeed(byte[] seed) {
+        source.engineSetSeed(seed);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value served from the current thread's block
+     */
+    @Override protected int engineNextInt() {
+        Block block = take(4);
+        int p = block.position;
+        int result = block.buffer.getInt(p);
+        block.buffer.putInt(p, 0);  // wipe
+        block.position = p + 4;
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value served from the current thread's block
+     */
+    @Override protected long engineNextLong() {
+        Block block = take(8);
+        int p = block.position;
+        long result = block.buffer.getLong(p);
+        block.buffer.putLong(p, 0);  // wipe
+        block.position = p + 8;
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param bytes the array to fill with random data served from the current thread's block
+     */
+    @Override protected void engineNextBytes(byte[] bytes) {
+        engineNextBytes(bytes, 0, bytes == null ? 0 : bytes.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param bytes the array to fill with random data served from the current thread's block
+     */
+    @Override protected void engineNextBytes(byte[] bytes, int offset, int length) {
+        checkRange(bytes, bytes == null ? 0 : bytes.length, offset, length);
+        while (length > 0) {
+            Block block = take(1);
+            int p = block.position;
+            int count = Math.min(length, BLOCK_SIZE - p);
+            ByteBuffer region = block.buffer.duplicate();
+            region.position(p);
+            region.get(bytes, offset, count);
+            region.position(p);
+            region.put(ZEROS, 0, count);  // wipe
+            block.position = p + count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see DigitalRandomSpi#engineGenerateSeed(int)
+     */
+    @Override protected byte[] engineGenerateSeed(int length) {
+        return source.engineGenerateSeed(length);
+    }
+
+
+    private static final long serialVersionUID = 1;
+}
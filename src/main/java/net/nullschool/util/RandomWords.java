@@ -0,0 +1,96 @@
+package net.nullschool.util;
+
+import java.util.Arrays;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * A source of random 64-bit words for the samplers in this package. Samplers consume a variable number of
+ * words per sample, so rather than ask the engine for each one, a bulk fill draws them through a
+ * {@link Batched} source that refills a private array with one engine call per {@link #BATCH_SIZE} words.
+ * Single samples use a {@link Direct} source instead, which draws straight from the engine.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+abstract class RandomWords {
+
+    static final int BATCH_SIZE = 512;
+
+    final DigitalRandomSpi spi;
+
+    RandomWords(DigitalRandomSpi spi) {
+        this.spi = spi;
+    }
+
+    /**
+     * Returns the next random word.
+     */
+    abstract long nextLong();
+
+    /**
+     * Returns a random double in [0.0, 1.0).
+     */
+    final double nextDouble() {
+        return DigitalRandomSpi.toDouble(nextLong());
+    }
+
+    /**
+     * Returns a random double in (0.0, 1.0], safe to pass to {@link Math#log}.
+     */
+    final double nextOpenDouble() {
+        return 1.0 - nextDouble();
+    }
+
+    /**
+     * Draws each word from the engine as it is needed.
+     */
+    static final class Direct extends RandomWords {
+
+        Direct(DigitalRandomSpi spi) {
+            super(spi);
+        }
+
+        @Override long nextLong() {
+            return spi.engineNextLong();
+        }
+    }
+
+    /**
+     * Draws words from the engine in batches. Confined to the thread performing a single bulk fill, which must
+     * call {@link #wipe} when done.
+     */
+    static final class Batched extends RandomWords {
+
+        private final long[] batch;
+        private int position;
+
+        /**
+         * @param spi the engine to draw from.
+         * @param expected the number of words the caller expects to need, used to avoid drawing a full batch
+         *                 for small fills.
+         */
+        Batched(DigitalRandomSpi spi, int expected) {
+            super(spi);
+            batch = new long[Math.max(1, Math.min(expected, BATCH_SIZE))];
+            position = batch.length;
+        }
+
+        @Override long nextLong() {
+            if (position == batch.length) {
+                spi.engineNextLongs(batch, 0, batch.length);
+                position = 0;
+            }
+            long result = batch[position];
+            batch[position++] = 0;  // wipe
+            return result;
+        }
+
+        void wipe() {
+            Arrays.fill(batch, 0);
+            position = batch.length;
+        }
+    }
+}
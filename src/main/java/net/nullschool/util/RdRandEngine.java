@@ -1,11 +1,16 @@
 package net.nullschool.util;
 
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
-import java.security.Key;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.security.InvalidKeyException;
+import java.util.Arrays;
 
-import static net.nullschool.util.EngineTools.hashSHA256;
 import static net.nullschool.util.EngineTools.loadRdRandNativeLibrary;
+import static net.nullschool.util.EngineTools.newHmacSHA256;
 
 
 /**
@@ -13,10 +18,15 @@ import static net.nullschool.util.EngineTools.loadRdRandNativeLibrary;
  *
  * An implementation of DigitalRandomSpi that uses {@code rdrand} instructions to generate randomness.
  * See <a href="http://en.wikipedia.org/wiki/RdRand">wikipedia</a>. This implementation uses a native
- * library, embedded as a resource in the .jar, to invoke {@code rdrand} directly. Due to system constraints
- * the native library resource is first copied to the temp directory specified by the system property
- * {@code java.io.tmpdir} and then loaded. If the copy or load fails, or if the processor does not support
- * {@code rdrand}, then instantiation of this class will throw an {@link UnsupportedOperationException}.<p/>
+ * library, embedded as a resource in the .jar, to invoke {@code rdrand} directly. A copy of the library
+ * installed on {@code java.library.path} is loaded if present. Otherwise, due to system constraints, the native
+ * library resource is first extracted to the temp directory specified by the system property
+ * {@code java.io.tmpdir}, under a name derived from its contents so that JVMs on the same host share one copy,
+ * and then loaded. If the extraction or load fails, or if the processor does not support {@code rdrand}, then
+ * instantiation of this class will throw an {@link UnsupportedOperationException}.<p/>
+ *
+ * Seeds are drawn with the {@code rdseed} instruction when the processor supports it, falling back to
+ * conditioning {@code rdrand} output when it does not.<p/>
  *
  * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
  *
@@ -28,8 +38,61 @@ final class RdRandEngine extends DigitalRandomSpi {
     private static volatile boolean isLinked;     // flag to remember if native library has been loaded
     private static final Object lock = new Object();
 
+    // Natives added after the first release are missing from libraries built before them, such as the bundled
+    // Windows and Mac OS X binaries. Each flag is cleared the first time its native fails to link, after which
+    // requests are served by the baseline natives instead.
+    static volatile boolean hasDirectFills = true;
+    static volatile boolean hasRangeFills = true;
+    static volatile boolean hasBulkFills = true;
+
+    static final int SEED_RETRIES = 10;  // times to retry an exhausted seed source before falling back
+    private static final int HASH_SIZE = 32;  // bytes of output from HMAC-SHA256
+
+    /**
+     * Per-thread state for distilling seed data from rdrand output. Creating a Mac involves a provider
+     * lookup, so each thread creates its Mac and buffers once and reuses them for every seed it generates.
+     */
+    private static final class Conditioner {
+        final Mac mac = newHmacSHA256();
+        final byte[] key = new byte[16];
+        final byte[] sample = new byte[8192];  // Large enough to guarantee hardware reseed.
+        final byte[] hash = new byte[HASH_SIZE];
+    }
+
+    private static final ThreadLocal<Conditioner> conditioners = new ThreadLocal<Conditioner>() {
+        @Override protected Conditioner initialValue() {
+            return new Conditioner();
+        }
+    };
+
     /**
-     * Extract the native library to a temp directory and load it. If successful, subsequent calls
+     * The seed source backed by the {@code rdseed} instruction.
+     */
+    static final class RdSeedSource implements SeedSource, Serializable {
+
+        /**
+         * Returns true if the CPU supports {@code rdseed}, or false if it does not or the native library is a
+         * build that predates {@code rdseed} support.
+         */
+        @Override public boolean isSupported() {
+            try {
+                return isRdSeedSupported();
+            }
+            catch (UnsatisfiedLinkError e) {
+                return false;
+            }
+        }
+
+        @Override public int nextSeedBytes(byte[] bytes, int offset, int length) {
+            return engineNextSeedBytes(bytes, offset, length);
+        }
+
+
+        private static final long serialVersionUID = 1;
+    }
+
+    /**
+     * Load the native library, extracting it to a temp directory if necessary. If successful, subsequent calls
      * return immediately. If not successful, subsequent calls will attempt another extract and load
      * operation.
      *
@@ -50,6 +113,109 @@ final class RdRandEngine extends DigitalRandomSpi {
      */
     private static native boolean isRdRandSupported();
 
+    /**
+     * Returns true if the CPU supports the {@code rdseed} instruction.
+     */
+    private static native boolean isRdSeedSupported();
+
+    /**
+     * Copies the native library's failure counters into the array, in the order: rdrand retries, rdrand
+     * underflows, rdseed retries, rdseed underflows. A retry is a step that failed and was tried again; an
+     * underflow is an operation that gave up after repeated failures.
+     *
+     * @throws IllegalArgumentException if {@code counters} is null
+     */
+    private static native void engineNativeCounters(long[] counters);
+
+    /**
+     * Returns a snapshot of the native library's failure counters, or null if the library has not been loaded
+     * or is a build that does not keep them.
+     *
+     * @see #engineNativeCounters(long[])
+     */
+    static long[] nativeCounters() {
+        if (!isLinked) {
+            return null;
+        }
+        long[] counters = new long[4];
+        try {
+            engineNativeCounters(counters);
+            return counters;
+        }
+        catch (UnsatisfiedLinkError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Sets the policy the native library follows when {@code rdrand} fails, as it may when many cores draw on
+     * the DRNG at once. A failed attempt is retried at most {@code spins} times immediately, then at most
+     * {@code pauses} times after a spin-wait that doubles with each retry, then at most {@code yields} times
+     * after yielding the processor to other threads. Only when all retries fail does a request throw
+     * {@link IllegalStateException}. The policy applies to every thread in the process.
+     *
+     * @throws IllegalArgumentException if any count is negative
+     */
+    private static native void engineSetRetryPolicy(int spins, int pauses, int yields);
+
+    /**
+     * Returns the number of times {@code rdrand} has been retried on the calling thread.
+     */
+    private static native long engineThreadRetries();
+
+    /**
+     * Loads the native library and sets its retry policy.
+     *
+     * @throws IllegalArgumentException if any count is negative.
+     * @throws UnsupportedOperationException if the native library cannot be loaded, the CPU does not support
+     *                                       {@code rdrand}, or the library is a build that does not support
+     *                                       retry policies.
+     * @see #engineSetRetryPolicy(int, int, int)
+     */
+    static void setRetryPolicy(int spins, int pauses, int yields) throws UnsupportedOperationException {
+        if (spins < 0 || pauses < 0 || yields < 0) {
+            throw new IllegalArgumentException("negative retry count.");
+        }
+        if (!linkAndCheckRdRandSupported()) {
+            throw new UnsupportedOperationException(
+                "Random number generation using rdrand is not supported by this CPU.");
+        }
+        try {
+            engineSetRetryPolicy(spins, pauses, yields);
+        }
+        catch (UnsatisfiedLinkError e) {
+            throw new UnsupportedOperationException("The native library does not support retry policies.", e);
+        }
+    }
+
+    /**
+     * Returns the number of times {@code rdrand} has been retried on the calling thread, or -1 if the native
+     * library has not been loaded or is a build that does not count them. The difference between two calls is
+     * the number of retries made by the requests in between.
+     */
+    static long threadRetries() {
+        if (!isLinked) {
+            return -1;
+        }
+        try {
+            return engineThreadRetries();
+        }
+        catch (UnsatisfiedLinkError e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Fills the specified region of the array with seed data generated by {@code rdseed}, stopping early if
+     * {@code rdseed} repeatedly reports that no seed data is available.
+     *
+     * @return the number of bytes filled
+     * @throws IllegalArgumentException if {@code bytes} is null
+     * @throws ArrayIndexOutOfBoundsException if the region does not lie within the array
+     * @see SeedSource#nextSeedBytes(byte[], int, int)
+     */
+    private static native int engineNextSeedBytes(byte[] bytes, int offset, int length);
+
     /**
      * Load the native library and query the CPU for {@code rdrand} instruction support. If successful,
      * subsequent calls return true immediately.
@@ -70,11 +236,18 @@ final class RdRandEngine extends DigitalRandomSpi {
     }
 
 
+    private final SeedSource seedSource;  // null if the seed source is not supported
+
     RdRandEngine() throws UnsupportedOperationException {
+        this(new RdSeedSource());
+    }
+
+    RdRandEngine(SeedSource seedSource) throws UnsupportedOperationException {
         if (!linkAndCheckRdRandSupported()) {
             throw new UnsupportedOperationException(
                 "Random number generation using rdrand is not supported by this CPU.");
         }
+        this.seedSource = seedSource.isSupported() ? seedSource : null;
     }
 
     /**
@@ -107,6 +280,206 @@ final class RdRandEngine extends DigitalRandomSpi {
      */
     @Override protected native void engineNextBytes(byte[] bytes);
 
+    /**
+     * {@inheritDoc}
+     *
+     * @param bytes the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextBytes(byte[] bytes, int offset, int length) {
+        if (hasRangeFills) {
+            try {
+                engineNextBytesRange(bytes, offset, length);
+                return;
+            }
+            catch (UnsatisfiedLinkError e) {
+                hasRangeFills = false;
+            }
+        }
+        super.engineNextBytes(bytes, offset, length);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Direct buffers are filled in place by rdrand.
+     *
+     * @param buffer the buffer to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextBytes(ByteBuffer buffer) {
+        if (hasDirectFills && buffer != null && buffer.isDirect() && !buffer.isReadOnly()) {
+            try {
+                engineNextBytesDirect(buffer, buffer.position(), buffer.remaining());
+                buffer.position(buffer.limit());
+                return;
+            }
+            catch (UnsatisfiedLinkError e) {
+                hasDirectFills = false;
+            }
+        }
+        super.engineNextBytes(buffer);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The region is filled with one native call.
+     *
+     * @param ints the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextInts(int[] ints, int offset, int length) {
+        if (hasBulkFills) {
+            try {
+                engineFillInts(ints, offset, length);
+                return;
+            }
+            catch (UnsatisfiedLinkError e) {
+                hasBulkFills = false;
+            }
+        }
+        super.engineNextInts(ints, offset, length);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The region is filled with one native call.
+     *
+     * @param longs the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextLongs(long[] longs, int offset, int length) {
+        if (hasBulkFills) {
+            try {
+                engineFillLongs(longs, offset, length);
+                return;
+            }
+            catch (UnsatisfiedLinkError e) {
+                hasBulkFills = false;
+            }
+        }
+        super.engineNextLongs(longs, offset, length);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The region is filled with one native call that converts each sample as it is generated.
+     *
+     * @param doubles the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextDoubles(double[] doubles, int offset, int length) {
+        if (hasBulkFills) {
+            try {
+                engineFillDoubles(doubles, offset, length);
+                return;
+            }
+            catch (UnsatisfiedLinkError e) {
+                hasBulkFills = false;
+            }
+        }
+        super.engineNextDoubles(doubles, offset, length);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The region is filled with one native call that converts each sample as it is generated.
+     *
+     * @param floats the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextFloats(float[] floats, int offset, int length) {
+        if (hasBulkFills) {
+            try {
+                engineFillFloats(floats, offset, length);
+                return;
+            }
+            catch (UnsatisfiedLinkError e) {
+                hasBulkFills = false;
+            }
+        }
+        super.engineNextFloats(floats, offset, length);
+    }
+
+    /**
+     * Fills the specified region of the array with random ints.
+     *
+     * @throws IllegalArgumentException if {@code ints} is null
+     * @throws ArrayIndexOutOfBoundsException if the region does not lie within the array
+     */
+    private native void engineFillInts(int[] ints, int offset, int length);
+
+    /**
+     * Fills the specified region of the array with random longs.
+     *
+     * @throws IllegalArgumentException if {@code longs} is null
+     * @throws ArrayIndexOutOfBoundsException if the region does not lie within the array
+     */
+    private native void engineFillLongs(long[] longs, int offset, int length);
+
+    /**
+     * Fills the specified region of the array with random doubles, each converted as described
+     * by {@link #toDouble(long)}.
+     *
+     * @throws IllegalArgumentException if {@code doubles} is null
+     * @throws ArrayIndexOutOfBoundsException if the region does not lie within the array
+     */
+    private native void engineFillDoubles(double[] doubles, int offset, int length);
+
+    /**
+     * Fills the specified region of the array with random floats, each converted as described
+     * by {@link #toFloat(int)}.
+     *
+     * @throws IllegalArgumentException if {@code floats} is null
+     * @throws ArrayIndexOutOfBoundsException if the region does not lie within the array
+     */
+    private native void engineFillFloats(float[] floats, int offset, int length);
+
+    /**
+     * Fills the specified region of the array with random bytes.
+     *
+     * @param bytes the array to fill with random data generated by rdrand
+     * @param offset the index of the first byte to fill
+     * @param length the number of bytes to fill
+     * @throws IllegalArgumentException if {@code bytes} is null
+     * @throws ArrayIndexOutOfBoundsException if the region does not lie within the array
+     */
+    native void engineNextBytesRange(byte[] bytes, int offset, int length);
+
+    /**
+     * Fills a region of the specified direct buffer with random bytes. The region begins at the absolute
+     * index {@code offset} and spans {@code length} bytes. The buffer's position, limit, and mark are
+     * not modified.
+     *
+     * @param buffer the direct buffer to fill with random data generated by rdrand
+     * @param offset the absolute index of the first byte to fill
+     * @param length the number of bytes to fill
+     * @throws IllegalArgumentException if {@code buffer} is null or not direct, or if the region does not
+     *                                  lie within the buffer's capacity
+     */
+    native void engineNextBytesDirect(ByteBuffer buffer, int offset, int length);
+
+    /**
+     * Fills a region of the specified direct buffer with random bytes, as by
+     * {@link #engineNextBytesDirect(ByteBuffer, int, int)}, or through a temporary array if the native library
+     * does not support direct fills.
+     */
+    void fillDirect(ByteBuffer buffer, int offset, int length) {
+        if (hasDirectFills) {
+            try {
+                engineNextBytesDirect(buffer, offset, length);
+                return;
+            }
+            catch (UnsatisfiedLinkError e) {
+                hasDirectFills = false;
+            }
+        }
+        byte[] temp = new byte[length];
+        engineNextBytes(temp);
+        ByteBuffer region = buffer.duplicate();
+        region.position(offset);
+        region.put(temp);
+        Arrays.fill(temp, (byte)0);
+    }
+
     private byte[] nextBytes(byte[] bytes) {
         engineNextBytes(bytes);
         return bytes;
@@ -115,29 +488,74 @@ final class RdRandEngine extends DigitalRandomSpi {
     /**
      * {@inheritDoc}<p/>
      *
-     * This implementation relies on the knowledge that Intel guarantees the hardware DRNG reseeds
-     * itself at least every 1024 64-bit samples (8192 bytes), although in practice reseeding occurs
-     * much more often. This method hashes a 8192 byte sample using SHA256 to generate 32 bytes of
-     * distilled seed entropy. If more seed data is required, the process is repeated. The hash
-     * function is initialized with a random 128-bit key as provided by {@link #engineNextBytes(byte[])}.
+     * When the CPU supports {@code rdseed}, seed data is taken directly from it. {@code rdseed} may run
+     * dry when seed data is demanded faster than the hardware entropy source can produce it, so a request
+     * that comes up short is retried a few times, yielding the thread between attempts. If {@code rdseed}
+     * is still exhausted, or is not supported at all, the rest of the seed is distilled from {@code rdrand}
+     * output as described in {@link #generateConditionedSeed(byte[], int)}.
      */
     @Override protected byte[] engineGenerateSeed(int numBytes) {
         byte[] seed = new byte[numBytes];
-        byte[] sample = new byte[8192];  // Large enough to guarantee hardware reseed.
-        final Key key = new SecretKeySpec(nextBytes(new byte[16]), "None");
-
-        int written = 0, size;
-        while (written < seed.length) {
-            // Hash a large amount of random data.
-            byte[] hash = hashSHA256(key, nextBytes(sample));
-            // Use the hash as seed data.
-            System.arraycopy(hash, 0, seed, written, size = Math.min(hash.length, seed.length - written));
-            // Repeat until we have enough seed data.
-            written += size;
+        int written = 0;
+        if (seedSource != null) {
+            for (int retries = 0; written < numBytes; ) {
+                int size = seedSource.nextSeedBytes(seed, written, numBytes - written);
+                written += size;
+                if (size == 0) {
+                    if (retries++ == SEED_RETRIES) {
+                        break;
+                    }
+                    Thread.yield();  // give the entropy source time to recover
+                }
+            }
         }
+        generateConditionedSeed(seed, written);
         return seed;
     }
 
+    /**
+     * Fills the array with seed data, starting at {@code written}, distilled from {@code rdrand} output.<p/>
+     *
+     * This method relies on the knowledge that Intel guarantees the hardware DRNG reseeds
+     * itself at least every 1024 64-bit samples (8192 bytes), although in practice reseeding occurs
+     * much more often. This method hashes a 8192 byte sample using SHA256 to generate 32 bytes of
+     * distilled seed entropy. If more seed data is required, the process is repeated. The hash
+     * function is initialized with a random 128-bit key as provided by {@link #engineNextBytes(byte[])}.
+     */
+    private void generateConditionedSeed(byte[] seed, int written) {
+        if (written == seed.length) {
+            return;
+        }
+        Conditioner conditioner = conditioners.get();
+        Mac mac = conditioner.mac;
+        try {
+            mac.init(new SecretKeySpec(nextBytes(conditioner.key), "None"));
+            while (written < seed.length) {
+                // Hash a large amount of random data.
+                mac.update(nextBytes(conditioner.sample));
+                // Use the hash as seed data, writing it directly into the seed when it fits.
+                int size = Math.min(HASH_SIZE, seed.length - written);
+                if (size == HASH_SIZE) {
+                    mac.doFinal(seed, written);
+                }
+                else {
+                    mac.doFinal(conditioner.hash, 0);
+                    System.arraycopy(conditioner.hash, 0, seed, written, size);
+                }
+                // Repeat until we have enough seed data.
+                written += size;
+            }
+        }
+        catch (InvalidKeyException | ShortBufferException e) {
+            throw new RuntimeException(e);
+        }
+        finally {
+            // Don't leave random data behind in the reused buffers.
+            Arrays.fill(conditioner.key, (byte)0);
+            Arrays.fill(conditioner.sample, (byte)0);
+            Arrays.fill(conditioner.hash, (byte)0);
+        }
+    }
 
     private static final long serialVersionUID = 1;
 }
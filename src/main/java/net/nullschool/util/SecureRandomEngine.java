@@ -0,0 +1,73 @@
+package net.nullschool.util;
+
+import java.security.SecureRandom;
+
+
+/**
+ * 2026-10-17<p/>
+ *
+ * An implementation of DigitalRandomSpi that draws on the JRE's default {@link SecureRandom}, for hosts where
+ * {@code /dev/urandom} is not available. It serves as a source of seed material that does not depend on the
+ * processor's DRNG; see {@link EngineTools#newIndependentSeedSource()}.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class SecureRandomEngine extends DigitalRandomSpi {
+
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Supplements, rather than replaces, the seed of the underlying SecureRandom.
+     *
+     * @param seed the seed data to mix in
+     */
+    @Override protected void engineSetSeed(byte[] seed) {
+        random.setSeed(seed);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value generated by the JRE's SecureRandom
+     */
+    @Override protected int engineNextInt() {
+        return random.nextInt();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value generated by the JRE's SecureRandom
+     */
+    @Override protected long engineNextLong() {
+        return random.nextLong();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param bytes the array to fill with random data generated by the JRE's SecureRandom
+     */
+    @Override protected void engineNextBytes(byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("null byte array.");
+        }
+        random.nextBytes(bytes);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The JRE's SecureRandom is seeded from the operating system, so its output is used directly as seed data.
+     */
+    @Override protected byte[] engineGenerateSeed(int numBytes) {
+        byte[] seed = new byte[numBytes];
+        random.nextBytes(seed);
+        return seed;
+    }
+
+
+    private static final long serialVersionUID = 1;
+}
@@ -0,0 +1,34 @@
+package net.nullschool.util;
+
+/**
+ * 2026-10-16<p/>
+ *
+ * A source of seed data: random bytes drawn directly from an entropy source, rather than from the output of
+ * a deterministic generator. The {@code rdseed} instruction is one such source. Unlike {@code rdrand}, a seed
+ * source can be exhausted temporarily when seed data is demanded faster than the entropy source produces
+ * it, so callers must be prepared to receive fewer bytes than requested.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+interface SeedSource {
+
+    /**
+     * Returns true if this seed source is available on this machine.
+     */
+    boolean isSupported();
+
+    /**
+     * Fills the specified region of the array with seed data, stopping early if the source is exhausted.
+     *
+     * @param bytes the array to fill
+     * @param offset the index of the first byte to fill
+     * @param length the number of bytes to fill
+     * @return the number of bytes filled, starting at offset, which is less than length if the source was
+     *         exhausted before the region could be filled.
+     * @throws IllegalArgumentException if {@code bytes} is null
+     * @throws IndexOutOfBoundsException if the region does not lie within the array
+     */
+    int nextSeedBytes(byte[] bytes, int offset, int length);
+}
@@ -0,0 +1,310 @@
+package net.nullschool.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Fisher-Yates shuffles for {@link DigitalRandom}. Each swap needs an index chosen uniformly from a shrinking
+ * range, so rather than draw one int per swap, the shuffles draw a batch of ints from the engine at once and map
+ * each onto its range exactly as {@link DigitalRandom#nextInt(int)} would.<p/>
+ *
+ * The parallel shuffles assign every element to one of several buckets uniformly at random, scatter the elements
+ * into their buckets, then shuffle each bucket separately. Because bucket assignments are independent and each
+ * bucket is uniformly shuffled, every permutation of the whole remains equally likely. Each phase splits its work
+ * across the common fork-join pool, which requires Java 8. The elements are scattered into a temporary copy of
+ * the array, and their destinations are held in an int array of the same length, so a parallel shuffle needs
+ * working memory about twice the size of the array.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class Shuffler {
+
+    static final int BATCH_SIZE = 512;  // swap indices drawn per bulk call
+    static final int PARALLEL_THRESHOLD = 1 << 18;  // arrays shorter than this are shuffled sequentially
+    static final int BUCKETS_PER_THREAD = 4;
+    private static final int LIST_SHUFFLE_THRESHOLD = 5;  // as in Collections.shuffle
+
+
+    private Shuffler() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Fills the batch with the swap indices for positions i, i - 1, ..., i - count + 1 of a shuffle of the region
+     * starting at from, where position p is swapped with an index chosen uniformly from [from, p].
+     */
+    private static void nextSwaps(DigitalRandom random, int[] batch, int count, int i, int from) {
+        random.engine().engineNextInts(batch, 0, count);
+        for (int k = 0; k < count; k++, i--) {
+            batch[k] = from + random.boundedInt(batch[k], i - from + 1);
+        }
+    }
+
+    private static int[] newBatch(int length) {
+        return new int[Math.max(0, Math.min(length - 1, BATCH_SIZE))];
+    }
+
+    static void shuffle(DigitalRandom random, int[] ints, int from, int to) {
+        int[] batch = newBatch(to - from);
+        for (int i = to - 1; i > from; ) {
+            int count = Math.min(i - from, batch.length);
+            nextSwaps(random, batch, count, i, from);
+            for (int k = 0; k < count; k++, i--) {
+                int j = batch[k];
+                int t = ints[i]; ints[i] = ints[j]; ints[j] = t;
+            }
+        }
+        Arrays.fill(batch, 0);  // wipe
+    }
+
+    static void shuffle(DigitalRandom random, long[] longs, int from, int to) {
+        int[] batch = newBatch(to - from);
+        for (int i = to - 1; i > from; ) {
+            int count = Math.min(i - from, batch.length);
+            nextSwaps(random, batch, count, i, from);
+            for (int k = 0; k < count; k++, i--) {
+                int j = batch[k];
+                long t = longs[i]; longs[i] = longs[j]; longs[j] = t;
+            }
+        }
+        Arrays.fill(batch, 0);  // wipe
+    }
+
+    static void shuffle(DigitalRandom random, Object[] objects, int from, int to) {
+        int[] batch = newBatch(to - from);
+        for (int i = to - 1; i > from; ) {
+            int count = Math.min(i - from, batch.length);
+            nextSwaps(random, batch, count, i, from);
+            for (int k = 0; k < count; k++, i--) {
+                int j = batch[k];
+                Object t = objects[i]; objects[i] = objects[j]; objects[j] = t;
+            }
+        }
+        Arrays.fill(batch, 0);  // wipe
+    }
+
+    /**
+     * Shuffles the list in place if it supports fast random access, or is small. Otherwise, as with
+     * {@link java.util.Collections#shuffle}, the list is copied to an array, shuffled, and written back, to avoid
+     * quadratic behavior on sequential access lists.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static void shuffle(DigitalRandom random, List<?> list) {
+        int size = list.size();
+        if (size < LIST_SHUFFLE_THRESHOLD || list instanceof RandomAccess) {
+            List raw = list;
+            int[] batch = newBatch(size);
+            for (int i = size - 1; i > 0; ) {
+                int count = Math.min(i, batch.length);
+                nextSwaps(random, batch, count, i, 0);
+                for (int k = 0; k < count; k++, i--) {
+                    raw.set(i, raw.set(batch[k], raw.get(i)));
+                }
+            }
+            Arrays.fill(batch, 0);  // wipe
+        }
+        else {
+            Object[] objects = list.toArray();
+            shuffle(random, objects, 0, objects.length);
+            ListIterator it = list.listIterator();
+            for (Object object : objects) {
+                it.next();
+                it.set(object);
+            }
+        }
+    }
+
+    /**
+     * A task indexed from zero, run in parallel by {@link #forEach}.
+     */
+    private static abstract class Body {
+        abstract void run(int index);
+    }
+
+    /**
+     * Runs body for each index in [0, count) on the common fork-join pool, returning once all have finished.
+     */
+    private static void forEach(int count, final Body body) {
+        final List<RecursiveAction> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            tasks.add(new RecursiveAction() {
+                @Override protected void compute() {
+                    body.run(index);
+                }
+            });
+        }
+        ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+            @Override protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+    }
+
+    /**
+     * Assigns each of n elements to a bucket uniformly at random, and computes the element's destination so that
+     * buckets occupy consecutive regions, in order, with the elements of each bucket in their original order.
+     * Elements are processed in as many chunks as there are buckets.
+     */
+    private static final class Partition {
+
+        final int n;
+        final int count;  // both the number of chunks and the number of buckets
+        final int[] destinations;
+        final int[] bucketStarts;  // bucket b occupies [bucketStarts[b], bucketStarts[b + 1])
+
+        Partition(final DigitalRandom random, int n, int buckets) {
+            this.n = n;
+            this.count = buckets;
+            this.destinations = new int[n];
+            this.bucketStarts = new int[buckets + 1];
+            final int[][] next = new int[buckets][buckets];  // next[c][b]: where chunk c puts its next b element
+
+            forEach(count, new Body() {
+                @Override void run(int c) {
+                    int from = chunkStart(c), to = chunkStart(c + 1);
+                    int[] tally = next[c];
+                    random.engine().engineNextInts(destinations, from, to - from);
+                    for (int i = from; i < to; i++) {
+                        int b = random.boundedInt(destinations[i], count);
+                        destinations[i] = b;
+                        tally[b]++;
+                    }
+                }
+            });
+
+            int position = 0;
+            for (int b = 0; b < count; b++) {
+                bucketStarts[b] = position;
+                for (int c = 0; c < count; c++) {
+                    int tally = next[c][b];
+                    next[c][b] = position;
+                    position += tally;
+                }
+            }
+            bucketStarts[count] = position;
+
+            forEach(count, new Body() {
+                @Override void run(int c) {
+                    int[] positions = next[c];
+                    for (int i = chunkStart(c), end = chunkStart(c + 1); i < end; i++) {
+                        destinations[i] = positions[destinations[i]]++;
+                    }
+                }
+            });
+        }
+
+        int chunkStart(int c) {
+            return (int)((long)n * c / count);
+        }
+
+        void wipe() {
+            Arrays.fill(destinations, 0);
+        }
+    }
+
+    private static int buckets() {
+        return ForkJoinPool.getCommonPoolParallelism() * BUCKETS_PER_THREAD;
+    }
+
+    static void parallelShuffle(DigitalRandom random, int[] ints) {
+        if (ints.length < PARALLEL_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            shuffle(random, ints, 0, ints.length);
+        }
+        else {
+            parallelShuffle(random, ints, buckets());
+        }
+    }
+
+    static void parallelShuffle(final DigitalRandom random, final int[] ints, int buckets) {
+        final Partition partition = new Partition(random, ints.length, buckets);
+        final int[] scattered = new int[ints.length];
+        forEach(partition.count, new Body() {
+            @Override void run(int c) {
+                int[] destinations = partition.destinations;
+                for (int i = partition.chunkStart(c), end = partition.chunkStart(c + 1); i < end; i++) {
+                    scattered[destinations[i]] = ints[i];
+                }
+            }
+        });
+        forEach(partition.count, new Body() {
+            @Override void run(int b) {
+                int from = partition.bucketStarts[b], to = partition.bucketStarts[b + 1];
+                shuffle(random, scattered, from, to);
+                System.arraycopy(scattered, from, ints, from, to - from);
+            }
+        });
+        partition.wipe();
+    }
+
+    static void parallelShuffle(DigitalRandom random, long[] longs) {
+        if (longs.length < PARALLEL_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            shuffle(random, longs, 0, longs.length);
+        }
+        else {
+            parallelShuffle(random, longs, buckets());
+        }
+    }
+
+    static void parallelShuffle(final DigitalRandom random, final long[] longs, int buckets) {
+        final Partition partition = new Partition(random, longs.length, buckets);
+        final long[] scattered = new long[longs.length];
+        forEach(partition.count, new Body() {
+            @Override void run(int c) {
+                int[] destinations = partition.destinations;
+                for (int i = partition.chunkStart(c), end = partition.chunkStart(c + 1); i < end; i++) {
+                    scattered[destinations[i]] = longs[i];
+                }
+            }
+        });
+        forEach(partition.count, new Body() {
+            @Override void run(int b) {
+                int from = partition.bucketStarts[b], to = partition.bucketStarts[b + 1];
+                shuffle(random, scattered, from, to);
+                System.arraycopy(scattered, from, longs, from, to - from);
+            }
+        });
+        partition.wipe();
+    }
+
+    static void parallelShuffle(DigitalRandom random, Object[] objects) {
+        if (objects.length < PARALLEL_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            shuffle(random, objects, 0, objects.length);
+        }
+        else {
+            parallelShuffle(random, objects, buckets());
+        }
+    }
+
+    static void parallelShuffle(final DigitalRandom random, final Object[] objects, int buckets) {
+        final Partition partition = new Partition(random, objects.length, buckets);
+        final Object[] scattered = new Object[objects.length];
+        forEach(partition.count, new Body() {
+            @Override void run(int c) {
+                int[] destinations = partition.destinations;
+                for (int i = partition.chunkStart(c), end = partition.chunkStart(c + 1); i < end; i++) {
+                    scattered[destinations[i]] = objects[i];
+                }
+            }
+        });
+        forEach(partition.count, new Body() {
+            @Override void run(int b) {
+                int from = partition.bucketStarts[b], to = partition.bucketStarts[b + 1];
+                shuffle(random, scattered, from, to);
+                System.arraycopy(scattered, from, objects, from, to - from);
+            }
+        });
+        partition.wipe();
+    }
+}
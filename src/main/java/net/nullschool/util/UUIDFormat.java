@@ -0,0 +1,122 @@
+package net.nullschool.util;
+
+import java.util.UUID;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Encodes UUIDs in their canonical 36-character form, such as {@code "f81d4fae-7dec-41d0-a765-00a0c91e6bf6"},
+ * directly into a caller's {@code char[]} or {@code byte[]}, without allocating. The output matches
+ * {@link UUID#toString()}: lowercase hex digits with hyphens after the 8th, 12th, 16th, and 20th digits. Bytes are
+ * encoded as ASCII, so they can be written straight to a stream or buffer.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public final class UUIDFormat {
+
+    /**
+     * The length of the canonical form, in characters.
+     */
+    public static final int LENGTH = 36;
+
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+
+    private UUIDFormat() {
+        throw new AssertionError();
+    }
+
+    private static void checkRange(Object array, int arrayLength, int offset) {
+        DigitalRandomSpi.checkRange(array, arrayLength, offset, LENGTH);
+    }
+
+    /**
+     * Writes the canonical form of the UUID with the specified bits into the array, starting at {@code offset}.
+     *
+     * @param msb the most significant 64 bits of the UUID.
+     * @param lsb the least significant 64 bits of the UUID.
+     * @param chars the array to write to.
+     * @param offset the index at which to write the first of 36 characters.
+     * @throws IllegalArgumentException if {@code chars} is null
+     * @throws IndexOutOfBoundsException if {@code offset} is negative, or {@code offset + 36} exceeds the length
+     *                                   of the array
+     */
+    public static void format(long msb, long lsb, char[] chars, int offset) {
+        checkRange(chars, chars == null ? 0 : chars.length, offset);
+        int i = offset;
+        i = digits(msb >>> 32, 8, chars, i);
+        chars[i++] = '-';
+        i = digits(msb >>> 16, 4, chars, i);
+        chars[i++] = '-';
+        i = digits(msb, 4, chars, i);
+        chars[i++] = '-';
+        i = digits(lsb >>> 48, 4, chars, i);
+        chars[i++] = '-';
+        digits(lsb, 12, chars, i);
+    }
+
+    /**
+     * Writes the canonical form of the UUID with the specified bits into the array as ASCII, starting at
+     * {@code offset}.
+     *
+     * @param msb the most significant 64 bits of the UUID.
+     * @param lsb the least significant 64 bits of the UUID.
+     * @param bytes the array to write to.
+     * @param offset the index at which to write the first of 36 bytes.
+     * @throws IllegalArgumentException if {@code bytes} is null
+     * @throws IndexOutOfBoundsException if {@code offset} is negative, or {@code offset + 36} exceeds the length
+     *                                   of the array
+     */
+    public static void format(long msb, long lsb, byte[] bytes, int offset) {
+        checkRange(bytes, bytes == null ? 0 : bytes.length, offset);
+        int i = offset;
+        i = digits(msb >>> 32, 8, bytes, i);
+        bytes[i++] = '-';
+        i = digits(msb >>> 16, 4, bytes, i);
+        bytes[i++] = '-';
+        i = digits(msb, 4, bytes, i);
+        bytes[i++] = '-';
+        i = digits(lsb >>> 48, 4, bytes, i);
+        bytes[i++] = '-';
+        digits(lsb, 12, bytes, i);
+    }
+
+    /**
+     * Writes the canonical form of the UUID into the array, starting at {@code offset}.
+     *
+     * @param uuid the UUID to format.
+     * @param chars the array to write to.
+     * @param offset the index at which to write the first of 36 characters.
+     * @throws IllegalArgumentException if {@code uuid} or {@code chars} is null
+     * @throws IndexOutOfBoundsException if {@code offset} is negative, or {@code offset + 36} exceeds the length
+     *                                   of the array
+     */
+    public static void format(UUID uuid, char[] chars, int offset) {
+        if (uuid == null) {
+            throw new IllegalArgumentException("null uuid.");
+        }
+        format(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), chars, offset);
+    }
+
+    /**
+     * Writes the low {@code count} hex digits of the value, most significant first, returning the next index.
+     */
+    private static int digits(long value, int count, char[] chars, int offset) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            chars[i] = DIGITS[(int)value & 0xf];
+            value >>>= 4;
+        }
+        return offset + count;
+    }
+
+    private static int digits(long value, int count, byte[] bytes, int offset) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            bytes[i] = (byte)DIGITS[(int)value & 0xf];
+            value >>>= 4;
+        }
+        return offset + count;
+    }
+}
@@ -0,0 +1,114 @@
+package net.nullschool.util;
+
+import java.util.UUID;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Generates time-ordered version 7 UUIDs, as specified by RFC 9562: a 48-bit Unix timestamp in milliseconds,
+ * followed by a 12-bit counter and 62 random bits drawn from a {@link DigitalRandom}. UUIDs from one generator
+ * strictly increase, both as unsigned 128-bit values and in their canonical text form, so they sort in creation
+ * order and make well-behaved database keys.<p/>
+ *
+ * At the start of each millisecond the counter is seeded with 11 random bits, leaving room for at least 2048
+ * increments before it overflows. Should a millisecond exhaust the counter, or the system clock step backwards,
+ * the generator advances its own timestamp past the clock's rather than repeat or reorder a value, and falls back
+ * in step with the clock once the clock catches up.<p/>
+ *
+ * This class is safe for use by multiple threads. Random data is generated outside the generator's lock, which is
+ * held only to assign timestamps and counters.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public final class UUIDv7Generator {
+
+    private static final long MAX_TIMESTAMP = 0xffffffffffffL;
+    private static final int MAX_COUNTER = 0xfff;
+    private static final int SEED_MASK = 0x7ff;
+
+    private final DigitalRandomSpi spi;
+    private final Object lock = new Object();
+    private long lastTimestamp = -1;
+    private int counter;
+
+    /**
+     * Creates a generator that draws the random bits of each UUID from the specified generator.
+     *
+     * @param random the generator to draw from.
+     * @throws IllegalArgumentException if {@code random} is null
+     */
+    public UUIDv7Generator(DigitalRandom random) {
+        if (random == null) {
+            throw new IllegalArgumentException("null random.");
+        }
+        this.spi = random.engine();
+    }
+
+    /**
+     * Returns the most significant bits of the next UUID: the timestamp, version, and counter. The low bits of
+     * {@code seed} reseed the counter should a new millisecond begin.
+     */
+    long nextMsb(long now, long seed) {
+        synchronized (lock) {
+            return advance(now, seed);
+        }
+    }
+
+    private long advance(long now, long seed) {
+        if (now > lastTimestamp) {
+            lastTimestamp = now;
+            counter = (int)seed & SEED_MASK;
+        }
+        else if (++counter > MAX_COUNTER) {
+            lastTimestamp++;
+            counter = (int)seed & SEED_MASK;
+        }
+        return (lastTimestamp & MAX_TIMESTAMP) << 16 | 0x7000 | counter;  // set version to 7
+    }
+
+    private static long lsb(long random) {
+        return random & 0x3fffffffffffffffL | 0x8000000000000000L;  // set reserved bits per RFC 9562
+    }
+
+    /**
+     * Returns the next UUID.
+     *
+     * @return a time-ordered UUID greater than any previously returned by this generator.
+     */
+    public UUID next() {
+        long seed = spi.engineNextLong();
+        long tail = spi.engineNextLong();
+        return new UUID(nextMsb(System.currentTimeMillis(), seed), lsb(tail));
+    }
+
+    /**
+     * Fills the specified array with successive UUIDs, each stored as a pair of longs: the most significant bits
+     * followed by the least significant bits, as given to {@link UUID#UUID(long, long)}. The random data for the
+     * whole array is generated at once, the lock is taken once, and no UUID objects are allocated. Use
+     * {@link UUIDFormat} to encode the pairs as text.
+     *
+     * @param msbLsbPairs the array to fill, of even length.
+     * @throws IllegalArgumentException if {@code msbLsbPairs} is null or its length is odd
+     */
+    public void next(long[] msbLsbPairs) {
+        if (msbLsbPairs == null) {
+            throw new IllegalArgumentException("null array.");
+        }
+        if ((msbLsbPairs.length & 1) != 0) {
+            throw new IllegalArgumentException("array length must be even: " + msbLsbPairs.length);
+        }
+        spi.engineNextLongs(msbLsbPairs, 0, msbLsbPairs.length);
+        synchronized (lock) {
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < msbLsbPairs.length; i += 2) {
+                msbLsbPairs[i] = advance(now, msbLsbPairs[i]);
+            }
+        }
+        for (int i = 1; i < msbLsbPairs.length; i += 2) {
+            msbLsbPairs[i] = lsb(msbLsbPairs[i]);
+        }
+    }
+}
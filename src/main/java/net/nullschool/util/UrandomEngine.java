@@ -0,0 +1,244 @@
+package net.nullschool.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * An implementation of DigitalRandomSpi for hosts without {@code rdrand}, which draws random data from the
+ * operating system's CSPRNG by reading {@code /dev/urandom}. Each thread reads a large block at a time into
+ * its own off-heap buffer and serves ints and longs from that block in pure Java, so the cost of a system
+ * call is spread across many values. Arrays are filled through the same block, and direct byte buffers are
+ * read into directly. As with {@link BufferedRdRandEngine}, each value is wiped from the block as it is
+ * consumed.<p/>
+ *
+ * All threads share one channel, using positional reads that require no locking. If the channel cannot be
+ * opened, instantiation of this class will throw an {@link UnsupportedOperationException}. If a read fails,
+ * an {@link IllegalStateException} is thrown.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class UrandomEngine extends DigitalRandomSpi {
+
+    static final Path URANDOM = Paths.get("/dev/urandom");
+    static final int BLOCK_SIZE = 16 * 1024;  // bytes read from the kernel per system call
+
+    private static final byte[] ZEROS = new byte[BLOCK_SIZE];
+
+    private static volatile FileChannel channel;  // shared by all instances and threads once opened
+    private static final Object lock = new Object();
+
+    /**
+     * A thread-confined block of random data. The region [position, BLOCK_SIZE) holds unconsumed random
+     * bytes, and the region [0, position) has been wiped.
+     */
+    static final class Block {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK_SIZE).order(ByteOrder.nativeOrder());
+        int position = BLOCK_SIZE;  // start empty so the first request triggers a read
+    }
+
+    static final ThreadLocal<Block> blocks = new ThreadLocal<Block>() {
+        @Override protected Block initialValue() {
+            return new Block();
+        }
+    };
+
+    /**
+     * Open the shared channel to the kernel CSPRNG. If successful, subsequent calls return immediately.
+     *
+     * @throws UnsupportedOperationException if the channel cannot be opened.
+     */
+    private static FileChannel open() {
+        FileChannel result = channel;
+        if (result == null) {
+            synchronized (lock) {
+                if ((result = channel) == null) {
+                    try {
+                        channel = result = FileChannel.open(URANDOM, StandardOpenOption.READ);
+                    }
+                    catch (IOException | RuntimeException e) {
+                        throw new UnsupportedOperationException(
+                            "Random number generation using " + URANDOM + " is not supported on this system.",
+                            e);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    UrandomEngine() throws UnsupportedOperationException {
+        open();
+    }
+
+    /**
+     * Replaces the shared channel with a newly opened one, unless another thread has done so already.
+     */
+    private static void reopen(FileChannel closed) throws IOException {
+        synchronized (lock) {
+            if (channel == closed) {
+                channel = FileChannel.open(URANDOM, StandardOpenOption.READ);
+            }
+        }
+    }
+
+    /**
+     * Reads random bytes from the kernel into the buffer, from its position up to its limit. Upon return,
+     * the buffer's position is equal to its limit.
+     *
+     * @throws IllegalStateException if the read fails.
+     */
+    private static void read(ByteBuffer buffer) {
+        boolean interrupted = false;
+        try {
+            while (buffer.hasRemaining()) {
+                FileChannel current = channel;
+                try {
+                    // The device ignores the position, but positional reads avoid contending for a lock.
+                    if (current.read(buffer, 0) < 0) {
+                        throw new IOException("Unexpected end of stream.");
+                    }
+                }
+                catch (ClosedChannelException e) {
+                    // Interrupting a thread blocked on a channel closes the channel, which would break it for
+                    // all threads. Reopen it and finish the read, then restore the interrupt afterwards.
+                    interrupted |= Thread.interrupted();
+                    reopen(current);
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Random value unavailable.", e);
+        }
+        finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Returns the current thread's block, refilled from the kernel if fewer than {@code size} bytes remain.
+     */
+    private static Block take(int size) {
+        Block block = blocks.get();
+        if (block.position > BLOCK_SIZE - size) {
+            block.buffer.clear();
+            read(block.buffer);
+            block.position = 0;
+        }
+        return block;
+    }
+
+    /**
+     * The kernel CSPRNG does not support setting a seed through this engine.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override protected void engineSetSeed(byte[] seed) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value read from the kernel, served from the current thread's block
+     */
+    @Override protected int engineNextInt() {
+        Block block = take(4);
+        int p = block.position;
+        int result = block.buffer.getInt(p);
+        block.buffer.putInt(p, 0);  // wipe
+        block.position = p + 4;
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value read from the kernel, served from the current thread's block
+     */
+    @Override protected long engineNextLong() {
+        Block block = take(8);
+        int p = block.position;
+        long result = block.buffer.getLong(p);
+        block.buffer.putLong(p, 0);  // wipe
+        block.position = p + 8;
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param bytes the array to fill with random data read from the kernel
+     */
+    @Override protected void engineNextBytes(byte[] bytes) {
+        engineNextBytes(bytes, 0, bytes == null ? 0 : bytes.length);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The region is filled by copying from the current thread's block, refilling it as needed, so large
+     * arrays require no temporary buffer.
+     *
+     * @param bytes the array to fill with random data read from the kernel
+     */
+    @Override protected void engineNextBytes(byte[] bytes, int offset, int length) {
+        checkRange(bytes, bytes == null ? 0 : bytes.length, offset, length);
+        while (length > 0) {
+            Block block = take(1);
+            int p = block.position;
+            int count = Math.min(length, BLOCK_SIZE - p);
+            ByteBuffer region = block.buffer.duplicate();
+            region.position(p);
+            region.get(bytes, offset, count);
+            region.position(p);
+            region.put(ZEROS, 0, count);  // wipe
+            block.position = p + count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Direct buffers are read into directly by the kernel.
+     *
+     * @param buffer the buffer to fill with random data read from the kernel
+     */
+    @Override protected void engineNextBytes(ByteBuffer buffer) {
+        if (buffer != null && buffer.isDirect() && !buffer.isReadOnly()) {
+            read(buffer);
+        }
+        else {
+            super.engineNextBytes(buffer);
+        }
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The kernel CSPRNG is continuously reseeded from the system's entropy sources, so its output is used
+     * directly as seed data.
+     */
+    @Override protected byte[] engineGenerateSeed(int numBytes) {
+        byte[] seed = new byte[numBytes];
+        read(ByteBuffer.wrap(seed));
+        return seed;
+    }
+
+
+    private static final long serialVersionUID = 1;
+}
@@ -0,0 +1,159 @@
+package net.nullschool.util;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Chooses indices at random in proportion to a fixed set of weights, in constant time, with the alias method as
+ * constructed by Vose ("A Linear Algorithm for Generating Random Numbers with a Given Distribution", 1991). The
+ * weights are spread over n columns of equal probability, each holding its own index up to a threshold and an
+ * alias index above it. A sample takes one random long: its high 32 bits choose a column exactly as
+ * {@link DigitalRandom#nextInt(int)} would, and its low 32 bits are compared with the column's threshold. Each
+ * column's threshold and alias are packed into a single long, so a sample reads one table entry.<p/>
+ *
+ * Thresholds are kept to 32 bits, so each column's split is exact to within 2^-32. Instances are immutable and
+ * safe for use by multiple threads. To change the weights, {@link #reweight} builds a new table in linear time
+ * for the same generator.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public final class WeightedSampler extends IntSampler {
+
+    private static final long KEEP_32_BITS = 0xffffffffL;
+    private static final int ALIAS_BITS = 31;
+    private static final long ALIAS_MASK = (1L << ALIAS_BITS) - 1;
+
+    private final DigitalRandom random;
+    private final int n;
+    private final long rejectBelow;  // 2^32 mod n: column draws whose low product bits fall below are redrawn
+    private final long[] table;  // threshold << ALIAS_BITS | alias, where threshold is in [0, 2^32]
+
+    WeightedSampler(DigitalRandom random, double[] weights) {
+        super(random);
+        if (weights == null || weights.length == 0) {
+            throw new IllegalArgumentException("weights must not be empty.");
+        }
+        this.random = random;
+        this.n = weights.length;
+        this.rejectBelow = (1L << 32) % n;
+        this.table = build(weights);
+    }
+
+    /**
+     * Builds the alias table with Vose's method: columns whose scaled weight is below one are topped up from
+     * columns above one, which then become small themselves once they fall below one.
+     */
+    private static long[] build(double[] weights) {
+        int n = weights.length;
+        double sum = 0;
+        for (double weight : weights) {
+            if (!(weight >= 0 && weight < Double.POSITIVE_INFINITY)) {
+                throw new IllegalArgumentException("weights must be non-negative and finite: " + weight);
+            }
+            sum += weight;
+        }
+        if (!(sum > 0 && sum < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("weights must have a positive, finite sum: " + sum);
+        }
+
+        double[] scaled = new double[n];
+        int[] small = new int[n], large = new int[n];
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] / sum * n;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            }
+            else {
+                large[largeCount++] = i;
+            }
+        }
+
+        long[] table = new long[n];
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount], g = large[--largeCount];
+            table[s] = threshold(scaled[s]) << ALIAS_BITS | g;
+            scaled[g] = (scaled[g] + scaled[s]) - 1;
+            if (scaled[g] < 1) {
+                small[smallCount++] = g;
+            }
+            else {
+                large[largeCount++] = g;
+            }
+        }
+        // Whatever remains is full, up to rounding error.
+        while (largeCount > 0) {
+            int g = large[--largeCount];
+            table[g] = threshold(1) << ALIAS_BITS | g;
+        }
+        while (smallCount > 0) {
+            int s = small[--smallCount];
+            table[s] = threshold(1) << ALIAS_BITS | s;
+        }
+        return table;
+    }
+
+    private static long threshold(double probability) {
+        return Math.min(Math.round(probability * 0x1.0p32), 1L << 32);
+    }
+
+    /**
+     * Returns a sampler for the same generator with new weights.
+     *
+     * @param weights the new weights, which need not sum to one.
+     * @return the new sampler.
+     * @throws IllegalArgumentException if {@code weights} is null or empty, any weight is negative or not finite,
+     *                                  or the weights do not have a positive, finite sum.
+     */
+    public WeightedSampler reweight(double... weights) {
+        return new WeightedSampler(random, weights);
+    }
+
+    /**
+     * Returns the number of weights, one more than the largest index this sampler returns.
+     *
+     * @return the number of weights.
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Returns the probability of choosing the specified index, as represented by the table.
+     *
+     * @param index an index in [0, size()).
+     * @return the probability of choosing the index.
+     * @throws IndexOutOfBoundsException if {@code index} is not in [0, size())
+     */
+    public double probability(int index) {
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + n);
+        }
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            long threshold = table[i] >>> ALIAS_BITS;
+            total += i == index ? threshold : 0;
+            total += (table[i] & ALIAS_MASK) == index ? (1L << 32) - threshold : 0;
+        }
+        return total / n * 0x1.0p-32;
+    }
+
+    @Override int sample(RandomWords words) {
+        while (true) {
+            long word = words.nextLong();
+            long product = (word >>> 32) * n;
+            if ((product & KEEP_32_BITS) < rejectBelow) {
+                continue;  // see DigitalRandom.boundedInt
+            }
+            int column = (int)(product >>> 32);
+            long entry = table[column];
+            return (word & KEEP_32_BITS) < entry >>> ALIAS_BITS ? column : (int)(entry & ALIAS_MASK);
+        }
+    }
+
+    @Override double wordsPerSample() {
+        return 1;
+    }
+}
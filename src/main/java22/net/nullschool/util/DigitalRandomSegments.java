@@ -0,0 +1,76 @@
+package net.nullschool.util;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Fills {@link MemorySegment}s with random data from a {@link DigitalRandom}. This class requires Java 22. It is
+ * kept apart from DigitalRandom so that DigitalRandom itself continues to load on Java 7, and is packaged in the
+ * multi-release section of the jar.<p/>
+ *
+ * Native segments and segments backed by byte arrays are filled in place. When the generator calls the
+ * processor's DRNG through the Foreign Function &amp; Memory API, each chunk of the segment is filled by a single
+ * downcall. Segments backed by other kinds of arrays are filled through a small temporary array.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public final class DigitalRandomSegments {
+
+    private static final long CHUNK_SIZE = 1 << 30;  // bytes per ByteBuffer view, which cannot exceed 2^31 - 1
+    private static final int STAGING_SIZE = 8192;  // bytes of temporary array for other heap segments
+
+
+    private DigitalRandomSegments() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Fills the segment with random bytes.
+     *
+     * @param random the generator to draw random bytes from.
+     * @param segment the segment to fill.
+     * @throws IllegalArgumentException if {@code random} or {@code segment} is null, or {@code segment} is
+     *                                  read-only.
+     * @throws IllegalStateException if {@code segment}'s scope is no longer alive.
+     * @throws WrongThreadException if {@code segment} is confined to another thread.
+     */
+    public static void nextBytes(DigitalRandom random, MemorySegment segment) {
+        if (random == null) {
+            throw new IllegalArgumentException("null random.");
+        }
+        if (segment == null) {
+            throw new IllegalArgumentException("null segment.");
+        }
+        if (segment.isReadOnly()) {
+            throw new IllegalArgumentException("read-only segment.");
+        }
+        boolean inPlace = segment.isNative() || segment.heapBase().orElse(null) instanceof byte[];
+        long size = segment.byteSize();
+        for (long offset = 0; offset < size; offset += CHUNK_SIZE) {
+            MemorySegment chunk = segment.asSlice(offset, Math.min(CHUNK_SIZE, size - offset));
+            if (inPlace) {
+                random.nextBytes(chunk.asByteBuffer());
+            }
+            else {
+                nextBytesStaged(random, chunk);
+            }
+        }
+    }
+
+    private static void nextBytesStaged(DigitalRandom random, MemorySegment segment) {
+        long size = segment.byteSize();
+        byte[] staging = new byte[(int)Math.min(STAGING_SIZE, size)];
+        MemorySegment source = MemorySegment.ofArray(staging);
+        for (long offset = 0; offset < size; offset += staging.length) {
+            int length = (int)Math.min(staging.length, size - offset);
+            random.nextBytes(staging, 0, length);
+            MemorySegment.copy(source, 0, segment, offset, length);
+        }
+        Arrays.fill(staging, (byte)0);  // wipe
+    }
+}
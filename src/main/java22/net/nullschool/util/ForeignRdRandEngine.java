@@ -0,0 +1,364 @@
+package net.nullschool.util;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+
+import static java.lang.foreign.ValueLayout.*;
+
+
+/**
+ * 2026-10-16<p/>
+ *
+ * An implementation of DigitalRandomSpi that calls the native library's {@code rdrand32}, {@code rdrand64}, and
+ * {@code rdrandFill} functions with downcalls of the Foreign Function &amp; Memory API rather than through the
+ * JNI entry points used by {@link RdRandEngine}. This class requires Java 22 and is packaged in the
+ * multi-release section of the jar, so older JVMs never see it.<p/>
+ *
+ * The downcalls use critical linkage: the native functions run briefly and never call back into Java, so the
+ * JVM skips the thread state transitions it performs around ordinary native calls. Critical linkage also
+ * permits heap segments, so Java arrays are filled in place without pinning or copying. Because the garbage
+ * collector must wait for a critical call to return, large regions are filled in chunks of
+ * {@link #CHUNK_SIZE} bytes, just as the JNI entry points fill arrays, and the critical downcalls bind the
+ * library's spin-only variants, which never pause or yield. If the DRNG is still exhausted when the spin
+ * stage of the retry policy runs out, the request is retried with the full policy through an ordinary
+ * downcall, staging heap memory through native memory since ordinary downcalls cannot reach the heap.<p/>
+ *
+ * Binding native functions is a restricted operation. To avoid the JVM's warning, this engine is only
+ * constructed when native access has been enabled for its module, e.g., with
+ * {@code --enable-native-access=ALL-UNNAMED}. Otherwise {@link EngineTools#newRdRandEngine()} uses RdRandEngine.
+ * The native library is loaded and the processor checked by RdRandEngine, and seeds are drawn through it.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+final class ForeignRdRandEngine extends DigitalRandomSpi {
+
+    static final int CHUNK_SIZE = 64 * 1024;  // bytes filled per critical call
+    private static final int SCRATCH_SIZE = 4096;  // bytes of per-thread native memory
+
+    /**
+     * The downcall handles, bound on first use, after RdRandEngine has loaded the native library. The critical
+     * handles bind the spin-only variants; the waiting handles bind the functions that follow the full retry
+     * policy, with ordinary linkage so the garbage collector can run while they pause or yield.
+     */
+    private static final class Natives {
+        static final FunctionDescriptor VALUE = FunctionDescriptor.of(JAVA_INT, ADDRESS);
+        static final FunctionDescriptor FILL = FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT);
+
+        static final MethodHandle rdrand32 = bind("rdrand32Spin", VALUE, Linker.Option.critical(true));
+        static final MethodHandle rdrand64 = bind("rdrand64Spin", VALUE, Linker.Option.critical(true));
+        static final MethodHandle rdrandFill = bind("rdrandFillSpin", FILL, Linker.Option.critical(true));
+        static final MethodHandle rdrand32Waiting = bind("rdrand32", VALUE);
+        static final MethodHandle rdrand64Waiting = bind("rdrand64", VALUE);
+        static final MethodHandle rdrandFillWaiting = bind("rdrandFill", FILL);
+
+        private static MethodHandle bind(String name, FunctionDescriptor descriptor, Linker.Option... options) {
+            MemorySegment function = SymbolLookup.loaderLookup().find(name).orElseThrow(
+                () -> new UnsatisfiedLinkError("Cannot find native function '" + name + "'."));
+            return Linker.nativeLinker().downcallHandle(function, descriptor, options);
+        }
+    }
+
+    /**
+     * Per-thread native memory that receives single values and staging for conversions. Values are wiped
+     * from it once read.
+     */
+    private static final ThreadLocal<MemorySegment> scratches =
+        ThreadLocal.withInitial(() -> Arena.ofAuto().allocate(SCRATCH_SIZE, Long.BYTES));
+
+    private final RdRandEngine jni;
+
+    ForeignRdRandEngine() throws UnsupportedOperationException {
+        jni = new RdRandEngine();  // loads the native library and checks for rdrand
+        if (!ForeignRdRandEngine.class.getModule().isNativeAccessEnabled()) {
+            throw new UnsupportedOperationException("Native access is not enabled.");
+        }
+        try {
+            Natives.rdrandFill.type();  // bind now so that failures surface here
+        }
+        catch (LinkageError | RuntimeException e) {
+            throw new UnsupportedOperationException("Cannot bind the native library.", e);
+        }
+    }
+
+    /**
+     * Serializes as the equivalent RdRandEngine, so the stream can be read by any JVM.
+     */
+    private Object writeReplace() {
+        return jni;
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException e) {
+            throw e;
+        }
+        if (t instanceof Error e) {
+            throw e;
+        }
+        throw new AssertionError(t);  // downcalls throw no checked exceptions
+    }
+
+    private static void check(int success) {
+        if (success == 0) {
+            throw new IllegalStateException("Random value unavailable.");
+        }
+    }
+
+    /**
+     * Generates 32 bits into the native segment, retrying through the waiting downcall if the spin stage of
+     * the retry policy runs out. Returns 0 if the whole policy is exhausted.
+     */
+    private static int rdrand32(MemorySegment result) {
+        try {
+            int attempts = (int)Natives.rdrand32.invokeExact(result);
+            return attempts != 0 ? attempts : (int)Natives.rdrand32Waiting.invokeExact(result);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Generates 64 bits into the native segment, retrying through the waiting downcall if the spin stage of
+     * the retry policy runs out. Returns 0 if the whole policy is exhausted.
+     */
+    private static int rdrand64(MemorySegment result) {
+        try {
+            int attempts = (int)Natives.rdrand64.invokeExact(result);
+            return attempts != 0 ? attempts : (int)Natives.rdrand64Waiting.invokeExact(result);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static int rdrandFill(MemorySegment buffer, int length) {
+        try {
+            return (int)Natives.rdrandFill.invokeExact(buffer, length);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static int rdrandFillWaiting(MemorySegment buffer, int length) {
+        try {
+            return (int)Natives.rdrandFillWaiting.invokeExact(buffer, length);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Fills the segment with random bytes, one chunk per downcall. A chunk whose critical downcall runs out
+     * of spins is filled again with the full retry policy.
+     */
+    private static void fill(MemorySegment segment) {
+        long size = segment.byteSize();
+        for (long offset = 0; offset < size; offset += CHUNK_SIZE) {
+            int length = (int)Math.min(CHUNK_SIZE, size - offset);
+            MemorySegment chunk = segment.asSlice(offset, length);
+            if (rdrandFill(chunk, length) == 0) {
+                fillWaiting(chunk);
+            }
+        }
+    }
+
+    /**
+     * Fills the segment with random bytes through ordinary downcalls, which may pause and yield as the retry
+     * policy prescribes. Heap segments are filled through the thread's scratch memory.
+     */
+    static void fillWaiting(MemorySegment segment) {
+        long size = segment.byteSize();
+        if (segment.isNative()) {
+            check(rdrandFillWaiting(segment, (int)size));
+            return;
+        }
+        MemorySegment staging = scratches.get().asSlice(0, Math.min(size, SCRATCH_SIZE));
+        try {
+            for (long offset = 0; offset < size; offset += SCRATCH_SIZE) {
+                int length = (int)Math.min(SCRATCH_SIZE, size - offset);
+                check(rdrandFillWaiting(staging, length));
+                MemorySegment.copy(staging, 0, segment, offset, length);
+            }
+        }
+        finally {
+            staging.fill((byte)0);  // wipe
+        }
+    }
+
+    /**
+     * Intel's DRNG implementation does not support setting a seed.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override protected void engineSetSeed(byte[] seed) {
+        jni.engineSetSeed(seed);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value generated by rdrand
+     */
+    @Override protected int engineNextInt() {
+        MemorySegment scratch = scratches.get();
+        check(rdrand32(scratch));
+        int result = scratch.get(JAVA_INT, 0);
+        scratch.set(JAVA_INT, 0, 0);  // wipe
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return random value generated by rdrand
+     */
+    @Override protected long engineNextLong() {
+        MemorySegment scratch = scratches.get();
+        check(rdrand64(scratch));
+        long result = scratch.get(JAVA_LONG, 0);
+        scratch.set(JAVA_LONG, 0, 0);  // wipe
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param bytes the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextBytes(byte[] bytes) {
+        engineNextBytes(bytes, 0, bytes == null ? 0 : bytes.length);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The array is filled in place.
+     *
+     * @param bytes the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextBytes(byte[] bytes, int offset, int length) {
+        checkRange(bytes, bytes == null ? 0 : bytes.length, offset, length);
+        fill(MemorySegment.ofArray(bytes).asSlice(offset, length));
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Direct and heap buffers are both filled in place.
+     *
+     * @param buffer the buffer to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextBytes(ByteBuffer buffer) {
+        if (buffer != null && !buffer.isReadOnly()) {
+            fill(MemorySegment.ofBuffer(buffer));
+            buffer.position(buffer.limit());
+        }
+        else {
+            super.engineNextBytes(buffer);
+        }
+    }
+
+    /**
+     * Fills the segment with random bytes in place.
+     *
+     * @param segment the segment to fill with random data generated by rdrand
+     * @throws IllegalArgumentException if {@code segment} is null or read-only
+     */
+    void engineNextBytes(MemorySegment segment) {
+        if (segment == null) {
+            throw new IllegalArgumentException("null segment.");
+        }
+        if (segment.isReadOnly()) {
+            throw new IllegalArgumentException("read-only segment.");
+        }
+        fill(segment);
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The array is filled in place.
+     *
+     * @param ints the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextInts(int[] ints, int offset, int length) {
+        checkRange(ints, ints == null ? 0 : ints.length, offset, length);
+        fill(MemorySegment.ofArray(ints).asSlice(offset * (long)Integer.BYTES, length * (long)Integer.BYTES));
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * The array is filled in place.
+     *
+     * @param longs the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextLongs(long[] longs, int offset, int length) {
+        checkRange(longs, longs == null ? 0 : longs.length, offset, length);
+        fill(MemorySegment.ofArray(longs).asSlice(offset * (long)Long.BYTES, length * (long)Long.BYTES));
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Samples are generated into native memory a few KiB at a time, then converted.
+     *
+     * @param doubles the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextDoubles(double[] doubles, int offset, int length) {
+        checkRange(doubles, doubles == null ? 0 : doubles.length, offset, length);
+        MemorySegment scratch = scratches.get();
+        MemorySegment staging = scratch.asSlice(0, Math.min(length, SCRATCH_SIZE / Long.BYTES) * (long)Long.BYTES);
+        for (int end = offset + length; offset < end; ) {
+            int count = Math.min(end - offset, SCRATCH_SIZE / Long.BYTES);
+            fill(staging.asSlice(0, count * (long)Long.BYTES));
+            for (int i = 0; i < count; i++) {
+                doubles[offset++] = toDouble(staging.getAtIndex(JAVA_LONG, i));
+            }
+        }
+        staging.fill((byte)0);  // wipe
+    }
+
+    /**
+     * {@inheritDoc}<p/>
+     *
+     * Samples are generated into native memory a few KiB at a time, then converted.
+     *
+     * @param floats the array to fill with random data generated by rdrand
+     */
+    @Override protected void engineNextFloats(float[] floats, int offset, int length) {
+        checkRange(floats, floats == null ? 0 : floats.length, offset, length);
+        MemorySegment scratch = scratches.get();
+        MemorySegment staging =
+            scratch.asSlice(0, Math.min(length, SCRATCH_SIZE / Integer.BYTES) * (long)Integer.BYTES);
+        for (int end = offset + length; offset < end; ) {
+            int count = Math.min(end - offset, SCRATCH_SIZE / Integer.BYTES);
+            fill(staging.asSlice(0, count * (long)Integer.BYTES));
+            for (int i = 0; i < count; i++) {
+                floats[offset++] = toFloat(staging.getAtIndex(JAVA_INT, i));
+            }
+        }
+        staging.fill((byte)0);  // wipe
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see RdRandEngine#engineGenerateSeed(int)
+     */
+    @Override protected byte[] engineGenerateSeed(int numBytes) {
+        return jni.engineGenerateSeed(numBytes);
+    }
+
+
+    private static final long serialVersionUID = 1;
+}
@@ -0,0 +1,132 @@
+package net.nullschool.util;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.Assert.*;
+import static net.nullschool.util.BufferedRdRandEngine.*;
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public class BufferedRdRandEngineTest {
+
+    private static final int SAMPLE_SIZE = 1000;
+
+    /**
+     * Returns the number of zero bytes in the specified region of the buffer.
+     */
+    private static int zeroCount(ByteBuffer buffer, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == 0) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Before
+    public void beforeMethod() throws IOException {
+        Assume.assumeTrue("RdRand not supported by this CPU.", RdRandEngine.linkAndCheckRdRandSupported());
+    }
+
+    @Test
+    public void test_long_randomness() throws IOException {
+        // A blob of random samples should not be compressible.
+        BufferedRdRandEngine engine = new BufferedRdRandEngine();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(compressed))) {
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                out.writeLong(engine.engineNextLong());
+            }
+        }
+        assertTrue(
+            "Unexpected compressed size: " + compressed.size(),
+            compressed.size() > SAMPLE_SIZE * 8);
+    }
+
+    @Test
+    public void test_int_randomness() throws IOException {
+        // A blob of random samples should not be compressible.
+        BufferedRdRandEngine engine = new BufferedRdRandEngine();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(compressed))) {
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                out.writeInt(engine.engineNextInt());
+            }
+        }
+        assertTrue(
+            "Unexpected compressed size: " + compressed.size(),
+            compressed.size() > SAMPLE_SIZE * 4);
+    }
+
+    @Test
+    public void test_consumed_values_are_wiped() {
+        BufferedRdRandEngine engine = new BufferedRdRandEngine();
+        engine.engineNextLong();
+        Block block = blocks.get();
+
+        // Consume values up to, but not past, the end of the current block. Everything consumed is zero.
+        while (block.position <= BLOCK_SIZE - 8) {
+            engine.engineNextLong();
+        }
+        assertEquals(BLOCK_SIZE, block.position);
+        assertEquals(BLOCK_SIZE, zeroCount(block.buffer, 0, BLOCK_SIZE));
+
+        // The next request refills the block.
+        engine.engineNextInt();
+        assertEquals(4, block.position);
+        assertTrue(zeroCount(block.buffer, 4, BLOCK_SIZE) < BLOCK_SIZE / 64);
+    }
+
+    @Test
+    public void test_mixed_sizes_stay_within_block() {
+        BufferedRdRandEngine engine = new BufferedRdRandEngine();
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            if (i % 3 == 0) {
+                engine.engineNextInt();
+            }
+            else {
+                engine.engineNextLong();
+            }
+            assertTrue(blocks.get().position <= BLOCK_SIZE);
+        }
+    }
+
+    @Test
+    public void test_next_bytes() {
+        BufferedRdRandEngine engine = new BufferedRdRandEngine();
+        byte[] bytes = new byte[128];
+        engine.engineNextBytes(bytes);
+        int zeros = 0;
+        for (byte b : bytes) {
+            zeros += b == 0 ? 1 : 0;
+        }
+        assertTrue(zeros < 8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_next_bytes_throws() {
+        new BufferedRdRandEngine().engineNextBytes((byte[])null);
+    }
+
+    @Test
+    public void test_generate_seed() {
+        assertEquals(32, new BufferedRdRandEngine().engineGenerateSeed(32).length);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_set_seed_throws() {
+        new BufferedRdRandEngine().engineSetSeed(new byte[16]);
+    }
+}
@@ -0,0 +1,261 @@
+package net.nullschool.util;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.Assert.*;
+import static net.nullschool.util.ChaChaEngine.*;
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public class ChaChaEngineTest {
+
+    private static final int SAMPLE_SIZE = 1000;
+    private static final int INTS_PER_BATCH = BATCH_INTS - KEY_INTS;
+
+    /**
+     * A seeder that produces the seed bytes 0, 1, 2, ..., 39 on every call, and counts its calls.
+     */
+    private static class CountingSeeder extends MockRdRandEngine {
+        private static final long serialVersionUID = 1;
+        int seeds;
+
+        CountingSeeder() {
+            super(
+                0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19,
+                20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39);
+        }
+
+        @Override
+        protected byte[] engineGenerateSeed(int length) {
+            seeds++;
+            return super.engineGenerateSeed(length);
+        }
+    }
+
+    private static ChaChaEngine newEngine() {
+        return new ChaChaEngine(new CountingSeeder());
+    }
+
+    @Test
+    public void test_block_rfc8439() {
+        // Test vector from RFC 8439, section 2.3.2.
+        int[] in = {
+            0x61707865, 0x3320646e, 0x79622d32, 0x6b206574,
+            0x03020100, 0x07060504, 0x0b0a0908, 0x0f0e0d0c,
+            0x13121110, 0x17161514, 0x1b1a1918, 0x1f1e1d1c,
+            0x00000001, 0x09000000, 0x4a000000, 0x00000000};
+        int[] expected = {
+            0xe4e7f110, 0x15593bd1, 0x1fdd0f50, 0xc47120a3,
+            0xc7f4d1c7, 0x0368c033, 0x9aaa2204, 0x4e6cd4c3,
+            0x466482d2, 0x09aa9f07, 0x05d7c214, 0xa2028bd9,
+            0xd19c12b5, 0xb94e16de, 0xe883d0cb, 0x4e3c50a2};
+        int[] out = new int[BLOCK_INTS + 1];
+        block(in, out, 1);
+        assertEquals(0, out[0]);
+        for (int i = 0; i < BLOCK_INTS; i++) {
+            assertEquals(expected[i], out[i + 1]);
+        }
+    }
+
+    @Test
+    public void test_keystream() {
+        // Key is bytes 0..31, nonce is bytes 32..39, counter starts at zero. The first eight words of each
+        // batch become the next key, so serving starts with the ninth word.
+        ChaChaEngine engine = newEngine();
+        assertEquals(0x34422bd7, engine.engineNextInt());
+        assertEquals(0x61959e49, engine.engineNextInt());
+
+        engine = newEngine();
+        assertEquals(0x34422bd761959e49L, engine.engineNextLong());
+        for (int i = 2; i < INTS_PER_BATCH; i++) {
+            engine.engineNextInt();
+        }
+        // The second batch is generated with the erased key.
+        assertEquals(0x3eae4475, engine.engineNextInt());
+    }
+
+    @Test
+    public void test_bulk_matches_single() {
+        ChaChaEngine a = newEngine();
+        ChaChaEngine b = newEngine();
+        int[] ints = new int[INTS_PER_BATCH * 2 + 7];
+        a.engineNextInts(ints, 0, ints.length);
+        for (int value : ints) {
+            assertEquals(value, b.engineNextInt());
+        }
+
+        a = newEngine();
+        b = newEngine();
+        long[] longs = new long[INTS_PER_BATCH + 3];
+        a.engineNextLongs(longs, 0, longs.length);
+        for (long value : longs) {
+            assertEquals(value, b.engineNextLong());
+        }
+
+        // Bytes are the keystream words in little-endian order.
+        a = newEngine();
+        b = newEngine();
+        byte[] bytes = new byte[4 * INTS_PER_BATCH + 6];
+        a.engineNextBytes(bytes);
+        for (int i = 0; i < bytes.length; i += 4) {
+            int word = b.engineNextInt();
+            for (int j = i; j < Math.min(i + 4, bytes.length); j++, word >>>= 8) {
+                assertEquals((byte)word, bytes[j]);
+            }
+        }
+
+        a = newEngine();
+        b = newEngine();
+        double[] doubles = new double[5];
+        a.engineNextDoubles(doubles, 0, doubles.length);
+        for (double value : doubles) {
+            assertEquals(DigitalRandomSpi.toDouble(b.engineNextLong()), value, 0);
+        }
+    }
+
+    @Test
+    public void test_consumed_values_are_wiped() {
+        ChaChaEngine engine = newEngine();
+        engine.engineNextLong();
+        engine.engineNextInt();
+        engine.engineNextInts(new int[5], 0, 5);
+
+        Generator g = engine.generators.get();
+        assertEquals(KEY_INTS + 8, g.position);
+        for (int i = 0; i < g.position; i++) {
+            assertEquals(0, g.batch[i]);
+        }
+        assertNotEquals(0, g.batch[g.position]);
+    }
+
+    @Test
+    public void test_reseed_after_bytes() {
+        CountingSeeder seeder = new CountingSeeder();
+        ChaChaEngine engine = new ChaChaEngine(seeder, 2 * INTS_PER_BATCH * 4, TimeUnit.DAYS.toNanos(1));
+        engine.engineNextInts(new int[INTS_PER_BATCH * 2], 0, INTS_PER_BATCH * 2);
+        assertEquals(1, seeder.seeds);
+        engine.engineNextInt();
+        assertEquals(2, seeder.seeds);
+
+        // The new seed restarts the keystream, which the seeder repeats in this test.
+        engine = new ChaChaEngine(seeder = new CountingSeeder(), 1, TimeUnit.DAYS.toNanos(1));
+        assertEquals(0x34422bd7, engine.engineNextInt());
+        engine.engineNextInts(new int[INTS_PER_BATCH - 1], 0, INTS_PER_BATCH - 1);
+        assertEquals(0x34422bd7, engine.engineNextInt());
+        assertEquals(2, seeder.seeds);
+    }
+
+    @Test
+    public void test_reseed_after_time() throws InterruptedException {
+        CountingSeeder seeder = new CountingSeeder();
+        ChaChaEngine engine = new ChaChaEngine(seeder, Long.MAX_VALUE, TimeUnit.MILLISECONDS.toNanos(50));
+        engine.engineNextInts(new int[INTS_PER_BATCH * 2], 0, INTS_PER_BATCH * 2);
+        assertEquals(1, seeder.seeds);
+        Thread.sleep(100);
+        engine.engineNextInt();
+        assertEquals(2, seeder.seeds);
+    }
+
+    @Test
+    public void test_threads_have_separate_keystreams() throws Exception {
+        // Each thread seeds its own generator, and the mock seeder hands out the same seed every time, so
+        // both threads see the same keystream independently.
+        final ChaChaEngine engine = newEngine();
+        final int[] other = new int[1];
+        Thread thread = new Thread() {
+            @Override public void run() {
+                other[0] = engine.engineNextInt();
+            }
+        };
+        int first = engine.engineNextInt();
+        thread.start();
+        thread.join();
+        assertEquals(first, other[0]);
+        assertEquals(0x61959e49, engine.engineNextInt());
+    }
+
+    @Test
+    public void test_long_randomness() throws IOException {
+        // A blob of random samples should not be compressible.
+        ChaChaEngine engine = newEngine();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(compressed))) {
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                out.writeLong(engine.engineNextLong());
+            }
+        }
+        assertTrue(
+            "Unexpected compressed size: " + compressed.size(),
+            compressed.size() > SAMPLE_SIZE * 8);
+    }
+
+    @Test
+    public void test_serialization() throws Exception {
+        ChaChaEngine engine = newEngine();
+        engine.engineNextInt();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(engine);
+        }
+        ChaChaEngine copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (ChaChaEngine)in.readObject();
+        }
+        assertEquals(0x34422bd7, copy.engineNextInt());
+    }
+
+    @Test
+    public void test_chacha_instance() throws IOException {
+        Assume.assumeTrue("RdRand not supported by this CPU.", RdRandEngine.linkAndCheckRdRandSupported());
+        DigitalRandom random = DigitalRandom.newChaChaInstance(1024, 1, TimeUnit.SECONDS);
+        long[] longs = new long[SAMPLE_SIZE];
+        random.nextLongs(longs);
+        assertTrue(longs[0] != longs[1]);
+        assertEquals(32, random.generateSeed(32).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_chacha_instance_null_unit_throws() {
+        DigitalRandom.newChaChaInstance(1024, 1, null);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_set_seed_throws() {
+        newEngine().engineSetSeed(new byte[16]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_seeder_throws() {
+        new ChaChaEngine(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_non_positive_reseed_bytes_throws() {
+        new ChaChaEngine(new CountingSeeder(), 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_non_positive_reseed_nanos_throws() {
+        new ChaChaEngine(new CountingSeeder(), 1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_bytes_throws() {
+        newEngine().engineNextBytes((byte[])null);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_bad_range_throws() {
+        newEngine().engineNextInts(new int[4], 3, 2);
+    }
+}
@@ -0,0 +1,209 @@
+package net.nullschool.util;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.Assert.*;
+import static net.nullschool.util.CtrDrbgEngine.*;
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public class CtrDrbgEngineTest {
+
+    private static final int SAMPLE_SIZE = 1000;
+
+    /**
+     * An entropy source that produces the bytes 0, 1, 2, ..., 47 on every call, and counts its calls.
+     */
+    private static class CountingEntropySource extends MockRdRandEngine {
+        private static final long serialVersionUID = 1;
+        int seeds;
+
+        CountingEntropySource() {
+            super(
+                0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23,
+                24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47);
+        }
+
+        @Override
+        protected byte[] engineGenerateSeed(int length) {
+            seeds++;
+            return super.engineGenerateSeed(length);
+        }
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte)values[i];
+        }
+        return result;
+    }
+
+    private static byte[] nextBytes(DigitalRandomSpi engine, int length) {
+        byte[] result = new byte[length];
+        engine.engineNextBytes(result);
+        return result;
+    }
+
+    @Test
+    public void test_increment() {
+        byte[] v = bytes(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0xff, 0xfe);
+        increment(v, 3);
+        assertArrayEquals(bytes(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 1), v);
+
+        v = bytes(0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff);
+        increment(v, 1);
+        assertArrayEquals(new byte[16], v);
+
+        v = new byte[16];
+        increment(v, Long.MAX_VALUE);
+        assertArrayEquals(bytes(0, 0, 0, 0, 0, 0, 0, 0, 0x7f, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff), v);
+    }
+
+    @Test
+    public void test_generate() {
+        // Expected values computed independently from SP 800-90A, section 10.2.1, with entropy input 0..47.
+        CtrDrbgEngine engine = new CtrDrbgEngine(new CountingEntropySource(), false);
+        assertArrayEquals(bytes(0x06, 0x15, 0x50, 0x23, 0x4d, 0x15, 0x8c, 0x5e), nextBytes(engine, 8));
+
+        // The first four bytes of the second generate request.
+        nextBytes(engine, BATCH_SIZE - 8);
+        assertArrayEquals(bytes(0x20, 0xac, 0xd3, 0x2e), nextBytes(engine, 4));
+    }
+
+    @Test
+    public void test_values_match_bytes() {
+        ByteBuffer expected = ByteBuffer.wrap(nextBytes(new CtrDrbgEngine(new CountingEntropySource(), false), 24))
+            .order(ByteOrder.nativeOrder());
+        CtrDrbgEngine engine = new CtrDrbgEngine(new CountingEntropySource(), false);
+        assertEquals(expected.getLong(), engine.engineNextLong());
+        assertEquals(expected.getInt(), engine.engineNextInt());
+        int[] ints = new int[3];
+        engine.engineNextInts(ints, 0, ints.length);
+        for (int value : ints) {
+            assertEquals(expected.getInt(), value);
+        }
+    }
+
+    @Test
+    public void test_prediction_resistance() {
+        // Every call reseeds and generates only what it needs, discarding anything left over.
+        CountingEntropySource source = new CountingEntropySource();
+        CtrDrbgEngine engine = new CtrDrbgEngine(source, true);
+        assertArrayEquals(bytes(0x06, 0x15, 0x50, 0x23), nextBytes(engine, 4));
+        assertEquals(1, source.seeds);  // instantiation counts as the first call's reseed
+        assertArrayEquals(bytes(0xb2, 0xa5, 0xd9, 0x6e), nextBytes(engine, 4));
+        assertEquals(2, source.seeds);
+        Drbg g = engine.drbgs.get();
+        assertEquals(BATCH_SIZE - 12, g.position);
+        for (int i = 0; i < g.position; i++) {
+            assertEquals(0, g.batch[i]);
+        }
+
+        // A call larger than one generate request reseeds before each request.
+        engine = new CtrDrbgEngine(source = new CountingEntropySource(), true);
+        byte[] large = nextBytes(engine, BATCH_SIZE + 4);
+        assertEquals(2, source.seeds);
+        assertArrayEquals(bytes(0x65, 0xdf, 0x10, 0x76), new byte[] {
+            large[BATCH_SIZE], large[BATCH_SIZE + 1], large[BATCH_SIZE + 2], large[BATCH_SIZE + 3]});
+    }
+
+    @Test
+    public void test_no_prediction_resistance_reseeds_once() {
+        CountingEntropySource source = new CountingEntropySource();
+        CtrDrbgEngine engine = new CtrDrbgEngine(source, false);
+        for (int i = 0; i < 1000; i++) {
+            engine.engineNextLong();
+        }
+        nextBytes(engine, BATCH_SIZE * 3);
+        assertEquals(1, source.seeds);
+    }
+
+    @Test
+    public void test_consumed_values_are_wiped() {
+        CtrDrbgEngine engine = new CtrDrbgEngine(new CountingEntropySource(), false);
+        engine.engineNextLong();
+        engine.engineNextInt();
+        nextBytes(engine, 3);
+
+        Drbg g = engine.drbgs.get();
+        assertEquals(15, g.position);
+        for (int i = 0; i < g.position; i++) {
+            assertEquals(0, g.batch[i]);
+        }
+        assertArrayEquals(new byte[SEED_SIZE], g.temp);
+    }
+
+    @Test
+    public void test_long_randomness() throws IOException {
+        // A blob of random samples should not be compressible.
+        CtrDrbgEngine engine = new CtrDrbgEngine(new CountingEntropySource(), false);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(compressed))) {
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                out.writeLong(engine.engineNextLong());
+            }
+        }
+        assertTrue(
+            "Unexpected compressed size: " + compressed.size(),
+            compressed.size() > SAMPLE_SIZE * 8);
+    }
+
+    @Test
+    public void test_serialization() throws Exception {
+        CtrDrbgEngine engine = new CtrDrbgEngine(new CountingEntropySource(), false);
+        engine.engineNextInt();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(engine);
+        }
+        CtrDrbgEngine copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (CtrDrbgEngine)in.readObject();
+        }
+        assertArrayEquals(bytes(0x06, 0x15, 0x50, 0x23, 0x4d, 0x15, 0x8c, 0x5e), nextBytes(copy, 8));
+    }
+
+    @Test
+    public void test_ctr_drbg_instance() {
+        Assume.assumeTrue("RdRand not supported by this CPU.", RdRandEngine.linkAndCheckRdRandSupported());
+        DigitalRandom random = DigitalRandom.newCtrDrbgInstance();
+        long[] longs = new long[SAMPLE_SIZE];
+        random.nextLongs(longs);
+        assertTrue(longs[0] != longs[1]);
+
+        random = DigitalRandom.newCtrDrbgInstance(true);
+        assertTrue(random.nextLong() != random.nextLong());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_set_seed_throws() {
+        new CtrDrbgEngine(new CountingEntropySource(), false).engineSetSeed(new byte[16]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_entropy_source_throws() {
+        new CtrDrbgEngine(null, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_bytes_throws() {
+        new CtrDrbgEngine(new CountingEntropySource(), false).engineNextBytes((byte[])null);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_bad_range_throws() {
+        new CtrDrbgEngine(new CountingEntropySource(), false).engineNextLongs(new long[4], -1, 2);
+    }
+}
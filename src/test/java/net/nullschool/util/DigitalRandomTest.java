@@ -1,8 +1,21 @@
 package net.nullschool.util;
 
+import org.apache.commons.math3.stat.inference.ChiSquareTest;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.lang.reflect.AccessibleObject;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -33,11 +46,70 @@ public class DigitalRandomTest {
 
     @Test
     public void test_next_boolean() {
-        DigitalRandom dr = mockInstance(Integer.MAX_VALUE, 0, -1, Integer.MIN_VALUE);
-        assertEquals(false, dr.nextBoolean());
+        // Booleans are taken one bit at a time, starting from the lowest bit of each word.
+        DigitalRandom dr = mockInstance(0b0110, -1);
         assertEquals(false, dr.nextBoolean());
         assertEquals(true, dr.nextBoolean());
         assertEquals(true, dr.nextBoolean());
+        assertEquals(false, dr.nextBoolean());
+        for (int i = 4; i < 64; i++) {
+            assertEquals(false, dr.nextBoolean());
+        }
+        assertEquals(true, dr.nextBoolean());
+    }
+
+    @Test
+    public void test_next_bits() {
+        DigitalRandom dr = mockInstance(0x0123456789abcdefL, -1);
+        assertEquals(0xfL, dr.nextBits(4));
+        assertEquals(0xdeL, dr.nextBits(8));
+        assertEquals(0x0123456789abcL, dr.nextBits(52));
+        assertEquals(-1L, dr.nextBits(64));
+        assertEquals(0b111L, dr.nextBits(3));
+        // Spans two words: the remaining 61 bits of the first, then the low 3 bits of the next.
+        assertEquals(0x0123456789abcdefL >>> 3 | 0xe000000000000000L, dr.nextBits(64));
+        assertEquals(0x1fffffffffffffffL, dr.nextBits(61));
+        assertEquals(0xfL, dr.nextBits(4));
+    }
+
+    @Test
+    public void test_next_bits_per_thread() throws Exception {
+        final DigitalRandom dr = mockInstance(0b1111, 0);
+        assertEquals(0b11L, dr.nextBits(2));
+        Thread thread = new Thread() {
+            @Override public void run() {
+                dr.nextBits(2);  // draws the next word into this thread's own reservoir
+            }
+        };
+        thread.start();
+        thread.join();
+        assertEquals(0b11L, dr.nextBits(2));
+        assertEquals(0L, dr.nextBits(60));
+        assertEquals(0b1111L, dr.nextBits(4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_next_bits_bad_0() {
+        mockInstance(1).nextBits(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_next_bits_bad_65() {
+        mockInstance(1).nextBits(65);
+    }
+
+    @Test
+    public void test_serialization() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(mockInstance(0b10));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            DigitalRandom dr = (DigitalRandom)in.readObject();
+            assertEquals(2, dr.nextInt());
+            assertEquals(false, dr.nextBoolean());
+            assertEquals(true, dr.nextBoolean());
+        }
     }
 
     @Test
@@ -57,15 +129,16 @@ public class DigitalRandomTest {
 
     @Test
     public void test_next_int_bound() {
-        DigitalRandom dr = mockInstance(10, 9, -10, Integer.MAX_VALUE, 1, -1, 2, 1023, 1024, 1025);
+        // 0, 0x1999999A, and MIN_VALUE multiplied by 10 have low 32 bits less than 2^32 mod 10, so are rejected.
+        DigitalRandom dr = mockInstance(
+            0, 10, -1, Integer.MAX_VALUE, 0x1999999A, Integer.MIN_VALUE, 1, -0x00400000, 0x00400000);
         assertEquals(0, dr.nextInt(10));
         assertEquals(9, dr.nextInt(10));
-        assertEquals(8, dr.nextInt(10));
-        assertEquals(1, dr.nextInt(10));
-        assertEquals(2, dr.nextInt(10));
+        assertEquals(4, dr.nextInt(10));
+        assertEquals(0, dr.nextInt(10));
         assertEquals(1023, dr.nextInt(1024));
-        assertEquals(0, dr.nextInt(1024));
         assertEquals(1, dr.nextInt(1024));
+        assertEquals(0, dr.nextInt(1024));
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -80,15 +153,15 @@ public class DigitalRandomTest {
 
     @Test
     public void test_next_int_least_bound() {
-        DigitalRandom dr = mockInstance(10, 9, -10, Integer.MAX_VALUE, 1, -1, 2, 1023, 1024, 1025);
+        DigitalRandom dr = mockInstance(
+            0, 10, -1, Integer.MAX_VALUE, 0x1999999A, Integer.MIN_VALUE, 1, -0x00400000, 0x00400000);
         assertEquals(-5, dr.nextInt(-5, 5));
         assertEquals(4, dr.nextInt(-5, 5));
-        assertEquals(3, dr.nextInt(-5, 5));
-        assertEquals(-4, dr.nextInt(-5, 5));
-        assertEquals(-3, dr.nextInt(-5, 5));
+        assertEquals(-1, dr.nextInt(-5, 5));
+        assertEquals(-5, dr.nextInt(-5, 5));
         assertEquals(511, dr.nextInt(-512, 512));
-        assertEquals(-512, dr.nextInt(-512, 512));
         assertEquals(-511, dr.nextInt(-512, 512));
+        assertEquals(-512, dr.nextInt(-512, 512));
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -123,28 +196,32 @@ public class DigitalRandomTest {
 
     @Test
     public void test_next_long_bound() {
-        DigitalRandom dr = mockInstance(10, 9, -10, Long.MAX_VALUE, 1, -1, 2, 1023, 1024, 1025);
+        DigitalRandom dr = mockInstance(
+            0, 10, -1, Long.MAX_VALUE, 0x199999999999999AL, Long.MIN_VALUE, 1,
+            -0x0040000000000000L, 0x0040000000000000L);
         assertEquals(0, dr.nextLong(10));
         assertEquals(9, dr.nextLong(10));
-        assertEquals(8, dr.nextLong(10));
-        assertEquals(1, dr.nextLong(10));
-        assertEquals(2, dr.nextLong(10));
+        assertEquals(4, dr.nextLong(10));
+        assertEquals(0, dr.nextLong(10));
         assertEquals(1023, dr.nextLong(1024));
-        assertEquals(0, dr.nextLong(1024));
         assertEquals(1, dr.nextLong(1024));
+        assertEquals(0, dr.nextLong(1024));
+        assertEquals(Long.MAX_VALUE - 1, mockInstance(-1).nextLong(Long.MAX_VALUE));
+        assertEquals(0x3fffffffffffffffL, mockInstance(Long.MIN_VALUE).nextLong(Long.MAX_VALUE));
     }
 
     @Test
     public void test_next_long_least_bound() {
-        DigitalRandom dr = mockInstance(10, 9, -10, Long.MAX_VALUE, 1, -1, 2, 1023, 1024, 1025);
+        DigitalRandom dr = mockInstance(
+            0, 10, -1, Long.MAX_VALUE, 0x199999999999999AL, Long.MIN_VALUE, 1,
+            -0x0040000000000000L, 0x0040000000000000L);
         assertEquals(-5, dr.nextLong(-5, 5));
         assertEquals(4, dr.nextLong(-5, 5));
-        assertEquals(3, dr.nextLong(-5, 5));
-        assertEquals(-4, dr.nextLong(-5, 5));
-        assertEquals(-3, dr.nextLong(-5, 5));
+        assertEquals(-1, dr.nextLong(-5, 5));
+        assertEquals(-5, dr.nextLong(-5, 5));
         assertEquals(511, dr.nextLong(-512, 512));
-        assertEquals(-512, dr.nextLong(-512, 512));
         assertEquals(-511, dr.nextLong(-512, 512));
+        assertEquals(-512, dr.nextLong(-512, 512));
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -208,12 +285,548 @@ public class DigitalRandomTest {
 
     @Test
     public void test_next_gaussian() {
-        DigitalRandom dr =
-            mockInstance(0x0018000000000000L, 0x0008000000000000L, 0x001fffffffffffffL, 0x0010000000000000L);
-        assertEquals(0.8325546111576977, dr.nextGaussian(), 0);
-        assertEquals(-0.8325546111576977, dr.nextGaussian(), 0);
-        assertEquals(2.9802322387695312E-8, dr.nextGaussian(), 0);
+        // The low 7 bits choose the Ziggurat layer, and the high 53 bits a point across it in [-1, 1).
+        DigitalRandom dr = mockInstance(1L << 63, 3L << 62 | 5, 1L << 62 | 100);
+        assertTrue(Ziggurat.RATIO[5] > 0.5 && Ziggurat.RATIO[100] > 0.5);
         assertEquals(0.0, dr.nextGaussian(), 0);
+        assertEquals(0.5 * Ziggurat.X[5], dr.nextGaussian(), 0);
+        assertEquals(-0.5 * Ziggurat.X[100], dr.nextGaussian(), 0);
+    }
+
+    @Test
+    public void test_ziggurat_tables() {
+        assertEquals(Ziggurat.R, Ziggurat.X[1], 0);
+        assertEquals(0, Ziggurat.X[Ziggurat.LAYERS], 0);
+        for (int i = 1; i < Ziggurat.LAYERS; i++) {
+            // Each layer above the base is a rectangle of area V under the density exp(-x^2 / 2).
+            double area = Ziggurat.X[i] * (Math.exp(-0.5 * Ziggurat.X[i + 1] * Ziggurat.X[i + 1]) -
+                Math.exp(-0.5 * Ziggurat.X[i] * Ziggurat.X[i]));
+            assertEquals(Ziggurat.V, area, 1e-9);
+        }
+    }
+
+    @Test
+    public void test_next_gaussians_distribution() {
+        DigitalRandom dr = DigitalRandom.newInstance();
+        double[] samples = new double[1000000];
+        dr.nextGaussians(samples);
+        double sum = 0, sumOfSquares = 0;
+        int belowMinusOne = 0, beyondThree = 0, inTail = 0;
+        for (double x : samples) {
+            sum += x;
+            sumOfSquares += x * x;
+            belowMinusOne += x < -1 ? 1 : 0;
+            beyondThree += Math.abs(x) > 3 ? 1 : 0;
+            inTail += Math.abs(x) > Ziggurat.R ? 1 : 0;
+        }
+        double mean = sum / samples.length;
+        assertEquals(0, mean, 0.005);
+        assertEquals(1, sumOfSquares / samples.length - mean * mean, 0.01);
+        assertEquals(0.158655, belowMinusOne / (double)samples.length, 0.002);
+        assertEquals(0.0026998, beyondThree / (double)samples.length, 0.0003);
+        assertEquals(576, inTail, 120);  // 2 * (1 - Phi(R)) = 0.000576
+
+        double scalarSum = 0;
+        for (int i = 0; i < 100000; i++) {
+            scalarSum += dr.nextGaussian();
+        }
+        assertEquals(0, scalarSum / 100000, 0.02);
+    }
+
+    @Test
+    public void test_next_gaussians_range() {
+        DigitalRandom dr = DigitalRandom.newInstance();
+        double[] doubles = new double[Ziggurat.BATCH_SIZE * 2 + 10];
+        dr.nextGaussians(doubles, 1, doubles.length - 2);
+        assertEquals(0, doubles[0], 0);
+        assertEquals(0, doubles[doubles.length - 1], 0);
+        float[] floats = new float[100];
+        dr.nextGaussians(floats, 1, 98);
+        assertEquals(0, floats[0], 0);
+        assertEquals(0, floats[99], 0);
+        dr.nextGaussians(floats);
+        for (float f : floats) {
+            assertTrue(f != 0 && Math.abs(f) < 10);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_next_gaussians_throws() {
+        mockInstance(1).nextGaussians((double[])null);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_next_gaussians_bad_range_throws() {
+        mockInstance(1).nextGaussians(new float[10], 5, 6);
+    }
+
+    @Test
+    public void test_shuffle() {
+        // A sample of -1 maps to the top of every range, so each element is swapped with itself.
+        int[] ints = {0, 1, 2, 3};
+        mockInstance(-1).shuffle(ints);
+        assertArrayEquals(new int[] {0, 1, 2, 3}, ints);
+
+        // A sample of 1 maps to 0, so each element in turn is swapped with the first.
+        DigitalRandom dr = mockInstance(1);
+        dr.shuffle(ints);
+        assertArrayEquals(new int[] {1, 2, 3, 0}, ints);
+        long[] longs = {0, 1, 2, 3};
+        dr.shuffle(longs);
+        assertArrayEquals(new long[] {1, 2, 3, 0}, longs);
+        Object[] objects = {"a", "b", "c"};
+        dr.shuffle(objects);
+        assertArrayEquals(new Object[] {"b", "c", "a"}, objects);
+
+        List<Integer> arrayList = new ArrayList<>(Arrays.asList(0, 1, 2, 3, 4, 5));
+        dr.shuffle(arrayList);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 0), arrayList);
+        List<Integer> linkedList = new LinkedList<>(Arrays.asList(0, 1, 2, 3, 4, 5));
+        dr.shuffle(linkedList);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 0), linkedList);
+
+        dr.shuffle(new int[0]);
+        dr.shuffle(new int[1]);
+    }
+
+    /**
+     * Shuffles {0, 1, 2, 3} many times, asserting that all 24 permutations occur about equally often.
+     */
+    private static void assertUniformPermutations(boolean parallel) {
+        DigitalRandom dr = DigitalRandom.newInstance();
+        int trials = parallel ? 24000 : 240000;
+        long[] observed = new long[24];
+        for (int t = 0; t < trials; t++) {
+            int[] ints = {0, 1, 2, 3};
+            if (parallel) {
+                Shuffler.parallelShuffle(dr, ints, 3);  // partition into more buckets than the pool has threads
+            }
+            else {
+                dr.shuffle(ints);
+            }
+            observed[rank(ints)]++;
+        }
+        double[] expected = new double[24];
+        Arrays.fill(expected, trials / 24.0);
+        double p = new ChiSquareTest().chiSquareTest(expected, observed);
+        assertTrue("p = " + p, p > 0.0001);
+    }
+
+    /**
+     * Returns the lexicographic rank of a permutation of {0, 1, 2, 3}.
+     */
+    private static int rank(int[] permutation) {
+        int rank = 0;
+        for (int i = 0; i < permutation.length; i++) {
+            int smaller = 0;
+            for (int j = i + 1; j < permutation.length; j++) {
+                smaller += permutation[j] < permutation[i] ? 1 : 0;
+            }
+            rank = rank * (permutation.length - i) + smaller;
+        }
+        return rank;
+    }
+
+    @Test
+    public void test_shuffle_is_uniform() {
+        assertUniformPermutations(false);
+    }
+
+    @Test
+    public void test_parallel_shuffle_is_uniform() {
+        assertUniformPermutations(true);
+    }
+
+    @Test
+    public void test_parallel_shuffle() {
+        DigitalRandom dr = DigitalRandom.newInstance();
+        int[] ints = new int[Shuffler.PARALLEL_THRESHOLD * 4 + 3];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i;
+        }
+        dr.parallelShuffle(ints);
+        int fixed = 0;
+        for (int i = 0; i < ints.length; i++) {
+            fixed += ints[i] == i ? 1 : 0;
+        }
+        assertTrue(fixed < 10);  // a uniform permutation has one fixed point on average
+        Arrays.sort(ints);
+        for (int i = 0; i < ints.length; i++) {
+            assertEquals(i, ints[i]);
+        }
+
+        long[] longs = new long[Shuffler.PARALLEL_THRESHOLD + 1];
+        Arrays.fill(longs, 0, 10, 7);
+        dr.parallelShuffle(longs);
+        long sum = 0;
+        for (long l : longs) {
+            sum += l;
+        }
+        assertEquals(70, sum);
+
+        Object[] objects = new Object[] {"a", "b", "c"};
+        dr.parallelShuffle(objects);
+        Arrays.sort(objects);
+        assertArrayEquals(new Object[] {"a", "b", "c"}, objects);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_shuffle_throws() {
+        mockInstance(1).shuffle((List<?>)null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_parallel_shuffle_throws() {
+        mockInstance(1).parallelShuffle((long[])null);
+    }
+
+    @Test
+    public void test_sample_distinct() {
+        // A sample of -1 maps to the top of every range, so both methods choose the highest k values.
+        assertArrayEquals(new long[] {97, 98, 99}, DistinctSampling.floyd(mockInstance(-1), 100, 3));
+        assertArrayEquals(new long[] {97, 98, 99}, DistinctSampling.selection(mockInstance(-1), 100, 3));
+        assertArrayEquals(new int[] {7, 8, 9}, mockInstance(-1).sampleDistinct(10, 3));
+
+        DigitalRandom dr = DigitalRandom.newInstance();
+        long n = 10000000000L;
+        long[] sparse = dr.sampleDistinct(n, 100000);
+        assertEquals(100000, sparse.length);
+        assertTrue(sparse[0] >= 0 && sparse[sparse.length - 1] < n);
+        for (int i = 1; i < sparse.length; i++) {
+            assertTrue(sparse[i - 1] < sparse[i]);
+        }
+
+        int[] dense = dr.sampleDistinct(1000, 900);
+        assertEquals(900, dense.length);
+        assertTrue(dense[0] >= 0 && dense[dense.length - 1] < 1000);
+        for (int i = 1; i < dense.length; i++) {
+            assertTrue(dense[i - 1] < dense[i]);
+        }
+
+        int[] all = dr.sampleDistinct(5, 5);
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, all);
+        assertEquals(0, dr.sampleDistinct(Long.MAX_VALUE, 0).length);
+        assertEquals(0, dr.sampleDistinct(0, 0).length);
+    }
+
+    /**
+     * Draws 2-of-6 samples many times, asserting that all 15 subsets occur about equally often.
+     */
+    private static void assertUniformSubsets(boolean floyd) {
+        DigitalRandom dr = DigitalRandom.newInstance();
+        int trials = 150000;
+        long[] observed = new long[36];
+        for (int t = 0; t < trials; t++) {
+            long[] sample = floyd ? DistinctSampling.floyd(dr, 6, 2) : DistinctSampling.selection(dr, 6, 2);
+            observed[(int)(sample[0] * 6 + sample[1])]++;
+        }
+        double[] expected = new double[15];
+        long[] subsets = new long[15];
+        for (int a = 0, s = 0; a < 6; a++) {
+            for (int b = a + 1; b < 6; b++, s++) {
+                expected[s] = trials / 15.0;
+                subsets[s] = observed[a * 6 + b];
+            }
+        }
+        double p = new ChiSquareTest().chiSquareTest(expected, subsets);
+        assertTrue("p = " + p, p > 0.0001);
+    }
+
+    @Test
+    public void test_sample_distinct_floyd_is_uniform() {
+        assertUniformSubsets(true);
+    }
+
+    @Test
+    public void test_sample_distinct_selection_is_uniform() {
+        assertUniformSubsets(false);
+    }
+
+    @Test
+    public void test_sample_distinct_bad_arguments_throw() {
+        long[][] cases = {{-1, 0}, {10, -1}, {10, 11}, {1L << 40, DistinctSampling.MAX_SPARSE_K + 1}};
+        for (long[] c : cases) {
+            try {
+                mockInstance(-1).sampleDistinct(c[0], (int)c[1]);
+                fail();
+            }
+            catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void test_next_ints() {
+        DigitalRandom dr = mockInstance(10, 1, 0, -1, Integer.MIN_VALUE);
+        int[] ints = new int[7];
+        dr.nextInts(ints);
+        assertArrayEquals(new int[] {10, 1, 0, -1, Integer.MIN_VALUE, 10, 1}, ints);
+        dr.nextInts(ints, 0, 3);
+        assertArrayEquals(new int[] {0, -1, Integer.MIN_VALUE, -1, Integer.MIN_VALUE, 10, 1}, ints);
+        dr.nextInts(ints, 7, 0);
+        dr.nextInts(ints, 6, 1);
+        assertArrayEquals(new int[] {0, -1, Integer.MIN_VALUE, -1, Integer.MIN_VALUE, 10, 10}, ints);
+    }
+
+    @Test
+    public void test_next_ints_bound() {
+        DigitalRandom dr = mockInstance(0, 10, -1, Integer.MAX_VALUE);
+        int[] ints = new int[3];
+        dr.nextInts(ints, 10);  // 0 is rejected and replaced by the sample following the batch
+        assertArrayEquals(new int[] {4, 0, 9}, ints);
+        dr.nextInts(ints, 1024);
+        assertArrayEquals(new int[] {0, 0, 1023}, ints);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_next_ints_bad_bound() {
+        mockInstance(1).nextInts(new int[1], 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_next_ints_bound_throws() {
+        mockInstance(1).nextInts(null, 10);
+    }
+
+    @Test
+    public void test_next_longs() {
+        DigitalRandom dr = mockInstance(Long.MAX_VALUE, 1, 0, -1, Long.MIN_VALUE);
+        long[] longs = new long[6];
+        dr.nextLongs(longs, 1, 5);
+        assertArrayEquals(new long[] {0, Long.MAX_VALUE, 1, 0, -1, Long.MIN_VALUE}, longs);
+        dr.nextLongs(longs);
+        assertArrayEquals(new long[] {Long.MAX_VALUE, 1, 0, -1, Long.MIN_VALUE, Long.MAX_VALUE}, longs);
+    }
+
+    @Test
+    public void test_next_longs_bound() {
+        DigitalRandom dr = mockInstance(0, 10, -1, Long.MAX_VALUE);
+        long[] longs = new long[3];
+        dr.nextLongs(longs, 10);
+        assertArrayEquals(new long[] {4, 0, 9}, longs);
+        dr.nextLongs(longs, 1L << 40);
+        assertArrayEquals(new long[] {0, 0, (1L << 40) - 1}, longs);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_next_longs_bad_bound() {
+        mockInstance(1).nextLongs(new long[1], -1);
+    }
+
+    @Test
+    public void test_next_floats() {
+        DigitalRandom dr = mockInstance(
+            0x00ffffff, 0x00c00000, 0x00800000,
+            0x007fffff, 0x00400000, 0x00000000);
+        float[] floats = new float[6];
+        dr.nextFloats(floats);
+        assertArrayEquals(new float[] {0.99999994F, 0.75F, 0.5F, 0.49999994F, 0.25F, 0.0F}, floats, 0);
+        dr.nextFloats(floats, 4, 2);
+        assertArrayEquals(new float[] {0.99999994F, 0.75F, 0.5F, 0.49999994F, 0.99999994F, 0.75F}, floats, 0);
+    }
+
+    @Test
+    public void test_next_doubles() {
+        DigitalRandom dr = mockInstance(
+            0x001fffffffffffffL, 0x0018000000000000L, 0x0010000000000000L,
+            0x000fffffffffffffL, 0x0008000000000000L, 0x0000000000000000L);
+        double[] doubles = new double[6];
+        dr.nextDoubles(doubles);
+        assertArrayEquals(
+            new double[] {0.9999999999999999D, 0.75D, 0.5D, 0.4999999999999999D, 0.25D, 0.0D}, doubles, 0);
+        dr.nextDoubles(doubles, 0, 1);
+        assertArrayEquals(
+            new double[] {0.9999999999999999D, 0.75D, 0.5D, 0.4999999999999999D, 0.25D, 0.0D}, doubles, 0);
+    }
+
+    @Test
+    public void test_bulk_fills_throw_on_bad_arguments() {
+        DigitalRandom dr = mockInstance(1);
+        int[][] ranges = {{-1, 1}, {0, -1}, {0, 5}, {4, 1}, {1, Integer.MAX_VALUE}};
+        for (int[] range : ranges) {
+            try {
+                dr.nextInts(new int[4], range[0], range[1]);
+                fail();
+            }
+            catch (IndexOutOfBoundsException expected) {
+            }
+            try {
+                dr.nextLongs(new long[4], range[0], range[1]);
+                fail();
+            }
+            catch (IndexOutOfBoundsException expected) {
+            }
+            try {
+                dr.nextFloats(new float[4], range[0], range[1]);
+                fail();
+            }
+            catch (IndexOutOfBoundsException expected) {
+            }
+            try {
+                dr.nextDoubles(new double[4], range[0], range[1]);
+                fail();
+            }
+            catch (IndexOutOfBoundsException expected) {
+            }
+            try {
+                dr.nextBytes(new byte[4], range[0], range[1]);
+                fail();
+            }
+            catch (IndexOutOfBoundsException expected) {
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_next_ints_throws() {
+        mockInstance(1).nextInts(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_next_longs_range_throws() {
+        mockInstance(1).nextLongs(null, 0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_next_doubles_throws() {
+        mockInstance(1).nextDoubles(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_next_floats_range_throws() {
+        mockInstance(1).nextFloats(null, 0, 0);
+    }
+
+    @Test
+    public void test_ints_stream() {
+        DigitalRandom dr = mockInstance(10, 1, 0, -1, Integer.MIN_VALUE);
+        assertArrayEquals(new int[] {10, 1, 0, -1, Integer.MIN_VALUE, 10, 1}, dr.ints(7).toArray());
+        assertArrayEquals(new int[] {0, -1}, dr.ints().limit(2).toArray());
+        assertEquals(0, dr.ints(0).count());
+    }
+
+    @Test
+    public void test_ints_stream_bounded() {
+        // Batch traversal and per-element traversal select the same values.
+        long[] values = {-1, Integer.MAX_VALUE, 10, -10, 0x40000000};
+        assertArrayEquals(new int[] {4, -1, -5, 4, -3}, mockInstance(values).ints(5, -5, 5).toArray());
+        PrimitiveIterator.OfInt iterator = mockInstance(values).ints(5, -5, 5).iterator();
+        for (int expected : new int[] {4, -1, -5, 4, -3}) {
+            assertEquals(expected, iterator.nextInt());
+        }
+        assertFalse(iterator.hasNext());
+
+        // Rejected samples are redrawn.
+        DigitalRandom dr = mockInstance(0, 7, -1);
+        assertArrayEquals(new int[] {9, 0}, dr.ints(2, 0, 10).toArray());
+    }
+
+    @Test
+    public void test_ints_stream_wide_range() {
+        // The range [MIN_VALUE, 0) is wider than MAX_VALUE. Samples outside of it are redrawn.
+        DigitalRandom dr = mockInstance(5, -1, Integer.MIN_VALUE, -7);
+        assertArrayEquals(new int[] {-7, -1, Integer.MIN_VALUE}, dr.ints(3, Integer.MIN_VALUE, 0).toArray());
+        assertEquals(-1, dr.ints(Integer.MIN_VALUE, 0).iterator().nextInt());
+    }
+
+    @Test
+    public void test_longs_stream() {
+        DigitalRandom dr = mockInstance(Long.MAX_VALUE, 1, 0, -1, Long.MIN_VALUE);
+        assertArrayEquals(new long[] {Long.MAX_VALUE, 1, 0, -1, Long.MIN_VALUE}, dr.longs(5).toArray());
+        assertArrayEquals(new long[] {Long.MAX_VALUE, 1}, dr.longs().limit(2).toArray());
+    }
+
+    @Test
+    public void test_longs_stream_bounded() {
+        long[] values = {-1, Long.MAX_VALUE, 10, -10, 0x4000000000000000L};
+        assertArrayEquals(new long[] {4, -1, -5, 4, -3}, mockInstance(values).longs(5, -5, 5).toArray());
+        PrimitiveIterator.OfLong iterator = mockInstance(values).longs(5, -5, 5).iterator();
+        for (long expected : new long[] {4, -1, -5, 4, -3}) {
+            assertEquals(expected, iterator.nextLong());
+        }
+
+        DigitalRandom dr = mockInstance(5, -1, Long.MIN_VALUE, -7);
+        assertArrayEquals(new long[] {-7, -1, Long.MIN_VALUE}, dr.longs(3, Long.MIN_VALUE, 0).toArray());
+    }
+
+    @Test
+    public void test_doubles_stream() {
+        DigitalRandom dr = mockInstance(0x001fffffffffffffL, 0x0010000000000000L, 0);
+        assertArrayEquals(new double[] {0.9999999999999999D, 0.5D, 0}, dr.doubles(3).toArray(), 0);
+        assertArrayEquals(new double[] {0.9999999999999999D}, dr.doubles().limit(1).toArray(), 0);
+    }
+
+    @Test
+    public void test_doubles_stream_bounded() {
+        long[] values = {0x001fffffffffffffL, 0x0018000000000000L, 0x0010000000000000L, 0};
+        double[] expected = {9.999999999999998D, 7.5D, 5D, 0D};
+        assertArrayEquals(expected, mockInstance(values).doubles(4, 0, 10).toArray(), 0);
+        PrimitiveIterator.OfDouble iterator = mockInstance(values).doubles(4, 0, 10).iterator();
+        for (double e : expected) {
+            assertEquals(e, iterator.nextDouble(), 0);
+        }
+
+        // Results that round up to the bound are pulled back below it.
+        double bound = 1 + Math.ulp(1.0);
+        for (double d : mockInstance(values).doubles(4, 1, bound).toArray()) {
+            assertTrue(1 <= d && d < bound);
+        }
+    }
+
+    @Test
+    public void test_stream_spliterators_split_evenly() {
+        DigitalRandom dr = mockInstance(1);
+        Spliterator.OfInt ints = dr.ints(1001).spliterator();
+        Spliterator.OfInt prefix = ints.trySplit();
+        assertEquals(500, prefix.estimateSize());
+        assertEquals(501, ints.estimateSize());
+        assertTrue(ints.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+
+        Spliterator.OfLong longs = dr.longs(1).spliterator();
+        assertNull(longs.trySplit());
+        assertEquals(1, longs.estimateSize());
+
+        Spliterator.OfDouble doubles = dr.doubles().spliterator();
+        assertEquals(Long.MAX_VALUE / 2, doubles.trySplit().estimateSize());
+    }
+
+    @Test
+    public void test_parallel_streams() {
+        // Every element of every split is generated exactly once.
+        int size = DigitalRandomStreams.BATCH_SIZE * 1000 + 7;
+        assertEquals(size, mockInstance(1).longs(size).parallel().sum());
+        assertEquals(size * 9, mockInstance(-1).ints(size, 0, 10).parallel().sum());
+        assertEquals(size, mockInstance(0x0010000000000000L).doubles(size, 0, 2).parallel().sum(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_ints_stream_bad_size() {
+        mockInstance(1).ints(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_ints_stream_bad_origin_bound() {
+        mockInstance(1).ints(5, 2, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_longs_stream_bad_size() {
+        mockInstance(1).longs(-1, 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_longs_stream_bad_origin_bound() {
+        mockInstance(1).longs(0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_doubles_stream_bad_origin_bound() {
+        mockInstance(1).doubles(1.0, 1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_doubles_stream_nan_bound() {
+        mockInstance(1).doubles(5, 0, Double.NaN);
     }
 
     @Test
@@ -224,6 +837,45 @@ public class DigitalRandomTest {
         assertEquals(UUID.randomUUID().version(), dr.nextUUID().version());
     }
 
+    @Test
+    public void test_next_uuids() {
+        DigitalRandom dr = mockInstance(0xffffffffffffffffL, 0xeeeeeeeeeeeeeeeeL);
+        long[] pairs = new long[4];
+        dr.nextUUIDs(pairs);
+        for (int i = 0; i < pairs.length; i += 2) {
+            assertEquals(UUID.fromString("ffffffff-ffff-4fff-aeee-eeeeeeeeeeee"), new UUID(pairs[i], pairs[i + 1]));
+        }
+        dr.nextUUIDs(new long[0]);
+    }
+
+    @Test
+    public void test_next_uuids_byte_buffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(42);
+        buffer.position(1);
+        assertEquals(2, mockInstance(0xff).nextUUIDs(buffer));
+        assertEquals(33, buffer.position());
+        buffer.position(1);
+        UUID expected = UUID.fromString("ffffffff-ffff-4fff-bfff-ffffffffffff");
+        for (int i = 0; i < 2; i++) {
+            assertEquals(expected, new UUID(buffer.getLong(), buffer.getLong()));
+        }
+        assertEquals(0, buffer.get(0));
+        while (buffer.hasRemaining()) {
+            assertEquals(0, buffer.get());  // the remainder is untouched
+        }
+        assertEquals(0, mockInstance(1).nextUUIDs(ByteBuffer.allocateDirect(15)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_next_uuids_odd_length_throws() {
+        mockInstance(1).nextUUIDs(new long[3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_next_uuids_throws() {
+        mockInstance(1).nextUUIDs((ByteBuffer)null);
+    }
+
     @Test
     public void test_next_bytes() {
         DigitalRandom dr = mockInstance(1, 2, 3);
@@ -232,9 +884,63 @@ public class DigitalRandomTest {
         assertArrayEquals(new byte[] {1, 2, 3, 1, 2, 3}, result);
     }
 
+    @Test
+    public void test_next_bytes_range() {
+        DigitalRandom dr = mockInstance(1, 2, 3);
+        byte[] result = new byte[6];
+        dr.nextBytes(result, 1, 4);
+        assertArrayEquals(new byte[] {0, 1, 2, 3, 1, 0}, result);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void test_null_next_bytes_throws() {
-        mockInstance(1).nextBytes(null);
+        mockInstance(1).nextBytes((byte[])null);
+    }
+
+    @Test
+    public void test_next_bytes_heap_buffer() {
+        DigitalRandom dr = mockInstance(1, 2, 3);
+        byte[] backing = new byte[10];
+        ByteBuffer buffer = ByteBuffer.wrap(backing, 1, 8).slice();  // array offset of 1
+        buffer.position(2).limit(7);
+        dr.nextBytes(buffer);
+        assertEquals(7, buffer.position());
+        assertEquals(7, buffer.limit());
+        assertArrayEquals(new byte[] {0, 0, 0, 1, 2, 3, 1, 2, 0, 0}, backing);
+    }
+
+    @Test
+    public void test_next_bytes_direct_buffer() {
+        DigitalRandom dr = mockInstance(1, 2, 3);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+        buffer.position(1).limit(6);
+        dr.nextBytes(buffer);
+        assertEquals(6, buffer.position());
+        assertEquals(6, buffer.limit());
+        byte[] result = new byte[8];
+        buffer.clear();
+        buffer.get(result);
+        assertArrayEquals(new byte[] {0, 1, 2, 3, 1, 2, 0, 0}, result);
+    }
+
+    @Test
+    public void test_next_bytes_empty_buffer() {
+        DigitalRandom dr = mockInstance(1);
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        buffer.position(4);
+        dr.nextBytes(buffer);
+        assertEquals(4, buffer.position());
+        assertArrayEquals(new byte[4], buffer.array());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_next_bytes_buffer_throws() {
+        mockInstance(1).nextBytes((ByteBuffer)null);
+    }
+
+    @Test(expected = ReadOnlyBufferException.class)
+    public void test_read_only_next_bytes_buffer_throws() {
+        mockInstance(1).nextBytes(ByteBuffer.allocate(4).asReadOnlyBuffer());
     }
 
     @Test
@@ -3,7 +3,12 @@ package net.nullschool.util;
 import org.junit.Test;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
 
 import static org.junit.Assert.*;
 import static net.nullschool.util.EngineTools.*;
@@ -17,6 +22,106 @@ import static net.nullschool.util.EngineTools.*;
  */
 public class EngineToolsTest {
 
+    private static Path newTempDir() throws IOException {
+        Path dir = Files.createTempDirectory("drnglib-test");
+        dir.toFile().deleteOnExit();
+        return dir;
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path p : stream) {
+                Files.delete(p);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    public void test_content_addressed_name() {
+        String name = contentAddressedName("linux/drnglib-x64.so", "hello world".getBytes());
+        // SHA-256("hello world") = b94d27b9934d3e08...
+        assertEquals("drnglib-x64-b94d27b9934d3e08.so", name);
+        assertEquals("sample-b94d27b9934d3e08", contentAddressedName("sample", "hello world".getBytes()));
+        assertFalse(name.equals(contentAddressedName("linux/drnglib-x64.so", "hello world!".getBytes())));
+    }
+
+    @Test
+    public void test_extract_resource() throws Exception {
+        Path dir = newTempDir();
+        try {
+            Path resource = extractResource(EngineToolsTest.class, "sample.a.txt", dir.resolve("sub"));
+            assertNotNull(resource);
+            assertEquals(dir.resolve("sub"), resource.getParent());
+            assertTrue(resource.getFileName().toString().matches("sample\\.a-[0-9a-f]{16}\\.txt"));
+            try (BufferedReader reader = Files.newBufferedReader(resource, StandardCharsets.UTF_8)) {
+                assertEquals("hello world", reader.readLine());
+            }
+            delete(dir.resolve("sub"));
+        }
+        finally {
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void test_extract_resource_reuses_verified_copy() throws Exception {
+        Path dir = newTempDir();
+        try {
+            Path first = extractResource(EngineToolsTest.class, "sample.a.txt", dir);
+            FileTime old = FileTime.fromMillis(0);
+            Files.setLastModifiedTime(first, old);
+
+            // An identical copy is left alone.
+            assertEquals(first, extractResource(EngineToolsTest.class, "sample.a.txt", dir));
+            assertEquals(old, Files.getLastModifiedTime(first));
+
+            // A corrupt copy is replaced.
+            Files.write(first, "hello wOrld".getBytes());
+            assertEquals(first, extractResource(EngineToolsTest.class, "sample.a.txt", dir));
+            assertArrayEquals(readResource(EngineToolsTest.class, "sample.a.txt"), Files.readAllBytes(first));
+
+            // No temporary files are left behind.
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path p : stream) {
+                    assertEquals(first, p);
+                }
+            }
+        }
+        finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void test_extract_missing_resource() throws Exception {
+        Path dir = newTempDir();
+        try {
+            assertNull(extractResource(EngineToolsTest.class, "doesn't exist", dir));
+            assertNull(readResource(EngineToolsTest.class, "doesn't exist"));
+        }
+        finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void test_independent_seed_source() {
+        DigitalRandomSpi source = newIndependentSeedSource();
+        assertFalse(source instanceof RdRandEngine);
+        assertEquals(48, source.engineGenerateSeed(48).length);
+
+        DigitalRandomSpi fallback = new SecureRandomEngine();
+        byte[] seed = fallback.engineGenerateSeed(32);
+        assertEquals(32, seed.length);
+        assertFalse(Arrays.equals(seed, fallback.engineGenerateSeed(32)));
+        assertNotEquals(fallback.engineNextLong(), fallback.engineNextLong());
+
+        CtrDrbgEngine drbg = new CtrDrbgEngine(fallback, false);
+        assertEquals(100, drbg.engineGenerateSeed(100).length);
+        drbg.engineNextInt();
+    }
+
 //    @Test
 //    public void test_absolute_resource_as_file() throws Exception {
 //        Path resource = unpackTemporaryResource(NetPackage.class, "/net/nullschool/util/sample.a.txt");
@@ -0,0 +1,137 @@
+package net.nullschool.util;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public class FailoverEngineTest {
+
+    private static final int THREADS = 8;
+    private static final int DRAWS = 100000;  // per thread
+
+    private static MockRdRandEngine failing(double rate, long value) {
+        MockRdRandEngine engine = new MockRdRandEngine(value);
+        engine.failing(rate);
+        return engine;
+    }
+
+    /**
+     * Draws longs from the engine on several threads at once, returning the number of draws that failed.
+     */
+    private static long stress(final DigitalRandomSpi engine) throws Exception {
+        final AtomicLong failures = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override public Void call() {
+                    for (int i = 0; i < DRAWS; i++) {
+                        try {
+                            engine.engineNextLong();
+                        }
+                        catch (IllegalStateException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        return failures.get();
+    }
+
+    @Test
+    public void test_serves_from_first_engine() {
+        FailoverEngine engine = new FailoverEngine(new MockRdRandEngine(1), new MockRdRandEngine(2));
+        assertEquals(1, engine.engineNextLong());
+        assertEquals(1, engine.engineNextInt());
+        byte[] bytes = new byte[8];
+        engine.engineNextBytes(bytes);
+        assertArrayEquals(new byte[] {1, 1, 1, 1, 1, 1, 1, 1}, bytes);
+        assertEquals(0, engine.failovers());
+    }
+
+    @Test
+    public void test_fails_over_each_request() {
+        FailoverEngine engine = new FailoverEngine(failing(1.0, 1), new MockRdRandEngine(2));
+        assertEquals(2, engine.engineNextLong());
+        assertEquals(2, engine.engineNextInt());
+
+        byte[] bytes = new byte[8];
+        engine.engineNextBytes(bytes, 2, 4);
+        assertArrayEquals(new byte[] {0, 0, 2, 2, 2, 2, 0, 0}, bytes);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+        buffer.position(4);
+        engine.engineNextBytes(buffer);
+        assertEquals(8, buffer.position());
+        assertEquals(2, buffer.get(4));
+
+        long[] longs = new long[4];
+        engine.engineNextLongs(longs, 0, 4);
+        assertArrayEquals(new long[] {2, 2, 2, 2}, longs);
+        assertEquals(2, engine.engineGenerateSeed(4)[3]);
+        assertEquals(6, engine.failovers());
+    }
+
+    @Test
+    public void test_last_failure_is_thrown() {
+        FailoverEngine engine = new FailoverEngine(failing(1.0, 1), failing(1.0, 2));
+        try {
+            engine.engineNextLong();
+            fail();
+        }
+        catch (IllegalStateException expected) {
+            assertEquals("Random value unavailable.", expected.getMessage());
+        }
+        assertEquals(1, engine.failovers());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_bad_arguments_do_not_fail_over() {
+        new FailoverEngine(new MockRdRandEngine(1), new MockRdRandEngine(2)).engineNextInts(new int[10], 5, 6);
+    }
+
+    @Test
+    public void test_stress_with_healthy_secondary() throws Exception {
+        FailoverEngine engine = new FailoverEngine(failing(0.25, 1), new MockRdRandEngine(2));
+        assertEquals(0, stress(engine));
+        double rate = engine.failovers() / (double)(THREADS * DRAWS);
+        assertEquals(0.25, rate, 0.01);
+    }
+
+    @Test
+    public void test_stress_with_failing_chain() throws Exception {
+        FailoverEngine engine = new FailoverEngine(failing(0.5, 1), failing(0.5, 2), failing(0.5, 3));
+        double rate = stress(engine) / (double)(THREADS * DRAWS);
+        assertEquals(0.125, rate, 0.01);  // every engine must fail
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_no_engines_throws() {
+        new FailoverEngine();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_engine_throws() {
+        new FailoverEngine(new MockRdRandEngine(1), null);
+    }
+}
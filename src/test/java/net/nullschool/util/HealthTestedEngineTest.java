@@ -0,0 +1,177 @@
+package net.nullschool.util;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+
+import static org.junit.Assert.*;
+import static net.nullschool.util.HealthTestedEngine.*;
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public class HealthTestedEngineTest {
+
+    private static MockRdRandEngine newHealthySource() {
+        SecureRandom random = new SecureRandom();
+        long[] values = new long[4096];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong();
+        }
+        return new MockRdRandEngine(values);
+    }
+
+    private static void assertWiped(byte[] bytes) {
+        for (byte b : bytes) {
+            assertEquals(0, b);
+        }
+    }
+
+    @Test
+    public void test_healthy_source_passes() {
+        HealthTestedEngine engine = new HealthTestedEngine(newHealthySource());
+        for (int i = 0; i < 10000; i++) {
+            engine.engineNextInt();
+            engine.engineNextLong();
+            engine.engineNextBytes(new byte[100]);
+            engine.engineNextBytes(new byte[100], 10, 80);
+            engine.engineNextBytes(ByteBuffer.allocateDirect(100));
+            engine.engineNextInts(new int[20], 0, 20);
+            engine.engineNextLongs(new long[20], 0, 20);
+            engine.engineNextFloats(new float[30], 0, 30);
+            engine.engineNextDoubles(new double[30], 0, 30);
+            engine.engineGenerateSeed(32);
+        }
+    }
+
+    @Test
+    public void test_repetition_count() {
+        HealthTests tests = new HealthTests();
+        for (int i = 0; i < REPETITION_CUTOFF - 1; i++) {
+            tests.sample(7);
+        }
+        tests.sample(8);
+        try {
+            for (int i = 0; i < REPETITION_CUTOFF; i++) {
+                tests.sample(9);
+            }
+            fail();
+        }
+        catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().contains("0x09 repeated"));
+        }
+    }
+
+    @Test
+    public void test_adaptive_proportion() {
+        HealthTests tests = new HealthTests();
+        for (int i = 0; i < PROPORTION_WINDOW; i++) {
+            tests.sample(i % 32 == 0 ? 5 : i);  // 16 occurrences of the first sample: below the cutoff
+        }
+        try {
+            for (int i = 0; i < PROPORTION_WINDOW; i++) {
+                tests.sample(i % 16 == 0 ? 5 : i);  // 32 occurrences of the first sample
+            }
+            fail();
+        }
+        catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().contains("0x05 occurred"));
+        }
+    }
+
+    @Test
+    public void test_stuck_bytes_fail_and_wipe() {
+        MockRdRandEngine source = newHealthySource();
+        HealthTestedEngine engine = new HealthTestedEngine(source);
+        engine.engineNextBytes(new byte[1000]);
+        source.stick(0);
+        byte[] bytes = new byte[1000];
+        try {
+            engine.engineNextBytes(bytes);
+            fail();
+        }
+        catch (IllegalStateException expected) {
+            assertWiped(bytes);
+        }
+        try {
+            engine.engineNextBytes(new byte[1000]);  // keeps failing
+            fail();
+        }
+        catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void test_stuck_pattern_fails() {
+        MockRdRandEngine source = newHealthySource();
+        HealthTestedEngine engine = new HealthTestedEngine(source);
+        source.stick(0x0123456789abcdefL);  // distinct bytes, so only the adaptive proportion test can catch it
+        long[] longs = new long[100];
+        try {
+            for (int i = 0; i < 10; i++) {
+                engine.engineNextLongs(longs, 0, longs.length);
+            }
+            fail();
+        }
+        catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().contains("occurred"));
+            assertEquals(0, longs[0]);
+            assertEquals(0, longs[99]);
+        }
+    }
+
+    @Test
+    public void test_stuck_scalars_fail() {
+        MockRdRandEngine source = newHealthySource();
+        HealthTestedEngine engine = new HealthTestedEngine(source);
+        source.stick(-1);
+        int calls = 0;
+        try {
+            while (calls++ < 1000) {
+                engine.engineNextLong();
+            }
+            fail();
+        }
+        catch (IllegalStateException expected) {
+            assertTrue(calls <= SCALAR_INTERVAL);
+        }
+    }
+
+    @Test
+    public void test_stuck_doubles_and_buffers_fail() {
+        MockRdRandEngine source = newHealthySource();
+        HealthTestedEngine engine = new HealthTestedEngine(source);
+        source.stick(0x5555555555555555L);
+        try {
+            engine.engineNextDoubles(new double[100], 0, 100);
+            fail();
+        }
+        catch (IllegalStateException expected) {
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(100);
+        try {
+            engine.engineNextBytes(buffer);
+            fail();
+        }
+        catch (IllegalStateException expected) {
+            for (int i = 0; i < buffer.limit(); i++) {
+                assertEquals(0, buffer.get(i));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_engine_throws() {
+        new HealthTestedEngine(null);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_bad_range_throws() {
+        new HealthTestedEngine(newHealthySource()).engineNextInts(new int[10], 5, 6);
+    }
+}
@@ -0,0 +1,179 @@
+package net.nullschool.util;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static net.nullschool.util.Metrics.*;
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public class MetricsTest {
+
+    /**
+     * An engine that fails on request, with a class name unique to this test so its counts start at zero.
+     */
+    private static class FailingEngine extends MockRdRandEngine {
+        private static final long serialVersionUID = 1;
+        volatile boolean failing;
+
+        FailingEngine() {
+            super(1, 2, 3);
+        }
+
+        @Override
+        protected long engineNextLong() {
+            if (failing) {
+                throw new IllegalStateException("Random value unavailable.");
+            }
+            return super.engineNextLong();
+        }
+    }
+
+    @Test
+    public void test_stripe_count() {
+        assertEquals(2, stripeCount(1));
+        assertEquals(4, stripeCount(2));
+        assertEquals(8, stripeCount(3));
+        assertEquals(16, stripeCount(8));
+        assertEquals(64, stripeCount(32));
+        assertEquals(64, stripeCount(1000));
+    }
+
+    @Test
+    public void test_bucket() {
+        assertEquals(0, bucket(-1));
+        assertEquals(0, bucket(0));
+        assertEquals(0, bucket(1));
+        assertEquals(1, bucket(2));
+        assertEquals(1, bucket(3));
+        assertEquals(10, bucket(1024));
+        assertEquals(62, bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void test_striped_counter_concurrent() throws Exception {
+        final StripedCounter counter = new StripedCounter();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Future<?>[] futures = new Future<?>[8];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = executor.submit(new Runnable() {
+                @Override public void run() {
+                    for (int j = 0; j < 100000; j++) {
+                        counter.add(1);
+                    }
+                }
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(800000, counter.sum());
+    }
+
+    @Test
+    public void test_metered_engine_counts() {
+        FailingEngine engine = new FailingEngine();
+        MeteredEngine metered = new MeteredEngine(engine);
+        EngineMetrics metrics = forEngine("FailingEngine");
+
+        metered.engineNextInt();
+        metered.engineNextLong();
+        metered.engineNextLong();
+        metered.engineNextBytes(new byte[10]);
+        metered.engineNextBytes(new byte[10], 2, 5);
+        metered.engineNextBytes(ByteBuffer.allocate(7));
+        metered.engineNextInts(new int[10], 0, 10);
+        metered.engineNextLongs(new long[10], 0, 3);
+        metered.engineNextFloats(new float[10], 0, 4);
+        metered.engineNextDoubles(new double[10], 0, 6);
+        metered.engineGenerateSeed(32);
+
+        assertEquals(1, metrics.values(Method.NEXT_INT));
+        assertEquals(2, metrics.values(Method.NEXT_LONG));
+        assertEquals(22, metrics.values(Method.NEXT_BYTES));
+        assertEquals(10, metrics.values(Method.NEXT_INTS));
+        assertEquals(3, metrics.values(Method.NEXT_LONGS));
+        assertEquals(4, metrics.values(Method.NEXT_FLOATS));
+        assertEquals(6, metrics.values(Method.NEXT_DOUBLES));
+        assertEquals(32, metrics.values(Method.GENERATE_SEED));
+
+        long fills = 0;
+        for (long count : metrics.latencies(Method.NEXT_BYTES)) {
+            fills += count;
+        }
+        assertEquals(3, fills);
+
+        Bean bean = new Bean();
+        assertEquals(Long.valueOf(2), bean.getValues().get("FailingEngine.nextLong"));
+        assertEquals(Long.valueOf(16), bean.getBytes().get("FailingEngine.nextLong"));
+        assertEquals(Long.valueOf(48), bean.getBytes().get("FailingEngine.nextDoubles"));
+        assertEquals(BUCKETS, bean.getFillLatencies().get("FailingEngine.nextInts").length);
+        assertNull(bean.getFillLatencies().get("FailingEngine.nextInt"));
+        assertEquals(Long.valueOf(0), bean.getFailures().get("FailingEngine"));
+
+        engine.failing = true;
+        try {
+            metered.engineNextLong();
+            fail();
+        }
+        catch (IllegalStateException expected) {
+        }
+        assertEquals(1, metrics.failures());
+        assertEquals(2, metrics.values(Method.NEXT_LONG));
+    }
+
+    @Test
+    public void test_bad_arguments_not_counted() {
+        MeteredEngine metered = new MeteredEngine(new MockRdRandEngine(1));
+        EngineMetrics metrics = forEngine("MockRdRandEngine");
+        long before = metrics.values(Method.NEXT_INTS);
+        try {
+            metered.engineNextInts(new int[10], 5, 6);
+            fail();
+        }
+        catch (IndexOutOfBoundsException expected) {
+        }
+        assertEquals(before, metrics.values(Method.NEXT_INTS));
+    }
+
+    @Test
+    public void test_native_counters() {
+        if (RdRandEngine.linkAndCheckRdRandSupported()) {
+            long[] counters = RdRandEngine.nativeCounters();
+            assertEquals(4, counters.length);
+            for (long counter : counters) {
+                assertTrue(counter >= 0);
+            }
+            assertTrue(new Bean().getRdRandRetries() >= 0);
+        }
+    }
+
+    @Test
+    public void test_register() throws Exception {
+        register();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        assertTrue(server.getAttribute(name, "Values") != null);
+        assertTrue(server.getAttribute(name, "FillLatencies") != null);
+        assertTrue(server.getAttribute(name, "RdRandRetries") instanceof Long);
+        register();  // ignores the existing registration
+    }
+}
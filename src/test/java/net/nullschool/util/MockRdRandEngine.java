@@ -1,5 +1,8 @@
 package net.nullschool.util;
 
+import java.util.Arrays;
+import java.util.Random;
+
 /**
  * 2013-01-23<p/>
  *
@@ -14,11 +17,33 @@ class MockRdRandEngine extends DigitalRandomSpi {
 
     private final long[] values;
     private int i;
+    private final Random failures = new Random(1);
+    private volatile double failureRate;
 
     MockRdRandEngine(long... values) {
         this.values = values;
     }
 
+    /**
+     * Makes every subsequent value equal to {@code value}, as a faulty DRNG might.
+     */
+    void stick(long value) {
+        Arrays.fill(values, value);
+    }
+
+    /**
+     * Makes the specified fraction of subsequent draws fail, as an exhausted DRNG might.
+     */
+    void failing(double rate) {
+        failureRate = rate;
+    }
+
+    private void draw() {
+        if (failureRate > 0 && failures.nextDouble() < failureRate) {
+            throw new IllegalStateException("Random value unavailable.");
+        }
+    }
+
     @Override
     protected void engineSetSeed(byte[] seed) {
         throw new UnsupportedOperationException("engineSetSeed");
@@ -32,11 +57,13 @@ class MockRdRandEngine extends DigitalRandomSpi {
 
     @Override
     protected int engineNextInt() {
+        draw();
         return (int)values[next()];
     }
 
     @Override
     protected long engineNextLong() {
+        draw();
         return values[next()];
     }
 
@@ -45,6 +72,7 @@ class MockRdRandEngine extends DigitalRandomSpi {
         if (bytes == null) {
             throw new IllegalArgumentException();
         }
+        draw();
         for (int i = 0; i < bytes.length; i++) {
             bytes[i] = (byte)values[next()];
         }
@@ -0,0 +1,46 @@
+package net.nullschool.util;
+
+/**
+ * 2026-10-16<p/>
+ *
+ * A seed source that produces the byte sequence 1, 2, 3, ... and can be scripted to run dry. Each call to
+ * {@link #nextSeedBytes} fills at most the number of bytes given by the next entry in the script, where
+ * zero means the source is exhausted for that call. Once the script is used up, calls are unlimited.
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+class MockSeedSource implements SeedSource {
+
+    private final boolean supported;
+    private final int[] script;
+    private byte next = 1;
+    int calls;
+
+    MockSeedSource(boolean supported, int... script) {
+        this.supported = supported;
+        this.script = script;
+    }
+
+    @Override
+    public boolean isSupported() {
+        return supported;
+    }
+
+    @Override
+    public int nextSeedBytes(byte[] bytes, int offset, int length) {
+        if (bytes == null) {
+            throw new IllegalArgumentException();
+        }
+        if (offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+        int limit = calls < script.length ? Math.min(script[calls], length) : length;
+        calls++;
+        for (int i = 0; i < limit; i++) {
+            bytes[offset + i] = next++;
+        }
+        return limit;
+    }
+}
@@ -2,6 +2,10 @@ package net.nullschool.util;
 
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.security.SecureRandom;
 import java.util.*;
 import java.util.concurrent.*;
@@ -81,6 +85,76 @@ public class PerformanceTest {
         }
     }
 
+    /**
+     * Generates lots of longs using {@link DigitalRandom#newBufferedInstance()}.
+     */
+    private static class LongBufferedDigitalRandomTask implements Task {
+
+        private static final int SAMPLES = 50000000;
+        public int getByteCount() { return SAMPLES * 8; }
+        private final DigitalRandom random = DigitalRandom.newBufferedInstance();
+
+        public Void call() throws Exception {
+            for (int i = 0; i < SAMPLES; i++) {
+                random.nextLong();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Generates lots of longs using {@link DigitalRandom#newPrefetchingInstance()}.
+     */
+    private static class LongPrefetchingDigitalRandomTask implements Task {
+
+        private static final int SAMPLES = 50000000;
+        public int getByteCount() { return SAMPLES * 8; }
+        private final DigitalRandom random = DigitalRandom.newPrefetchingInstance();
+
+        public Void call() throws Exception {
+            for (int i = 0; i < SAMPLES; i++) {
+                random.nextLong();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Generates lots of longs using {@link DigitalRandom#newSoftwareInstance()}.
+     */
+    private static class LongSoftwareDigitalRandomTask implements Task {
+
+        private static final int SAMPLES = 50000000;
+        public int getByteCount() { return SAMPLES * 8; }
+        private final DigitalRandom random = DigitalRandom.newSoftwareInstance();
+
+        public Void call() throws Exception {
+            for (int i = 0; i < SAMPLES; i++) {
+                random.nextLong();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Fills a large byte array many times over using {@link DigitalRandom#newSoftwareInstance()}.
+     */
+    private static class BytesSoftwareDigitalRandomTask implements Task {
+
+        private static final int SAMPLES = 50;
+        private static final int ARRAY_SIZE = 2 * 1024 * 1024;
+        public int getByteCount() { return SAMPLES * ARRAY_SIZE; }
+        private final DigitalRandom random = DigitalRandom.newSoftwareInstance();
+
+        public Void call() throws Exception {
+            byte[] bytes = new byte[ARRAY_SIZE];
+            for (int i = 0; i < SAMPLES; i++) {
+                random.nextBytes(bytes);
+            }
+            return null;
+        }
+    }
+
     /**
      * Generates lots of longs using {@link ThreadLocalRandom}.
      */
@@ -98,6 +172,41 @@ public class PerformanceTest {
         }
     }
 
+    /**
+     * Generates lots of longs using {@link DigitalRandom#newChaChaInstance()}.
+     */
+    private static class LongChaChaDigitalRandomTask implements Task {
+
+        private static final int SAMPLES = 200000000;
+        public int getByteCount() { return SAMPLES * 8; }
+        private final DigitalRandom random = DigitalRandom.newChaChaInstance();
+
+        public Void call() throws Exception {
+            for (int i = 0; i < SAMPLES; i++) {
+                random.nextLong();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Generates lots of longs using {@link DigitalRandom#newCtrDrbgInstance()}. Compare with
+     * {@link LongDigitalRandomTask} and {@link LongSecureRandomTask}.
+     */
+    private static class LongCtrDrbgDigitalRandomTask implements Task {
+
+        private static final int SAMPLES = 100000000;
+        public int getByteCount() { return SAMPLES * 8; }
+        private final DigitalRandom random = DigitalRandom.newCtrDrbgInstance();
+
+        public Void call() throws Exception {
+            for (int i = 0; i < SAMPLES; i++) {
+                random.nextLong();
+            }
+            return null;
+        }
+    }
+
     /**
      * Fills a large byte array many times over using {@link Random}.
      */
@@ -158,6 +267,171 @@ public class PerformanceTest {
         }
     }
 
+    /**
+     * Fills a large byte array many times over using {@link DigitalRandom#newChaChaInstance()}.
+     */
+    private static class BytesChaChaDigitalRandomTask implements Task {
+
+        private static final int SAMPLES = 500;
+        private static final int ARRAY_SIZE = 2 * 1024 * 1024;
+        public int getByteCount() { return SAMPLES * ARRAY_SIZE; }
+        private final DigitalRandom random = DigitalRandom.newChaChaInstance();
+
+        public Void call() throws Exception {
+            byte[] bytes = new byte[ARRAY_SIZE];
+            for (int i = 0; i < SAMPLES; i++) {
+                random.nextBytes(bytes);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Fills a large byte array many times over using {@link DigitalRandom#newCtrDrbgInstance()}. Compare with
+     * {@link BytesDigitalRandomTask} and {@link BytesSecureRandomTask}.
+     */
+    private static class BytesCtrDrbgDigitalRandomTask implements Task {
+
+        private static final int SAMPLES = 500;
+        private static final int ARRAY_SIZE = 2 * 1024 * 1024;
+        public int getByteCount() { return SAMPLES * ARRAY_SIZE; }
+        private final DigitalRandom random = DigitalRandom.newCtrDrbgInstance();
+
+        public Void call() throws Exception {
+            byte[] bytes = new byte[ARRAY_SIZE];
+            for (int i = 0; i < SAMPLES; i++) {
+                random.nextBytes(bytes);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Fills a large long array many times over using {@link DigitalRandom#nextLongs(long[])}.
+     */
+    private static class LongsDigitalRandomTask implements Task {
+
+        private static final int SAMPLES = 50;
+        private static final int ARRAY_SIZE = 256 * 1024;
+        public int getByteCount() { return SAMPLES * ARRAY_SIZE * 8; }
+        private final DigitalRandom random = new DigitalRandom();
+
+        public Void call() throws Exception {
+            long[] longs = new long[ARRAY_SIZE];
+            for (int i = 0; i < SAMPLES; i++) {
+                random.nextLongs(longs);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Fills a large double array many times over using {@link DigitalRandom#nextDoubles(double[])}.
+     */
+    private static class DoublesDigitalRandomTask implements Task {
+
+        private static final int SAMPLES = 50;
+        private static final int ARRAY_SIZE = 256 * 1024;
+        public int getByteCount() { return SAMPLES * ARRAY_SIZE * 8; }
+        private final DigitalRandom random = new DigitalRandom();
+
+        public Void call() throws Exception {
+            double[] doubles = new double[ARRAY_SIZE];
+            for (int i = 0; i < SAMPLES; i++) {
+                random.nextDoubles(doubles);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Sums a long stream from {@link DigitalRandom#longs(long)} in parallel. Measure this task with one thread,
+     * as the stream itself spreads the work across the common fork-join pool.
+     */
+    private static class ParallelLongsDigitalRandomTask implements Task {
+
+        private static final int SAMPLES = 50000000;
+        public int getByteCount() { return SAMPLES * 8; }
+        private final DigitalRandom random = new DigitalRandom();
+
+        public Void call() throws Exception {
+            random.longs(SAMPLES).parallel().sum();
+            return null;
+        }
+    }
+
+    /**
+     * Generates lots of booleans using {@link DigitalRandom#nextBoolean()}. Byte count is in bits consumed / 8.
+     */
+    private static class BooleanDigitalRandomTask implements Task {
+
+        private static final int SAMPLES = 200000000;
+        public int getByteCount() { return SAMPLES / 8; }
+        private final DigitalRandom random = new DigitalRandom();
+
+        public Void call() throws Exception {
+            for (int i = 0; i < SAMPLES; i++) {
+                random.nextBoolean();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Generates lots of seeds using {@link DigitalRandom#generateSeed(int)}, which uses rdseed if the CPU
+     * supports it.
+     */
+    private static class SeedDigitalRandomTask implements Task {
+
+        private static final int SAMPLES = 20000;
+        private static final int SEED_SIZE = 32;
+        public int getByteCount() { return SAMPLES * SEED_SIZE; }
+        private final DigitalRandom random = new DigitalRandom();
+
+        public Void call() throws Exception {
+            for (int i = 0; i < SAMPLES; i++) {
+                random.generateSeed(SEED_SIZE);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Generates lots of seeds by conditioning rdrand output, as done when the CPU does not support rdseed.
+     */
+    private static class ConditionedSeedTask implements Task {
+
+        private static final int SAMPLES = 5000;
+        private static final int SEED_SIZE = 32;
+        public int getByteCount() { return SAMPLES * SEED_SIZE; }
+        private final RdRandEngine engine = new RdRandEngine(new MockSeedSource(false));
+
+        public Void call() throws Exception {
+            for (int i = 0; i < SAMPLES; i++) {
+                engine.engineGenerateSeed(SEED_SIZE);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Generates lots of seeds using {@link SecureRandom#generateSeed(int)} for comparison.
+     */
+    private static class SeedSecureRandomTask implements Task {
+
+        private static final int SAMPLES = 5000;
+        private static final int SEED_SIZE = 32;
+        public int getByteCount() { return SAMPLES * SEED_SIZE; }
+        private final SecureRandom random = new SecureRandom();
+
+        public Void call() throws Exception {
+            for (int i = 0; i < SAMPLES; i++) {
+                random.generateSeed(SEED_SIZE);
+            }
+            return null;
+        }
+    }
+
     /**
      * Fills a large byte array many times over using {@link ThreadLocalRandom}.
      */
@@ -178,17 +452,57 @@ public class PerformanceTest {
     }
 
     /**
-     * Generates lots of UUIDs using {@link DigitalRandom}.
+     * Generates lots of UUIDs using {@link DigitalRandom}, in one of several ways: one UUID object at a time, in
+     * bulk as long pairs or into a direct buffer, in bulk and then formatted as text without allocating, or as
+     * time-ordered version 7 UUIDs.
      */
     private static class DigitalRandomUUIDTask implements Task {
 
+        enum Kind { SINGLE, PAIRS, BUFFER, FORMATTED, V7 }
+
         private static final int SAMPLES = 3000000;
+        private static final int BATCH_SIZE = 1000;  // UUIDs per bulk call
         public int getByteCount() { return SAMPLES * 16; }
         private final DigitalRandom random = new DigitalRandom();
+        private final Kind kind;
+
+        DigitalRandomUUIDTask() {
+            this(Kind.SINGLE);
+        }
+
+        DigitalRandomUUIDTask(Kind kind) {
+            this.kind = kind;
+        }
 
         public Void call() throws Exception {
-            for (int i = 0; i < SAMPLES; i++) {
-                random.nextUUID();
+            long[] pairs = new long[BATCH_SIZE * 2];
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BATCH_SIZE * 16);
+            char[] chars = new char[UUIDFormat.LENGTH];
+            UUIDv7Generator v7 = new UUIDv7Generator(random);
+            for (int i = 0; i < SAMPLES; i += BATCH_SIZE) {
+                switch (kind) {
+                    case SINGLE:
+                        for (int j = 0; j < BATCH_SIZE; j++) {
+                            random.nextUUID();
+                        }
+                        break;
+                    case PAIRS:
+                        random.nextUUIDs(pairs);
+                        break;
+                    case BUFFER:
+                        buffer.clear();
+                        random.nextUUIDs(buffer);
+                        break;
+                    case FORMATTED:
+                        random.nextUUIDs(pairs);
+                        for (int j = 0; j < pairs.length; j += 2) {
+                            UUIDFormat.format(pairs[j], pairs[j + 1], chars, 0);
+                        }
+                        break;
+                    case V7:
+                        v7.next(pairs);
+                        break;
+                }
             }
             return null;
         }
@@ -210,10 +524,82 @@ public class PerformanceTest {
         }
     }
 
+    /**
+     * Returns the peak resident set size of this process in KiB, or -1 if it cannot be determined. Linux only.
+     */
+    private static long peakResidentKiB() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"), StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        }
+        catch (IOException | NumberFormatException ignore) {
+        }
+        return -1;
+    }
+
+    /**
+     * Resets the peak resident set size of this process to its current resident set size. Linux only.
+     */
+    private static void resetPeakResident() {
+        try {
+            Files.write(Paths.get("/proc/self/clear_refs"), "5".getBytes(StandardCharsets.US_ASCII));
+        }
+        catch (IOException ignore) {
+        }
+    }
+
+    /**
+     * Measures the single-threaded fill rate of {@link DigitalRandom#nextBytes(byte[])} for arrays from 1KiB
+     * through 256MiB, along with how far each size pushes the peak resident set size of the process above the
+     * size of the array itself. Native memory spikes, such as from copying the array, show up as overhead.
+     * Run with "-Xms1G -Xmx2G".
+     */
+    private static void measureNextBytesBySize() {
+        final long TOTAL_BYTES = 256 * BYTES_PER_MEGABYTE;  // bytes to generate per trial
+        final int TRIALS = 5;
+        DigitalRandom random = new DigitalRandom();
+
+        for (int size = 1024; size > 0 && size <= 256 * BYTES_PER_MEGABYTE; size *= 4) {
+            byte[] bytes = new byte[size];
+            random.nextBytes(bytes);  // touch every page so the array is resident before measuring
+            DescriptiveStatistics stat = new DescriptiveStatistics();
+            long overhead = 0;
+
+            for (int trial = 0; trial < TRIALS; trial++) {
+                long iterations = Math.max(2, TOTAL_BYTES / size);
+                resetPeakResident();
+                long before = peakResidentKiB();
+                long start = System.nanoTime();
+                for (long i = 0; i < iterations; i++) {
+                    random.nextBytes(bytes);
+                }
+                long nanos = System.nanoTime() - start;
+                overhead = Math.max(overhead, peakResidentKiB() - before);
+                stat.addValue(((double)iterations * size / BYTES_PER_MEGABYTE) / ((double)nanos / NANOS_PER_SECOND));
+            }
+
+            System.out.println(String.format(
+                "Size: %9s KiB, MiB/sec: mean=%s, std=%s, peak RSS growth: %s KiB",
+                size / 1024,
+                (long)stat.getMean(),
+                (long)stat.getStandardDeviation(),
+                overhead));
+        }
+    }
+
     /**
      * The main benchmark harness. Measures only one kind of task. Choose the task to measure below.
+     * Alternatively, pass "nextBytesBySize" as the first argument to measure fill rates across array sizes.
      */
     public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("nextBytesBySize")) {
+            measureNextBytesBySize();
+            return;
+        }
+
         ExecutorService executor = Executors.newCachedThreadPool();
         final int CORES = Runtime.getRuntime().availableProcessors();
         final int MAX_RUNS = 40;
@@ -0,0 +1,315 @@
+package net.nullschool.util;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+import static net.nullschool.util.PrefetchEngine.*;
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public class PrefetchEngineTest {
+
+    private static final int PRODUCED = 0x01010101;  // every byte filled by a producer thread is 1
+    private static final int DIRECT = 0x02020202;  // every byte filled on a consumer thread is 2
+
+    /**
+     * A source that marks each byte with the kind of thread that asked for it. Producer threads wait for the
+     * gate to open before filling anything.
+     */
+    private static class MarkingSource extends MockRdRandEngine {
+        private static final long serialVersionUID = 1;
+        final CountDownLatch gate;
+
+        MarkingSource(boolean open) {
+            gate = new CountDownLatch(open ? 0 : 1);
+        }
+
+        @Override
+        protected void engineNextBytes(byte[] bytes) {
+            boolean producer = Thread.currentThread().getName().startsWith("drnglib-prefetch-");
+            if (producer) {
+                try {
+                    gate.await();
+                }
+                catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            Arrays.fill(bytes, (byte)(producer ? 1 : 2));
+        }
+    }
+
+    private static void awaitFull(PrefetchEngine engine) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!(engine.ring.idle.get() > 0 && engine.ring.size() == engine.ring.blocks.length)) {
+            assertTrue("ring never filled", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Returns the producer thread started by the specified action, which constructs one engine.
+     */
+    private static Thread newProducer(Callable<?> action) throws Exception {
+        Set<Thread> before = Thread.getAllStackTraces().keySet();
+        action.call();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("drnglib-prefetch-") && !before.contains(thread)) {
+                return thread;
+            }
+        }
+        throw new AssertionError("no producer started");
+    }
+
+    private static void awaitExit(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.isAlive()) {
+            assertTrue("producer never stopped", System.nanoTime() < deadline);
+            System.gc();
+            thread.join(10);
+        }
+    }
+
+    private static boolean isZero(ByteBuffer buffer) {
+        for (int i = 0; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    public void test_ring() {
+        Ring ring = new Ring(2);
+        ByteBuffer spent = ByteBuffer.allocateDirect(BLOCK_SIZE);
+        assertNull(ring.exchange(spent));
+
+        assertEquals(0, ring.claim());
+        assertEquals(1, ring.claim());
+        assertEquals(-1, ring.claim());
+        assertNull(ring.exchange(spent));  // claimed but not yet published
+        ring.publish(1);
+        assertNull(ring.exchange(spent));  // consumers take blocks in order
+        ring.publish(0);
+        assertEquals(2, ring.size());
+
+        ByteBuffer first = ring.blocks[0];
+        assertSame(first, ring.exchange(spent));
+        assertSame(spent, ring.blocks[0]);
+        assertEquals(2, ring.claim());  // the slot is free again, one lap ahead
+        assertEquals(-1, ring.claim());
+        assertNotNull(ring.exchange(first));
+        assertNull(ring.exchange(first));
+    }
+
+    @Test
+    public void test_serves_from_ring() throws Exception {
+        PrefetchEngine engine = new PrefetchEngine(new MarkingSource(true), 4, 1, 1);
+        awaitFull(engine);
+        assertEquals(PRODUCED, engine.engineNextInt());
+        assertEquals(4, engine.ring.size() + 1);
+
+        // Use up the block, which goes back into the ring all zeros.
+        ByteBuffer first = engine.blocks.get().buffer;
+        engine.engineNextBytes(new byte[BLOCK_SIZE - 5]);
+        assertEquals((long)PRODUCED << 32 | PRODUCED & 0xffffffffL, engine.engineNextLong());
+        assertSame(first, engine.ring.blocks[1]);  // the thread's initial block went into slot 0
+        assertTrue(isZero(first));
+    }
+
+    @Test
+    public void test_falls_back_when_empty() {
+        MarkingSource source = new MarkingSource(false);
+        try {
+            PrefetchEngine engine = new PrefetchEngine(source, 4, 1, 1);
+            assertEquals(DIRECT, engine.engineNextInt());
+            byte[] bytes = new byte[BLOCK_SIZE * 2];
+            engine.engineNextBytes(bytes);
+            for (byte b : bytes) {
+                assertEquals(2, b);
+            }
+        }
+        finally {
+            source.gate.countDown();
+        }
+    }
+
+    @Test
+    public void test_failed_refill_serves_no_zeros() {
+        // Producers always fail, so the ring stays empty and the consumer refills its block directly.
+        final boolean[] failing = new boolean[1];
+        PrefetchEngine engine = new PrefetchEngine(new MockRdRandEngine(0x55) {
+            private static final long serialVersionUID = 1;
+
+            @Override
+            protected void engineNextBytes(byte[] bytes) {
+                if (failing[0] || Thread.currentThread().getName().startsWith("drnglib-prefetch-")) {
+                    throw new IllegalStateException("Random value unavailable.");
+                }
+                super.engineNextBytes(bytes);
+            }
+        }, 2, 0, 1);
+        engine.engineNextBytes(new byte[BLOCK_SIZE - 4]);
+        failing[0] = true;
+        try {
+            engine.engineNextLong();  // wipes the 4 bytes left over, then fails to refill
+            fail();
+        }
+        catch (IllegalStateException expected) {
+        }
+        try {
+            engine.engineNextInt();  // must not serve the wiped bytes
+            fail();
+        }
+        catch (IllegalStateException expected) {
+        }
+        assertTrue(isZero(engine.blocks.get().buffer));
+        failing[0] = false;
+        assertEquals(0x55555555, engine.engineNextInt());
+    }
+
+    @Test
+    public void test_producer_stops_when_engine_collected_while_source_fails() throws Exception {
+        final MockRdRandEngine source = new MockRdRandEngine(0x55);
+        source.failing(1);
+        Thread producer = newProducer(new Callable<Object>() {
+            @Override public Object call() {
+                return new PrefetchEngine(source, 2, 0, 1);  // immediately unreachable
+            }
+        });
+        awaitExit(producer);
+    }
+
+    @Test
+    public void test_producer_stops_on_unexpected_failure() throws Exception {
+        final MarkingSource source = new MarkingSource(false) {
+            private static final long serialVersionUID = 1;
+
+            @Override
+            protected void engineNextBytes(byte[] bytes) {
+                super.engineNextBytes(bytes);  // the producer waits for the gate, so it is alive to be found
+                if (Thread.currentThread().getName().startsWith("drnglib-prefetch-")) {
+                    throw new UnsupportedOperationException("not a temporary failure");
+                }
+            }
+        };
+        final PrefetchEngine[] engine = new PrefetchEngine[1];
+        Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override public void uncaughtException(Thread t, Throwable e) {
+                // expected: the producer's failure
+            }
+        });
+        try {
+            Thread producer = newProducer(new Callable<Object>() {
+                @Override public Object call() {
+                    return engine[0] = new PrefetchEngine(source, 2, 0, 1);
+                }
+            });
+            source.gate.countDown();
+            awaitExit(producer);
+        }
+        finally {
+            Thread.setDefaultUncaughtExceptionHandler(handler);
+        }
+        assertEquals(DIRECT, engine[0].engineNextInt());  // the engine is still reachable, and fills directly
+    }
+
+    @Test
+    public void test_producers_resume_at_low_water_mark() throws Exception {
+        PrefetchEngine engine = new PrefetchEngine(new MarkingSource(true), 4, 2, 1);
+        awaitFull(engine);
+
+        // Take one block: the producers keep resting.
+        engine.engineNextInt();
+        Thread.sleep(50);
+        assertEquals(3, engine.ring.size());
+
+        // Take another block to reach the low-water mark: the producers fill the ring again.
+        engine.engineNextBytes(new byte[BLOCK_SIZE]);
+        awaitFull(engine);
+    }
+
+    @Test
+    public void test_concurrent_consumers() throws Exception {
+        // No consumer should ever receive a wiped or half-filled block.
+        final PrefetchEngine engine = new PrefetchEngine(new MarkingSource(true), 8, 4, 2);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override public Void call() {
+                        for (int i = 0; i < 200000; i++) {
+                            int value = engine.engineNextInt();
+                            if (value != PRODUCED && value != DIRECT) {
+                                throw new AssertionError(Integer.toHexString(value));
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test_prefetching_instance() throws Exception {
+        Assume.assumeTrue("RdRand not supported by this CPU.", RdRandEngine.linkAndCheckRdRandSupported());
+        DigitalRandom random = DigitalRandom.newPrefetchingInstance(4, 1, 1);
+        long[] longs = new long[10000];
+        random.nextLongs(longs);
+        assertTrue(longs[0] != longs[1]);
+        assertTrue(random.nextLong() != random.nextLong());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_source_throws() {
+        new PrefetchEngine(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_bad_ring_size_throws() {
+        new PrefetchEngine(new MarkingSource(true), 0, 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_single_block_ring_throws() {
+        new PrefetchEngine(new MarkingSource(true), 1, 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_bad_low_water_mark_throws() {
+        new PrefetchEngine(new MarkingSource(true), 4, 4, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_bad_producer_count_throws() {
+        new PrefetchEngine(new MarkingSource(true), 4, 1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_bytes_throws() {
+        new PrefetchEngine(new MarkingSource(true)).engineNextBytes((byte[])null);
+    }
+}
@@ -8,6 +8,8 @@ import org.junit.Test;
 import java.io.*;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.regex.Pattern;
 import java.util.zip.DeflaterOutputStream;
 
@@ -141,7 +143,7 @@ public class RdRandEngineTest {
 
     @Test(expected = IllegalArgumentException.class)
     public void test_null_next_bytes_throws() {
-        new RdRandEngine().engineNextBytes(null);
+        new RdRandEngine().engineNextBytes((byte[])null);
     }
 
     @Test
@@ -180,6 +182,294 @@ public class RdRandEngineTest {
         assertTrue(zeroCount(bytes) < 8);
     }
 
+    @Test
+    public void test_next_bytes_range() {
+        RdRandEngine re = new RdRandEngine();
+        byte[] bytes = new byte[SAMPLE_SIZE];
+
+        // Only the requested region is filled.
+        re.engineNextBytes(bytes, 100, 128);
+        for (int i = 0; i < bytes.length; i++) {
+            if (i < 100 || i >= 228) {
+                assertEquals(0, bytes[i]);
+            }
+        }
+        assertTrue(zeroCount(bytes) < SAMPLE_SIZE - 128 + 8);
+
+        re.engineNextBytes(bytes, 0, 0);
+        re.engineNextBytes(bytes, SAMPLE_SIZE, 0);
+        re.engineNextBytes(bytes, SAMPLE_SIZE - 1, 1);
+        re.engineNextBytes(bytes, 0, SAMPLE_SIZE);
+        assertTrue(zeroCount(bytes) < 16);
+    }
+
+    @Test
+    public void test_range_fills_without_native_support() {
+        // Simulates a native library built before range fills, which fails to link engineNextBytesRange.
+        RdRandEngine re = new RdRandEngine();
+        RdRandEngine.hasRangeFills = false;
+        try {
+            byte[] bytes = new byte[SAMPLE_SIZE];
+            re.engineNextBytes(bytes, 100, 128);
+            assertEquals(100, zeroCount(Arrays.copyOfRange(bytes, 0, 100)));
+            assertEquals(SAMPLE_SIZE - 228, zeroCount(Arrays.copyOfRange(bytes, 228, SAMPLE_SIZE)));
+            assertTrue(zeroCount(Arrays.copyOfRange(bytes, 100, 228)) < 8);
+
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            re.engineNextBytes(buffer);
+            assertEquals(64, buffer.position());
+            assertTrue(zeroCount(buffer.array()) < 8);
+        }
+        finally {
+            RdRandEngine.hasRangeFills = true;
+        }
+    }
+
+    @Test
+    public void test_next_bytes_spanning_many_chunks() {
+        // Large fills are written in chunks. Make sure every chunk, including a partial last one, gets filled.
+        RdRandEngine re = new RdRandEngine();
+        byte[] bytes = new byte[5 * 64 * 1024 + 13];
+        re.engineNextBytes(bytes);
+        assertTrue(zeroCount(bytes) < bytes.length / 128);
+
+        bytes = new byte[bytes.length];
+        re.engineNextBytes(bytes, 7, bytes.length - 14);
+        assertEquals(7, zeroCount(Arrays.copyOfRange(bytes, 0, 7)));
+        assertEquals(7, zeroCount(Arrays.copyOfRange(bytes, bytes.length - 7, bytes.length)));
+        assertTrue(zeroCount(bytes) < bytes.length / 128);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_next_bytes_range_throws() {
+        new RdRandEngine().engineNextBytes(null, 0, 0);
+    }
+
+    @Test
+    public void test_next_bytes_range_out_of_range_throws() {
+        RdRandEngine re = new RdRandEngine();
+        byte[] bytes = new byte[16];
+        int[][] ranges = {{-1, 1}, {0, -1}, {0, 17}, {16, 1}, {1, Integer.MAX_VALUE}};
+        for (int[] range : ranges) {
+            try {
+                re.engineNextBytes(bytes, range[0], range[1]);
+                fail();
+            }
+            catch (IndexOutOfBoundsException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void test_next_ints_and_longs() {
+        RdRandEngine re = new RdRandEngine();
+        int[] ints = new int[SAMPLE_SIZE];
+        re.engineNextInts(ints, 1, SAMPLE_SIZE - 2);
+        assertEquals(0, ints[0]);
+        assertEquals(0, ints[SAMPLE_SIZE - 1]);
+        int zeros = 0;
+        for (int i : ints) {
+            zeros += i == 0 ? 1 : 0;
+        }
+        assertEquals(2, zeros);
+
+        long[] longs = new long[SAMPLE_SIZE];
+        re.engineNextLongs(longs, 0, SAMPLE_SIZE - 1);
+        assertEquals(0, longs[SAMPLE_SIZE - 1]);
+        zeros = 0;
+        for (long l : longs) {
+            zeros += l == 0 ? 1 : 0;
+        }
+        assertEquals(1, zeros);
+    }
+
+    @Test
+    public void test_next_doubles_and_floats() {
+        // Values must lie in [0, 1), be multiples of 2^-53 (or 2^-24), and average about one half.
+        RdRandEngine re = new RdRandEngine();
+        double[] doubles = new double[SAMPLE_SIZE * 10];
+        re.engineNextDoubles(doubles, 0, doubles.length);
+        double sum = 0;
+        for (double d : doubles) {
+            assertTrue(d >= 0.0 && d < 1.0);
+            assertEquals(d * (1L << 53), Math.floor(d * (1L << 53)), 0);
+            sum += d;
+        }
+        assertEquals(0.5, sum / doubles.length, 0.02);
+
+        float[] floats = new float[SAMPLE_SIZE * 10];
+        re.engineNextFloats(floats, 0, floats.length);
+        sum = 0;
+        for (float f : floats) {
+            assertTrue(f >= 0.0F && f < 1.0F);
+            assertEquals(f * (1 << 24), Math.floor(f * (1 << 24)), 0);
+            sum += f;
+        }
+        assertEquals(0.5, sum / floats.length, 0.02);
+    }
+
+    @Test
+    public void test_bulk_fills_without_native_support() {
+        // Simulates a native library built before bulk fills, which fails to link the engineFill methods.
+        RdRandEngine re = new RdRandEngine();
+        RdRandEngine.hasBulkFills = false;
+        try {
+            int[] ints = new int[SAMPLE_SIZE];
+            re.engineNextInts(ints, 1, SAMPLE_SIZE - 2);
+            assertEquals(0, ints[0]);
+            assertEquals(0, ints[SAMPLE_SIZE - 1]);
+            long[] longs = new long[SAMPLE_SIZE];
+            re.engineNextLongs(longs, 0, SAMPLE_SIZE);
+            double[] doubles = new double[SAMPLE_SIZE];
+            re.engineNextDoubles(doubles, 0, SAMPLE_SIZE);
+            float[] floats = new float[SAMPLE_SIZE];
+            re.engineNextFloats(floats, 0, SAMPLE_SIZE);
+            int zeros = 0;
+            for (int i = 1; i < SAMPLE_SIZE - 1; i++) {
+                zeros += (ints[i] == 0 ? 1 : 0) + (longs[i] == 0 ? 1 : 0) + (doubles[i] == 0 ? 1 : 0);
+                assertTrue(doubles[i] >= 0.0 && doubles[i] < 1.0);
+                assertTrue(floats[i] >= 0.0F && floats[i] < 1.0F);
+            }
+            assertEquals(0, zeros);
+        }
+        finally {
+            RdRandEngine.hasBulkFills = true;
+        }
+    }
+
+    @Test
+    public void test_bulk_fills_out_of_range_throw() {
+        RdRandEngine re = new RdRandEngine();
+        int[][] ranges = {{-1, 1}, {0, -1}, {0, 17}, {16, 1}, {1, Integer.MAX_VALUE}};
+        for (int[] range : ranges) {
+            try {
+                re.engineNextInts(new int[16], range[0], range[1]);
+                fail();
+            }
+            catch (IndexOutOfBoundsException expected) {
+            }
+            try {
+                re.engineNextLongs(new long[16], range[0], range[1]);
+                fail();
+            }
+            catch (IndexOutOfBoundsException expected) {
+            }
+            try {
+                re.engineNextFloats(new float[16], range[0], range[1]);
+                fail();
+            }
+            catch (IndexOutOfBoundsException expected) {
+            }
+            try {
+                re.engineNextDoubles(new double[16], range[0], range[1]);
+                fail();
+            }
+            catch (IndexOutOfBoundsException expected) {
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_next_doubles_throws() {
+        new RdRandEngine().engineNextDoubles(null, 0, 0);
+    }
+
+    @Test
+    public void test_next_bytes_buffer() {
+        RdRandEngine re = new RdRandEngine();
+        for (ByteBuffer buffer : new ByteBuffer[] {ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64)}) {
+            buffer.position(8).limit(40);
+            re.engineNextBytes(buffer);
+            assertEquals(40, buffer.position());
+            buffer.clear();
+            byte[] bytes = new byte[64];
+            buffer.get(bytes);
+            assertEquals(8, zeroCount(Arrays.copyOfRange(bytes, 0, 8)));
+            assertEquals(24, zeroCount(Arrays.copyOfRange(bytes, 40, 64)));
+            assertTrue(zeroCount(Arrays.copyOfRange(bytes, 8, 40)) < 8);
+        }
+    }
+
+    @Test
+    public void test_next_bytes_direct() {
+        RdRandEngine re = new RdRandEngine();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(SAMPLE_SIZE);
+        buffer.position(3).limit(17);
+
+        // Only the requested region is filled, and the buffer's position and limit are unchanged.
+        re.engineNextBytesDirect(buffer, 100, 128);
+        assertEquals(3, buffer.position());
+        assertEquals(17, buffer.limit());
+        buffer.clear();
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            if (i < 100 || i >= 228) {
+                assertEquals(0, buffer.get(i));
+            }
+        }
+        byte[] region = new byte[128];
+        for (int i = 0; i < region.length; i++) {
+            region[i] = buffer.get(100 + i);
+        }
+        assertTrue(zeroCount(region) < 8);
+
+        re.engineNextBytesDirect(buffer, 0, 0);
+        re.engineNextBytesDirect(buffer, SAMPLE_SIZE - 1, 1);
+        re.engineNextBytesDirect(buffer, 0, SAMPLE_SIZE);
+    }
+
+    @Test
+    public void test_direct_fills_without_native_support() {
+        // Simulates a native library built before direct fills, which fails to link engineNextBytesDirect.
+        RdRandEngine re = new RdRandEngine();
+        RdRandEngine.hasDirectFills = false;
+        try {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(SAMPLE_SIZE);
+            re.fillDirect(buffer, 100, 128);
+            assertEquals(0, buffer.position());
+            byte[] bytes = new byte[SAMPLE_SIZE];
+            buffer.get(bytes);
+            assertEquals(100, zeroCount(Arrays.copyOfRange(bytes, 0, 100)));
+            assertEquals(SAMPLE_SIZE - 228, zeroCount(Arrays.copyOfRange(bytes, 228, SAMPLE_SIZE)));
+            assertTrue(zeroCount(Arrays.copyOfRange(bytes, 100, 228)) < 8);
+
+            buffer.clear().position(8);
+            re.engineNextBytes(buffer);
+            assertEquals(SAMPLE_SIZE, buffer.position());
+
+            BufferedRdRandEngine.blocks.remove();
+            new BufferedRdRandEngine(re).engineNextLong();
+        }
+        finally {
+            RdRandEngine.hasDirectFills = true;
+            BufferedRdRandEngine.blocks.remove();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_next_bytes_direct_throws() {
+        new RdRandEngine().engineNextBytesDirect(null, 0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_heap_next_bytes_direct_throws() {
+        new RdRandEngine().engineNextBytesDirect(ByteBuffer.allocate(16), 0, 16);
+    }
+
+    @Test
+    public void test_next_bytes_direct_out_of_range_throws() {
+        RdRandEngine re = new RdRandEngine();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(16);
+        int[][] ranges = {{-1, 1}, {0, -1}, {0, 17}, {16, 1}, {1, Integer.MAX_VALUE}};
+        for (int[] range : ranges) {
+            try {
+                re.engineNextBytesDirect(buffer, range[0], range[1]);
+                fail();
+            }
+            catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
     @Test
     public void test_valid_seed_sizes() {
         RdRandEngine re = new RdRandEngine();
@@ -216,6 +506,75 @@ public class RdRandEngineTest {
         assertTrue(zeroCount(seed) < 8);
     }
 
+    @Test
+    public void test_seed_from_seed_source() {
+        MockSeedSource source = new MockSeedSource(true);
+        RdRandEngine re = new RdRandEngine(source);
+        assertArrayEquals(new byte[] {1, 2, 3, 4, 5}, re.engineGenerateSeed(5));
+        assertArrayEquals(new byte[0], re.engineGenerateSeed(0));
+        assertEquals(1, source.calls);
+    }
+
+    @Test
+    public void test_seed_source_retries_when_exhausted() {
+        MockSeedSource source = new MockSeedSource(true, 3, 0, 0, 2);
+        RdRandEngine re = new RdRandEngine(source);
+        assertArrayEquals(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}, re.engineGenerateSeed(8));
+        assertEquals(5, source.calls);
+    }
+
+    @Test
+    public void test_seed_falls_back_when_seed_source_stays_exhausted() {
+        int[] script = new int[RdRandEngine.SEED_RETRIES + 2];
+        script[0] = 4;  // fill four bytes, then fail every call
+        MockSeedSource source = new MockSeedSource(true, script);
+        byte[] seed = new RdRandEngine(source).engineGenerateSeed(100);
+        assertEquals(script.length, source.calls);
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, Arrays.copyOf(seed, 4));
+        assertTrue(zeroCount(Arrays.copyOfRange(seed, 4, 100)) < 8);
+    }
+
+    @Test
+    public void test_seed_falls_back_when_seed_source_unsupported() {
+        MockSeedSource source = new MockSeedSource(false);
+        byte[] seed = new RdRandEngine(source).engineGenerateSeed(64);
+        assertEquals(0, source.calls);
+        assertTrue(zeroCount(seed) < 8);
+    }
+
+    @Test
+    public void test_rdseed() {
+        SeedSource source = new RdRandEngine.RdSeedSource();
+        Assume.assumeTrue("RdSeed not supported by this CPU.", source.isSupported());
+        byte[] bytes = new byte[1000];
+        int filled = source.nextSeedBytes(bytes, 1, 998);
+        assertTrue(filled > 0 && filled <= 998);
+        assertEquals(0, bytes[0]);
+        assertEquals(0, bytes[999]);
+        assertTrue(zeroCount(Arrays.copyOfRange(bytes, 1, 1 + filled)) < filled / 64 + 8);
+        assertEquals(0, source.nextSeedBytes(bytes, 1000, 0));
+    }
+
+    @Test
+    public void test_rdseed_bad_arguments_throw() {
+        SeedSource source = new RdRandEngine.RdSeedSource();
+        try {
+            source.nextSeedBytes(null, 0, 0);
+            fail();
+        }
+        catch (IllegalArgumentException expected) {
+        }
+        int[][] ranges = {{-1, 1}, {0, -1}, {0, 5}, {4, 1}, {1, Integer.MAX_VALUE}};
+        for (int[] range : ranges) {
+            try {
+                source.nextSeedBytes(new byte[4], range[0], range[1]);
+                fail();
+            }
+            catch (IndexOutOfBoundsException expected) {
+            }
+        }
+    }
+
     @Test(expected = NegativeArraySizeException.class)
     public void test_negative_seed_size_throws() {
         new RdRandEngine().engineGenerateSeed(-1);
@@ -226,6 +585,70 @@ public class RdRandEngineTest {
         new RdRandEngine().engineSetSeed(new byte[16]);
     }
 
+    @Test
+    public void test_retry_policy() {
+        RdRandEngine engine = new RdRandEngine();
+        long before = RdRandEngine.threadRetries();
+        assertTrue(before >= 0);
+        try {
+            RdRandEngine.setRetryPolicy(0, 0, 0);  // give up on the first failure
+            engine.engineNextBytes(new byte[SAMPLE_SIZE]);
+            RdRandEngine.setRetryPolicy(1, 2, 3);
+            engine.engineNextLong();
+        }
+        catch (IllegalStateException e) {
+            // Possible without retries, but very rare on an idle DRNG.
+        }
+        finally {
+            RdRandEngine.setRetryPolicy(9, 10, 0);
+        }
+        assertTrue(RdRandEngine.threadRetries() >= before);
+    }
+
+    @Test
+    public void test_yield_policy() throws Exception {
+        // Draw from every core with a policy that only yields, so any underflow while an array is pinned is
+        // retried after the critical region is released. Every request must still be served.
+        final RdRandEngine engine = new RdRandEngine();
+        final Throwable[] failure = new Throwable[1];
+        Thread[] threads = new Thread[Runtime.getRuntime().availableProcessors() * 2];
+        RdRandEngine.setRetryPolicy(0, 0, 1000);
+        try {
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread() {
+                    @Override public void run() {
+                        try {
+                            byte[] bytes = new byte[100 * 1024];  // spans more than one critical region
+                            long[] longs = new long[SAMPLE_SIZE];
+                            for (int i = 0; i < 50; i++) {
+                                engine.engineNextBytes(bytes);
+                                engine.engineNextLongs(longs, 0, longs.length);
+                            }
+                            assertTrue(zeroCount(bytes) < bytes.length / 128);
+                            assertTrue(longs[0] != longs[SAMPLE_SIZE - 1]);
+                        }
+                        catch (Throwable e) {
+                            failure[0] = e;
+                        }
+                    }
+                };
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        finally {
+            RdRandEngine.setRetryPolicy(9, 10, 0);
+        }
+        assertNull(failure[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_negative_retry_count_throws() {
+        RdRandEngine.setRetryPolicy(9, -1, 0);
+    }
+
     @Test
     public void test_unsupported_architecture_throws() throws Exception {
         String original = System.getProperty("os.arch");
@@ -0,0 +1,242 @@
+package net.nullschool.util;
+
+import org.apache.commons.math3.distribution.*;
+import org.apache.commons.math3.stat.inference.ChiSquareTest;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static net.nullschool.util.DigitalRandomTest.mockInstance;
+import static org.junit.Assert.*;
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public class SamplerTest {
+
+    private static final int SAMPLES = 200000;
+    private static final double ALPHA = 0.0001;  // false failure rate of each goodness of fit check
+
+    /**
+     * Asserts that the samples fit the distribution, using the Kolmogorov-Smirnov statistic.
+     */
+    private static void assertFits(RealDistribution distribution, double[] samples) {
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        double d = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            double cdf = distribution.cumulativeProbability(sorted[i]);
+            d = Math.max(d, Math.max(cdf - i / (double)sorted.length, (i + 1) / (double)sorted.length - cdf));
+        }
+        double critical = Math.sqrt(-0.5 * Math.log(ALPHA / 2)) / Math.sqrt(sorted.length);
+        assertTrue("D = " + d + " exceeds " + critical, d < critical);
+    }
+
+    /**
+     * Asserts that the samples fit the distribution, using the chi-square test over each value expected at
+     * least 10 times, with the tails pooled into the lowest and highest bins.
+     */
+    private static void assertFits(IntegerDistribution distribution, int[] samples) {
+        int n = samples.length;
+        int low = distribution.getSupportLowerBound();
+        while (distribution.cumulativeProbability(low) * n < 10) {
+            low++;
+        }
+        int high = low + 1;
+        while ((1 - distribution.cumulativeProbability(high)) * n >= 10) {
+            high++;
+        }
+        double[] expected = new double[high - low + 1];
+        long[] observed = new long[expected.length];
+        for (int k = low; k <= high; k++) {
+            double p = k == low ? distribution.cumulativeProbability(k) :
+                k == high ? 1 - distribution.cumulativeProbability(k - 1) : distribution.probability(k);
+            expected[k - low] = p * n;
+        }
+        for (int k : samples) {
+            observed[Math.min(Math.max(k, low), high) - low]++;
+        }
+        double pValue = new ChiSquareTest().chiSquareTest(expected, observed);
+        assertTrue("p = " + pValue, pValue > ALPHA);
+    }
+
+    @Test
+    public void test_exponential_tables() {
+        assertEquals(ExponentialSampler.R, ExponentialSampler.X[1], 0);
+        for (int i = 1; i < ExponentialSampler.LAYERS; i++) {
+            // Each layer above the base is a rectangle of area V under the density exp(-x).
+            double area = ExponentialSampler.X[i] * (ExponentialSampler.F[i + 1] - ExponentialSampler.F[i]);
+            assertEquals(ExponentialSampler.V, area, 1e-9);
+        }
+    }
+
+    @Test
+    public void test_exponential() {
+        // The low 8 bits choose the Ziggurat layer, and the high 53 bits a point across it in [0, 1).
+        DoubleSampler sampler = DoubleSampler.exponential(mockInstance(1L << 63 | 5), 2);
+        assertEquals(ExponentialSampler.X[5], sampler.next(), 0);
+
+        double[] samples = new double[SAMPLES];
+        DoubleSampler.exponential(DigitalRandom.newInstance(), 2).fill(samples);
+        assertFits(new ExponentialDistribution(2), samples);
+    }
+
+    @Test
+    public void test_gamma() {
+        DigitalRandom random = DigitalRandom.newInstance();
+        for (double shape : new double[] {0.3, 1, 2.5, 40}) {
+            double[] samples = new double[SAMPLES];
+            DoubleSampler.gamma(random, shape, 3).fill(samples);
+            assertFits(new GammaDistribution(shape, 3), samples);
+        }
+        DoubleSampler sampler = DoubleSampler.gamma(random, 2.5, 3);
+        double[] samples = new double[SAMPLES / 10];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = sampler.next();
+        }
+        assertFits(new GammaDistribution(2.5, 3), samples);
+    }
+
+    @Test
+    public void test_poisson() {
+        DigitalRandom random = DigitalRandom.newInstance();
+        for (double mean : new double[] {0.1, 4, 9.99, 10, 37.5, 1e6}) {
+            int[] samples = new int[SAMPLES];
+            IntSampler.poisson(random, mean).fill(samples);
+            assertFits(new PoissonDistribution(mean), samples);
+        }
+        assertEquals(0, IntSampler.poisson(mockInstance(0), 3).next());
+    }
+
+    @Test
+    public void test_binomial() {
+        DigitalRandom random = DigitalRandom.newInstance();
+        int[][] cases = {{10, 30}, {100, 5}, {100, 50}, {1000, 99}, {200000, 30}};
+        for (int[] c : cases) {
+            double p = c[1] / 100.0;
+            int[] samples = new int[SAMPLES];
+            IntSampler.binomial(random, c[0], p).fill(samples);
+            assertFits(new BinomialDistribution(c[0], p), samples);
+        }
+        assertEquals(0, IntSampler.binomial(random, 50, 0).next());
+        assertEquals(50, IntSampler.binomial(random, 50, 1).next());
+        assertEquals(0, IntSampler.binomial(random, 0, 0.5).next());
+    }
+
+    @Test
+    public void test_weighted() {
+        // Weights {1, 3} give column 0 a threshold of 1/2 with alias 1, and column 1 a threshold of 1.
+        // The high 32 bits of each word choose the column, and the low 32 bits are compared with its threshold.
+        WeightedSampler sampler = IntSampler.weighted(mockInstance(0, 0x7fffffffL, 0x80000000L, -1), 1, 3);
+        assertEquals(0, sampler.next());
+        assertEquals(0, sampler.next());
+        assertEquals(1, sampler.next());
+        assertEquals(1, sampler.next());
+        assertEquals(0.25, sampler.probability(0), 0);
+        assertEquals(0.75, sampler.probability(1), 0);
+
+        double[] weights = {0, 1, 2, 3, 4.5, 0.25, 7};
+        sampler = IntSampler.weighted(DigitalRandom.newInstance(), weights);
+        assertEquals(7, sampler.size());
+        int[] samples = new int[SAMPLES];
+        sampler.fill(samples);
+        long[] observed = new long[weights.length];
+        for (int i : samples) {
+            observed[i]++;
+        }
+        assertEquals(0, observed[0]);
+        double[] expected = new double[weights.length - 1];
+        for (int i = 1; i < weights.length; i++) {
+            expected[i - 1] = weights[i] / 17.75 * SAMPLES;
+            assertEquals(weights[i] / 17.75, sampler.probability(i), 1e-9);
+        }
+        double p = new ChiSquareTest().chiSquareTest(expected, Arrays.copyOfRange(observed, 1, weights.length));
+        assertTrue("p = " + p, p > ALPHA);
+
+        WeightedSampler reweighted = sampler.reweight(0, 0, 5);
+        assertEquals(3, reweighted.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(2, reweighted.next());
+        }
+        assertEquals(0, sampler.probability(0), 0);  // the original is unchanged
+    }
+
+    @Test
+    public void test_weighted_bad_weights_throw() {
+        double[][] cases = {
+            {}, {-1, 2}, {1, Double.NaN}, {Double.POSITIVE_INFINITY}, {0, 0}, {Double.MAX_VALUE, Double.MAX_VALUE}};
+        for (double[] weights : cases) {
+            try {
+                IntSampler.weighted(random(), weights);
+                fail();
+            }
+            catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void test_log_factorial() {
+        double expected = 0;
+        for (int k = 1; k < 200; k++) {
+            expected += Math.log(k);
+            assertEquals(expected, IntSampler.logFactorial(k), 1e-12 * expected);
+        }
+    }
+
+    @Test
+    public void test_fill_range() {
+        int[] ints = new int[RandomWords.BATCH_SIZE * 2 + 10];
+        Arrays.fill(ints, -1);
+        IntSampler.poisson(DigitalRandom.newInstance(), 100).fill(ints, 1, ints.length - 2);
+        assertEquals(-1, ints[0]);
+        assertEquals(-1, ints[ints.length - 1]);
+        for (int i = 1; i < ints.length - 1; i++) {
+            assertTrue(ints[i] >= 0);
+        }
+        double[] doubles = new double[10];
+        DoubleSampler.exponential(DigitalRandom.newInstance(), 1).fill(doubles, 1, 8);
+        assertEquals(0, doubles[0], 0);
+        assertEquals(0, doubles[9], 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_fill_throws() {
+        IntSampler.poisson(mockInstance(1), 1).fill(null);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_fill_bad_range_throws() {
+        DoubleSampler.exponential(mockInstance(1), 1).fill(new double[10], 5, 6);
+    }
+
+    @Test
+    public void test_bad_parameters_throw() {
+        Runnable[] cases = {
+            new Runnable() { @Override public void run() { DoubleSampler.exponential(null, 1); } },
+            new Runnable() { @Override public void run() { DoubleSampler.exponential(random(), 0); } },
+            new Runnable() { @Override public void run() { DoubleSampler.gamma(random(), Double.NaN, 1); } },
+            new Runnable() { @Override public void run() { DoubleSampler.gamma(random(), 1, -1); } },
+            new Runnable() { @Override public void run() { IntSampler.poisson(random(), 0); } },
+            new Runnable() { @Override public void run() { IntSampler.poisson(random(), 1e10); } },
+            new Runnable() { @Override public void run() { IntSampler.binomial(random(), -1, 0.5); } },
+            new Runnable() { @Override public void run() { IntSampler.binomial(random(), 10, 1.5); } },
+        };
+        for (Runnable c : cases) {
+            try {
+                c.run();
+                fail();
+            }
+            catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    private static DigitalRandom random() {
+        return mockInstance(1);
+    }
+}
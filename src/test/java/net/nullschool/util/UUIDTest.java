@@ -0,0 +1,110 @@
+package net.nullschool.util;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static net.nullschool.util.DigitalRandomTest.mockInstance;
+import static org.junit.Assert.*;
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public class UUIDTest {
+
+    @Test
+    public void test_format() {
+        DigitalRandom random = DigitalRandom.newInstance();
+        char[] chars = new char[UUIDFormat.LENGTH + 2];
+        byte[] bytes = new byte[UUIDFormat.LENGTH + 2];
+        for (int i = 0; i < 1000; i++) {
+            UUID uuid = i == 0 ? new UUID(0, 0) :
+                i == 1 ? new UUID(-1, -1) : new UUID(random.nextLong(), random.nextLong());
+            UUIDFormat.format(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), chars, 1);
+            UUIDFormat.format(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), bytes, 2);
+            assertEquals(uuid.toString(), new String(chars, 1, UUIDFormat.LENGTH));
+            assertEquals(uuid.toString(), new String(bytes, 2, UUIDFormat.LENGTH, StandardCharsets.US_ASCII));
+            UUIDFormat.format(uuid, chars, 0);
+            assertEquals(uuid.toString(), new String(chars, 0, UUIDFormat.LENGTH));
+        }
+        assertEquals(0, bytes[0]);
+        assertEquals(0, bytes[1]);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_format_bad_offset_throws() {
+        UUIDFormat.format(1, 2, new char[UUIDFormat.LENGTH + 1], 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_format_null_throws() {
+        UUIDFormat.format(1, 2, (byte[])null, 0);
+    }
+
+    @Test
+    public void test_v7_layout() {
+        UUIDv7Generator generator = new UUIDv7Generator(mockInstance(0x123, -1));
+        long before = System.currentTimeMillis();
+        UUID uuid = generator.next();
+        long after = System.currentTimeMillis();
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(before <= timestamp && timestamp <= after);
+        assertEquals(0x123, uuid.getMostSignificantBits() & 0xfff);  // the counter is seeded with 11 random bits
+        assertEquals(0xbfffffffffffffffL, uuid.getLeastSignificantBits());
+    }
+
+    @Test
+    public void test_v7_counter() {
+        UUIDv7Generator generator = new UUIDv7Generator(mockInstance(1));
+        assertEquals(1000L << 16 | 0x7000 | 0x7ff, generator.nextMsb(1000, -1));
+        assertEquals(1000L << 16 | 0x7800, generator.nextMsb(1000, 5));
+        assertEquals(1000L << 16 | 0x7801, generator.nextMsb(999, 5));  // the clock stepped backwards
+        assertEquals(1001L << 16 | 0x7005, generator.nextMsb(1001, 5));
+
+        long msb = 0;
+        for (int i = 5; i < 0xfff; i++) {
+            msb = generator.nextMsb(1001, 0);
+        }
+        assertEquals(1001L << 16 | 0x7fff, msb);
+        assertEquals(1002L << 16 | 0x7000, generator.nextMsb(1001, 0));  // the counter overflowed
+        assertEquals(1002L << 16 | 0x7001, generator.nextMsb(1001, 0));
+        assertEquals(1003L << 16 | 0x7009, generator.nextMsb(1003, 9));
+    }
+
+    @Test
+    public void test_v7_monotonic() {
+        UUIDv7Generator generator = new UUIDv7Generator(DigitalRandom.newInstance());
+        long[] pairs = new long[20000];
+        generator.next(pairs);
+        UUID previous = new UUID(0, 0);
+        for (int i = 0; i < pairs.length; i += 2) {
+            UUID uuid = new UUID(pairs[i], pairs[i + 1]);
+            assertEquals(7, uuid.version());
+            assertEquals(2, uuid.variant());
+            assertTrue(previous.toString().compareTo(uuid.toString()) < 0);
+            previous = uuid;
+        }
+        for (int i = 0; i < 10000; i++) {
+            UUID uuid = generator.next();
+            assertTrue(previous.toString().compareTo(uuid.toString()) < 0);
+            previous = uuid;
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_v7_odd_length_throws() {
+        new UUIDv7Generator(mockInstance(1)).next(new long[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_v7_null_random_throws() {
+        new UUIDv7Generator(null);
+    }
+}
@@ -0,0 +1,181 @@
+package net.nullschool.util;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.Assert.*;
+import static net.nullschool.util.UrandomEngine.*;
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public class UrandomEngineTest {
+
+    private static final int SAMPLE_SIZE = 1000;
+
+    /**
+     * Returns the number of zero bytes in the specified region of the array.
+     */
+    private static int zeroCount(byte[] bytes, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == 0) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Before
+    public void beforeMethod() {
+        Assume.assumeTrue("/dev/urandom not available.", Files.isReadable(URANDOM));
+    }
+
+    @Test
+    public void test_long_randomness() throws IOException {
+        // A blob of random samples should not be compressible.
+        UrandomEngine engine = new UrandomEngine();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(compressed))) {
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                out.writeLong(engine.engineNextLong());
+            }
+        }
+        assertTrue(
+            "Unexpected compressed size: " + compressed.size(),
+            compressed.size() > SAMPLE_SIZE * 8);
+    }
+
+    @Test
+    public void test_int_randomness() throws IOException {
+        // A blob of random samples should not be compressible.
+        UrandomEngine engine = new UrandomEngine();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(compressed))) {
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                out.writeInt(engine.engineNextInt());
+            }
+        }
+        assertTrue(
+            "Unexpected compressed size: " + compressed.size(),
+            compressed.size() > SAMPLE_SIZE * 4);
+    }
+
+    @Test
+    public void test_consumed_values_are_wiped() {
+        UrandomEngine engine = new UrandomEngine();
+        engine.engineNextLong();
+        Block block = blocks.get();
+
+        // Consume the rest of the block with a mix of values and bytes. Everything consumed is zero.
+        engine.engineNextInt();
+        engine.engineNextBytes(new byte[3]);
+        while (block.position <= BLOCK_SIZE - 8) {
+            engine.engineNextLong();
+        }
+        engine.engineNextBytes(new byte[BLOCK_SIZE - block.position]);
+        assertEquals(BLOCK_SIZE, block.position);
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            assertEquals(0, block.buffer.get(i));
+        }
+    }
+
+    @Test
+    public void test_next_bytes() {
+        UrandomEngine engine = new UrandomEngine();
+        // Larger than a block, so the fill spans several reads.
+        byte[] bytes = new byte[BLOCK_SIZE * 3 + 17];
+        engine.engineNextBytes(bytes);
+        assertTrue(zeroCount(bytes, 0, bytes.length) < bytes.length / 64);
+    }
+
+    @Test
+    public void test_next_bytes_range() {
+        UrandomEngine engine = new UrandomEngine();
+        byte[] bytes = new byte[100];
+        engine.engineNextBytes(bytes, 10, 80);
+        assertEquals(10, zeroCount(bytes, 0, 10));
+        assertTrue(zeroCount(bytes, 10, 90) < 8);
+        assertEquals(10, zeroCount(bytes, 90, 100));
+    }
+
+    @Test
+    public void test_next_bytes_direct_buffer() {
+        UrandomEngine engine = new UrandomEngine();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1000);
+        buffer.position(100).limit(900);
+        engine.engineNextBytes(buffer);
+        assertEquals(900, buffer.position());
+        byte[] bytes = new byte[1000];
+        buffer.clear();
+        buffer.get(bytes);
+        assertEquals(100, zeroCount(bytes, 0, 100));
+        assertTrue(zeroCount(bytes, 100, 900) < 16);
+        assertEquals(100, zeroCount(bytes, 900, 1000));
+    }
+
+    @Test
+    public void test_next_longs() {
+        UrandomEngine engine = new UrandomEngine();
+        long[] longs = new long[100];
+        engine.engineNextLongs(longs, 0, longs.length);
+        assertTrue(Arrays.toString(longs), longs[0] != 0 || longs[1] != 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_next_bytes_throws() {
+        new UrandomEngine().engineNextBytes((byte[])null);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_next_bytes_out_of_range_throws() {
+        new UrandomEngine().engineNextBytes(new byte[4], 2, 3);
+    }
+
+    @Test
+    public void test_generate_seed() {
+        byte[] seed = new UrandomEngine().engineGenerateSeed(64);
+        assertEquals(64, seed.length);
+        assertTrue(zeroCount(seed, 0, seed.length) < 8);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_set_seed_throws() {
+        new UrandomEngine().engineSetSeed(new byte[16]);
+    }
+
+    @Test
+    public void test_interrupted_read_does_not_break_channel() throws Exception {
+        final UrandomEngine engine = new UrandomEngine();
+        Thread.currentThread().interrupt();
+        try {
+            engine.engineNextBytes(ByteBuffer.allocateDirect(64));
+            assertTrue(Thread.currentThread().isInterrupted());
+        }
+        finally {
+            Thread.interrupted();
+        }
+        engine.engineNextBytes(ByteBuffer.allocateDirect(64));
+    }
+
+    @Test
+    public void test_software_instance() {
+        DigitalRandom random = DigitalRandom.newSoftwareInstance();
+        long[] longs = new long[2];
+        random.nextLongs(longs);
+        assertTrue(longs[0] != 0 || longs[1] != 0);
+        assertEquals(32, random.generateSeed(32).length);
+        assertNotNull(DigitalRandom.newInstance());
+    }
+}
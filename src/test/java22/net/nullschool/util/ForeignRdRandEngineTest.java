@@ -0,0 +1,226 @@
+package net.nullschool.util;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.*;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.lang.foreign.ValueLayout.*;
+import static org.junit.Assert.*;
+import static net.nullschool.util.ForeignRdRandEngine.*;
+
+/**
+ * 2026-10-16<p/>
+ *
+ * Requires Java 22 and {@code --enable-native-access=ALL-UNNAMED}, both provided by the java22 build profile.<p/>
+ *
+ * Released to the public domain: http://creativecommons.org/publicdomain/zero/1.0/
+ *
+ * @author Cameron Beccario
+ */
+public class ForeignRdRandEngineTest {
+
+    private static final int SAMPLE_SIZE = 1000;
+
+    @BeforeClass
+    public static void checkSupported() {
+        Assume.assumeTrue("RdRand not supported by this CPU.", RdRandEngine.linkAndCheckRdRandSupported());
+    }
+
+    private static int zeroCount(MemorySegment segment) {
+        int count = 0;
+        for (long i = 0; i < segment.byteSize(); i++) {
+            if (segment.get(JAVA_BYTE, i) == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void test_next_int_and_long() {
+        ForeignRdRandEngine engine = new ForeignRdRandEngine();
+        int[] ints = new int[SAMPLE_SIZE];
+        long[] longs = new long[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            ints[i] = engine.engineNextInt();
+            longs[i] = engine.engineNextLong();
+        }
+        assertTrue(Arrays.stream(ints).distinct().count() > SAMPLE_SIZE - 5);
+        assertEquals(SAMPLE_SIZE, Arrays.stream(longs).distinct().count());
+    }
+
+    @Test
+    public void test_next_bytes_range() {
+        ForeignRdRandEngine engine = new ForeignRdRandEngine();
+        byte[] bytes = new byte[SAMPLE_SIZE];
+        engine.engineNextBytes(bytes, 100, 800);
+        MemorySegment segment = MemorySegment.ofArray(bytes);
+        assertEquals(100, zeroCount(segment.asSlice(0, 100)));
+        assertTrue(zeroCount(segment.asSlice(100, 800)) < 20);
+        assertEquals(100, zeroCount(segment.asSlice(900, 100)));
+    }
+
+    @Test
+    public void test_next_ints_and_longs_range() {
+        ForeignRdRandEngine engine = new ForeignRdRandEngine();
+        int[] ints = new int[SAMPLE_SIZE];
+        engine.engineNextInts(ints, 1, SAMPLE_SIZE - 2);
+        assertEquals(0, ints[0]);
+        assertEquals(0, ints[SAMPLE_SIZE - 1]);
+        assertTrue(Arrays.stream(ints).distinct().count() > SAMPLE_SIZE - 5);
+
+        long[] longs = new long[SAMPLE_SIZE];
+        engine.engineNextLongs(longs, 1, SAMPLE_SIZE - 2);
+        assertEquals(0, longs[0]);
+        assertEquals(0, longs[SAMPLE_SIZE - 1]);
+        assertEquals(SAMPLE_SIZE - 1, Arrays.stream(longs).distinct().count());
+    }
+
+    @Test
+    public void test_next_doubles_and_floats() {
+        ForeignRdRandEngine engine = new ForeignRdRandEngine();
+        double[] doubles = new double[SAMPLE_SIZE * 2];  // larger than the scratch space
+        engine.engineNextDoubles(doubles, 0, doubles.length);
+        float[] floats = new float[SAMPLE_SIZE * 2];
+        engine.engineNextFloats(floats, 0, floats.length);
+        double sum = 0;
+        for (int i = 0; i < doubles.length; i++) {
+            assertTrue(doubles[i] >= 0 && doubles[i] < 1);
+            assertTrue(floats[i] >= 0 && floats[i] < 1);
+            sum += doubles[i];
+        }
+        assertEquals(0.5, sum / doubles.length, 0.05);
+    }
+
+    @Test
+    public void test_next_bytes_segment() {
+        ForeignRdRandEngine engine = new ForeignRdRandEngine();
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = arena.allocate(CHUNK_SIZE * 3 + 5);  // spans several downcalls
+            engine.engineNextBytes(segment);
+            assertTrue(zeroCount(segment) < segment.byteSize() / 128);
+        }
+    }
+
+    @Test
+    public void test_next_bytes_buffer() {
+        ForeignRdRandEngine engine = new ForeignRdRandEngine();
+        for (ByteBuffer buffer : new ByteBuffer[] {ByteBuffer.allocate(1024), ByteBuffer.allocateDirect(1024)}) {
+            buffer.position(16).limit(1008);
+            engine.engineNextBytes(buffer);
+            assertEquals(1008, buffer.position());
+            MemorySegment segment = MemorySegment.ofBuffer(buffer.clear());
+            assertEquals(16, zeroCount(segment.asSlice(0, 16)));
+            assertTrue(zeroCount(segment.asSlice(16, 992)) < 20);
+            assertEquals(16, zeroCount(segment.asSlice(1008, 16)));
+        }
+    }
+
+    @Test
+    public void test_digital_random_segments() {
+        DigitalRandom random = new DigitalRandom();
+        long[] longs = new long[SAMPLE_SIZE];
+        DigitalRandomSegments.nextBytes(random, MemorySegment.ofArray(longs).asSlice(8, (SAMPLE_SIZE - 2) * 8));
+        assertEquals(0, longs[0]);
+        assertEquals(0, longs[SAMPLE_SIZE - 1]);
+        assertEquals(SAMPLE_SIZE - 1, Arrays.stream(longs).distinct().count());
+
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = arena.allocate(SAMPLE_SIZE);
+            DigitalRandomSegments.nextBytes(random, segment);
+            assertTrue(zeroCount(segment) < 20);
+        }
+    }
+
+    @Test
+    public void test_fill_waiting() {
+        long[] longs = new long[SAMPLE_SIZE * 2];  // larger than the scratch space
+        fillWaiting(MemorySegment.ofArray(longs).asSlice(8, (longs.length - 2) * 8));
+        assertEquals(0, longs[0]);
+        assertEquals(0, longs[longs.length - 1]);
+        assertEquals(longs.length - 1, Arrays.stream(longs).distinct().count());
+
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = arena.allocate(SAMPLE_SIZE);
+            fillWaiting(segment);
+            assertTrue(zeroCount(segment) < 20);
+        }
+    }
+
+    @Test
+    public void test_yield_policy() throws Exception {
+        // Draw from every core with a policy that only yields, so any underflow is retried outside the critical
+        // downcalls. Every request must still be served.
+        ForeignRdRandEngine engine = new ForeignRdRandEngine();
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        RdRandEngine.setRetryPolicy(0, 0, 1000);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    byte[] bytes = new byte[CHUNK_SIZE + 5];
+                    long[] longs = new long[SAMPLE_SIZE];
+                    for (int i = 0; i < 50; i++) {
+                        engine.engineNextBytes(bytes);
+                        engine.engineNextLongs(longs, 0, longs.length);
+                        engine.engineNextInt();
+                        engine.engineNextLong();
+                    }
+                    assertTrue(zeroCount(MemorySegment.ofArray(bytes)) < bytes.length / 128);
+                    assertEquals(SAMPLE_SIZE, Arrays.stream(longs).distinct().count());
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            RdRandEngine.setRetryPolicy(9, 10, 0);
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_read_only_segment_throws() {
+        DigitalRandomSegments.nextBytes(new DigitalRandom(), MemorySegment.ofArray(new byte[16]).asReadOnly());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_segment_throws() {
+        new ForeignRdRandEngine().engineNextBytes((MemorySegment)null);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_bad_range_throws() {
+        new ForeignRdRandEngine().engineNextInts(new int[10], 5, 6);
+    }
+
+    @Test
+    public void test_default_engine() {
+        assertTrue(EngineTools.newRdRandEngine() instanceof ForeignRdRandEngine);
+    }
+
+    @Test
+    public void test_serializes_as_jni_engine() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new ForeignRdRandEngine());
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertTrue(in.readObject() instanceof RdRandEngine);
+        }
+    }
+}